@@ -0,0 +1,78 @@
+package com.genericsim.backend.benchmark;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.PolicyEngine;
+import com.genericsim.backend.policy.effects.CentralStorageTaxEffect;
+import com.genericsim.backend.policy.effects.StorageDecayEffect;
+
+import java.util.Random;
+
+/**
+ * In-memory tribes for the benchmarks, built the way the application builds them
+ * but without a database: every family gets an ID and every member a family.
+ */
+final class BenchmarkTribes {
+
+    private static final long SETUP_SEED = 7L;
+
+    private BenchmarkTribes() {
+    }
+
+    /**
+     * Build a tribe with a varied population in families of three, with family
+     * storage around what a family eats in a few ticks, so that sharing, borrowing
+     * and central storage all take part in a tick.
+     *
+     * @param memberCount the number of members
+     * @return the tribe
+     */
+    static Tribe build(int memberCount) {
+        Random setup = new Random(SETUP_SEED);
+        Tribe tribe = new Tribe("Benchmark", "Benchmark tribe");
+        tribe.setRandomSeed(42L);
+        tribe.setResources(new Resources(0, 0));
+        tribe.setCentralStorage(new Resources(memberCount * 10, memberCount * 10));
+
+        Policy policy = new Policy("Benchmark", "Benchmark policy", 10, 10, 0, 0);
+        policy.setSharingPriority(Policy.SharingPriority.ELDER);
+        policy.setEnableCentralStorage(true);
+        policy.setCentralStorageTaxRate(20);
+        policy.setStorageDecayInterval(7);
+        policy.setStorageDecayRate(0.2);
+        tribe.setPolicy(policy);
+
+        Person.PersonRole[] roles = Person.PersonRole.values();
+        for (int i = 0; i < memberCount; i++) {
+            Person person = new Person("Person " + i, roles[setup.nextInt(roles.length)],
+                setup.nextInt(75), 50 + setup.nextInt(51));
+            person.setHuntingSkill(setup.nextDouble());
+            person.setGatheringSkill(setup.nextDouble());
+            tribe.addMember(person);
+        }
+
+        int familyCount = Math.max(1, memberCount / 3);
+        for (int f = 0; f < familyCount; f++) {
+            Family family = new Family("Family " + f);
+            family.setId((long) f + 1);
+            family.setStorage(new Resources(setup.nextInt(60), setup.nextInt(60)));
+            tribe.addFamily(family);
+        }
+        int f = 0;
+        for (Person person : tribe.getMembers()) {
+            tribe.getFamilies().get(f++ % familyCount).addMember(person);
+        }
+        return tribe;
+    }
+
+    /**
+     * Register the effects the application registers.
+     */
+    static void registerDefaultEffects(PolicyEngine policyEngine) {
+        policyEngine.registerEffect(new CentralStorageTaxEffect());
+        policyEngine.registerEffect(new StorageDecayEffect());
+    }
+}
@@ -0,0 +1,124 @@
+package com.genericsim.backend.benchmark;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.service.FamilyService;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.SurplusMarket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FamilyService#borrowResources} for every family of a tribe in which half
+ * the families are empty and the other half have food to lend, as in the upkeep
+ * of a lean tick. The columnar variant the tick engine uses is measured against
+ * the entity variant it replaced, which sorts every family for each borrower and
+ * is therefore only run up to 1000 families.
+ *
+ * Each operation first puts the storage and bond level back, so every operation
+ * borrows the same way; the reset is a small part of the time measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BorrowBenchmark {
+
+    private static final long RANDOM_SEED = 11L;
+    private static final int LENDER_STORAGE = 200;
+    private static final int FOOD_NEEDED = 9;
+    private static final int WATER_NEEDED = 12;
+
+    private static final FamilyService FAMILY_SERVICE = new FamilyService(null);
+
+    @State(Scope.Thread)
+    public static class ColumnarTribe {
+
+        @Param({"100", "1000", "10000"})
+        private int families;
+
+        private Tribe tribe;
+        private PopulationStore store;
+
+        @Setup
+        public void setUp() {
+            tribe = BenchmarkTribes.build(families * 3);
+            store = PopulationStore.load(tribe);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EntityTribe {
+
+        @Param({"100", "1000"})
+        private int families;
+
+        private Tribe tribe;
+
+        @Setup
+        public void setUp() {
+            tribe = BenchmarkTribes.build(families * 3);
+        }
+    }
+
+    @Benchmark
+    public int columnar(ColumnarTribe state) {
+        PopulationStore store = state.store;
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            int storage = isLender(f) ? LENDER_STORAGE : 0;
+            store.setFamilyFood(f, storage);
+            store.setFamilyWater(f, storage);
+        }
+        state.tribe.setBondLevel(100);
+        Random random = new Random(RANDOM_SEED);
+
+        SurplusMarket market = SurplusMarket.open(store);
+        int borrowed = 0;
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            if (!isLender(f) && FAMILY_SERVICE.borrowResources(store, market, f, state.tribe, FOOD_NEEDED,
+                    WATER_NEEDED, random)) {
+                borrowed++;
+            }
+        }
+        return borrowed;
+    }
+
+    @Benchmark
+    public int entity(EntityTribe state) {
+        Tribe tribe = state.tribe;
+        for (int f = 0; f < tribe.getFamilies().size(); f++) {
+            int storage = isLender(f) ? LENDER_STORAGE : 0;
+            Family family = tribe.getFamilies().get(f);
+            family.getStorage().setFood(storage);
+            family.getStorage().setWater(storage);
+        }
+        tribe.setBondLevel(100);
+        Random random = new Random(RANDOM_SEED);
+
+        int borrowed = 0;
+        for (int f = 0; f < tribe.getFamilies().size(); f++) {
+            if (!isLender(f) && FAMILY_SERVICE.borrowResources(tribe.getFamilies().get(f), tribe, FOOD_NEEDED,
+                    WATER_NEEDED, random)) {
+                borrowed++;
+            }
+        }
+        return borrowed;
+    }
+
+    private static boolean isLender(int family) {
+        return family % 2 == 1;
+    }
+}
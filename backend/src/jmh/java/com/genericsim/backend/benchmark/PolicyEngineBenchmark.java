@@ -0,0 +1,109 @@
+package com.genericsim.backend.benchmark;
+
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.PolicyEffect;
+import com.genericsim.backend.policy.PolicyEngine;
+import com.genericsim.backend.policy.PolicyPhase;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.policy.effects.CentralStorageTaxEffect;
+import com.genericsim.backend.service.FamilyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PolicyEngine#executePhase} of the production phase with the central storage
+ * tax and, past the first, effects that do almost nothing, so the time measured
+ * above one effect is the engine's own cost per effect. Half of the light effects
+ * turn themselves down, as periodic effects do on most ticks.
+ *
+ * With {@code instrumented} every effect is timed with real Micrometer timers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyEngineBenchmark {
+
+    @Param({"1", "50"})
+    private int effects;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private final FamilyService familyService = new FamilyService(null);
+    private final Random random = new Random(5);
+    private PolicyEngine policyEngine;
+    private Tribe tribe;
+
+    @Setup
+    public void setUp() {
+        policyEngine = new PolicyEngine(instrumented ? new TickMeters(new SimpleMeterRegistry()) : TickMeters.NONE);
+        policyEngine.registerEffect(new CentralStorageTaxEffect());
+        for (int i = 1; i < effects; i++) {
+            policyEngine.registerEffect(new LightEffect(i));
+        }
+        tribe = BenchmarkTribes.build(60);
+    }
+
+    @Benchmark
+    public TickContext executePhase() {
+        // A fresh context, as each tick has, so applied effects do not pile up
+        TickContext context = new TickContext(tribe, familyService, random);
+        policyEngine.executePhase(PolicyPhase.PRODUCTION, context);
+        return context;
+    }
+
+    /**
+     * An effect that applies on every other priority and only bumps a counter.
+     */
+    private static final class LightEffect implements PolicyEffect {
+
+        private final int priority;
+        private long applied;
+
+        private LightEffect(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public PolicyPhase getPhase() {
+            return PolicyPhase.PRODUCTION;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean shouldApply(TickContext context) {
+            return priority % 2 == 0;
+        }
+
+        @Override
+        public void apply(TickContext context) {
+            applied++;
+        }
+
+        @Override
+        public String getName() {
+            return "Light" + priority;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.genericsim.backend.benchmark;
+
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.service.FamilyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FamilyService#applyStorageDecay} over the families of a tribe and its
+ * central storage. Storage runs down to 0 within an iteration, which does not
+ * change the work done.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageDecayBenchmark {
+
+    private static final double DECAY_RATE = 0.2;
+
+    @Param({"100", "10000"})
+    private int families;
+
+    private final FamilyService familyService = new FamilyService(null);
+    private Tribe tribe;
+
+    @Setup
+    public void setUp() {
+        tribe = BenchmarkTribes.build(families * 3);
+    }
+
+    @Benchmark
+    public Tribe applyStorageDecay() {
+        familyService.applyStorageDecay(tribe, DECAY_RATE);
+        return tribe;
+    }
+}
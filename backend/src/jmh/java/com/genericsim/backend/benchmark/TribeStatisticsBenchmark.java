@@ -0,0 +1,52 @@
+package com.genericsim.backend.benchmark;
+
+import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.model.Tribe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a {@link TribeStatisticsDTO}, from the tribe's kept aggregates and,
+ * for comparison, after rebuilding them from the member list as a tribe loaded
+ * without them would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TribeStatisticsBenchmark {
+
+    @Param({"6", "1000", "100000"})
+    private int members;
+
+    private Tribe tribe;
+
+    @Setup
+    public void setUp() {
+        tribe = BenchmarkTribes.build(members);
+    }
+
+    @Benchmark
+    public TribeStatisticsDTO fromAggregates() {
+        return new TribeStatisticsDTO(tribe);
+    }
+
+    @Benchmark
+    public TribeStatisticsDTO fromRebuiltAggregates() {
+        tribe.rebuildAggregates();
+        return new TribeStatisticsDTO(tribe);
+    }
+}
@@ -0,0 +1,23 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for serving tribe changes since a tick.
+ * Binds to application properties under the 'simulation.changes' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.changes")
+@Getter
+@Setter
+public class ChangeTrackingProperties {
+
+    /**
+     * Ticks of deaths kept per tribe; clients asking for changes since an older tick
+     * get the full tribe state instead
+     */
+    private long retainedTicks = 1000;
+}
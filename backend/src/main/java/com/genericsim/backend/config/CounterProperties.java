@@ -0,0 +1,27 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the per-tick simulation counters.
+ * Binds to application properties under the 'simulation.counters' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.counters")
+@Getter
+@Setter
+public class CounterProperties {
+
+    /**
+     * Ticks of counts kept per tribe
+     */
+    private int retainedTicks = 100;
+
+    /**
+     * Latest ticks that per-tick rates are averaged over
+     */
+    private int rateWindowTicks = 20;
+}
@@ -0,0 +1,29 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the tribe event streams.
+ * Binds to application properties under the 'simulation.events' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.events")
+@Getter
+@Setter
+public class EventStreamProperties {
+
+    /**
+     * Events queued per subscriber; a subscriber that falls further behind has its
+     * queue replaced by a single resync event
+     */
+    private int bufferSize = 64;
+
+    /**
+     * Milliseconds before a stream is closed; clients reconnect and resync.
+     * Zero or less keeps streams open until the client leaves
+     */
+    private long timeoutMs = 1_800_000;
+}
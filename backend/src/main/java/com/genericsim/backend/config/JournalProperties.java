@@ -0,0 +1,57 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the tick journal.
+ * Binds to application properties under the 'simulation.journal' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.journal")
+@Getter
+@Setter
+public class JournalProperties {
+
+    /**
+     * Record every tick and policy change in an append-only journal on disk
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory the journal segments are kept in
+     */
+    private String directory = "data/journal";
+
+    /**
+     * Size of a journal segment file in bytes; a larger segment is used for a
+     * record that does not fit
+     */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * Ticks after which a tribe's full state is journaled again, so that replay
+     * and rewinding start from a recent snapshot. Shorter intervals restore faster
+     * but take more space
+     */
+    private long snapshotIntervalTicks = 1000;
+
+    /**
+     * Full segments kept before the journal is compacted down to the records
+     * each tribe needs to be rewound over its retained ticks
+     */
+    private int compactAfterSegments = 8;
+
+    /**
+     * Ticks before each tribe's last journaled tick that compaction keeps, so the
+     * tribe can still be rewound to any of them
+     */
+    private long retainedTicks = 10000;
+
+    /**
+     * Rebuild tribes that are in the journal but not in the database on startup
+     */
+    private boolean recoverOnStartup = true;
+}
@@ -0,0 +1,60 @@
+package com.genericsim.backend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the per-tick tribe metric time series.
+ * Binds to application properties under the 'simulation.metrics' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.metrics")
+@Getter
+@Setter
+public class MetricsProperties {
+
+    /**
+     * Record tribe metrics after every tick
+     */
+    private boolean enabled = true;
+
+    /**
+     * Points per compressed chunk; chunks are dropped whole once they fall out of retention
+     */
+    private int chunkPoints = 1024;
+
+    /**
+     * Resolutions the metrics are kept at, each for its own retention
+     */
+    private List<Tier> tiers = new ArrayList<>(List.of(
+        new Tier(1, 20_000),
+        new Tier(100, 2_000_000),
+        new Tier(10_000, 0)));
+
+    /**
+     * One resolution of the metric time series.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+
+        /**
+         * Ticks per point; above 1, each point holds the minimum, maximum and average of its ticks
+         */
+        private long resolutionTicks = 1;
+
+        /**
+         * Ticks before a tribe's latest tick that are kept; 0 keeps everything
+         */
+        private long retentionTicks = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for how tribe state is persisted.
+ * Binds to application properties under the 'simulation.persistence' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.persistence")
+@Getter
+@Setter
+public class PersistenceProperties {
+
+    /**
+     * Keep ticked tribes in memory as the source of truth and write them to the
+     * database in periodic checkpoints instead of at the end of every tick
+     */
+    private boolean writeBehind = false;
+
+    /**
+     * Milliseconds between checkpoints of tribes changed in memory
+     */
+    private long checkpointIntervalMs = 5000;
+
+    /**
+     * Ticks a tribe may run ahead of its last checkpoint before it is
+     * checkpointed right away
+     */
+    private int maxDirtyTicks = 1000;
+
+    /**
+     * Rows per JDBC batch when tick results are written to the database
+     */
+    private int jdbcBatchSize = 1000;
+}
@@ -0,0 +1,23 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the tribe read model.
+ * Binds to application properties under the 'simulation.read-model' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.read-model")
+@Getter
+@Setter
+public class ReadModelProperties {
+
+    /**
+     * Serialized tribe snapshots kept in memory; the snapshots serialized longest ago
+     * are dropped first and serialized again when next read
+     */
+    private int maxSnapshots = 1000;
+}
@@ -0,0 +1,22 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the daily tick scheduler.
+ * Binds to application properties under the 'simulation.scheduler' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.scheduler")
+@Getter
+@Setter
+public class SchedulerProperties {
+
+    /**
+     * Number of worker threads used to tick tribes concurrently
+     */
+    private int workerThreads = 4;
+}
@@ -0,0 +1,32 @@
+package com.genericsim.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for processing a single tick.
+ * Binds to application properties under the 'simulation.tick' prefix.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "simulation.tick")
+@Getter
+@Setter
+public class TickProperties {
+
+    /**
+     * Number of fork-join workers used for per-family phases; 0 uses one per available processor
+     */
+    private int parallelism = 0;
+
+    /**
+     * Minimum number of families before per-family phases run in parallel
+     */
+    private int parallelThreshold = 256;
+
+    /**
+     * One in this many ticks is timed by the tick timers, at random; 1 times every tick
+     */
+    private int timerSampleInterval = 32;
+}
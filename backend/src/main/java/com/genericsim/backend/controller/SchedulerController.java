@@ -0,0 +1,51 @@
+package com.genericsim.backend.controller;
+
+import com.genericsim.backend.persistence.CheckpointBacklog;
+import com.genericsim.backend.persistence.WriteBehindTribeCache;
+import com.genericsim.backend.scheduler.TickRunReport;
+import com.genericsim.backend.scheduler.TribeScheduler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller exposing the status of the daily tick scheduler
+ * and of the write-behind checkpointer.
+ */
+@RestController
+@RequestMapping("/api/scheduler")
+public class SchedulerController {
+
+    private final TribeScheduler tribeScheduler;
+    private final WriteBehindTribeCache hotTribes;
+
+    public SchedulerController(TribeScheduler tribeScheduler, WriteBehindTribeCache hotTribes) {
+        this.tribeScheduler = tribeScheduler;
+        this.hotTribes = hotTribes;
+    }
+
+    /**
+     * Get the completion report of the most recent scheduled run.
+     * 
+     * @return ResponseEntity with the report, or 204 if no run has completed yet
+     */
+    @GetMapping("/last-run")
+    public ResponseEntity<TickRunReport> getLastRun() {
+        TickRunReport report = tribeScheduler.getLastReport();
+        if (report == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Get the tribe changes held in memory that are not yet checkpointed to the database.
+     * 
+     * @return ResponseEntity with the checkpoint backlog
+     */
+    @GetMapping("/checkpoints")
+    public ResponseEntity<CheckpointBacklog> getCheckpointBacklog() {
+        return ResponseEntity.ok(hotTribes.getBacklog());
+    }
+}
@@ -1,15 +1,37 @@
 package com.genericsim.backend.controller;
 
 import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TickBatchDTO;
+import com.genericsim.backend.dto.TribeChangesDTO;
 import com.genericsim.backend.dto.TribeStateDTO;
-import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.dto.TribeSummaryFilterDTO;
+import com.genericsim.backend.dto.TribeSummaryPageDTO;
+import com.genericsim.backend.dto.WorldGenerationDTO;
+import com.genericsim.backend.dto.WorldGenerationRequestDTO;
 import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.readmodel.TribeEventStream;
+import com.genericsim.backend.readmodel.TribeSnapshot;
+import com.genericsim.backend.repository.TribeSummarySort;
+import com.genericsim.backend.service.TribeExportService;
 import com.genericsim.backend.service.TribeService;
+import com.genericsim.backend.service.TribeSizeDistribution;
+import com.genericsim.backend.service.WorldGenerationService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST Controller for managing hunter-gatherer tribes.
@@ -19,26 +41,87 @@ import java.util.Map;
 @RequestMapping("/api/tribes")
 public class TribeController {
 
+    /**
+     * Upper bound on the number of ticks processed by a single batch request.
+     */
+    static final int MAX_BATCH_TICKS = 100_000;
+
+    /**
+     * Upper bound on the number of tribes in one page of the tribe listing.
+     */
+    static final int MAX_SUMMARY_PAGE = 500;
+
+    /**
+     * Upper bound on the number of tribes generated by one request.
+     */
+    static final int MAX_GENERATED_TRIBES = 10_000;
+
+    /**
+     * Upper bound on the members one generation request may create: its number of
+     * tribes times their largest size.
+     */
+    static final long MAX_GENERATED_MEMBERS = 10_000_000;
+
     private final TribeService tribeService;
+    private final TribeEventStream events;
+    private final TribeExportService tribeExportService;
+    private final WorldGenerationService worldGenerationService;
 
-    public TribeController(TribeService tribeService) {
+    public TribeController(TribeService tribeService, TribeEventStream events,
+                           TribeExportService tribeExportService, WorldGenerationService worldGenerationService) {
         this.tribeService = tribeService;
+        this.events = events;
+        this.tribeExportService = tribeExportService;
+        this.worldGenerationService = worldGenerationService;
     }
 
     /**
      * Create a new tribe with default resources, policies, and initial members.
      * 
-     * @param request contains name and description for the tribe
-     * @return ResponseEntity with the created tribe's state
+     * @param request contains name and description for the tribe, and an optional
+     *                numeric seed to make the tribe's simulation reproducible
+     * @return ResponseEntity with the created tribe's state, or 400 if the seed is not a number
      */
     @PostMapping
     public ResponseEntity<TribeStateDTO> createTribe(@RequestBody Map<String, String> request) {
         String name = request.get("name");
         String description = request.get("description");
-        Tribe tribe = tribeService.createTribe(name, description);
+        Long seed = null;
+        if (request.get("seed") != null) {
+            try {
+                seed = Long.valueOf(request.get("seed"));
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        Tribe tribe = tribeService.createTribe(name, description, seed);
         return ResponseEntity.ok(tribeService.getTribeState(tribe.getId()));
     }
 
+    /**
+     * Generate a world of synthetic tribes in one go, e.g. for load tests: tribes
+     * with the default resources and policy and realistic members and families,
+     * inserted with JDBC batches.
+     * 
+     * @param request the number of tribes, their size range and distribution, the
+     *                world seed and the prefix of the tribe names
+     * @return ResponseEntity with the new tribes' listing rows and the seed, or 400 if
+     *         the distribution is unknown, a count is out of range or the request
+     *         could create more than 10000000 members
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<WorldGenerationDTO> generateWorld(@RequestBody WorldGenerationRequestDTO request) {
+        Optional<TribeSizeDistribution> distribution = TribeSizeDistribution.fromName(request.getSizeDistribution());
+        if (distribution.isEmpty() || request.getTribes() < 1 || request.getTribes() > MAX_GENERATED_TRIBES
+                || request.getMinMembers() < 1 || request.getMaxMembers() < request.getMinMembers()
+                || (long) request.getTribes() * request.getMaxMembers() > MAX_GENERATED_MEMBERS
+                || request.getNamePrefix() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(worldGenerationService.generateWorld(request.getTribes(), request.getMinMembers(),
+            request.getMaxMembers(), distribution.get(), request.getSeed(), request.getNamePrefix()));
+    }
+
     /**
      * Get all tribes in the system.
      * 
@@ -49,56 +132,230 @@ public class TribeController {
         return ResponseEntity.ok(tribeService.getAllTribes());
     }
 
+    /**
+     * List tribes one page at a time, with the values shown in tribe pickers.
+     * Pages are keyset-paginated: pass the {@code nextCursor} of a page as
+     * {@code after}, with the same sort, direction and filters, to get the next one.
+     * Filters are given as query parameters, e.g. {@code name=north&minPopulation=10}.
+     * 
+     * @param sort the property to sort by: tribeId, tribeName, currentTick, population, food, water or bondLevel
+     * @param direction asc or desc
+     * @param after the cursor of the previous page
+     * @param limit the maximum number of tribes per page (1 to 500)
+     * @param filter optional bounds on the listed values
+     * @return ResponseEntity with the page, or 400 for an unknown sort, direction, limit or cursor
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<TribeSummaryPageDTO> getTribeSummaries(
+            @RequestParam(defaultValue = "tribeId") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            TribeSummaryFilterDTO filter) {
+        Optional<TribeSummarySort> order = TribeSummarySort.fromProperty(sort);
+        boolean descending = direction.equalsIgnoreCase("desc");
+        if (order.isEmpty() || (!descending && !direction.equalsIgnoreCase("asc"))
+                || limit < 1 || limit > MAX_SUMMARY_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(tribeService.getTribeSummaries(filter, order.get(), descending, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get the current state of a specific tribe.
      * Includes full details: members, resources, and policy.
+     * Served from the latest snapshot, with an ETag that changes with every tick
+     * or change, so a matching {@code If-None-Match} gets 304 Not Modified.
      * 
      * @param id the tribe ID
-     * @return ResponseEntity with the tribe's current state
+     * @param request the request, checked for {@code If-None-Match}
+     * @return ResponseEntity with the tribe's current state as JSON, or 304 if unchanged
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TribeStateDTO> getTribeState(@PathVariable Long id) {
-        return ResponseEntity.ok(tribeService.getTribeState(id));
+    public ResponseEntity<byte[]> getTribeState(@PathVariable Long id, WebRequest request) {
+        TribeSnapshot snapshot = tribeService.getTribeSnapshot(id);
+        return snapshotResponse(snapshot, snapshot.state(), request);
     }
 
     /**
      * Get aggregated statistics for a tribe.
      * Provides frontend-friendly summary including population counts,
      * role breakdown, health statistics, and resource status.
+     * Served from the latest snapshot, with the same ETag handling as the tribe state.
      * 
      * @param id the tribe ID
-     * @return ResponseEntity with tribe statistics
+     * @param request the request, checked for {@code If-None-Match}
+     * @return ResponseEntity with tribe statistics as JSON, or 304 if unchanged
      */
     @GetMapping("/{id}/statistics")
-    public ResponseEntity<TribeStatisticsDTO> getTribeStatistics(@PathVariable Long id) {
-        return ResponseEntity.ok(tribeService.getTribeStatistics(id));
+    public ResponseEntity<byte[]> getTribeStatistics(@PathVariable Long id, WebRequest request) {
+        TribeSnapshot snapshot = tribeService.getTribeSnapshot(id);
+        return snapshotResponse(snapshot, snapshot.statistics(), request);
+    }
+
+    private ResponseEntity<byte[]> snapshotResponse(TribeSnapshot snapshot, byte[] json, WebRequest request) {
+        if (request.checkNotModified(snapshot.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(snapshot.getETag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(json);
+    }
+
+    /**
+     * Get what changed in a tribe after a tick.
+     * Returns only the persons and families changed since then, the IDs of the dead,
+     * the scalar tribe fields and the policy if it was updated. If the changes are not
+     * known that far back, the full tribe state is returned with {@code fullSnapshot} set.
+     * 
+     * @param id the tribe ID
+     * @param sinceTick the last tick the client has seen
+     * @return ResponseEntity with the changes, or 400 if the tick is negative
+     */
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<TribeChangesDTO> getTribeChanges(@PathVariable Long id, @RequestParam long sinceTick) {
+        if (sinceTick < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tribeService.getTribeChanges(id, sinceTick));
+    }
+
+    /**
+     * Stream the changes to a tribe as server-sent events.
+     * Sends a {@code delta} event after every tick or policy update, with the changed
+     * persons and families, the IDs of those who died and the new statistics. A
+     * {@code resync} event means events were dropped because the client fell behind;
+     * the client should reload the tribe state and continue with the next delta.
+     * 
+     * @param id the tribe ID
+     * @return the event stream
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTribeEvents(@PathVariable Long id) {
+        tribeService.getTribeSnapshot(id);
+        return events.subscribe(id);
+    }
+
+    /**
+     * Stream the changes to every tribe as server-sent events.
+     * Same events as {@link #streamTribeEvents(Long)}, for all tribes.
+     * 
+     * @return the event stream
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAllTribeEvents() {
+        return events.subscribeAll();
+    }
+
+    /**
+     * Download a tribe in the binary tribe export format.
+     * Covers everything needed to recreate the tribe: members, families, storage,
+     * policy, technologies, tick, progress points and random seed. The export is
+     * streamed as it is read from the database.
+     * 
+     * @param id the tribe ID
+     * @param compress whether to Deflate compress the export
+     * @return ResponseEntity streaming the export
+     */
+    @GetMapping(value = "/{id}/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTribe(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "true") boolean compress) {
+        tribeExportService.prepareExport(id);
+        StreamingResponseBody body = out -> tribeExportService.exportTribe(id, out, compress);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("tribe-" + id + ".tribe").build().toString())
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(body);
+    }
+
+    /**
+     * Create a new tribe from an export, read as it is uploaded.
+     * 
+     * @param body the export, as the request body
+     * @param name optional name for the new tribe; the exported name is kept otherwise
+     * @return ResponseEntity with the new tribe's listing row, or 400 if the export cannot be read
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<TribeSummaryDTO> importTribe(
+            InputStream body,
+            @RequestParam(required = false) String name) {
+        try {
+            return ResponseEntity.ok(tribeExportService.importTribe(body, name));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Create a copy of a tribe. The copy has the same random seed, so it evolves
+     * exactly like the original until either of them is changed.
+     * 
+     * @param id the ID of the tribe to copy
+     * @param name optional name for the copy; the original name is kept otherwise
+     * @return ResponseEntity with the copy's listing row
+     */
+    @PostMapping("/{id}/clone")
+    public ResponseEntity<TribeSummaryDTO> cloneTribe(
+            @PathVariable Long id,
+            @RequestParam(required = false) String name) {
+        return ResponseEntity.ok(tribeExportService.cloneTribe(id, name));
     }
 
     /**
      * Update the policy settings for a tribe.
      * Allows modification of tax rates and incentives.
      * Only provided values will be updated (partial updates supported).
+     * Policy effects are enabled, disabled or moved within their phase for this tribe
+     * through {@code effects}, by effect name; the change applies from the next tick.
      * 
      * @param id the tribe ID
      * @param policyUpdate the policy parameters to update
-     * @return ResponseEntity with updated tribe state
+     * @return ResponseEntity with updated tribe state, or 400 if an effect setting
+     *         names no registered effect
      */
     @PutMapping("/{id}/policy")
     public ResponseEntity<TribeStateDTO> updateTribePolicy(
             @PathVariable Long id,
             @RequestBody PolicyUpdateDTO policyUpdate) {
-        return ResponseEntity.ok(tribeService.updateTribePolicy(id, policyUpdate));
+        try {
+            return ResponseEntity.ok(tribeService.updateTribePolicy(id, policyUpdate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Advance the simulation by one day (tick) for a tribe.
      * Processes resource gathering, consumption, health updates, and aging.
      * 
+     * When {@code count} is given, that many ticks are processed in a single
+     * transaction and a {@link TickBatchDTO} is returned instead. With
+     * {@code summary=true} the batch contains one summary row per tick rather
+     * than the final tribe state.
+     * 
      * @param id the tribe ID
-     * @return ResponseEntity with updated tribe state after tick processing
+     * @param count optional number of ticks to process (1 to 100000)
+     * @param summary whether to return per-tick summary rows for a batch
+     * @return ResponseEntity with updated tribe state, or the batch result when count is given
      */
     @PostMapping("/{id}/tick")
-    public ResponseEntity<TribeStateDTO> processTick(@PathVariable Long id) {
-        return ResponseEntity.ok(tribeService.processTick(id));
+    public ResponseEntity<?> processTick(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer count,
+            @RequestParam(defaultValue = "false") boolean summary) {
+        if (count == null) {
+            return ResponseEntity.ok(tribeService.processTick(id));
+        }
+        if (count < 1 || count > MAX_BATCH_TICKS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tribeService.processTicks(id, count, summary));
     }
 }
@@ -0,0 +1,104 @@
+package com.genericsim.backend.controller;
+
+import com.genericsim.backend.dto.JournalEntryDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.service.TribeHistoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing the journaled history of tribes: their tick journal,
+ * their state at past ticks, and restoring them from a past tick.
+ */
+@RestController
+@RequestMapping("/api/tribes")
+public class TribeHistoryController {
+
+    /**
+     * Upper bound on the number of entries in one page of a tribe's journal.
+     */
+    static final int MAX_JOURNAL_PAGE = 10_000;
+
+    private final TribeHistoryService tribeHistoryService;
+
+    public TribeHistoryController(TribeHistoryService tribeHistoryService) {
+        this.tribeHistoryService = tribeHistoryService;
+    }
+
+    /**
+     * Get the tick journal of a tribe from its latest snapshot at or before a tick:
+     * the ticks with their seed, policy version, deaths, applied policy effects and
+     * resource transfers, the skipped stretches and the policy changes.
+     * Requires {@code simulation.journal.enabled}.
+     * 
+     * @param id the tribe ID
+     * @param fromTick the earliest tick to include
+     * @param limit the maximum number of entries (1 to 10000)
+     * @return ResponseEntity with the entries in journal order, or 400 if the limit is out of range
+     */
+    @GetMapping("/{id}/journal")
+    public ResponseEntity<List<JournalEntryDTO>> getTribeJournal(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") long fromTick,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_JOURNAL_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tribeHistoryService.getJournal(id, fromTick, limit));
+    }
+
+    /**
+     * Get a tribe as it was right after a past tick was simulated, rebuilt from the
+     * nearest journaled snapshot by re-running the ticks after it. Changes made at
+     * that tick, such as a new policy, are not included. The state is a read-only
+     * view: its members and families have no IDs.
+     * Requires {@code simulation.journal.enabled}.
+     * 
+     * @param id the tribe ID
+     * @param tick the tick
+     * @return ResponseEntity with the tribe state at the tick, or 400 if the tick is
+     *         not in the tribe's journaled history
+     */
+    @GetMapping("/{id}/history/{tick}")
+    public ResponseEntity<TribeStateDTO> getTribeAtTick(
+            @PathVariable Long id,
+            @PathVariable long tick) {
+        try {
+            return ResponseEntity.ok(tribeHistoryService.getTribeAt(id, tick));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Create a new tribe from a tribe as it was right after a past tick was simulated,
+     * e.g. to undo a policy change made at that tick. The new tribe has the same random
+     * seed, so it evolves exactly like the original did from that tick.
+     * Requires {@code simulation.journal.enabled}.
+     * 
+     * @param id the tribe ID
+     * @param tick the tick to restore
+     * @param name optional name for the new tribe; the original name is kept otherwise
+     * @return ResponseEntity with the new tribe's listing row, or 400 if the tick is
+     *         not in the tribe's journaled history
+     */
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<TribeSummaryDTO> restoreTribe(
+            @PathVariable Long id,
+            @RequestParam long tick,
+            @RequestParam(required = false) String name) {
+        try {
+            return ResponseEntity.ok(tribeHistoryService.restoreTribe(id, tick, name));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
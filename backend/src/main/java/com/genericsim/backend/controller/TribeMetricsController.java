@@ -0,0 +1,101 @@
+package com.genericsim.backend.controller;
+
+import com.genericsim.backend.dto.TribeCountersDTO;
+import com.genericsim.backend.dto.TribeMetricSeriesDTO;
+import com.genericsim.backend.metrics.Downsampling;
+import com.genericsim.backend.metrics.TribeMetric;
+import com.genericsim.backend.service.TribeMetricsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+/**
+ * REST Controller exposing what has been recorded about the ticks of tribes since
+ * startup: their per-tick metrics and the simulation events counted in them.
+ */
+@RestController
+@RequestMapping("/api/tribes")
+public class TribeMetricsController {
+
+    /**
+     * Upper bound on the number of points in one metric query.
+     */
+    static final int MAX_METRIC_POINTS = 10_000;
+
+    /**
+     * Upper bound on the number of ticks of counts in one request.
+     */
+    static final int MAX_COUNTER_TICKS = 10_000;
+
+    private final TribeMetricsService tribeMetricsService;
+
+    public TribeMetricsController(TribeMetricsService tribeMetricsService) {
+        this.tribeMetricsService = tribeMetricsService;
+    }
+
+    /**
+     * Get a range of one of a tribe's per-tick metrics, for charting: population, food,
+     * water, centralFood, centralWater, bondLevel or progressPoints. The points are read
+     * from the coarsest stored resolution that still has enough of them for the range,
+     * and reduced to at most {@code points} by bucketing them into the minimum, maximum
+     * and average ({@code min_max_avg}), or by picking the ones that keep the shape of
+     * the line ({@code lttb}). Metrics are recorded from the first tick after startup,
+     * so a tribe not ticked since has no points.
+     * Requires {@code simulation.metrics.enabled}.
+     *
+     * @param id the tribe ID
+     * @param metric the metric name
+     * @param fromTick the first tick of the range
+     * @param toTick the last tick of the range; the latest recorded tick by default
+     * @param points the most points to return (3 to 10000)
+     * @param downsampling min_max_avg or lttb
+     * @return ResponseEntity with the points, 400 if the metric or downsampling is
+     *         unknown, the range is empty or the number of points is out of range,
+     *         or 404 if the tribe is not found
+     */
+    @GetMapping("/{id}/metrics/{metric}")
+    public ResponseEntity<TribeMetricSeriesDTO> getTribeMetric(
+            @PathVariable Long id,
+            @PathVariable String metric,
+            @RequestParam(defaultValue = "0") long fromTick,
+            @RequestParam(required = false) Long toTick,
+            @RequestParam(defaultValue = "500") int points,
+            @RequestParam(defaultValue = "min_max_avg") String downsampling) {
+        Optional<TribeMetric> tribeMetric = TribeMetric.fromProperty(metric);
+        Optional<Downsampling> method = Downsampling.fromName(downsampling);
+        if (tribeMetric.isEmpty() || method.isEmpty() || fromTick < 0 || (toTick != null && toTick < fromTick)
+                || points < Downsampling.MIN_POINTS || points > MAX_METRIC_POINTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.of(tribeMetricsService.getMetric(id, tribeMetric.get(), fromTick, toTick, points,
+            method.get()));
+    }
+
+    /**
+     * Get the simulation events counted in a tribe's latest ticks: families short of
+     * food or water, shortfalls covered by borrowing or from central storage, failed
+     * borrowing, members made to suffer, deaths and the central storage tax collected,
+     * with their average per tick over {@code simulation.counters.rate-window-ticks}.
+     * Counts are kept for the last {@code simulation.counters.retained-ticks} ticks
+     * processed since startup, so a tribe not ticked since has none.
+     *
+     * @param id the tribe ID
+     * @param ticks the most ticks to return (0 to 10000)
+     * @return ResponseEntity with the counts, 400 if the number of ticks is out of range,
+     *         or 404 if the tribe is not found
+     */
+    @GetMapping("/{id}/counters")
+    public ResponseEntity<TribeCountersDTO> getTribeCounters(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "100") int ticks) {
+        if (ticks < 0 || ticks > MAX_COUNTER_TICKS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.of(tribeMetricsService.getCounters(id, ticks));
+    }
+}
@@ -0,0 +1,52 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.model.EffectSettings;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for how a tribe runs one policy effect.
+ * A null field means the effect's default: enabled, at its own priority.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class EffectSettingDTO {
+    private Boolean enabled;
+    private Integer priority;
+
+    public EffectSettingDTO(EffectSettings.Setting setting) {
+        this.enabled = setting.enabled();
+        this.priority = setting.priority();
+    }
+
+    public EffectSettings.Setting toSetting() {
+        return new EffectSettings.Setting(enabled == null || enabled, priority);
+    }
+
+    /**
+     * @return the settings by effect name, in name order
+     */
+    public static Map<String, EffectSettingDTO> fromSettings(EffectSettings settings) {
+        Map<String, EffectSettingDTO> effects = new LinkedHashMap<>();
+        settings.asMap().forEach((effect, setting) -> effects.put(effect, new EffectSettingDTO(setting)));
+        return effects;
+    }
+
+    /**
+     * @throws IllegalArgumentException if an effect name is not valid (see {@link EffectSettings#of})
+     */
+    public static EffectSettings toSettings(Map<String, EffectSettingDTO> effects) {
+        Map<String, EffectSettings.Setting> settings = new LinkedHashMap<>();
+        effects.forEach((effect, setting) -> settings.put(effect, setting.toSetting()));
+        return EffectSettings.of(settings);
+    }
+}
@@ -0,0 +1,57 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.journal.JournalRecord;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.simulation.ResourceTransfer;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one record of a tribe's tick journal.
+ * Fields that the record type does not have are null.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class JournalEntryDTO {
+    /**
+     * SNAPSHOT, TICK, SKIP or POLICY_CHANGE
+     */
+    private String type;
+    private long tick;
+    /**
+     * The tick a skip started from
+     */
+    private Long fromTick;
+    private Long policyVersion;
+    private Integer deaths;
+    private List<TickContext.AppliedEffect> effects;
+    private List<ResourceTransfer> transfers;
+    private TribeStateDTO.PolicyDTO policy;
+
+    public JournalEntryDTO(JournalRecord record) {
+        this.tick = record.tick();
+        if (record instanceof JournalRecord.Snapshot snapshot) {
+            this.type = "SNAPSHOT";
+            this.policyVersion = snapshot.policyVersion();
+        } else if (record instanceof JournalRecord.Tick tick) {
+            this.type = "TICK";
+            this.policyVersion = tick.policyVersion();
+            this.deaths = tick.deaths();
+            this.effects = tick.effects();
+            this.transfers = tick.transfers();
+        } else if (record instanceof JournalRecord.Skip skip) {
+            this.type = "SKIP";
+            this.fromTick = skip.fromTick();
+        } else if (record instanceof JournalRecord.PolicyChange change) {
+            this.type = "POLICY_CHANGE";
+            this.policyVersion = change.policyVersion();
+            this.policy = change.policy();
+        } else {
+            this.type = "RETIRE";
+        }
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.Map;
+
 /**
  * Data Transfer Object for updating tribe policy.
  * Contains the policy parameters that can be modified.
@@ -24,6 +26,11 @@ public class PolicyUpdateDTO {
     private Double storageDecayRate;
     private Integer storageDecayInterval;
     
+    /**
+     * Effect settings to replace, by effect name; other effects keep theirs
+     */
+    private Map<String, EffectSettingDTO> effects;
+    
     public PolicyUpdateDTO(Integer foodTaxRate, Integer waterTaxRate, 
                            Integer huntingIncentive, Integer gatheringIncentive) {
         this.foodTaxRate = foodTaxRate;
@@ -0,0 +1,64 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.model.Tribe;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of processing several ticks in one request.
+ * Carries either the final tribe state or one compact summary row per tick.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TickBatchDTO {
+    private Long tribeId;
+    private long startTick;
+    private long endTick;
+    private int ticksProcessed;
+
+    /**
+     * Full tribe state after the last tick; omitted when summaries were requested
+     */
+    private TribeStateDTO finalState;
+
+    /**
+     * One row per processed tick; only present when summaries were requested
+     */
+    private List<TickSummaryDTO> ticks;
+
+    /**
+     * Summary of the tribe at the end of a single tick
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class TickSummaryDTO {
+        private long tick;
+        private int population;
+        private int deaths;
+        private int food;
+        private int water;
+        private int centralFood;
+        private int centralWater;
+        private int bondLevel;
+        private int progressPoints;
+
+        public TickSummaryDTO(Tribe tribe, int population, int deaths) {
+            this.tick = tribe.getCurrentTick();
+            this.population = population;
+            this.deaths = deaths;
+            this.food = tribe.getResources().getFood();
+            this.water = tribe.getResources().getWater();
+            if (tribe.getCentralStorage() != null) {
+                this.centralFood = tribe.getCentralStorage().getFood();
+                this.centralWater = tribe.getCentralStorage().getWater();
+            }
+            this.bondLevel = tribe.getBondLevel();
+            this.progressPoints = tribe.getProgressPoints();
+        }
+    }
+}
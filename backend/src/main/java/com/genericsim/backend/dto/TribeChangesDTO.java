@@ -0,0 +1,110 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for what changed in a tribe after a given tick.
+ * Lists only the persons and families changed since then, so a client that missed a
+ * few ticks can catch up without downloading the whole tribe. When the changes are
+ * not known that far back, {@code fullSnapshot} is set and {@code snapshot} holds the
+ * full tribe state instead.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TribeChangesDTO {
+    private Long tribeId;
+    private long sinceTick;
+    private long currentTick;
+
+    /**
+     * True if {@code snapshot} holds the full state and the change lists are omitted
+     */
+    private boolean fullSnapshot;
+    private TribeStateDTO snapshot;
+
+    // Scalar tribe fields, sent with every change
+    private Integer bondLevel;
+    private Integer progressPoints;
+    private TribeStateDTO.ResourcesDTO resources;
+    private TribeStateDTO.ResourcesDTO centralStorage;
+
+    /**
+     * Persons whose role, age, health or skills changed after {@code sinceTick}
+     */
+    private List<TribeStateDTO.PersonDTO> changedPersons;
+
+    /**
+     * IDs of persons who died after {@code sinceTick}
+     */
+    private List<Long> deaths;
+
+    /**
+     * Families whose storage or member count changed after {@code sinceTick}
+     */
+    private List<TribeStateDTO.FamilyDTO> changedFamilies;
+
+    /**
+     * The policy, if it was updated at or after {@code sinceTick}; updates between
+     * ticks carry the tick they were made at, so one made after the client read that
+     * tick is still sent
+     */
+    private TribeStateDTO.PolicyDTO policy;
+
+    /**
+     * Collect the changes to a tribe from the ticks stamped on its entities.
+     *
+     * @param tribe the tribe, with members and families loaded
+     * @param sinceTick the tick the client has seen
+     * @param deaths the IDs of the persons who died after that tick
+     */
+    public TribeChangesDTO(Tribe tribe, long sinceTick, List<Long> deaths) {
+        this.tribeId = tribe.getId();
+        this.sinceTick = sinceTick;
+        this.currentTick = tribe.getCurrentTick();
+        this.bondLevel = tribe.getBondLevel();
+        this.progressPoints = tribe.getProgressPoints();
+        this.resources = new TribeStateDTO.ResourcesDTO(tribe.getResources());
+        this.centralStorage = new TribeStateDTO.ResourcesDTO(tribe.getCentralStorage());
+        this.deaths = deaths;
+
+        this.changedPersons = new ArrayList<>();
+        for (Person person : tribe.getMembers()) {
+            if (person.getLastModifiedTick() > sinceTick) {
+                changedPersons.add(new TribeStateDTO.PersonDTO(person));
+            }
+        }
+        this.changedFamilies = new ArrayList<>();
+        for (Family family : tribe.getFamilies()) {
+            if (family.getStorage() != null && family.getStorage().getLastModifiedTick() > sinceTick) {
+                changedFamilies.add(new TribeStateDTO.FamilyDTO(family));
+            }
+        }
+        if (tribe.getPolicy() != null && tribe.getPolicy().getLastModifiedTick() >= sinceTick) {
+            this.policy = new TribeStateDTO.PolicyDTO(tribe.getPolicy());
+        }
+    }
+
+    /**
+     * @param sinceTick the tick the client asked for changes since
+     * @param state the full tribe state
+     * @return changes carrying the full state, for when the changes are not known
+     */
+    public static TribeChangesDTO fullSnapshot(long sinceTick, TribeStateDTO state) {
+        TribeChangesDTO changes = new TribeChangesDTO();
+        changes.setTribeId(state.getTribeId());
+        changes.setSinceTick(sinceTick);
+        changes.setCurrentTick(state.getCurrentTick());
+        changes.setFullSnapshot(true);
+        changes.setSnapshot(state);
+        return changes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.metrics.DomainCounter;
+import com.genericsim.backend.metrics.TribeCounters;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the simulation events counted in a tribe's latest ticks:
+ * shortfalls, borrows, borrowFailures, centralWithdrawals, suffered, deaths, foodTaxed
+ * and waterTaxed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TribeCountersDTO {
+    private Long tribeId;
+
+    /**
+     * Average count per tick of every counter over the rate window
+     */
+    private Map<String, Double> rates;
+
+    /**
+     * Counts of the latest ticks, oldest first
+     */
+    private List<TickCountsDTO> ticks;
+
+    public TribeCountersDTO(Long tribeId, TribeCounters counters, int limit) {
+        this.tribeId = tribeId;
+        this.rates = new LinkedHashMap<>();
+        for (DomainCounter counter : DomainCounter.values()) {
+            rates.put(counter.getProperty(), counters.rate(counter));
+        }
+        this.ticks = counters.recent(limit).stream().map(TickCountsDTO::new).toList();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class TickCountsDTO {
+        private long tick;
+        private Map<String, Long> counts;
+
+        public TickCountsDTO(TribeCounters.TickCounts tickCounts) {
+            this.tick = tickCounts.tick();
+            this.counts = new LinkedHashMap<>();
+            for (DomainCounter counter : DomainCounter.values()) {
+                counts.put(counter.getProperty(), tickCounts.get(counter));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object for the changes to a tribe made by a tick or policy update.
+ * Sent to event stream subscribers in place of the full tribe state: only persons
+ * and families that changed are listed, followed by the new statistics.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TribeDeltaDTO {
+    private Long tribeId;
+    private long fromTick;
+    private long tick;
+
+    /**
+     * Snapshot revision this delta leads to; later changes have higher revisions
+     */
+    private long revision;
+
+    /**
+     * Persons whose role, age, health or skills changed
+     */
+    private List<TribeStateDTO.PersonDTO> changedPersons;
+
+    /**
+     * IDs of persons who died
+     */
+    private List<Long> deaths;
+
+    /**
+     * Families whose storage or member count changed
+     */
+    private List<TribeStateDTO.FamilyDTO> changedFamilies;
+
+    /**
+     * The new policy; only present if the policy changed
+     */
+    private TribeStateDTO.PolicyDTO policy;
+
+    /**
+     * Aggregate values after the change
+     */
+    private TribeStatisticsDTO statistics;
+
+    /**
+     * Collect the changes to a tribe from the ticks stamped on its entities, like
+     * {@link TribeChangesDTO}, without comparing full states.
+     *
+     * @param tribe the tribe after the change, with members and families loaded
+     * @param fromTick the tick the tribe was at before the change
+     * @param deaths the IDs of the persons who died in the change
+     * @param previousPolicy the policy before the change
+     * @param statistics the tribe statistics after the change
+     * @param revision the revision of the snapshot taken after the change
+     */
+    public TribeDeltaDTO(Tribe tribe, long fromTick, List<Long> deaths, TribeStateDTO.PolicyDTO previousPolicy,
+                         TribeStatisticsDTO statistics, long revision) {
+        this.tribeId = tribe.getId();
+        this.fromTick = fromTick;
+        this.tick = tribe.getCurrentTick();
+        this.revision = revision;
+        this.statistics = statistics;
+        this.deaths = deaths;
+        TribeStateDTO.PolicyDTO policy = tribe.getPolicy() != null ? new TribeStateDTO.PolicyDTO(tribe.getPolicy()) : null;
+        if (!Objects.equals(previousPolicy, policy)) {
+            this.policy = policy;
+        }
+
+        this.changedPersons = new ArrayList<>();
+        for (Person person : tribe.getMembers()) {
+            if (person.getLastModifiedTick() > fromTick) {
+                changedPersons.add(new TribeStateDTO.PersonDTO(person));
+            }
+        }
+        this.changedFamilies = new ArrayList<>();
+        for (Family family : tribe.getFamilies()) {
+            if (family.getStorage() != null && family.getStorage().getLastModifiedTick() > fromTick) {
+                changedFamilies.add(new TribeStateDTO.FamilyDTO(family));
+            }
+        }
+    }
+}
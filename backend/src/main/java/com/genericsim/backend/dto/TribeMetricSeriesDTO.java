@@ -0,0 +1,33 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.metrics.MetricPoint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a range of one of a tribe's metric time series,
+ * reduced to the number of points a chart asked for.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TribeMetricSeriesDTO {
+    private Long tribeId;
+    private String metric;
+    private long fromTick;
+    private long toTick;
+
+    /**
+     * Ticks per point of the stored series the points were read from
+     */
+    private long resolutionTicks;
+
+    /**
+     * MIN_MAX_AVG or LTTB if the points were downsampled, otherwise null
+     */
+    private String downsampling;
+    private List<MetricPoint> points;
+}
@@ -4,11 +4,14 @@ import com.genericsim.backend.model.Family;
 import com.genericsim.backend.model.Person;
 import com.genericsim.backend.model.Policy;
 import com.genericsim.backend.model.Resources;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -28,6 +31,7 @@ public class TribeStateDTO {
 
     @Getter
     @Setter
+    @EqualsAndHashCode
     public static class ResourcesDTO {
         private int food;
         private int water;
@@ -42,6 +46,7 @@ public class TribeStateDTO {
 
     @Getter
     @Setter
+    @EqualsAndHashCode
     public static class PolicyDTO {
         private String name;
         private String description;
@@ -54,6 +59,10 @@ public class TribeStateDTO {
         private int centralStorageTaxRate;
         private double storageDecayRate;
         private int storageDecayInterval;
+        /**
+         * Settings of the effects the tribe runs differently from their defaults, by name
+         */
+        private Map<String, EffectSettingDTO> effects = new LinkedHashMap<>();
 
         public PolicyDTO(Policy policy) {
             if (policy != null) {
@@ -68,12 +77,14 @@ public class TribeStateDTO {
                 this.centralStorageTaxRate = policy.getCentralStorageTaxRate();
                 this.storageDecayRate = policy.getStorageDecayRate();
                 this.storageDecayInterval = policy.getStorageDecayInterval();
+                this.effects = EffectSettingDTO.fromSettings(policy.getEffectSettings());
             }
         }
     }
 
     @Getter
     @Setter
+    @EqualsAndHashCode
     public static class PersonDTO {
         private Long id;
         private String name;
@@ -98,6 +109,7 @@ public class TribeStateDTO {
 
     @Getter
     @Setter
+    @EqualsAndHashCode
     public static class FamilyDTO {
         private Long id;
         private String name;
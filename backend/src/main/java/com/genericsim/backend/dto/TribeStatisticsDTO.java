@@ -1,15 +1,12 @@
 package com.genericsim.backend.dto;
 
 import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.PopulationAggregates;
 import com.genericsim.backend.model.Tribe;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 /**
  * Data Transfer Object for tribe statistics.
  * Provides a frontend-friendly summary of tribe metrics including population,
@@ -49,14 +46,11 @@ public class TribeStatisticsDTO {
         private int children;
         private int elders;
         
-        public RoleBreakdown(List<Person> members) {
-            Map<Person.PersonRole, Long> roleCounts = members.stream()
-                .collect(Collectors.groupingBy(Person::getRole, Collectors.counting()));
-            
-            this.hunters = roleCounts.getOrDefault(Person.PersonRole.HUNTER, 0L).intValue();
-            this.gatherers = roleCounts.getOrDefault(Person.PersonRole.GATHERER, 0L).intValue();
-            this.children = roleCounts.getOrDefault(Person.PersonRole.CHILD, 0L).intValue();
-            this.elders = roleCounts.getOrDefault(Person.PersonRole.ELDER, 0L).intValue();
+        public RoleBreakdown(PopulationAggregates aggregates) {
+            this.hunters = aggregates.countByRole(Person.PersonRole.HUNTER);
+            this.gatherers = aggregates.countByRole(Person.PersonRole.GATHERER);
+            this.children = aggregates.countByRole(Person.PersonRole.CHILD);
+            this.elders = aggregates.countByRole(Person.PersonRole.ELDER);
         }
     }
     
@@ -71,14 +65,11 @@ public class TribeStatisticsDTO {
         private int adults;
         private int elders;
         
-        public AgeGroupBreakdown(List<Person> members) {
-            Map<Person.AgeGroup, Long> ageCounts = members.stream()
-                .collect(Collectors.groupingBy(Person::getAgeGroup, Collectors.counting()));
-            
-            this.children = ageCounts.getOrDefault(Person.AgeGroup.CHILD, 0L).intValue();
-            this.youngAdults = ageCounts.getOrDefault(Person.AgeGroup.YOUNG_ADULT, 0L).intValue();
-            this.adults = ageCounts.getOrDefault(Person.AgeGroup.ADULT, 0L).intValue();
-            this.elders = ageCounts.getOrDefault(Person.AgeGroup.ELDER, 0L).intValue();
+        public AgeGroupBreakdown(PopulationAggregates aggregates) {
+            this.children = aggregates.countByAgeGroup(Person.AgeGroup.CHILD);
+            this.youngAdults = aggregates.countByAgeGroup(Person.AgeGroup.YOUNG_ADULT);
+            this.adults = aggregates.countByAgeGroup(Person.AgeGroup.ADULT);
+            this.elders = aggregates.countByAgeGroup(Person.AgeGroup.ELDER);
         }
     }
     
@@ -93,29 +84,11 @@ public class TribeStatisticsDTO {
         private int maxHealth;
         private int healthyMembers;
         
-        public HealthStats(List<Person> members) {
-            if (members.isEmpty()) {
-                this.averageHealth = 0;
-                this.minHealth = 0;
-                this.maxHealth = 0;
-                this.healthyMembers = 0;
-            } else {
-                this.averageHealth = (int) members.stream()
-                    .mapToInt(Person::getHealth)
-                    .average()
-                    .orElse(0);
-                this.minHealth = members.stream()
-                    .mapToInt(Person::getHealth)
-                    .min()
-                    .orElse(0);
-                this.maxHealth = members.stream()
-                    .mapToInt(Person::getHealth)
-                    .max()
-                    .orElse(0);
-                this.healthyMembers = (int) members.stream()
-                    .filter(p -> p.getHealth() >= 70)
-                    .count();
-            }
+        public HealthStats(PopulationAggregates aggregates) {
+            this.averageHealth = aggregates.getAverageHealth();
+            this.minHealth = aggregates.getMinHealth();
+            this.maxHealth = aggregates.getMaxHealth();
+            this.healthyMembers = aggregates.countHealthAtLeast(70);
         }
     }
     
@@ -193,16 +166,18 @@ public class TribeStatisticsDTO {
     }
     
     /**
-     * Constructs statistics DTO from a Tribe entity
+     * Constructs statistics DTO from a Tribe entity.
+     * Population figures come from the tribe's aggregates, so the member list is not loaded.
      */
     public TribeStatisticsDTO(Tribe tribe) {
+        PopulationAggregates aggregates = tribe.getAggregates();
         this.tribeId = tribe.getId();
         this.tribeName = tribe.getName();
         this.currentTick = tribe.getCurrentTick();
-        this.totalPopulation = tribe.getMembers().size();
-        this.roleBreakdown = new RoleBreakdown(tribe.getMembers());
-        this.ageGroupBreakdown = new AgeGroupBreakdown(tribe.getMembers());
-        this.healthStats = new HealthStats(tribe.getMembers());
+        this.totalPopulation = aggregates.getCount();
+        this.roleBreakdown = new RoleBreakdown(aggregates);
+        this.ageGroupBreakdown = new AgeGroupBreakdown(aggregates);
+        this.healthStats = new HealthStats(aggregates);
         this.resourceStats = new ResourceStats(
             tribe.getResources() != null ? tribe.getResources().getFood() : 0,
             tribe.getResources() != null ? tribe.getResources().getWater() : 0,
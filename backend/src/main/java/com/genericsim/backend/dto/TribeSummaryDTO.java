@@ -0,0 +1,32 @@
+package com.genericsim.backend.dto;
+
+import com.genericsim.backend.model.Tribe;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for one row of the tribe listing.
+ * Built directly by a projection query, without loading members or families.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TribeSummaryDTO {
+    private Long tribeId;
+    private String tribeName;
+    private long currentTick;
+    private int population;
+    private int food;
+    private int water;
+    private int bondLevel;
+
+    public TribeSummaryDTO(Tribe tribe) {
+        this(tribe.getId(), tribe.getName(), tribe.getCurrentTick(), tribe.getAggregates().getCount(),
+            tribe.getResources() != null ? tribe.getResources().getFood() : 0,
+            tribe.getResources() != null ? tribe.getResources().getWater() : 0,
+            tribe.getBondLevel());
+    }
+}
@@ -0,0 +1,27 @@
+package com.genericsim.backend.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for filtering the tribe listing.
+ * Every value is optional; bounds are inclusive and the name matches
+ * tribes whose name contains it, ignoring case.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TribeSummaryFilterDTO {
+    private String name;
+    private Long minTick;
+    private Long maxTick;
+    private Integer minPopulation;
+    private Integer maxPopulation;
+    private Integer minFood;
+    private Integer maxFood;
+    private Integer minWater;
+    private Integer maxWater;
+    private Integer minBondLevel;
+    private Integer maxBondLevel;
+}
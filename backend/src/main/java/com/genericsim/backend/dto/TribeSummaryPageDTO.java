@@ -0,0 +1,22 @@
+package com.genericsim.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of the tribe listing.
+ * Pass {@code nextCursor} as {@code after} with the same sort and filter to
+ * get the next page; it is null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TribeSummaryPageDTO {
+    private List<TribeSummaryDTO> tribes;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.genericsim.backend.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a generated world of tribes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class WorldGenerationDTO {
+    private long seed;
+    private List<TribeSummaryDTO> tribes;
+    private long population;
+    private long families;
+    private long elapsedMillis;
+}
@@ -0,0 +1,34 @@
+package com.genericsim.backend.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for generating a world of tribes.
+ * Fields left out of the request keep their defaults.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class WorldGenerationRequestDTO {
+    private int tribes = 10;
+    private int minMembers = 50;
+    private int maxMembers = 500;
+
+    /**
+     * uniform, log_normal or pareto
+     */
+    private String sizeDistribution = "log_normal";
+
+    /**
+     * Seed of the whole world; a fresh seed is generated when null.
+     * The same request with the same seed generates the same tribes.
+     */
+    private Long seed;
+
+    /**
+     * Tribes are named with this and their number, e.g. "Tribe 1"
+     */
+    private String namePrefix = "Tribe";
+}
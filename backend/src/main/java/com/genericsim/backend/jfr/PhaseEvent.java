@@ -0,0 +1,50 @@
+package com.genericsim.backend.jfr;
+
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.model.Tribe;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one hard-coded phase of processing a tick
+ * (see {@link TickMeters.Phase}). Disabled by default; see {@link SimulationEvents}.
+ */
+@Name("com.genericsim.Phase")
+@Label("Tick Phase")
+@Description("A hard-coded phase of processing a tick")
+@Category({"Generic Sim", "Simulation"})
+@Enabled(false)
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+    @Label("Tribe ID")
+    long tribeId;
+
+    @Label("Tick")
+    long tick;
+
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Start timing a phase.
+     *
+     * @param tribe the tribe, at the tick being processed
+     * @param phase the phase
+     */
+    public static PhaseEvent started(Tribe tribe, TickMeters.Phase phase) {
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.tribeId = SimulationEvents.idOf(tribe);
+            event.tick = tribe.getCurrentTick();
+            event.phase = phase.name();
+            event.begin();
+        }
+        return event;
+    }
+}
@@ -0,0 +1,69 @@
+package com.genericsim.backend.jfr;
+
+import com.genericsim.backend.policy.PolicyEffect;
+import com.genericsim.backend.policy.PolicyPhase;
+import com.genericsim.backend.policy.TickContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the check and, if it passed, the application of
+ * a policy effect. Disabled by default; see {@link SimulationEvents}.
+ */
+@Name("com.genericsim.PolicyEffect")
+@Label("Policy Effect")
+@Description("A policy effect checked and, if it should apply, applied")
+@Category({"Generic Sim", "Simulation"})
+@Enabled(false)
+@StackTrace(false)
+public class PolicyEffectEvent extends Event {
+
+    @Label("Tribe ID")
+    long tribeId;
+
+    @Label("Tick")
+    long tick;
+
+    @Label("Effect")
+    String effect;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Applied")
+    @Description("Whether shouldApply passed")
+    boolean applied;
+
+    /**
+     * Start timing a policy effect.
+     */
+    public static PolicyEffectEvent started() {
+        PolicyEffectEvent event = new PolicyEffectEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the effect and record it, if the event is enabled.
+     *
+     * @param phase the phase the effect ran in
+     * @param effect the effect
+     * @param context the tick context it ran against
+     * @param applied whether {@code shouldApply} passed
+     */
+    public void end(PolicyPhase phase, PolicyEffect effect, TickContext context, boolean applied) {
+        if (shouldCommit()) {
+            this.tribeId = SimulationEvents.idOf(context.getTribe());
+            this.tick = context.getTribe().getCurrentTick();
+            this.effect = effect.getName();
+            this.phase = phase.name();
+            this.applied = applied;
+            commit();
+        }
+    }
+}
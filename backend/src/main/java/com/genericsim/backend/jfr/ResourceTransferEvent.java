@@ -0,0 +1,93 @@
+package com.genericsim.backend.jfr;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Tribe;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for food and water moved between storages outside gathering
+ * and consumption: lent between families, taxed into central storage, or drawn from
+ * it. Disabled by default; see {@link SimulationEvents}.
+ */
+@Name("com.genericsim.ResourceTransfer")
+@Label("Resource Transfer")
+@Description("Food and water lent, taxed or drawn from central storage")
+@Category({"Generic Sim", "Simulation"})
+@Enabled(false)
+@StackTrace(false)
+public class ResourceTransferEvent extends Event {
+
+    /**
+     * What moved the resources.
+     */
+    public enum Kind {
+        /**
+         * One family lent to another
+         */
+        BORROW,
+        /**
+         * The families were taxed into central storage
+         */
+        TAX,
+        /**
+         * A family drew from central storage
+         */
+        CENTRAL_WITHDRAWAL
+    }
+
+    @Label("Tribe ID")
+    long tribeId;
+
+    @Label("Tick")
+    long tick;
+
+    @Label("Kind")
+    String kind;
+
+    @Label("From Family ID")
+    @Description("The family giving the resources; 0 for central storage or all families")
+    long fromFamilyId;
+
+    @Label("To Family ID")
+    @Description("The family receiving the resources; 0 for central storage")
+    long toFamilyId;
+
+    @Label("Food")
+    int food;
+
+    @Label("Water")
+    int water;
+
+    /**
+     * Record a transfer, if the event is enabled and anything was moved.
+     *
+     * @param kind what moved the resources
+     * @param tribe the tribe
+     * @param from the family giving, or null for central storage or all families
+     * @param to the family receiving, or null for central storage
+     * @param food the food moved
+     * @param water the water moved
+     */
+    public static void emit(Kind kind, Tribe tribe, Family from, Family to, int food, int water) {
+        if (food == 0 && water == 0) {
+            return;
+        }
+        ResourceTransferEvent event = new ResourceTransferEvent();
+        if (event.shouldCommit()) {
+            event.tribeId = SimulationEvents.idOf(tribe);
+            event.tick = tribe.getCurrentTick();
+            event.kind = kind.name();
+            event.fromFamilyId = from != null && from.getId() != null ? from.getId() : 0;
+            event.toFamilyId = to != null && to.getId() != null ? to.getId() : 0;
+            event.food = food;
+            event.water = water;
+            event.commit();
+        }
+    }
+}
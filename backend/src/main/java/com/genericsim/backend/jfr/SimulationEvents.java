@@ -0,0 +1,41 @@
+package com.genericsim.backend.jfr;
+
+import com.genericsim.backend.model.Tribe;
+import jakarta.annotation.PostConstruct;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Registers the simulation's Java Flight Recorder events, so recordings list them
+ * before the first one is emitted.
+ *
+ * Each event type is switched on and off per recording through the usual JFR settings,
+ * e.g. a .jfc file or JDK Mission Control, keyed by its name: {@code com.genericsim.Tick}
+ * (on by default), {@code com.genericsim.Phase}, {@code com.genericsim.PolicyEffect} and
+ * {@code com.genericsim.ResourceTransfer} (off by default, since a long batch emits
+ * several per tick). A disabled event costs a check of a flag the JIT folds away; its
+ * fields are only filled in once it is known to be recorded. Ticks re-run from the
+ * journal emit no events (see {@code TickEngine#withoutMetrics()}), so a recording
+ * only shows ticks that were simulated for real.
+ */
+@Component
+public class SimulationEvents {
+
+    static final List<Class<? extends Event>> EVENTS = List.of(
+        TickEvent.class, PhaseEvent.class, PolicyEffectEvent.class, ResourceTransferEvent.class);
+
+    @PostConstruct
+    public void register() {
+        EVENTS.forEach(FlightRecorder::register);
+    }
+
+    /**
+     * @return the ID of a tribe, or 0 for a tribe that was never saved
+     */
+    static long idOf(Tribe tribe) {
+        return tribe.getId() != null ? tribe.getId() : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.genericsim.backend.jfr;
+
+import com.genericsim.backend.model.Tribe;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one simulated tick of a tribe.
+ * Enabled by default; see {@link SimulationEvents} for switching events on and off.
+ */
+@Name("com.genericsim.Tick")
+@Label("Tick")
+@Description("One simulated tick of a tribe")
+@Category({"Generic Sim", "Simulation"})
+@StackTrace(false)
+public class TickEvent extends Event {
+
+    @Label("Tribe ID")
+    long tribeId;
+
+    @Label("Tick")
+    long tick;
+
+    @Label("Population")
+    @Description("Members alive at the end of the tick")
+    int population;
+
+    @Label("Deaths")
+    int deaths;
+
+    /**
+     * Start timing a tick.
+     */
+    public static TickEvent started() {
+        TickEvent event = new TickEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the tick and record it, if the event is enabled.
+     *
+     * @param tribe the tribe, at the end of the tick
+     * @param population the members alive at the end of the tick
+     * @param deaths the members who died during the tick
+     */
+    public void end(Tribe tribe, int population, int deaths) {
+        if (shouldCommit()) {
+            this.tribeId = SimulationEvents.idOf(tribe);
+            this.tick = tribe.getCurrentTick();
+            this.population = population;
+            this.deaths = deaths;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.dto.EffectSettingDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.model.EffectSettings;
+import com.genericsim.backend.policy.PolicyPhase;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.simulation.ResourceTransfer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes {@link JournalRecord}s into the bodies of journal frames and back.
+ *
+ * A body starts with the record type, the tribe ID and the tick, so that a scan
+ * can skip the records of other tribes without decoding them, followed by the
+ * fields of the record. Enums are written by name and strings as UTF-8 with a
+ * length prefix, so records survive reordered enums.
+ */
+final class JournalCodec {
+
+    static final byte SNAPSHOT = 1;
+    static final byte TICK = 2;
+    static final byte SKIP = 3;
+    static final byte POLICY_CHANGE = 4;
+    static final byte RETIRE = 5;
+
+    /**
+     * Bytes of the type, tribe ID and tick every body starts with. Snapshots and
+     * ticks continue with the seed and the policy version, policy changes with
+     * the policy version.
+     */
+    static final int PREFIX_SIZE = 17;
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournalRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(typeOf(record));
+            out.writeLong(record.tribeId());
+            out.writeLong(record.tick());
+            if (record instanceof JournalRecord.Snapshot snapshot) {
+                out.writeLong(snapshot.seed());
+                out.writeLong(snapshot.policyVersion());
+                out.writeInt(snapshot.state().length);
+                out.write(snapshot.state());
+            } else if (record instanceof JournalRecord.Tick tick) {
+                out.writeLong(tick.seed());
+                out.writeLong(tick.policyVersion());
+                out.writeInt(tick.deaths());
+                out.writeShort(tick.effects().size());
+                for (TickContext.AppliedEffect effect : tick.effects()) {
+                    writeString(out, effect.phase().name());
+                    writeString(out, effect.name());
+                }
+                out.writeShort(tick.transfers().size());
+                for (ResourceTransfer transfer : tick.transfers()) {
+                    writeString(out, transfer.phase().name());
+                    out.writeInt(transfer.familyFood());
+                    out.writeInt(transfer.familyWater());
+                    out.writeInt(transfer.centralFood());
+                    out.writeInt(transfer.centralWater());
+                }
+            } else if (record instanceof JournalRecord.Skip skip) {
+                out.writeLong(skip.fromTick());
+            } else if (record instanceof JournalRecord.PolicyChange change) {
+                TribeStateDTO.PolicyDTO policy = change.policy();
+                out.writeLong(change.policyVersion());
+                writeString(out, policy.getName());
+                writeString(out, policy.getDescription());
+                out.writeInt(policy.getFoodTaxRate());
+                out.writeInt(policy.getWaterTaxRate());
+                out.writeInt(policy.getHuntingIncentive());
+                out.writeInt(policy.getGatheringIncentive());
+                writeString(out, policy.getSharingPriority());
+                out.writeBoolean(policy.isEnableCentralStorage());
+                out.writeInt(policy.getCentralStorageTaxRate());
+                out.writeDouble(policy.getStorageDecayRate());
+                out.writeInt(policy.getStorageDecayInterval());
+                writeString(out, EffectSettingDTO.toSettings(policy.getEffects()).encode());
+            }
+        } catch (IOException e) {
+            // Writing to a byte array does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte typeOf(ByteBuffer body) {
+        return body.get(body.position());
+    }
+
+    static long tribeIdOf(ByteBuffer body) {
+        return body.getLong(body.position() + 1);
+    }
+
+    static long tickOf(ByteBuffer body) {
+        return body.getLong(body.position() + 9);
+    }
+
+    static long seedOf(ByteBuffer body) {
+        return body.getLong(body.position() + PREFIX_SIZE);
+    }
+
+    static long policyVersionOf(ByteBuffer body) {
+        int offset = typeOf(body) == POLICY_CHANGE ? PREFIX_SIZE : PREFIX_SIZE + 8;
+        return body.getLong(body.position() + offset);
+    }
+
+    /**
+     * Decode a frame body.
+     *
+     * @param body the body, positioned at its start; consumed
+     * @return the record
+     * @throws IllegalStateException if the body is not a record this build knows
+     */
+    static JournalRecord decode(ByteBuffer body) {
+        try {
+            byte type = body.get();
+            long tribeId = body.getLong();
+            long tick = body.getLong();
+            return switch (type) {
+                case SNAPSHOT -> {
+                    long seed = body.getLong();
+                    long policyVersion = body.getLong();
+                    byte[] state = new byte[body.getInt()];
+                    body.get(state);
+                    yield new JournalRecord.Snapshot(tribeId, tick, seed, policyVersion, state);
+                }
+                case TICK -> {
+                    long seed = body.getLong();
+                    long policyVersion = body.getLong();
+                    int deaths = body.getInt();
+                    int effectCount = Short.toUnsignedInt(body.getShort());
+                    List<TickContext.AppliedEffect> effects = new ArrayList<>(effectCount);
+                    for (int i = 0; i < effectCount; i++) {
+                        effects.add(new TickContext.AppliedEffect(PolicyPhase.valueOf(readString(body)),
+                            readString(body)));
+                    }
+                    int transferCount = Short.toUnsignedInt(body.getShort());
+                    List<ResourceTransfer> transfers = new ArrayList<>(transferCount);
+                    for (int i = 0; i < transferCount; i++) {
+                        transfers.add(new ResourceTransfer(PolicyPhase.valueOf(readString(body)),
+                            body.getInt(), body.getInt(), body.getInt(), body.getInt()));
+                    }
+                    yield new JournalRecord.Tick(tribeId, tick, seed, policyVersion, deaths, effects, transfers);
+                }
+                case SKIP -> new JournalRecord.Skip(tribeId, body.getLong(), tick);
+                case POLICY_CHANGE -> {
+                    long policyVersion = body.getLong();
+                    TribeStateDTO.PolicyDTO policy = new TribeStateDTO.PolicyDTO(null);
+                    policy.setName(readString(body));
+                    policy.setDescription(readString(body));
+                    policy.setFoodTaxRate(body.getInt());
+                    policy.setWaterTaxRate(body.getInt());
+                    policy.setHuntingIncentive(body.getInt());
+                    policy.setGatheringIncentive(body.getInt());
+                    policy.setSharingPriority(readString(body));
+                    policy.setEnableCentralStorage(body.get() != 0);
+                    policy.setCentralStorageTaxRate(body.getInt());
+                    policy.setStorageDecayRate(body.getDouble());
+                    policy.setStorageDecayInterval(body.getInt());
+                    // Policy changes journaled before effect settings end here
+                    if (body.hasRemaining()) {
+                        policy.setEffects(EffectSettingDTO.fromSettings(EffectSettings.decode(readString(body))));
+                    }
+                    yield new JournalRecord.PolicyChange(tribeId, tick, policyVersion, policy);
+                }
+                case RETIRE -> new JournalRecord.Retire(tribeId, tick);
+                default -> throw new IllegalStateException("Unknown journal record type " + type);
+            };
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt journal record", e);
+        }
+    }
+
+    private static byte typeOf(JournalRecord record) {
+        if (record instanceof JournalRecord.Snapshot) {
+            return SNAPSHOT;
+        } else if (record instanceof JournalRecord.Tick) {
+            return TICK;
+        } else if (record instanceof JournalRecord.Skip) {
+            return SKIP;
+        } else if (record instanceof JournalRecord.PolicyChange) {
+            return POLICY_CHANGE;
+        }
+        return RETIRE;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
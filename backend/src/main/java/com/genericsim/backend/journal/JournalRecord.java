@@ -0,0 +1,61 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.simulation.ResourceTransfer;
+
+import java.util.List;
+
+/**
+ * A record of the {@link TickJournal}. Every record belongs to one tribe and
+ * carries the tick the tribe was at once the record applied.
+ */
+public sealed interface JournalRecord {
+
+    long tribeId();
+
+    long tick();
+
+    /**
+     * The full state of a tribe, which replay starts from.
+     *
+     * @param seed the tribe seed
+     * @param policyVersion the number of policy changes journaled for the tribe so far
+     * @param state the tribe in the {@link com.genericsim.backend.persistence.TribeExportFormat}
+     */
+    record Snapshot(long tribeId, long tick, long seed, long policyVersion, byte[] state) implements JournalRecord {}
+
+    /**
+     * A simulated tick: its inputs and what it did.
+     *
+     * @param seed the tribe seed the tick's random streams were derived from
+     * @param policyVersion the version of the policy the tick ran with
+     * @param deaths the number of members who died
+     * @param effects the policy effects applied, in order
+     * @param transfers the non-zero resource transfers, in phase order
+     */
+    record Tick(long tribeId, long tick, long seed, long policyVersion, int deaths,
+                List<TickContext.AppliedEffect> effects, List<ResourceTransfer> transfers) implements JournalRecord {}
+
+    /**
+     * Quiescent ticks skipped in closed form.
+     *
+     * @param fromTick the tick before the skip
+     * @param tick the last skipped tick
+     */
+    record Skip(long tribeId, long fromTick, long tick) implements JournalRecord {}
+
+    /**
+     * A change of the tribe's policy.
+     *
+     * @param policyVersion the version of the policy after the change
+     * @param policy the policy after the change
+     */
+    record PolicyChange(long tribeId, long tick, long policyVersion, TribeStateDTO.PolicyDTO policy)
+        implements JournalRecord {}
+
+    /**
+     * The end of a tribe's history in the journal, for a tribe recovered under another ID.
+     */
+    record Retire(long tribeId, long tick) implements JournalRecord {}
+}
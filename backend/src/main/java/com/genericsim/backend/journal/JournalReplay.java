@@ -0,0 +1,14 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.model.Tribe;
+
+/**
+ * A tribe rebuilt from the journal.
+ *
+ * @param tribe the tribe, unsaved, with its families and members
+ * @param snapshotTick the tick of the snapshot the replay started from
+ * @param ticksReplayed the ticks re-run or skipped after the snapshot
+ * @param divergentTicks the re-run ticks whose deaths, effects or transfers differ
+ *                       from the journal, e.g. because the simulation changed since
+ */
+public record JournalReplay(Tribe tribe, long snapshotTick, long ticksReplayed, long divergentTicks) {}
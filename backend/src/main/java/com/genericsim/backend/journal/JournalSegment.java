@@ -0,0 +1,202 @@
+package com.genericsim.backend.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped file of the {@link TickJournal}.
+ *
+ * A segment is a fixed-size file that starts with the magic bytes {@code GSTJ},
+ * a version byte and the segment's sequence number, followed by frames of
+ * [body length][CRC32C of the body][body]. The length is written last, so a frame
+ * whose length is zero was never finished; scanning stops at the first frame that
+ * is unfinished, runs past the end of the file or fails its checksum, since
+ * everything after a torn write is lost with it.
+ *
+ * Appends are not synchronized; the journal serializes them and hands out the end
+ * of the segment to readers under its lock.
+ */
+final class JournalSegment {
+
+    static final byte[] MAGIC = {'G', 'S', 'T', 'J'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private final long sequence;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private int end;
+
+    private JournalSegment(long sequence, Path path, MappedByteBuffer buffer, int end) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+        this.end = end;
+    }
+
+    /**
+     * Create an empty segment.
+     *
+     * @param path the file, which must not exist
+     * @param sequence the sequence number of the segment
+     * @param size the size of the file in bytes
+     */
+    static JournalSegment create(Path path, long sequence, int size) throws IOException {
+        MappedByteBuffer buffer = map(path, size, true);
+        buffer.put(0, MAGIC);
+        buffer.put(MAGIC.length, (byte) VERSION);
+        buffer.putLong(8, sequence);
+        return new JournalSegment(sequence, path, buffer, HEADER_SIZE);
+    }
+
+    /**
+     * Open an existing segment and find the end of its complete frames. Anything
+     * after them is zeroed, so that new frames never run into a torn one.
+     *
+     * @param path the file
+     * @throws IOException if the file is not a journal segment
+     */
+    static JournalSegment open(Path path) throws IOException {
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+        }
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            throw new IOException("Not a journal segment: " + path);
+        }
+        MappedByteBuffer buffer = map(path, (int) size, false);
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a journal segment: " + path);
+        }
+        if (buffer.get(MAGIC.length) != VERSION) {
+            throw new IOException("Unsupported journal segment version " + buffer.get(MAGIC.length) + ": " + path);
+        }
+        JournalSegment segment = new JournalSegment(buffer.getLong(8), path, buffer, HEADER_SIZE);
+        segment.end = segment.scan(HEADER_SIZE, buffer.capacity(), (offset, body) -> true);
+        if (segment.end + FRAME_HEADER_SIZE <= buffer.capacity() && buffer.getInt(segment.end) != 0) {
+            for (int i = segment.end; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return segment;
+    }
+
+    private static MappedByteBuffer map(Path path, int size, boolean create) throws IOException {
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * @return the offset after the last complete frame
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * @return the bytes used by frames
+     */
+    int used() {
+        return end - HEADER_SIZE;
+    }
+
+    boolean fits(int bodyLength) {
+        return (long) end + FRAME_HEADER_SIZE + bodyLength <= buffer.capacity();
+    }
+
+    /**
+     * Append a frame. The caller checks that it {@link #fits}.
+     *
+     * @param body the frame body
+     * @return the offset of the frame
+     */
+    int append(byte[] body) {
+        int offset = end;
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        buffer.put(offset + FRAME_HEADER_SIZE, body);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // The length marks the frame complete
+        buffer.putInt(offset, body.length);
+        end = offset + FRAME_HEADER_SIZE + body.length;
+        return offset;
+    }
+
+    /**
+     * Append a frame copied from another segment.
+     *
+     * @param body the frame body, positioned at its start; not consumed
+     * @return the offset of the frame
+     */
+    int append(ByteBuffer body) {
+        byte[] bytes = new byte[body.remaining()];
+        body.duplicate().get(bytes);
+        return append(bytes);
+    }
+
+    /**
+     * Visit the complete frames between two offsets.
+     *
+     * @param from the offset of the first frame
+     * @param to the offset to stop at, at most the end of the segment when it was handed out
+     * @param visitor receives each frame body, positioned at its start, and returns
+     *                false to stop the scan after that frame
+     * @return the offset after the last complete frame visited
+     */
+    int scan(int from, int to, FrameVisitor visitor) {
+        ByteBuffer view = buffer.duplicate();
+        CRC32C crc = new CRC32C();
+        int offset = from;
+        while (offset + FRAME_HEADER_SIZE <= to) {
+            int length = view.getInt(offset);
+            if (length <= 0 || (long) offset + FRAME_HEADER_SIZE + length > to) {
+                break;
+            }
+            ByteBuffer body = view.slice(offset + FRAME_HEADER_SIZE, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != view.getInt(offset + 4)) {
+                break;
+            }
+            int frame = offset;
+            offset += FRAME_HEADER_SIZE + length;
+            if (!visitor.visit(frame, body)) {
+                break;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Write the segment's changes through to the file.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @FunctionalInterface
+    interface FrameVisitor {
+        boolean visit(int offset, ByteBuffer body);
+    }
+}
@@ -0,0 +1,120 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.ResourceTransfer;
+import com.genericsim.backend.simulation.TickRecorder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The journal records of one change of a tribe, collected while the change runs
+ * and appended to the {@link TickJournal} when it is committed.
+ *
+ * Pass the session to the {@link com.genericsim.backend.simulation.TickEngine} as
+ * its recorder, and report policy changes with {@link #policyChanged(Tribe)}. Once the
+ * tribe has run {@code simulation.journal.snapshot-interval-ticks} past its latest
+ * snapshot, the session takes a new one from the population store, so long batches
+ * of ticks are checkpointed as they run.
+ */
+public class JournalSession implements TickRecorder {
+
+    /**
+     * A session that records nothing, for when the journal is disabled
+     */
+    static final JournalSession DISABLED = new JournalSession(null, 0, 0, 0);
+
+    private final TickJournal journal;
+    private final long tribeId;
+    private final List<JournalRecord> records = new ArrayList<>();
+    private long policyVersion;
+    private long snapshotTick;
+
+    JournalSession(TickJournal journal, long tribeId, long policyVersion, long snapshotTick) {
+        this.journal = journal;
+        this.tribeId = tribeId;
+        this.policyVersion = policyVersion;
+        this.snapshotTick = snapshotTick;
+    }
+
+    @Override
+    public boolean isRecording() {
+        return journal != null;
+    }
+
+    @Override
+    public void tickRun(Tribe tribe, PopulationStore store, int deaths, List<TickContext.AppliedEffect> effects,
+                        List<ResourceTransfer> transfers) {
+        if (journal != null) {
+            records.add(new JournalRecord.Tick(tribeId, tribe.getCurrentTick(), tribe.getRandomSeed(),
+                policyVersion, deaths, List.copyOf(effects), List.copyOf(transfers)));
+            snapshotIfDue(tribe, store);
+        }
+    }
+
+    @Override
+    public void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick) {
+        if (journal != null) {
+            records.add(new JournalRecord.Skip(tribeId, fromTick, tribe.getCurrentTick()));
+            snapshotIfDue(tribe, store);
+        }
+    }
+
+    /**
+     * Record that the tribe's policy was changed.
+     *
+     * @param tribe the tribe, with its new policy
+     */
+    public void policyChanged(Tribe tribe) {
+        if (journal != null) {
+            policyVersion++;
+            records.add(new JournalRecord.PolicyChange(tribeId, tribe.getCurrentTick(), policyVersion,
+                new TribeStateDTO.PolicyDTO(tribe.getPolicy())));
+        }
+    }
+
+    /**
+     * Record the full state of the tribe.
+     *
+     * @param tribe the tribe, with its technologies and storages loaded
+     * @param store the tribe's population
+     */
+    void snapshot(Tribe tribe, PopulationStore store) {
+        records.add(new JournalRecord.Snapshot(tribeId, tribe.getCurrentTick(), tribe.getRandomSeed(),
+            policyVersion, journal.encodeState(tribe, store)));
+        snapshotTick = tribe.getCurrentTick();
+    }
+
+    private void snapshotIfDue(Tribe tribe, PopulationStore store) {
+        if (tribe.getCurrentTick() - snapshotTick >= journal.getSnapshotIntervalTicks()) {
+            snapshot(tribe, store);
+        }
+    }
+
+    /**
+     * End the change: append the records once the current transaction commits, or
+     * right away if there is none. Nothing is journaled if the transaction rolls back.
+     */
+    public void commit() {
+        if (journal == null || records.isEmpty()) {
+            return;
+        }
+        List<JournalRecord> committed = List.copyOf(records);
+        records.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    journal.append(committed);
+                }
+            });
+        } else {
+            journal.append(committed);
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.config.JournalProperties;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportWriter;
+import com.genericsim.backend.simulation.PopulationStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Append-only journal of what happened to every tribe, kept in memory-mapped
+ * segment files (see {@link JournalSegment}) when {@code simulation.journal.enabled} is set.
+ *
+ * Each change of a tribe is journaled through a {@link JournalSession}: the first
+ * change of a tribe, or one that does not continue its journaled history, starts
+ * with a {@link JournalRecord.Snapshot} of the full tribe; then come the simulated
+ * ticks with their seed, policy version, applied effects and resource transfers,
+ * skipped stretches and policy changes; and every
+ * {@code simulation.journal.snapshot-interval-ticks} another snapshot follows the
+ * tick it was taken at. A tribe can therefore be rebuilt as of any journaled tick
+ * from the nearest snapshot at or before it, by re-running the ticks in between.
+ *
+ * When a record does not fit the current segment, the segment is forced to disk and
+ * a new one started. Once {@code simulation.journal.compact-after-segments} full
+ * segments have piled up, they are compacted into one holding only the records each
+ * tribe needs to be rebuilt as of its last {@code simulation.journal.retained-ticks}.
+ *
+ * An index of every tribe's snapshots and last tick is rebuilt by scanning the
+ * segments on startup and kept up to date as records are appended.
+ */
+@Component
+public class TickJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickJournal.class);
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final JournalProperties properties;
+    private final Path directory;
+    private final NavigableMap<Long, JournalSegment> segments = new TreeMap<>();
+    private final Map<Long, TribeHistory> histories = new HashMap<>();
+    private JournalSegment active;
+
+    public TickJournal(JournalProperties properties) {
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+        if (properties.isEnabled()) {
+            try {
+                open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open the tick journal in " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * @return whether changes are journaled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Start journaling a change of a tribe. Must be called before the change, and
+     * the session committed after it.
+     *
+     * @param tribe the tribe, with its technologies and storages loaded
+     * @param store the tribe's population
+     * @return the session the change is recorded in; one that records nothing if
+     *         the journal is disabled
+     */
+    public JournalSession begin(Tribe tribe, PopulationStore store) {
+        if (!isEnabled()) {
+            return JournalSession.DISABLED;
+        }
+        JournalSession session;
+        synchronized (this) {
+            TribeHistory history = histories.get(tribe.getId());
+            session = history != null && history.continuedBy(tribe)
+                ? new JournalSession(this, tribe.getId(), history.policyVersion, history.latest().tick())
+                : null;
+        }
+        if (session == null) {
+            session = new JournalSession(this, tribe.getId(), 0, tribe.getCurrentTick());
+            session.snapshot(tribe, store);
+        }
+        return session;
+    }
+
+    /**
+     * Encode the full state of a tribe for a snapshot.
+     */
+    byte[] encodeState(Tribe tribe, PopulationStore store) {
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        try {
+            new TribeExportWriter(state, true).writeAll(tribe, store);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return state.toByteArray();
+    }
+
+    long getSnapshotIntervalTicks() {
+        return Math.max(1, properties.getSnapshotIntervalTicks());
+    }
+
+    /**
+     * Append records, in order.
+     *
+     * @param records the records
+     */
+    public synchronized void append(List<? extends JournalRecord> records) {
+        try {
+            for (JournalRecord record : records) {
+                byte[] body = JournalCodec.encode(record);
+                if (!active.fits(body.length)) {
+                    roll(body.length);
+                }
+                int offset = active.append(body);
+                index(active.sequence(), offset, ByteBuffer.wrap(body));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to the tick journal", e);
+        }
+    }
+
+    /**
+     * End the journaled history of a tribe, e.g. once it has been recovered under another ID.
+     *
+     * @param tribeId the ID of the tribe
+     * @param tick the tick the tribe was at
+     */
+    public void retire(Long tribeId, long tick) {
+        append(List.of(new JournalRecord.Retire(tribeId, tick)));
+    }
+
+    /**
+     * Get the IDs of the tribes with a journaled history.
+     *
+     * @return the IDs, in ascending order
+     */
+    public synchronized List<Long> getTribeIds() {
+        return histories.entrySet().stream()
+            .filter(entry -> !entry.getValue().retired)
+            .map(Map.Entry::getKey)
+            .sorted()
+            .toList();
+    }
+
+    /**
+     * Read the history of a tribe, from its latest snapshot at or before a tick, or its
+     * earliest snapshot if there is none, up to the last record or until the visitor
+     * stops. The segments are scanned without holding up appends.
+     *
+     * @param tribeId the ID of the tribe
+     * @param tick the tick to start at; {@code Long.MAX_VALUE} for the latest snapshot
+     * @param visitor receives the tribe's records in order, starting with the snapshot,
+     *                and returns false to stop reading
+     * @return false if the tribe has no history in the journal
+     */
+    public boolean read(Long tribeId, long tick, Predicate<JournalRecord> visitor) {
+        List<JournalSegment> view;
+        int activeEnd;
+        Checkpoint start;
+        synchronized (this) {
+            TribeHistory history = isEnabled() ? histories.get(tribeId) : null;
+            if (history == null || history.retired) {
+                return false;
+            }
+            start = history.snapshotAt(tick);
+            view = new ArrayList<>(segments.tailMap(start.segment(), true).values());
+            activeEnd = active.end();
+        }
+        boolean[] stopped = new boolean[1];
+        for (JournalSegment segment : view) {
+            int from = segment.sequence() == start.segment() ? start.offset() : JournalSegment.HEADER_SIZE;
+            int to = segment == view.get(view.size() - 1) ? activeEnd : segment.end();
+            segment.scan(from, to, (offset, body) -> {
+                if (JournalCodec.tribeIdOf(body) == tribeId) {
+                    stopped[0] = !visitor.test(JournalCodec.decode(body));
+                }
+                return !stopped[0];
+            });
+            if (stopped[0]) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the bytes used by the journal's records.
+     *
+     * @return the bytes used, over all segments
+     */
+    public synchronized long getSize() {
+        return segments.values().stream().mapToLong(JournalSegment::used).sum();
+    }
+
+    /**
+     * Get the number of segment files.
+     *
+     * @return the number of segments, including the one being appended to
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Rewrite the full segments into one holding only the records each tribe needs
+     * to be rebuilt as of its retained ticks: those from the latest snapshot at or
+     * before the first retained tick on. Records of retired tribes are dropped. The
+     * segment being appended to is closed first, so the whole journal is compacted;
+     * appends wait until compaction is done.
+     */
+    public synchronized void compact() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            if (active.used() > 0) {
+                seal(0);
+            }
+            List<JournalSegment> full = new ArrayList<>(segments.headMap(active.sequence(), false).values());
+            if (full.isEmpty()) {
+                return;
+            }
+            long before = full.stream().mapToLong(JournalSegment::used).sum();
+
+            long[] live = new long[1];
+            for (JournalSegment segment : full) {
+                segment.scan(JournalSegment.HEADER_SIZE, segment.end(), (offset, body) -> {
+                    if (isLive(segment.sequence(), offset, body)) {
+                        live[0] += JournalSegment.FRAME_HEADER_SIZE + body.remaining();
+                    }
+                    return true;
+                });
+            }
+            if (JournalSegment.HEADER_SIZE + live[0] > Integer.MAX_VALUE) {
+                logger.warn("Tick journal not compacted: {} bytes of live records do not fit one segment", live[0]);
+                return;
+            }
+
+            // Written under a temporary name, so an interrupted compaction leaves the segments as they were
+            JournalSegment last = full.get(full.size() - 1);
+            Path compacting = directory.resolve(last.sequence() + COMPACTING_SUFFIX);
+            Files.deleteIfExists(compacting);
+            JournalSegment compacted = JournalSegment.create(compacting, last.sequence(),
+                (int) (JournalSegment.HEADER_SIZE + live[0]));
+            for (JournalSegment segment : full) {
+                segment.scan(JournalSegment.HEADER_SIZE, segment.end(), (offset, body) -> {
+                    if (isLive(segment.sequence(), offset, body)) {
+                        compacted.append(body);
+                    }
+                    return true;
+                });
+            }
+            compacted.force();
+            Files.move(compacting, last.path(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (JournalSegment segment : full) {
+                segments.remove(segment.sequence());
+                if (segment != last) {
+                    Files.deleteIfExists(segment.path());
+                }
+            }
+            segments.put(last.sequence(), JournalSegment.open(last.path()));
+            rebuildIndex();
+            logger.info("Compacted the tick journal from {} to {} bytes", before, live[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact the tick journal", e);
+        }
+    }
+
+    /**
+     * Write the segment being appended to through to disk.
+     */
+    @PreDestroy
+    public synchronized void force() {
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTING_SUFFIX)) {
+                    // Left by an interrupted compaction; the segments it read are all still there
+                    Files.delete(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    JournalSegment segment = JournalSegment.open(file);
+                    segments.put(segment.sequence(), segment);
+                }
+            }
+        }
+        rebuildIndex();
+        active = segments.isEmpty() ? newSegment(1, 0) : segments.lastEntry().getValue();
+        logger.info("Opened the tick journal in {}: {} segments, {} tribes", directory, segments.size(),
+            getTribeIds().size());
+    }
+
+    private void roll(int bodyLength) throws IOException {
+        seal(bodyLength);
+        if (segments.size() - 1 >= properties.getCompactAfterSegments()) {
+            compact();
+        }
+    }
+
+    /**
+     * Close the segment being appended to and start the next one, large enough
+     * for a record of the given length.
+     */
+    private void seal(int bodyLength) throws IOException {
+        active.force();
+        active = newSegment(active.sequence() + 1, bodyLength);
+    }
+
+    private JournalSegment newSegment(long sequence, int bodyLength) throws IOException {
+        int size = (int) Math.min(Integer.MAX_VALUE, Math.max(properties.getSegmentSize(),
+            (long) JournalSegment.HEADER_SIZE + JournalSegment.FRAME_HEADER_SIZE + bodyLength));
+        Path path = directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+        JournalSegment segment = JournalSegment.create(path, sequence, size);
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    private void rebuildIndex() {
+        histories.clear();
+        for (JournalSegment segment : segments.values()) {
+            segment.scan(JournalSegment.HEADER_SIZE, segment.end(), (offset, body) -> {
+                index(segment.sequence(), offset, body);
+                return true;
+            });
+        }
+    }
+
+    private void index(long segment, int offset, ByteBuffer body) {
+        long tribeId = JournalCodec.tribeIdOf(body);
+        long tick = JournalCodec.tickOf(body);
+        byte type = JournalCodec.typeOf(body);
+        TribeHistory history = histories.get(tribeId);
+        if (type == JournalCodec.SNAPSHOT) {
+            if (history == null) {
+                history = new TribeHistory();
+                histories.put(tribeId, history);
+            } else if (history.retired || history.lastTick != tick || history.seed != JournalCodec.seedOf(body)) {
+                // A new history under the same ID; the earlier snapshots are of another tribe
+                history.snapshots.clear();
+            }
+            history.retired = false;
+            history.snapshots.add(new Checkpoint(tick, segment, offset));
+        } else if (history == null) {
+            // Only a history that starts with a snapshot can be replayed
+            return;
+        }
+        history.lastTick = tick;
+        switch (type) {
+            case JournalCodec.SNAPSHOT, JournalCodec.TICK -> {
+                history.seed = JournalCodec.seedOf(body);
+                history.policyVersion = JournalCodec.policyVersionOf(body);
+            }
+            case JournalCodec.POLICY_CHANGE -> history.policyVersion = JournalCodec.policyVersionOf(body);
+            case JournalCodec.RETIRE -> history.retired = true;
+            default -> {
+            }
+        }
+    }
+
+    private boolean isLive(long segment, int offset, ByteBuffer body) {
+        TribeHistory history = histories.get(JournalCodec.tribeIdOf(body));
+        if (history == null || history.retired) {
+            return false;
+        }
+        // Rewinding to the first retained tick starts from the snapshot at or before it
+        Checkpoint start = history.snapshotAt(history.lastTick - properties.getRetainedTicks());
+        return segment > start.segment() || segment == start.segment() && offset >= start.offset();
+    }
+
+    /**
+     * Where a snapshot of a tribe is in the journal.
+     */
+    private record Checkpoint(long tick, long segment, int offset) {}
+
+    /**
+     * Where a tribe's snapshots are, and what its history ends with.
+     */
+    private static final class TribeHistory {
+        private final List<Checkpoint> snapshots = new ArrayList<>();
+        private long lastTick;
+        private long seed;
+        private long policyVersion;
+        private boolean retired;
+
+        private Checkpoint latest() {
+            return snapshots.get(snapshots.size() - 1);
+        }
+
+        /**
+         * The latest snapshot at or before a tick, or the earliest snapshot if there is none.
+         */
+        private Checkpoint snapshotAt(long tick) {
+            for (int i = snapshots.size() - 1; i > 0; i--) {
+                if (snapshots.get(i).tick() <= tick) {
+                    return snapshots.get(i);
+                }
+            }
+            return snapshots.get(0);
+        }
+
+        /**
+         * Whether a change of the tribe continues this history, so needs no new snapshot to start it.
+         */
+        private boolean continuedBy(Tribe tribe) {
+            return !retired && lastTick == tribe.getCurrentTick() && seed == tribe.getRandomSeed();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.dto.EffectSettingDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportReader;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.ResourceTransfer;
+import com.genericsim.backend.simulation.TickEngine;
+import com.genericsim.backend.simulation.TickRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Rebuilds tribes in memory from the {@link TickJournal}, as of their last journaled
+ * tick or rewound to an earlier one.
+ *
+ * Replay reads a tribe's records in one sequential scan from the nearest snapshot at
+ * or before the tick it rebuilds: the snapshot is decoded into entities and loaded
+ * into a {@link PopulationStore}, policy changes are applied as they come, and ticks
+ * are re-run by the tick engine, which is deterministic given the seed, so nothing but
+ * the snapshots needs to be stored of a tick's outcome. Each re-run tick is checked
+ * against the deaths, effects and transfers the journal recorded for it.
+ */
+@Component
+public class TribeReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TribeReplayer.class);
+
+    private final TickJournal journal;
+    private final TickEngine tickEngine;
+
+    public TribeReplayer(TickJournal journal, TickEngine tickEngine) {
+        this.journal = journal;
+        // Replayed ticks were timed and counted when first simulated
+        this.tickEngine = tickEngine.withoutMetrics();
+    }
+
+    /**
+     * Rebuild a tribe as of the last record journaled for it.
+     *
+     * @param tribeId the ID of the tribe in the journal
+     * @return the replayed tribe, or empty if the tribe has no history in the journal
+     */
+    public Optional<JournalReplay> replay(Long tribeId) {
+        return replay(tribeId, Long.MAX_VALUE);
+    }
+
+    /**
+     * Rebuild a tribe as it was right after a tick was simulated, before any change
+     * made at that tick, such as a new policy.
+     *
+     * @param tribeId the ID of the tribe in the journal
+     * @param tick the tick to rebuild the tribe at; {@code Long.MAX_VALUE} for its last journaled tick
+     * @return the replayed tribe, or empty if the tribe has no history in the journal
+     * @throws IllegalArgumentException if the tick is before the tribe's earliest journaled
+     *         snapshot or after its last journaled tick
+     */
+    public Optional<JournalReplay> replay(Long tribeId, long tick) {
+        Replay replay = new Replay(tick);
+        if (!journal.read(tribeId, tick, replay)) {
+            return Optional.empty();
+        }
+        if (replay.tribe == null) {
+            throw new IllegalArgumentException("Tick " + tick + " is before the journaled history of tribe "
+                + tribeId + ", which starts at tick " + replay.snapshotTick);
+        }
+        if (tick != Long.MAX_VALUE && replay.tribe.getCurrentTick() < tick) {
+            throw new IllegalArgumentException("Tick " + tick + " is after the last journaled tick "
+                + replay.tribe.getCurrentTick() + " of tribe " + tribeId);
+        }
+        replay.store.flush(replay.tribe);
+        if (replay.divergentTicks > 0) {
+            logger.warn("Replay of tribe {} diverged from the journal in {} of {} ticks", tribeId,
+                replay.divergentTicks, replay.ticksReplayed);
+        }
+        return Optional.of(new JournalReplay(replay.tribe, replay.snapshotTick, replay.ticksReplayed,
+            replay.divergentTicks));
+    }
+
+    /**
+     * Copy a journaled policy onto a tribe's policy.
+     */
+    static void applyPolicy(Tribe tribe, TribeStateDTO.PolicyDTO journaled, long tick) {
+        Policy policy = tribe.getPolicy();
+        if (policy == null) {
+            policy = new Policy();
+            tribe.setPolicy(policy);
+        }
+        policy.setName(journaled.getName());
+        policy.setDescription(journaled.getDescription());
+        policy.setFoodTaxRate(journaled.getFoodTaxRate());
+        policy.setWaterTaxRate(journaled.getWaterTaxRate());
+        policy.setHuntingIncentive(journaled.getHuntingIncentive());
+        policy.setGatheringIncentive(journaled.getGatheringIncentive());
+        policy.setSharingPriority(Policy.SharingPriority.valueOf(journaled.getSharingPriority()));
+        policy.setEnableCentralStorage(journaled.isEnableCentralStorage());
+        policy.setCentralStorageTaxRate(journaled.getCentralStorageTaxRate());
+        policy.setStorageDecayRate(journaled.getStorageDecayRate());
+        policy.setStorageDecayInterval(journaled.getStorageDecayInterval());
+        policy.setEffectSettings(EffectSettingDTO.toSettings(journaled.getEffects()));
+        policy.setLastModifiedTick(tick);
+    }
+
+    /**
+     * Applies a tribe's records as they are read, up to the target tick, and compares
+     * the ticks it re-runs with the journaled ones.
+     */
+    private final class Replay implements Predicate<JournalRecord>, TickRecorder {
+
+        private final long targetTick;
+        private Tribe tribe;
+        private PopulationStore store;
+        private long snapshotTick;
+        private long ticksReplayed;
+        private long divergentTicks;
+        private JournalRecord.Tick expected;
+
+        private Replay(long targetTick) {
+            this.targetTick = targetTick;
+        }
+
+        @Override
+        public boolean test(JournalRecord record) {
+            if (record instanceof JournalRecord.Snapshot snapshot) {
+                if (tribe != null) {
+                    // The state was re-run up to here; carry on from it
+                    return true;
+                }
+                snapshotTick = snapshot.tick();
+                if (snapshotTick > targetTick) {
+                    return false;
+                }
+                try (TribeExportReader reader = new TribeExportReader(new ByteArrayInputStream(snapshot.state()))) {
+                    tribe = reader.readAll();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Corrupt snapshot of tribe " + snapshot.tribeId()
+                        + " at tick " + snapshot.tick(), e);
+                }
+                store = PopulationStore.load(tribe);
+            } else if (tribe == null) {
+                return true;
+            } else if (record instanceof JournalRecord.PolicyChange change) {
+                if (change.tick() >= targetTick) {
+                    return false;
+                }
+                applyPolicy(tribe, change.policy(), change.tick());
+            } else if (record instanceof JournalRecord.Tick tick) {
+                if (tick.tick() > targetTick) {
+                    return false;
+                }
+                expected = tick;
+                tickEngine.advance(tribe, store, tick.tick() - tribe.getCurrentTick(), this);
+                expected = null;
+            } else if (record instanceof JournalRecord.Skip skip) {
+                // Quiescent ticks are skipped in closed form, so a skip can stop anywhere
+                tickEngine.advance(tribe, store, Math.min(skip.tick(), targetTick) - tribe.getCurrentTick(), this);
+                return skip.tick() < targetTick;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isRecording() {
+            return true;
+        }
+
+        @Override
+        public void tickRun(Tribe tribe, PopulationStore store, int deaths, List<TickContext.AppliedEffect> effects,
+                            List<ResourceTransfer> transfers) {
+            ticksReplayed++;
+            if (expected == null || expected.tick() != tribe.getCurrentTick() || expected.deaths() != deaths
+                    || !expected.effects().equals(effects) || !expected.transfers().equals(transfers)) {
+                divergentTicks++;
+            }
+        }
+
+        @Override
+        public void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick) {
+            ticksReplayed += tribe.getCurrentTick() - fromTick;
+            if (expected != null) {
+                divergentTicks++;
+            }
+        }
+    }
+}
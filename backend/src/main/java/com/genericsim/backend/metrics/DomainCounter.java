@@ -0,0 +1,47 @@
+package com.genericsim.backend.metrics;
+
+/**
+ * Events of the simulation counted per tick for every tribe (see {@link DomainCounters}),
+ * named as they are reported.
+ */
+public enum DomainCounter {
+    /**
+     * Families that could not cover their upkeep from their own storage
+     */
+    SHORTFALLS("shortfalls"),
+    /**
+     * Shortfalls covered by borrowing from another family
+     */
+    BORROWS("borrows"),
+    /**
+     * Shortfalls no other family lent to
+     */
+    BORROW_FAILURES("borrowFailures"),
+    /**
+     * Shortfalls covered, at least in part, from central storage
+     */
+    CENTRAL_WITHDRAWALS("centralWithdrawals"),
+    /**
+     * Members picked by selectMemberToSuffer to lose health for an uncovered shortfall
+     */
+    SUFFERED("suffered"),
+    DEATHS("deaths"),
+    /**
+     * Food collected into central storage by the central storage tax
+     */
+    FOOD_TAXED("foodTaxed"),
+    /**
+     * Water collected into central storage by the central storage tax
+     */
+    WATER_TAXED("waterTaxed");
+
+    private final String property;
+
+    DomainCounter(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
@@ -0,0 +1,94 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.config.CounterProperties;
+import com.genericsim.backend.model.Tribe;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the {@link DomainCounter}s of every tribe, counted by the tick engine
+ * and policy effects as they run and kept per tick for the last
+ * {@code simulation.counters.retained-ticks} ticks (see {@link TribeCounters}).
+ *
+ * Published through Actuator as {@code simulation.domain.events}, the total of each
+ * counter over all tribes, and {@code simulation.domain.rate.max}, the highest
+ * per-tick rate of each counter of any tribe over the last
+ * {@code simulation.counters.rate-window-ticks} ticks, to alert on e.g. a tribe
+ * whose shortfalls spike. The counters of a tribe start with the first tick
+ * processed after startup.
+ */
+@Component
+public class DomainCounters {
+
+    /**
+     * Counters that count nothing, for engines built outside Spring
+     */
+    public static final DomainCounters NONE = new DomainCounters();
+
+    private final int retainedTicks;
+    private final int rateWindowTicks;
+    private final LongAdder[] totals;
+    private final Map<Long, TribeCounters> tribes = new ConcurrentHashMap<>();
+
+    private DomainCounters() {
+        this.retainedTicks = 1;
+        this.rateWindowTicks = 1;
+        this.totals = null;
+    }
+
+    @Autowired
+    public DomainCounters(CounterProperties properties, MeterRegistry registry) {
+        this.retainedTicks = Math.max(1, properties.getRetainedTicks());
+        this.rateWindowTicks = Math.max(1, properties.getRateWindowTicks());
+        this.totals = new LongAdder[DomainCounter.values().length];
+        for (DomainCounter counter : DomainCounter.values()) {
+            LongAdder total = new LongAdder();
+            totals[counter.ordinal()] = total;
+            FunctionCounter.builder("simulation.domain.events", total, LongAdder::sum)
+                .description("Simulation events counted over all tribes")
+                .tag("counter", counter.getProperty())
+                .register(registry);
+            Gauge.builder("simulation.domain.rate.max", this, counters -> counters.maxRate(counter))
+                .description("Highest recent per-tick rate of a simulation event in any tribe")
+                .tag("counter", counter.getProperty())
+                .register(registry);
+        }
+    }
+
+    /**
+     * Get the counters a tick of a tribe counts into.
+     *
+     * @param tribe the tribe
+     * @return the tribe's counters; counters that count nothing if the tribe was never saved
+     */
+    public TribeCounters forTribe(Tribe tribe) {
+        if (totals == null || tribe.getId() == null) {
+            return TribeCounters.NONE;
+        }
+        return tribes.computeIfAbsent(tribe.getId(), id -> new TribeCounters(totals, retainedTicks, rateWindowTicks));
+    }
+
+    /**
+     * @param tribeId the ID of the tribe
+     * @return the tribe's counters, or empty if it has not been ticked since startup
+     */
+    public Optional<TribeCounters> get(Long tribeId) {
+        return Optional.ofNullable(tribes.get(tribeId));
+    }
+
+    private double maxRate(DomainCounter counter) {
+        double max = 0;
+        for (TribeCounters counters : tribes.values()) {
+            max = Math.max(max, counters.rate(counter));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,116 @@
+package com.genericsim.backend.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ways of reducing a range of metric points to the number a chart needs.
+ */
+public enum Downsampling {
+
+    /**
+     * Split the range into equal buckets of ticks, one point per bucket with the
+     * minimum, maximum and average of the points in it
+     */
+    MIN_MAX_AVG {
+        @Override
+        List<MetricPoint> apply(List<MetricPoint> points, long fromTick, long toTick, int count) {
+            long width = Math.max(1, (toTick - fromTick + count) / count);
+            List<MetricPoint> sampled = new ArrayList<>(count);
+            int start = 0;
+            while (start < points.size()) {
+                long bucket = bucketOf(points.get(start).tick(), fromTick, width);
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                double sum = 0;
+                int end = start;
+                while (end < points.size() && bucketOf(points.get(end).tick(), fromTick, width) == bucket) {
+                    MetricPoint point = points.get(end++);
+                    min = Math.min(min, point.min());
+                    max = Math.max(max, point.max());
+                    sum += point.avg();
+                }
+                sampled.add(new MetricPoint(fromTick + bucket * width, min, max, sum / (end - start)));
+                start = end;
+            }
+            return sampled;
+        }
+
+        /**
+         * A coarse point may start before the range; it goes in the first bucket.
+         */
+        private long bucketOf(long tick, long fromTick, long width) {
+            return Math.max(0, Math.floorDiv(tick - fromTick, width));
+        }
+    },
+
+    /**
+     * Largest-Triangle-Three-Buckets: keep the first and last points, and from each
+     * bucket in between the point forming the largest triangle with the point kept
+     * before it and the average of the next bucket, which preserves the shape of a
+     * line chart
+     */
+    LTTB {
+        @Override
+        List<MetricPoint> apply(List<MetricPoint> points, long fromTick, long toTick, int count) {
+            int size = points.size();
+            double every = (double) (size - 2) / (count - 2);
+            List<MetricPoint> sampled = new ArrayList<>(count);
+            sampled.add(points.get(0));
+            int kept = 0;
+            for (int i = 0; i < count - 2; i++) {
+                int nextStart = (int) ((i + 1) * every) + 1;
+                int nextEnd = Math.min((int) ((i + 2) * every) + 1, size);
+                double nextTick = 0;
+                double nextValue = 0;
+                for (int j = nextStart; j < nextEnd; j++) {
+                    nextTick += points.get(j).tick();
+                    nextValue += points.get(j).avg();
+                }
+                nextTick /= nextEnd - nextStart;
+                nextValue /= nextEnd - nextStart;
+
+                MetricPoint previous = points.get(kept);
+                double largest = -1;
+                for (int j = (int) (i * every) + 1; j < nextStart; j++) {
+                    MetricPoint point = points.get(j);
+                    double area = Math.abs((previous.tick() - nextTick) * (point.avg() - previous.avg())
+                        - (previous.tick() - point.tick()) * (nextValue - previous.avg()));
+                    if (area > largest) {
+                        largest = area;
+                        kept = j;
+                    }
+                }
+                sampled.add(points.get(kept));
+            }
+            sampled.add(points.get(size - 1));
+            return sampled;
+        }
+    };
+
+    /**
+     * The fewest points a query can ask for, since LTTB keeps the first and last points
+     */
+    public static final int MIN_POINTS = 3;
+
+    /**
+     * Reduce points to at most a number of points. Called only with more points than that.
+     *
+     * @param points the points in the range, in tick order
+     * @param fromTick the first tick of the range
+     * @param toTick the last tick of the range
+     * @param count the number of points to reduce to, at least {@link #MIN_POINTS}
+     * @return the reduced points, in tick order
+     */
+    abstract List<MetricPoint> apply(List<MetricPoint> points, long fromTick, long toTick, int count);
+
+    /**
+     * @param name a downsampling name, in any case
+     * @return the downsampling with that name, or empty if there is none
+     */
+    public static Optional<Downsampling> fromName(String name) {
+        return Arrays.stream(values()).filter(downsampling -> downsampling.name().equalsIgnoreCase(name)).findFirst();
+    }
+}
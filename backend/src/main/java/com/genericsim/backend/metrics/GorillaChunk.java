@@ -0,0 +1,238 @@
+package com.genericsim.backend.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A block of time series points with one or more value columns, compressed as in
+ * the Gorilla time series database: ticks are stored as the difference between
+ * consecutive tick deltas, so points one tick apart take one bit each, and every value
+ * is XORed with the previous value of its column, so an unchanged value takes one bit
+ * and a changed one only the bits that differ.
+ *
+ * Points are appended in tick order and the chunk is decoded from the start.
+ * Not thread-safe.
+ */
+final class GorillaChunk {
+
+    private final int columns;
+    private long[] words = new long[8];
+    private int bitLength;
+    private int count;
+    private long firstTick;
+    private long lastTick;
+    private long lastDelta;
+    private final long[] lastValues;
+    private final int[] lastLeading;
+    private final int[] lastTrailing;
+
+    GorillaChunk(int columns) {
+        this.columns = columns;
+        this.lastValues = new long[columns];
+        this.lastLeading = new int[columns];
+        this.lastTrailing = new int[columns];
+    }
+
+    int size() {
+        return count;
+    }
+
+    long firstTick() {
+        return firstTick;
+    }
+
+    long lastTick() {
+        return lastTick;
+    }
+
+    /**
+     * @return the bytes held by the encoded points
+     */
+    int sizeInBytes() {
+        return words.length * Long.BYTES;
+    }
+
+    /**
+     * Append a point.
+     *
+     * @param tick the tick, after the last one appended
+     * @param values one value per column
+     */
+    void append(long tick, double[] values) {
+        if (count == 0) {
+            firstTick = tick;
+            writeBits(tick, 64);
+            for (int c = 0; c < columns; c++) {
+                lastValues[c] = Double.doubleToRawLongBits(values[c]);
+                writeBits(lastValues[c], 64);
+            }
+        } else {
+            long delta = tick - lastTick;
+            writeDeltaOfDelta(delta - lastDelta);
+            lastDelta = delta;
+            for (int c = 0; c < columns; c++) {
+                writeValue(c, Double.doubleToRawLongBits(values[c]));
+            }
+        }
+        lastTick = tick;
+        count++;
+    }
+
+    /**
+     * Release the room reserved for further points, once no more will be appended.
+     */
+    void seal() {
+        words = Arrays.copyOf(words, (bitLength + 63) >>> 6);
+    }
+
+    /**
+     * Decode the points in order.
+     *
+     * @param visitor receives each point; the values array is reused between points
+     */
+    void forEach(PointVisitor visitor) {
+        Reader reader = new Reader();
+        long[] bits = new long[columns];
+        int[] leading = new int[columns];
+        int[] trailing = new int[columns];
+        double[] values = new double[columns];
+        long tick = 0;
+        long delta = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                tick = reader.read(64);
+                for (int c = 0; c < columns; c++) {
+                    bits[c] = reader.read(64);
+                }
+            } else {
+                delta += reader.readDeltaOfDelta();
+                tick += delta;
+                for (int c = 0; c < columns; c++) {
+                    if (reader.read(1) == 0) {
+                        continue;
+                    }
+                    if (reader.read(1) == 1) {
+                        leading[c] = (int) reader.read(5);
+                        trailing[c] = 64 - leading[c] - (int) reader.read(6) - 1;
+                    }
+                    bits[c] ^= reader.read(64 - leading[c] - trailing[c]) << trailing[c];
+                }
+            }
+            for (int c = 0; c < columns; c++) {
+                values[c] = Double.longBitsToDouble(bits[c]);
+            }
+            visitor.visit(tick, values);
+        }
+    }
+
+    /**
+     * '0' for no change in delta, then a '10', '110' or '1110' prefix for a 7, 9 or
+     * 12 bit difference, or '1111' for a full one.
+     */
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    /**
+     * '0' for an unchanged value; '10' and the changed bits if they fall within the
+     * previous window of meaningful bits; otherwise '11', the number of leading zeros,
+     * the number of meaningful bits and the meaningful bits.
+     */
+    private void writeValue(int column, long value) {
+        long xor = value ^ lastValues[column];
+        lastValues[column] = value;
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+        int trailing = Long.numberOfTrailingZeros(xor);
+        int previousMeaningful = 64 - lastLeading[column] - lastTrailing[column];
+        if (previousMeaningful < 64 && leading >= lastLeading[column] && trailing >= lastTrailing[column]) {
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailing[column], previousMeaningful);
+        } else {
+            int meaningful = 64 - leading - trailing;
+            writeBits(0b11, 2);
+            writeBits(leading, 5);
+            writeBits(meaningful - 1, 6);
+            writeBits(xor >>> trailing, meaningful);
+            lastLeading[column] = leading;
+            lastTrailing[column] = trailing;
+        }
+    }
+
+    /**
+     * Append the low bits of a value, most significant first.
+     */
+    private void writeBits(long value, int bits) {
+        if (((bitLength + bits + 63) >>> 6) > words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int index = bitLength >>> 6;
+        int free = 64 - (bitLength & 63);
+        if (bits <= free) {
+            words[index] |= masked << (free - bits);
+        } else {
+            words[index] |= masked >>> (bits - free);
+            words[index + 1] |= masked << (64 - (bits - free));
+        }
+        bitLength += bits;
+    }
+
+    @FunctionalInterface
+    interface PointVisitor {
+        void visit(long tick, double[] values);
+    }
+
+    private final class Reader {
+        private int position;
+
+        private long read(int bits) {
+            int index = position >>> 6;
+            int free = 64 - (position & 63);
+            long value;
+            if (bits <= free) {
+                value = words[index] >>> (free - bits);
+            } else {
+                value = (words[index] << (bits - free)) | (words[index + 1] >>> (64 - (bits - free)));
+            }
+            position += bits;
+            return bits == 64 ? value : value & ((1L << bits) - 1);
+        }
+
+        private long readSigned(int bits) {
+            return read(bits) << (64 - bits) >> (64 - bits);
+        }
+
+        private long readDeltaOfDelta() {
+            if (read(1) == 0) {
+                return 0;
+            }
+            if (read(1) == 0) {
+                return readSigned(7);
+            }
+            if (read(1) == 0) {
+                return readSigned(9);
+            }
+            if (read(1) == 0) {
+                return readSigned(12);
+            }
+            return read(64);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.genericsim.backend.metrics;
+
+/**
+ * A point of a metric time series. A point at a resolution of one tick, or one picked
+ * by LTTB from such points, has the same minimum, maximum and average.
+ *
+ * @param tick the tick, or the first tick of the range the point covers
+ * @param min the lowest value in the range
+ * @param max the highest value in the range
+ * @param avg the average value in the range
+ */
+public record MetricPoint(long tick, double min, double max, double avg) {}
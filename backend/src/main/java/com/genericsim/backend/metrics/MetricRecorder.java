@@ -0,0 +1,102 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.ResourceTransfer;
+import com.genericsim.backend.simulation.TickRecorder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The metrics of the ticks of one change of a tribe, collected while the change runs
+ * and appended to the {@link TribeMetricStore} when it is committed.
+ *
+ * Pass the recorder to the {@link com.genericsim.backend.simulation.TickEngine}. It takes
+ * the value of every {@link TribeMetric} after each simulated tick, and after each
+ * skipped stretch. It does not ask the engine to measure resource transfers.
+ */
+public class MetricRecorder implements TickRecorder {
+
+    /**
+     * A recorder that records nothing, for when metrics are disabled
+     */
+    static final MetricRecorder DISABLED = new MetricRecorder(null);
+
+    private static final int METRICS = TribeMetric.values().length;
+    private static final TribeMetric[] ALL = TribeMetric.values();
+
+    private final MetricSeries series;
+    private long[] ticks = new long[16];
+    private double[] values = new double[16 * METRICS];
+    private int count;
+
+    MetricRecorder(MetricSeries series) {
+        this.series = series;
+    }
+
+    @Override
+    public boolean isRecording() {
+        return false;
+    }
+
+    @Override
+    public void tickRun(Tribe tribe, PopulationStore store, int deaths, List<TickContext.AppliedEffect> effects,
+                        List<ResourceTransfer> transfers) {
+        record(tribe, store);
+    }
+
+    @Override
+    public void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick) {
+        record(tribe, store);
+    }
+
+    private void record(Tribe tribe, PopulationStore store) {
+        if (series == null) {
+            return;
+        }
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            values = Arrays.copyOf(values, count * 2 * METRICS);
+        }
+        ticks[count] = tribe.getCurrentTick();
+        for (int m = 0; m < METRICS; m++) {
+            values[count * METRICS + m] = ALL[m].valueOf(tribe, store);
+        }
+        count++;
+    }
+
+    /**
+     * End the change: append the metrics once the current transaction commits, or
+     * right away if there is none. Nothing is recorded if the transaction rolls back.
+     */
+    public void commit() {
+        if (series == null || count == 0) {
+            return;
+        }
+        long[] committedTicks = Arrays.copyOf(ticks, count);
+        double[] committedValues = Arrays.copyOf(values, count * METRICS);
+        count = 0;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(committedTicks, committedValues);
+                }
+            });
+        } else {
+            append(committedTicks, committedValues);
+        }
+    }
+
+    private void append(long[] committedTicks, double[] committedValues) {
+        double[] row = new double[METRICS];
+        for (int i = 0; i < committedTicks.length; i++) {
+            System.arraycopy(committedValues, i * METRICS, row, 0, METRICS);
+            series.append(committedTicks[i], row);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.config.MetricsProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The metric time series of one tribe, kept at every configured resolution.
+ *
+ * Each tier holds its points in {@link GorillaChunk}s of {@code simulation.metrics.chunk-points}
+ * points, with one column per metric at a resolution of one tick, and a minimum, maximum
+ * and average column per metric above that. A coarser tier aggregates the recorded ticks
+ * of each bucket as they come in, and writes the bucket once a tick of the next one is
+ * recorded. Once the last point of a full chunk is older than the tier's retention, the
+ * chunk is dropped.
+ */
+final class MetricSeries {
+
+    private static final int METRICS = TribeMetric.values().length;
+
+    private final Tier[] tiers;
+    private long latestTick = -1;
+
+    MetricSeries(List<MetricsProperties.Tier> tiers, int chunkPoints) {
+        this.tiers = tiers.stream()
+            .sorted(Comparator.comparingLong(MetricsProperties.Tier::getResolutionTicks))
+            .map(tier -> new Tier(Math.max(1, tier.getResolutionTicks()), tier.getRetentionTicks(),
+                Math.max(2, chunkPoints)))
+            .toArray(Tier[]::new);
+    }
+
+    /**
+     * @return the latest tick recorded, or -1 if there is none
+     */
+    synchronized long latestTick() {
+        return latestTick;
+    }
+
+    /**
+     * Record the metrics of a tick. A tick at or before the latest one recorded is
+     * ignored, since the series only grows forward.
+     *
+     * @param tick the tick
+     * @param values the value of every {@link TribeMetric}, in declaration order
+     */
+    synchronized void append(long tick, double[] values) {
+        if (tick <= latestTick) {
+            return;
+        }
+        latestTick = tick;
+        for (Tier tier : tiers) {
+            tier.append(tick, values);
+        }
+    }
+
+    /**
+     * Read the points of a metric from the coarsest tier that still holds {@code fromTick}
+     * with no more than one point per {@code points}th of the range, or else from the finest
+     * tier that holds it, or else from the coarsest tier.
+     *
+     * @param metric the metric
+     * @param fromTick the first tick of the range
+     * @param toTick the last tick of the range
+     * @param points the number of points the range is to be shown with
+     * @return the resolution read and the points in the range, in tick order
+     */
+    synchronized Range read(TribeMetric metric, long fromTick, long toTick, int points) {
+        long ideal = Math.max(1, (toTick - fromTick + 1) / points);
+        Tier chosen = null;
+        for (Tier tier : tiers) {
+            if (tier.holds(fromTick) && tier.resolution <= ideal) {
+                chosen = tier;
+            }
+        }
+        if (chosen == null) {
+            chosen = Arrays.stream(tiers).filter(tier -> tier.holds(fromTick)).findFirst()
+                .orElse(tiers[tiers.length - 1]);
+        }
+        List<MetricPoint> read = new ArrayList<>();
+        chosen.read(metric.ordinal(), fromTick, toTick, read);
+        return new Range(chosen.resolution, read);
+    }
+
+    /**
+     * @return the bytes held by the encoded points of every tier
+     */
+    synchronized long sizeInBytes() {
+        return Arrays.stream(tiers).mapToLong(Tier::sizeInBytes).sum();
+    }
+
+    /**
+     * Points read from a series.
+     *
+     * @param resolutionTicks the ticks per point of the tier they were read from
+     * @param points the points, in tick order
+     */
+    record Range(long resolutionTicks, List<MetricPoint> points) {}
+
+    private static final class Tier {
+
+        private final long resolution;
+        private final long retention;
+        private final int chunkPoints;
+        private final int columns;
+        private final ArrayDeque<GorillaChunk> chunks = new ArrayDeque<>();
+        private GorillaChunk open;
+
+        /**
+         * Every point up to this tick has been dropped
+         */
+        private long droppedThrough = Long.MIN_VALUE;
+
+        // The bucket being aggregated, for a tier coarser than one tick
+        private final double[] row;
+        private long bucketTick;
+        private int bucketTicks;
+
+        private Tier(long resolution, long retention, int chunkPoints) {
+            this.resolution = resolution;
+            this.retention = retention;
+            this.chunkPoints = chunkPoints;
+            this.columns = resolution == 1 ? METRICS : 3 * METRICS;
+            this.open = new GorillaChunk(columns);
+            this.row = new double[columns];
+        }
+
+        private boolean holds(long tick) {
+            return tick > droppedThrough;
+        }
+
+        private void append(long tick, double[] values) {
+            if (resolution == 1) {
+                write(tick, values);
+            } else {
+                long bucket = Math.floorDiv(tick, resolution) * resolution;
+                if (bucketTicks > 0 && bucket != bucketTick) {
+                    write(bucketTick, bucketRow());
+                    bucketTicks = 0;
+                }
+                if (bucketTicks == 0) {
+                    bucketTick = bucket;
+                    for (int m = 0; m < METRICS; m++) {
+                        row[3 * m] = values[m];
+                        row[3 * m + 1] = values[m];
+                        row[3 * m + 2] = values[m];
+                    }
+                } else {
+                    for (int m = 0; m < METRICS; m++) {
+                        row[3 * m] = Math.min(row[3 * m], values[m]);
+                        row[3 * m + 1] = Math.max(row[3 * m + 1], values[m]);
+                        row[3 * m + 2] += values[m];
+                    }
+                }
+                bucketTicks++;
+            }
+            dropExpired(tick);
+        }
+
+        /**
+         * @return the pending bucket, with the sums turned into averages
+         */
+        private double[] bucketRow() {
+            double[] averaged = row.clone();
+            for (int m = 0; m < METRICS; m++) {
+                averaged[3 * m + 2] /= bucketTicks;
+            }
+            return averaged;
+        }
+
+        private void write(long tick, double[] values) {
+            open.append(tick, values);
+            if (open.size() == chunkPoints) {
+                open.seal();
+                chunks.addLast(open);
+                open = new GorillaChunk(columns);
+            }
+        }
+
+        private void dropExpired(long latestTick) {
+            if (retention <= 0) {
+                return;
+            }
+            while (!chunks.isEmpty() && chunks.peekFirst().lastTick() < latestTick - retention) {
+                droppedThrough = chunks.removeFirst().lastTick() + resolution - 1;
+            }
+        }
+
+        /**
+         * Add the points of a metric that overlap a range, including a pending bucket.
+         */
+        private void read(int metric, long fromTick, long toTick, List<MetricPoint> points) {
+            for (GorillaChunk chunk : chunks) {
+                read(chunk, metric, fromTick, toTick, points);
+            }
+            read(open, metric, fromTick, toTick, points);
+            if (bucketTicks > 0 && overlaps(bucketTick, fromTick, toTick)) {
+                double[] pending = bucketRow();
+                points.add(new MetricPoint(bucketTick, pending[3 * metric], pending[3 * metric + 1],
+                    pending[3 * metric + 2]));
+            }
+        }
+
+        private void read(GorillaChunk chunk, int metric, long fromTick, long toTick, List<MetricPoint> points) {
+            if (chunk.size() == 0 || chunk.lastTick() + resolution <= fromTick || chunk.firstTick() > toTick) {
+                return;
+            }
+            chunk.forEach((tick, values) -> {
+                if (!overlaps(tick, fromTick, toTick)) {
+                    return;
+                }
+                if (resolution == 1) {
+                    double value = values[metric];
+                    points.add(new MetricPoint(tick, value, value, value));
+                } else {
+                    points.add(new MetricPoint(tick, values[3 * metric], values[3 * metric + 1],
+                        values[3 * metric + 2]));
+                }
+            });
+        }
+
+        private boolean overlaps(long tick, long fromTick, long toTick) {
+            return tick <= toTick && tick + resolution > fromTick;
+        }
+
+        private long sizeInBytes() {
+            long size = open.sizeInBytes();
+            for (GorillaChunk chunk : chunks) {
+                size += chunk.sizeInBytes();
+            }
+            return size;
+        }
+    }
+}
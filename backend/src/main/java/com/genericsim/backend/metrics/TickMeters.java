@@ -0,0 +1,219 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.config.TickProperties;
+import com.genericsim.backend.policy.PolicyEffect;
+import com.genericsim.backend.policy.PolicyPhase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers of where tick time goes, published through Actuator: the whole
+ * tick ({@code simulation.tick}), each hard-coded {@link Phase} ({@code simulation.tick.phase},
+ * tagged with the phase) and each policy effect ({@code simulation.policy.effect}, tagged
+ * with the effect, its phase and whether it applied). Ticks and effect executions are
+ * also counted, every one of them ({@code simulation.tick.count} and
+ * {@code simulation.policy.effect.count}, tagged like the effect timers).
+ *
+ * Timers are registered up front, so the tick path only reads the clock and records
+ * into a timer it already holds. Percentile histograms are switched on for every
+ * {@code simulation} meter in application.properties.
+ *
+ * Timing every tick would more than double a small tribe's tick time: a 6-member tick
+ * takes about a microsecond, and reading the clock and recording each phase and effect
+ * into percentile histograms adds about 1.5 (see TickBenchmark). So only a random one in
+ * {@code simulation.tick.timer-sample-interval} ticks is timed, phases and effects
+ * included (see {@link #sample()}); the timers' distributions are unchanged, while their
+ * counts are those of the sampled ticks, so rates are read from the counters, which are
+ * incremented on every tick without reading the clock. At the default of 32 the benchmark
+ * measures no difference from untimed ticks beyond its error of a few percent.
+ * Persistence and DTO conversion, done once per change, are always timed.
+ */
+@Component
+public class TickMeters {
+
+    /**
+     * Meters that record nothing and do not read the clock, for engines built outside
+     * Spring and for ticks that are not timed
+     */
+    public static final TickMeters NONE = new TickMeters(new CompositeMeterRegistry(), 1, false);
+
+    /**
+     * The timed hard-coded parts of processing a tick.
+     */
+    public enum Phase {
+        GATHERING,
+        UPKEEP,
+        AGING,
+        PROGRESS,
+        /**
+         * Removing the dead and summing family storage into the tribe resources
+         */
+        CLEANUP,
+        /**
+         * Saving the tick results to the entities and, without write-behind, the database
+         */
+        PERSISTENCE,
+        DTO_CONVERSION
+    }
+
+    private final MeterRegistry registry;
+    private final Timer tick;
+    private final Counter tickCount;
+    private final Timer[] phases;
+    private final int sampleInterval;
+    private final boolean enabled;
+
+    /**
+     * Create meters that time every tick.
+     *
+     * @param registry the registry to register the timers with
+     */
+    public TickMeters(MeterRegistry registry) {
+        this(registry, 1, true);
+    }
+
+    @Autowired
+    public TickMeters(MeterRegistry registry, TickProperties properties) {
+        this(registry, properties.getTimerSampleInterval(), true);
+    }
+
+    private TickMeters(MeterRegistry registry, int sampleInterval, boolean enabled) {
+        this.registry = registry;
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.enabled = enabled;
+        this.tick = Timer.builder("simulation.tick")
+            .description("Time to simulate one tick of a tribe, in a sample of ticks")
+            .register(registry);
+        this.tickCount = Counter.builder("simulation.tick.count")
+            .description("Ticks simulated, timed or not")
+            .register(registry);
+        this.phases = new Timer[Phase.values().length];
+        for (Phase phase : Phase.values()) {
+            phases[phase.ordinal()] = Timer.builder("simulation.tick.phase")
+                .description("Time spent in a hard-coded phase of processing a tick; the simulation phases in a sample of ticks")
+                .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+    }
+
+    /**
+     * Decide whether a tick is timed. Ticks are picked at random rather than by tick
+     * number, so phases and effects that run every few ticks are sampled fairly.
+     *
+     * @return these meters if the tick is timed, or {@link #NONE}
+     */
+    public TickMeters sample() {
+        return sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0 ? this : NONE;
+    }
+
+    /**
+     * @return whether these meters record anything; false for {@link #NONE}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the start of a timed section, to pass to one of the record methods
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Count a tick, whether or not it is timed.
+     */
+    public void countTick() {
+        if (enabled) {
+            tickCount.increment();
+        }
+    }
+
+    /**
+     * Record a tick that started at {@code start}.
+     */
+    public void recordTick(long start) {
+        if (enabled) {
+            tick.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Record a phase that started at {@code start}.
+     *
+     * @return the end of the phase, to start the next one from
+     */
+    public long recordPhase(Phase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        long end = System.nanoTime();
+        phases[phase.ordinal()].record(end - start, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    /**
+     * Register the timers and counters of a policy effect.
+     *
+     * @param effect the effect
+     * @return the timers, of the effect's {@code shouldApply} and {@code apply} together,
+     *         and the counters
+     */
+    public EffectTimers effectTimers(PolicyEffect effect) {
+        return new EffectTimers(effectTimer(effect, true), effectTimer(effect, false),
+            effectCounter(effect, true), effectCounter(effect, false));
+    }
+
+    private Timer effectTimer(PolicyEffect effect, boolean applied) {
+        PolicyPhase phase = effect.getPhase();
+        return Timer.builder("simulation.policy.effect")
+            .description("Time to check and apply a policy effect, in a sample of ticks")
+            .tag("effect", effect.getName())
+            .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+            .tag("applied", Boolean.toString(applied))
+            .register(registry);
+    }
+
+    private Counter effectCounter(PolicyEffect effect, boolean applied) {
+        PolicyPhase phase = effect.getPhase();
+        return Counter.builder("simulation.policy.effect.count")
+            .description("Policy effects checked and applied, timed or not")
+            .tag("effect", effect.getName())
+            .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+            .tag("applied", Boolean.toString(applied))
+            .register(registry);
+    }
+
+    /**
+     * The timers and counters of a policy effect.
+     *
+     * @param applied timed ticks on which the effect applied
+     * @param skipped timed ticks on which {@code shouldApply} turned the effect down
+     * @param appliedCount every tick on which the effect applied
+     * @param skippedCount every tick on which {@code shouldApply} turned the effect down
+     */
+    public record EffectTimers(Timer applied, Timer skipped, Counter appliedCount, Counter skippedCount) {
+
+        /**
+         * Record an execution of the effect that started at {@code start}.
+         */
+        public void record(boolean wasApplied, long start) {
+            (wasApplied ? applied : skipped).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Count an execution of the effect.
+         */
+        public void count(boolean wasApplied) {
+            (wasApplied ? appliedCount : skippedCount).increment();
+        }
+    }
+}
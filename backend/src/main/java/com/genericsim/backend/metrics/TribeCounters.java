@@ -0,0 +1,130 @@
+package com.genericsim.backend.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link DomainCounter}s of one tribe. The tick path adds to striped
+ * {@link LongAdder}s without locking; at the end of each tick the counts are moved
+ * into a ring buffer of the last ticks, which also keeps a running sum of the ticks
+ * in the rate window.
+ */
+public final class TribeCounters {
+
+    /**
+     * Counters that count nothing, for tribes that were never saved
+     */
+    public static final TribeCounters NONE = new TribeCounters(null, 1, 1);
+
+    private static final DomainCounter[] COUNTERS = DomainCounter.values();
+    private static final int N = COUNTERS.length;
+
+    private final LongAdder[] totals;
+    private final LongAdder[] current;
+    private final long[] ticks;
+    private final long[] counts;
+    private final int rateWindow;
+    private final long[] windowSums = new long[N];
+    private int head;
+    private int size;
+
+    /**
+     * @param totals the running totals over all tribes, added to at the end of each tick,
+     *               or null to count nothing
+     * @param capacity the number of ticks kept
+     * @param rateWindow the number of latest ticks rates are averaged over, at most {@code capacity}
+     */
+    TribeCounters(LongAdder[] totals, int capacity, int rateWindow) {
+        this.totals = totals;
+        this.current = new LongAdder[N];
+        for (int c = 0; c < N; c++) {
+            current[c] = new LongAdder();
+        }
+        this.ticks = new long[capacity];
+        this.counts = new long[capacity * N];
+        this.rateWindow = Math.min(rateWindow, capacity);
+    }
+
+    public void increment(DomainCounter counter) {
+        if (totals != null) {
+            current[counter.ordinal()].increment();
+        }
+    }
+
+    public void add(DomainCounter counter, long amount) {
+        if (totals != null && amount != 0) {
+            current[counter.ordinal()].add(amount);
+        }
+    }
+
+    /**
+     * Move the counts of a tick into the ring buffer.
+     *
+     * @param tick the tick the counts were made in
+     */
+    public void endTick(long tick) {
+        if (totals == null) {
+            return;
+        }
+        long[] row = new long[N];
+        for (int c = 0; c < N; c++) {
+            row[c] = current[c].sumThenReset();
+            totals[c].add(row[c]);
+        }
+        synchronized (this) {
+            int capacity = ticks.length;
+            if (size >= rateWindow) {
+                // The tick leaving the rate window
+                int leaving = Math.floorMod(head - rateWindow, capacity);
+                for (int c = 0; c < N; c++) {
+                    windowSums[c] -= counts[leaving * N + c];
+                }
+            }
+            ticks[head] = tick;
+            System.arraycopy(row, 0, counts, head * N, N);
+            for (int c = 0; c < N; c++) {
+                windowSums[c] += row[c];
+            }
+            head = (head + 1) % capacity;
+            size = Math.min(size + 1, capacity);
+        }
+    }
+
+    /**
+     * @return the average count per tick over the rate window, or 0 before the first tick
+     */
+    public synchronized double rate(DomainCounter counter) {
+        int window = Math.min(size, rateWindow);
+        return window == 0 ? 0 : (double) windowSums[counter.ordinal()] / window;
+    }
+
+    /**
+     * @param limit the most ticks to return
+     * @return the counts of the latest ticks, oldest first
+     */
+    public synchronized List<TickCounts> recent(int limit) {
+        int count = Math.min(limit, size);
+        List<TickCounts> recent = new ArrayList<>(count);
+        for (int i = count; i > 0; i--) {
+            int slot = Math.floorMod(head - i, ticks.length);
+            long[] row = new long[N];
+            System.arraycopy(counts, slot * N, row, 0, N);
+            recent.add(new TickCounts(ticks[slot], row));
+        }
+        return recent;
+    }
+
+    /**
+     * The counts of one tick.
+     *
+     * @param tick the tick
+     * @param counts the count of every {@link DomainCounter}, in declaration order
+     */
+    public record TickCounts(long tick, long[] counts) {
+
+        public long get(DomainCounter counter) {
+            return counts[counter.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.simulation.PopulationStore;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * The values recorded for every tribe after each tick, named after the
+ * {@link com.genericsim.backend.dto.TribeStateDTO} property they chart.
+ */
+public enum TribeMetric {
+    POPULATION("population", (tribe, store) -> store.size()),
+    FOOD("food", (tribe, store) -> foodOf(tribe.getResources())),
+    WATER("water", (tribe, store) -> waterOf(tribe.getResources())),
+    CENTRAL_FOOD("centralFood", (tribe, store) -> foodOf(tribe.getCentralStorage())),
+    CENTRAL_WATER("centralWater", (tribe, store) -> waterOf(tribe.getCentralStorage())),
+    BOND_LEVEL("bondLevel", (tribe, store) -> tribe.getBondLevel()),
+    PROGRESS_POINTS("progressPoints", (tribe, store) -> tribe.getProgressPoints());
+
+    private final String property;
+    private final ToDoubleBiFunction<Tribe, PopulationStore> value;
+
+    TribeMetric(String property, ToDoubleBiFunction<Tribe, PopulationStore> value) {
+        this.property = property;
+        this.value = value;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return the value of this metric for a tribe at the end of a tick
+     */
+    double valueOf(Tribe tribe, PopulationStore store) {
+        return value.applyAsDouble(tribe, store);
+    }
+
+    /**
+     * @param property a metric name, such as {@code bondLevel}
+     * @return the metric with that name, or empty if there is none
+     */
+    public static Optional<TribeMetric> fromProperty(String property) {
+        return Arrays.stream(values()).filter(metric -> metric.property.equals(property)).findFirst();
+    }
+
+    private static int foodOf(Resources resources) {
+        return resources != null ? resources.getFood() : 0;
+    }
+
+    private static int waterOf(Resources resources) {
+        return resources != null ? resources.getWater() : 0;
+    }
+}
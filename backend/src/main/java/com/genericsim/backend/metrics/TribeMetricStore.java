@@ -0,0 +1,90 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.config.MetricsProperties;
+import com.genericsim.backend.dto.TribeMetricSeriesDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process time series of every tribe's {@link TribeMetric}s, one point per tick,
+ * when {@code simulation.metrics.enabled} is set.
+ *
+ * The points of each tribe are kept compressed (see {@link GorillaChunk}) at every
+ * resolution in {@code simulation.metrics.tiers}, each for its own retention, so recent
+ * ticks can be charted tick by tick and the whole history at a coarser resolution.
+ * Ticks are recorded through a {@link MetricRecorder}. The series of a tribe starts
+ * with the first tick processed after startup.
+ */
+@Component
+public class TribeMetricStore {
+
+    private final MetricsProperties properties;
+    private final Map<Long, MetricSeries> series = new ConcurrentHashMap<>();
+
+    public TribeMetricStore(MetricsProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Start recording the metrics of a change of a tribe.
+     *
+     * @param tribeId the ID of the tribe
+     * @return the recorder to pass to the tick engine and commit when the change is done
+     */
+    public MetricRecorder begin(Long tribeId) {
+        if (!properties.isEnabled() || properties.getTiers().isEmpty()) {
+            return MetricRecorder.DISABLED;
+        }
+        return new MetricRecorder(series.computeIfAbsent(tribeId,
+            id -> new MetricSeries(properties.getTiers(), properties.getChunkPoints())));
+    }
+
+    /**
+     * Get a range of a tribe's metric, read from the coarsest resolution that still has
+     * enough points for the range and reduced to at most a number of points.
+     *
+     * @param tribeId the ID of the tribe
+     * @param metric the metric
+     * @param fromTick the first tick of the range
+     * @param toTick the last tick of the range, or null for the latest tick recorded
+     * @param points the most points to return, at least {@link Downsampling#MIN_POINTS}
+     * @param downsampling how to reduce the points read if there are more than that
+     * @return the range; without points if the tribe has not been ticked since startup
+     */
+    public TribeMetricSeriesDTO query(Long tribeId, TribeMetric metric, long fromTick, Long toTick, int points,
+                                      Downsampling downsampling) {
+        TribeMetricSeriesDTO dto = new TribeMetricSeriesDTO();
+        dto.setTribeId(tribeId);
+        dto.setMetric(metric.getProperty());
+        dto.setFromTick(fromTick);
+        dto.setPoints(List.of());
+
+        MetricSeries tribeSeries = series.get(tribeId);
+        long to = toTick != null ? toTick : tribeSeries != null ? tribeSeries.latestTick() : fromTick;
+        dto.setToTick(to);
+        if (tribeSeries == null || to < fromTick) {
+            return dto;
+        }
+
+        MetricSeries.Range range = tribeSeries.read(metric, fromTick, to, points);
+        dto.setResolutionTicks(range.resolutionTicks());
+        if (range.points().size() > points) {
+            dto.setDownsampling(downsampling.name());
+            dto.setPoints(downsampling.apply(range.points(), fromTick, to, points));
+        } else {
+            dto.setPoints(range.points());
+        }
+        return dto;
+    }
+
+    /**
+     * @return the bytes held by the encoded points of a tribe, or 0 if it has none
+     */
+    long sizeInBytes(Long tribeId) {
+        MetricSeries tribeSeries = series.get(tribeId);
+        return tribeSeries != null ? tribeSeries.sizeInBytes() : 0;
+    }
+}
@@ -0,0 +1,148 @@
+package com.genericsim.backend.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * How a tribe runs policy effects differently from their defaults, by effect name:
+ * effects it has disabled, and effects it runs at another priority within their phase.
+ * Effects without a setting run as registered.
+ *
+ * Immutable, so the policy engine can keep what it compiles from equal settings;
+ * changes make a new instance. Settings are encoded as a comma separated list of
+ * effect names, each followed by {@code !} when disabled and {@code @priority} when
+ * moved, e.g. {@code StorageDecay!,CentralStorageTax@50}.
+ */
+public final class EffectSettings {
+
+    /**
+     * Every effect runs as registered
+     */
+    public static final EffectSettings NONE = new EffectSettings(new TreeMap<>());
+
+    /**
+     * The setting of one effect.
+     *
+     * @param enabled whether the effect runs for the tribe
+     * @param priority the priority the effect runs at, or null for its own
+     */
+    public record Setting(boolean enabled, Integer priority) {
+
+        private boolean isDefault() {
+            return enabled && priority == null;
+        }
+    }
+
+    private final Map<String, Setting> settings;
+    private final int hash;
+
+    private EffectSettings(TreeMap<String, Setting> settings) {
+        this.settings = Collections.unmodifiableMap(settings);
+        this.hash = settings.hashCode();
+    }
+
+    /**
+     * @param settings the settings by effect name; settings that change nothing are dropped
+     * @return the settings
+     * @throws IllegalArgumentException if an effect name is empty or contains {@code , ! @}
+     */
+    public static EffectSettings of(Map<String, Setting> settings) {
+        TreeMap<String, Setting> kept = new TreeMap<>();
+        settings.forEach((name, setting) -> {
+            if (name == null || name.isEmpty() || name.chars().anyMatch(c -> c == ',' || c == '!' || c == '@')) {
+                throw new IllegalArgumentException("Invalid effect name " + name);
+            }
+            if (!setting.isDefault()) {
+                kept.put(name, setting);
+            }
+        });
+        return kept.isEmpty() ? NONE : new EffectSettings(kept);
+    }
+
+    /**
+     * @return these settings with the setting of one effect replaced
+     */
+    public EffectSettings with(String name, Setting setting) {
+        TreeMap<String, Setting> changed = new TreeMap<>(settings);
+        changed.put(name, setting);
+        return of(changed);
+    }
+
+    public boolean isEmpty() {
+        return settings.isEmpty();
+    }
+
+    /**
+     * @return the settings by effect name, in name order
+     */
+    public Map<String, Setting> asMap() {
+        return settings;
+    }
+
+    public boolean isEnabled(String effect) {
+        Setting setting = settings.get(effect);
+        return setting == null || setting.enabled();
+    }
+
+    /**
+     * @param effect the effect name
+     * @param defaultPriority the effect's own priority
+     * @return the priority the effect runs at
+     */
+    public int priority(String effect, int defaultPriority) {
+        Setting setting = settings.get(effect);
+        return setting != null && setting.priority() != null ? setting.priority() : defaultPriority;
+    }
+
+    public String encode() {
+        StringBuilder text = new StringBuilder();
+        settings.forEach((name, setting) -> {
+            if (!text.isEmpty()) {
+                text.append(',');
+            }
+            text.append(name);
+            if (!setting.enabled()) {
+                text.append('!');
+            }
+            if (setting.priority() != null) {
+                text.append('@').append(setting.priority());
+            }
+        });
+        return text.toString();
+    }
+
+    /**
+     * @param text settings as written by {@link #encode()}
+     * @return the settings
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static EffectSettings decode(String text) {
+        TreeMap<String, Setting> decoded = new TreeMap<>();
+        if (!text.isEmpty()) {
+            for (String entry : text.split(",", -1)) {
+                int at = entry.indexOf('@');
+                String name = at >= 0 ? entry.substring(0, at) : entry;
+                Integer priority = at >= 0 ? Integer.valueOf(entry.substring(at + 1)) : null;
+                boolean enabled = !name.endsWith("!");
+                decoded.put(enabled ? name : name.substring(0, name.length() - 1), new Setting(enabled, priority));
+            }
+        }
+        return of(decoded);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof EffectSettings that && hash == that.hash && settings.equals(that.settings);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
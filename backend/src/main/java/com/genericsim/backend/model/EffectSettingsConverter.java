@@ -0,0 +1,21 @@
+package com.genericsim.backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link EffectSettings} in a single text column of the policy.
+ */
+@Converter
+public class EffectSettingsConverter implements AttributeConverter<EffectSettings, String> {
+
+    @Override
+    public String convertToDatabaseColumn(EffectSettings settings) {
+        return settings != null && !settings.isEmpty() ? settings.encode() : null;
+    }
+
+    @Override
+    public EffectSettings convertToEntityAttribute(String text) {
+        return text != null ? EffectSettings.decode(text) : EffectSettings.NONE;
+    }
+}
@@ -1,6 +1,8 @@
 package com.genericsim.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -26,7 +28,13 @@ public class Family {
     @JoinColumn(name = "tribe_id")
     private Tribe tribe;
 
+    /**
+     * Subselect fetch: the first member list used loads those of every family
+     * loaded by the same query, instead of one query per family.
+     */
     @OneToMany(mappedBy = "family", cascade = CascadeType.ALL)
+    @OrderBy("id")
+    @Fetch(FetchMode.SUBSELECT)
     private List<Person> members = new ArrayList<>();
 
     @OneToOne(cascade = CascadeType.ALL)
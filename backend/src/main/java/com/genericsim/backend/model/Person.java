@@ -35,6 +35,12 @@ public class Person {
     @Column(nullable = false)
     private double gatheringSkill = 0.5;
 
+    /**
+     * Tick in which role, age, health or a skill last changed
+     */
+    @Column(nullable = false)
+    private long lastModifiedTick;
+
     @ManyToOne
     @JoinColumn(name = "tribe_id")
     private Tribe tribe;
@@ -93,4 +99,41 @@ public class Person {
         return AgeGroup.fromAge(this.age);
     }
 
+    // Setters keep the tribe's aggregates in step with the member
+
+    public void setRole(PersonRole role) {
+        if (tribe != null && this.role != null) {
+            tribe.getAggregates().roleChanged(this.role, role);
+        }
+        this.role = role;
+    }
+
+    public void setAge(int age) {
+        if (tribe != null) {
+            tribe.getAggregates().ageChanged(this.age, age);
+        }
+        this.age = age;
+    }
+
+    public void setHealth(int health) {
+        if (tribe != null) {
+            tribe.getAggregates().healthChanged(this.health, health);
+        }
+        this.health = health;
+    }
+
+    public void setHuntingSkill(double huntingSkill) {
+        if (tribe != null) {
+            tribe.getAggregates().huntingSkillChanged(this.huntingSkill, huntingSkill);
+        }
+        this.huntingSkill = huntingSkill;
+    }
+
+    public void setGatheringSkill(double gatheringSkill) {
+        if (tribe != null) {
+            tribe.getAggregates().gatheringSkillChanged(this.gatheringSkill, gatheringSkill);
+        }
+        this.gatheringSkill = gatheringSkill;
+    }
+
 }
@@ -50,6 +50,19 @@ public class Policy {
     @Column(nullable = false)
     private int storageDecayInterval = 20;
 
+    /**
+     * Policy effects the tribe has disabled or runs at another priority
+     */
+    @Convert(converter = EffectSettingsConverter.class)
+    @Column(length = 2048)
+    private EffectSettings effectSettings = EffectSettings.NONE;
+
+    /**
+     * Tick at which the policy was last updated
+     */
+    @Column(nullable = false)
+    private long lastModifiedTick;
+
     @OneToOne(mappedBy = "policy")
     private Tribe tribe;
 
@@ -62,6 +75,13 @@ public class Policy {
         RANDOM
     }
 
+    /**
+     * @return the effect settings, or {@link EffectSettings#NONE} for a policy saved without them
+     */
+    public EffectSettings getEffectSettings() {
+        return effectSettings != null ? effectSettings : EffectSettings.NONE;
+    }
+
     public Policy(String name, String description, int foodTaxRate, int waterTaxRate, 
                   int huntingIncentive, int gatheringIncentive) {
         this.name = name;
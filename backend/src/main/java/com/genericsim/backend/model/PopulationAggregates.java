@@ -0,0 +1,315 @@
+package com.genericsim.backend.model;
+
+import java.util.Arrays;
+
+/**
+ * Running demographic and health totals of a tribe's members.
+ *
+ * Holds counts by role and age group, a histogram of health values (one bucket per
+ * point from 0 to 100), the health sum and the hunting and gathering skill sums.
+ * Every change to a member is applied as an O(1) update, so statistics never need
+ * to walk the member list.
+ *
+ * Skill sums are kept in fixed point (millionths) so that they are exact and do not
+ * depend on the order in which updates are applied. An instance can also hold the
+ * changes made by one partition of a tick; such deltas may contain negative counts
+ * until they are {@link #merge merged} into the tribe totals.
+ */
+public class PopulationAggregates {
+
+    public static final int MAX_HEALTH = 100;
+
+    private static final Person.PersonRole[] ROLES = Person.PersonRole.values();
+    private static final Person.AgeGroup[] AGE_GROUPS = Person.AgeGroup.values();
+    private static final double SKILL_SCALE = 1_000_000.0;
+
+    private int count;
+    private final int[] roleCounts = new int[ROLES.length];
+    private final int[] ageGroupCounts = new int[AGE_GROUPS.length];
+    private final int[] healthHistogram = new int[MAX_HEALTH + 1];
+    private long healthSum;
+    private long huntingSkillSum;
+    private long gatheringSkillSum;
+
+    /**
+     * Build the aggregates of a list of members by walking it once.
+     *
+     * @param members the members to aggregate
+     * @return aggregates of the members
+     */
+    public static PopulationAggregates of(Iterable<Person> members) {
+        PopulationAggregates aggregates = new PopulationAggregates();
+        for (Person person : members) {
+            aggregates.add(person);
+        }
+        return aggregates;
+    }
+
+    public void add(Person person) {
+        add(person.getRole(), person.getAge(), person.getHealth(), person.getHuntingSkill(), person.getGatheringSkill());
+    }
+
+    public void remove(Person person) {
+        remove(person.getRole(), person.getAge(), person.getHealth(), person.getHuntingSkill(), person.getGatheringSkill());
+    }
+
+    public void add(Person.PersonRole role, int age, int health, double huntingSkill, double gatheringSkill) {
+        update(role, age, health, huntingSkill, gatheringSkill, 1);
+    }
+
+    public void remove(Person.PersonRole role, int age, int health, double huntingSkill, double gatheringSkill) {
+        update(role, age, health, huntingSkill, gatheringSkill, -1);
+    }
+
+    private void update(Person.PersonRole role, int age, int health, double huntingSkill, double gatheringSkill, int sign) {
+        count += sign;
+        roleCounts[role.ordinal()] += sign;
+        ageGroupCounts[ageGroupOf(age).ordinal()] += sign;
+        healthHistogram[bucket(health)] += sign;
+        healthSum += (long) sign * health;
+        huntingSkillSum += sign * fixedPoint(huntingSkill);
+        gatheringSkillSum += sign * fixedPoint(gatheringSkill);
+    }
+
+    public void roleChanged(Person.PersonRole oldRole, Person.PersonRole newRole) {
+        if (oldRole != newRole) {
+            roleCounts[oldRole.ordinal()]--;
+            roleCounts[newRole.ordinal()]++;
+        }
+    }
+
+    public void ageChanged(int oldAge, int newAge) {
+        Person.AgeGroup oldGroup = ageGroupOf(oldAge);
+        Person.AgeGroup newGroup = ageGroupOf(newAge);
+        if (oldGroup != newGroup) {
+            ageGroupCounts[oldGroup.ordinal()]--;
+            ageGroupCounts[newGroup.ordinal()]++;
+        }
+    }
+
+    public void healthChanged(int oldHealth, int newHealth) {
+        healthHistogram[bucket(oldHealth)]--;
+        healthHistogram[bucket(newHealth)]++;
+        healthSum += newHealth - oldHealth;
+    }
+
+    public void huntingSkillChanged(double oldSkill, double newSkill) {
+        huntingSkillSum += fixedPoint(newSkill) - fixedPoint(oldSkill);
+    }
+
+    public void gatheringSkillChanged(double oldSkill, double newSkill) {
+        gatheringSkillSum += fixedPoint(newSkill) - fixedPoint(oldSkill);
+    }
+
+    /**
+     * Add the totals (or deltas) of another instance to this one.
+     *
+     * @param other the aggregates to add
+     * @return this instance
+     */
+    public PopulationAggregates merge(PopulationAggregates other) {
+        count += other.count;
+        for (int i = 0; i < roleCounts.length; i++) {
+            roleCounts[i] += other.roleCounts[i];
+        }
+        for (int i = 0; i < ageGroupCounts.length; i++) {
+            ageGroupCounts[i] += other.ageGroupCounts[i];
+        }
+        for (int i = 0; i < healthHistogram.length; i++) {
+            healthHistogram[i] += other.healthHistogram[i];
+        }
+        healthSum += other.healthSum;
+        huntingSkillSum += other.huntingSkillSum;
+        gatheringSkillSum += other.gatheringSkillSum;
+        return this;
+    }
+
+    public PopulationAggregates copy() {
+        return new PopulationAggregates().merge(this);
+    }
+
+    // Queries
+
+    public int getCount() {
+        return count;
+    }
+
+    public int countByRole(Person.PersonRole role) {
+        return roleCounts[role.ordinal()];
+    }
+
+    public int countByAgeGroup(Person.AgeGroup ageGroup) {
+        return ageGroupCounts[ageGroup.ordinal()];
+    }
+
+    public long getHealthSum() {
+        return healthSum;
+    }
+
+    /**
+     * @return average health rounded down, or 0 without members
+     */
+    public int getAverageHealth() {
+        return count > 0 ? (int) (healthSum / count) : 0;
+    }
+
+    /**
+     * @return lowest health of any member, or 0 without members
+     */
+    public int getMinHealth() {
+        for (int h = 0; h <= MAX_HEALTH; h++) {
+            if (healthHistogram[h] > 0) {
+                return h;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return highest health of any member, or 0 without members
+     */
+    public int getMaxHealth() {
+        for (int h = MAX_HEALTH; h >= 0; h--) {
+            if (healthHistogram[h] > 0) {
+                return h;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param minHealth lower bound, inclusive
+     * @return number of members with at least the given health
+     */
+    public int countHealthAtLeast(int minHealth) {
+        int total = 0;
+        for (int h = Math.max(0, minHealth); h <= MAX_HEALTH; h++) {
+            total += healthHistogram[h];
+        }
+        return total;
+    }
+
+    /**
+     * @param health a health value between 0 and 100
+     * @return number of members with exactly that health
+     */
+    public int countWithHealth(int health) {
+        return healthHistogram[bucket(health)];
+    }
+
+    public double getHuntingSkillSum() {
+        return huntingSkillSum / SKILL_SCALE;
+    }
+
+    public double getGatheringSkillSum() {
+        return gatheringSkillSum / SKILL_SCALE;
+    }
+
+    // Encoding used by PopulationAggregatesConverter
+
+    /**
+     * Encode as text: count, role counts, age group counts, health and skill sums,
+     * then the non-empty health buckets as health:count pairs.
+     */
+    String encode() {
+        StringBuilder text = new StringBuilder(128);
+        text.append(count).append('|');
+        appendAll(text, roleCounts).append('|');
+        appendAll(text, ageGroupCounts).append('|');
+        text.append(healthSum).append('|').append(huntingSkillSum).append('|').append(gatheringSkillSum).append('|');
+        boolean first = true;
+        for (int h = 0; h <= MAX_HEALTH; h++) {
+            if (healthHistogram[h] != 0) {
+                if (!first) {
+                    text.append(',');
+                }
+                text.append(h).append(':').append(healthHistogram[h]);
+                first = false;
+            }
+        }
+        return text.toString();
+    }
+
+    static PopulationAggregates decode(String text) {
+        String[] parts = text.split("\\|", -1);
+        PopulationAggregates aggregates = new PopulationAggregates();
+        aggregates.count = Integer.parseInt(parts[0]);
+        parseAll(parts[1], aggregates.roleCounts);
+        parseAll(parts[2], aggregates.ageGroupCounts);
+        aggregates.healthSum = Long.parseLong(parts[3]);
+        aggregates.huntingSkillSum = Long.parseLong(parts[4]);
+        aggregates.gatheringSkillSum = Long.parseLong(parts[5]);
+        if (!parts[6].isEmpty()) {
+            for (String entry : parts[6].split(",")) {
+                int separator = entry.indexOf(':');
+                aggregates.healthHistogram[Integer.parseInt(entry.substring(0, separator))] =
+                    Integer.parseInt(entry.substring(separator + 1));
+            }
+        }
+        return aggregates;
+    }
+
+    private static StringBuilder appendAll(StringBuilder text, int[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(values[i]);
+        }
+        return text;
+    }
+
+    private static void parseAll(String text, int[] values) {
+        String[] items = text.split(",");
+        for (int i = 0; i < values.length && i < items.length; i++) {
+            values[i] = Integer.parseInt(items[i]);
+        }
+    }
+
+    private static int bucket(int health) {
+        return Math.max(0, Math.min(MAX_HEALTH, health));
+    }
+
+    private static long fixedPoint(double skill) {
+        return Math.round(skill * SKILL_SCALE);
+    }
+
+    /**
+     * Same mapping as {@link Person.AgeGroup#fromAge(int)} without cloning the enum values per call.
+     */
+    public static Person.AgeGroup ageGroupOf(int age) {
+        for (Person.AgeGroup group : AGE_GROUPS) {
+            if (age >= group.getMinAge() && age <= group.getMaxAge()) {
+                return group;
+            }
+        }
+        return Person.AgeGroup.CHILD;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PopulationAggregates other)) return false;
+        return count == other.count
+            && healthSum == other.healthSum
+            && huntingSkillSum == other.huntingSkillSum
+            && gatheringSkillSum == other.gatheringSkillSum
+            && Arrays.equals(roleCounts, other.roleCounts)
+            && Arrays.equals(ageGroupCounts, other.ageGroupCounts)
+            && Arrays.equals(healthHistogram, other.healthHistogram);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(healthHistogram);
+        result = 31 * result + Arrays.hashCode(roleCounts);
+        result = 31 * result + Arrays.hashCode(ageGroupCounts);
+        result = 31 * result + Long.hashCode(healthSum);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PopulationAggregates[" + encode() + "]";
+    }
+}
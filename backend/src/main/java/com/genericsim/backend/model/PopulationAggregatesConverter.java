@@ -0,0 +1,21 @@
+package com.genericsim.backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link PopulationAggregates} in a single text column of the tribe.
+ */
+@Converter
+public class PopulationAggregatesConverter implements AttributeConverter<PopulationAggregates, String> {
+
+    @Override
+    public String convertToDatabaseColumn(PopulationAggregates aggregates) {
+        return aggregates != null ? aggregates.encode() : null;
+    }
+
+    @Override
+    public PopulationAggregates convertToEntityAttribute(String text) {
+        return text != null && !text.isEmpty() ? PopulationAggregates.decode(text) : null;
+    }
+}
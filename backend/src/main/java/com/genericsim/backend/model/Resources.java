@@ -22,6 +22,12 @@ public class Resources {
     @Column(nullable = false)
     private int water;
 
+    /**
+     * For family storage, the tick in which the amounts last changed or the family lost a member
+     */
+    @Column(nullable = false)
+    private long lastModifiedTick;
+
     @OneToOne(mappedBy = "resources")
     private Tribe tribe;
 
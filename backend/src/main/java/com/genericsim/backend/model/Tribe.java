@@ -1,17 +1,29 @@
 package com.genericsim.backend.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 @Entity
-@Table(name = "tribes")
+@Table(name = "tribes", indexes = {
+    // Keys of the paginated tribe listing
+    @Index(name = "idx_tribes_name", columnList = "name, id"),
+    @Index(name = "idx_tribes_current_tick", columnList = "current_tick, id"),
+    @Index(name = "idx_tribes_population", columnList = "population, id"),
+    @Index(name = "idx_tribes_bond_level", columnList = "bond_level, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,6 +42,12 @@ public class Tribe {
     @Column(nullable = false)
     private long currentTick;
 
+    /**
+     * Seed from which all random streams of this tribe are derived
+     */
+    @Column(nullable = false)
+    private long randomSeed;
+
     @Column(nullable = false)
     private int bondLevel = 50;
 
@@ -68,9 +86,34 @@ public class Tribe {
     private Policy policy;
 
     @OneToMany(mappedBy = "tribe", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private List<Person> members = new ArrayList<>();
 
+    /**
+     * Running totals over the members, kept up to date as members are added, removed
+     * or changed, so statistics can be read without loading the member list.
+     * Rebuilt from the members when missing.
+     */
+    @Convert(converter = PopulationAggregatesConverter.class)
+    @Column(length = 2048)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private PopulationAggregates aggregates = new PopulationAggregates();
+
+    /**
+     * Member count, copied from the aggregates whenever the tribe is written, so tribes
+     * can be listed, sorted and filtered by size in queries. Read {@link #getAggregates()}
+     * for the current count.
+     */
+    @Column(nullable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int population;
+
     @OneToMany(mappedBy = "tribe", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
     private List<Family> families = new ArrayList<>();
 
     public Tribe(String name, String description) {
@@ -79,16 +122,76 @@ public class Tribe {
         this.currentTick = 0;
     }
 
+    /**
+     * Get the members of the tribe.
+     * Additions and removals through the returned list keep the aggregates up to date.
+     */
+    public List<Person> getMembers() {
+        return new MemberList();
+    }
+
+    public void setMembers(List<Person> members) {
+        this.members = members;
+        rebuildAggregates();
+    }
+
     public void addMember(Person person) {
         members.add(person);
         person.setTribe(this);
+        getAggregates().add(person);
     }
 
     public void removeMember(Person person) {
-        members.remove(person);
+        if (members.remove(person)) {
+            getAggregates().remove(person);
+        }
         person.setTribe(null);
     }
 
+    /**
+     * Remove several members at once, e.g. everyone who died during a tick.
+     *
+     * @param removed the members to remove
+     */
+    public void removeMembers(Collection<Person> removed) {
+        Set<Person> toRemove = Collections.newSetFromMap(new IdentityHashMap<>(removed.size() * 2));
+        toRemove.addAll(removed);
+        PopulationAggregates totals = getAggregates();
+        members.removeIf(person -> {
+            if (!toRemove.contains(person)) {
+                return false;
+            }
+            totals.remove(person);
+            person.setTribe(null);
+            return true;
+        });
+    }
+
+    /**
+     * Get the demographic and health totals of the members.
+     *
+     * @return the aggregates, rebuilt from the member list if they were never recorded
+     */
+    public PopulationAggregates getAggregates() {
+        if (aggregates == null) {
+            aggregates = PopulationAggregates.of(members);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Replace the aggregates with freshly computed totals of the members.
+     */
+    public void rebuildAggregates() {
+        aggregates = PopulationAggregates.of(members);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void recordPopulation() {
+        population = getAggregates().getCount();
+    }
+
     public void addFamily(Family family) {
         families.add(family);
         family.setTribe(this);
@@ -111,4 +214,58 @@ public class Tribe {
         return technologies.contains(technology);
     }
 
+    /**
+     * Live view of the member list that records additions and removals in the aggregates.
+     */
+    private final class MemberList extends AbstractList<Person> {
+
+        @Override
+        public Person get(int index) {
+            return members.get(index);
+        }
+
+        @Override
+        public int size() {
+            return members.size();
+        }
+
+        @Override
+        public Person set(int index, Person person) {
+            Person previous = members.set(index, person);
+            getAggregates().remove(previous);
+            getAggregates().add(person);
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Person person) {
+            members.add(index, person);
+            getAggregates().add(person);
+        }
+
+        @Override
+        public Person remove(int index) {
+            Person previous = members.remove(index);
+            getAggregates().remove(previous);
+            return previous;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Person> filter) {
+            PopulationAggregates totals = getAggregates();
+            return members.removeIf(person -> {
+                if (!filter.test(person)) {
+                    return false;
+                }
+                totals.remove(person);
+                return true;
+            });
+        }
+
+        @Override
+        public void clear() {
+            members.clear();
+            aggregates = new PopulationAggregates();
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.genericsim.backend.persistence;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of the tribe changes held in memory but not yet written to the database.
+ *
+ * @param writeBehind whether write-behind persistence is enabled
+ * @param hotTribes number of tribes held in memory
+ * @param dirtyTribes number of tribes changed since their last checkpoint
+ * @param dirtyTicks ticks processed in memory and not yet checkpointed, over all tribes
+ * @param oldestDirtyMillis age of the oldest change not yet checkpointed, 0 if there is none
+ * @param lastCheckpointAt when the last checkpoint run finished, or null if none has run
+ * @param lastCheckpointMillis duration of the last checkpoint run
+ * @param checkpointedTribes tribe checkpoints written since startup
+ * @param failedCheckpoints tribe checkpoints that failed since startup
+ */
+public record CheckpointBacklog(boolean writeBehind, int hotTribes, int dirtyTribes, long dirtyTicks,
+                                long oldestDirtyMillis, Instant lastCheckpointAt, long lastCheckpointMillis,
+                                long checkpointedTribes, long failedCheckpoints) {}
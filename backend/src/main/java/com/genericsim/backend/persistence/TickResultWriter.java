@@ -0,0 +1,134 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.config.PersistenceProperties;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.PopulationAggregates;
+import com.genericsim.backend.model.PopulationAggregatesConverter;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.simulation.PopulationStore;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Writes the results of ticks straight from a {@link PopulationStore} to the database.
+ *
+ * Instead of letting Hibernate dirty-check every person, family and storage entity
+ * and issue one UPDATE per row, tick results are written with a few ordered JDBC
+ * batches: one for persons, one for family, tribe and central storage, a single
+ * UPDATE of the tribe row, and one bulk DELETE for everyone who died. Rows are
+ * written in primary key order so concurrent transactions lock them in the same order.
+ *
+ * The tribe is then detached from the persistence context, so nothing is written
+ * twice when the transaction commits. This covers everything a tick changes; other
+ * changes to the tribe must be flushed before it is loaded for ticking.
+ */
+@Component
+public class TickResultWriter {
+
+    private static final String UPDATE_PERSON =
+        "update persons set role = ?, age = ?, health = ?, hunting_skill = ?, gathering_skill = ?, "
+        + "last_modified_tick = ? where id = ?";
+    private static final String UPDATE_RESOURCES =
+        "update resources set food = ?, water = ?, last_modified_tick = ? where id = ?";
+    private static final String UPDATE_TRIBE =
+        "update tribes set current_tick = ?, bond_level = ?, progress_points = ?, aggregates = ?, population = ? "
+        + "where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final PopulationAggregatesConverter aggregatesConverter = new PopulationAggregatesConverter();
+    private final int batchSize;
+
+    public TickResultWriter(JdbcTemplate jdbcTemplate, EntityManager entityManager, PersistenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, properties.getJdbcBatchSize());
+    }
+
+    /**
+     * Write the state of a store and its tribe, then detach the tribe.
+     * Must run in the transaction that loaded the tribe, before the store is
+     * flushed to the entities.
+     *
+     * @param tribe the tribe the store was loaded from, as left by the tick engine
+     * @param store the store holding the tick results
+     */
+    public void write(Tribe tribe, PopulationStore store) {
+        writePersons(store);
+        deletePersons(store.getRemovedPersons());
+        writeStorage(tribe, store);
+        PopulationAggregates aggregates = store.getAggregates();
+        jdbcTemplate.update(UPDATE_TRIBE, tribe.getCurrentTick(), tribe.getBondLevel(), tribe.getProgressPoints(),
+            aggregatesConverter.convertToDatabaseColumn(aggregates), aggregates.getCount(), tribe.getId());
+
+        // Cascades to members (including the dead, who are still listed), families and storage
+        entityManager.detach(tribe);
+    }
+
+    private void writePersons(PopulationStore store) {
+        Integer[] rows = new Integer[store.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        Arrays.sort(rows, Comparator.comparingLong(row -> store.getPerson(row).getId()));
+        jdbcTemplate.batchUpdate(UPDATE_PERSON, Arrays.asList(rows), batchSize, (PreparedStatement ps, Integer row) -> {
+            ps.setString(1, store.getRole(row).name());
+            ps.setInt(2, store.getAge(row));
+            ps.setInt(3, store.getHealth(row));
+            ps.setDouble(4, store.getHuntingSkill(row));
+            ps.setDouble(5, store.getGatheringSkill(row));
+            ps.setLong(6, store.getModifiedTick(row));
+            ps.setLong(7, store.getPerson(row).getId());
+        });
+    }
+
+    private void deletePersons(List<Person> removed) {
+        for (int from = 0; from < removed.size(); from += batchSize) {
+            List<Person> chunk = removed.subList(from, Math.min(removed.size(), from + batchSize));
+            StringJoiner placeholders = new StringJoiner(", ", "delete from persons where id in (", ")");
+            Object[] ids = new Object[chunk.size()];
+            for (int i = 0; i < ids.length; i++) {
+                placeholders.add("?");
+                ids[i] = chunk.get(i).getId();
+            }
+            jdbcTemplate.update(placeholders.toString(), ids);
+        }
+    }
+
+    private void writeStorage(Tribe tribe, PopulationStore store) {
+        List<StorageRow> storage = new ArrayList<>(store.getFamilyCount() + 2);
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            Resources familyStorage = store.getFamily(f).getStorage();
+            storage.add(new StorageRow(familyStorage.getId(), store.getFamilyFood(f), store.getFamilyWater(f),
+                store.getFamilyModifiedTick(f)));
+        }
+        addStorage(storage, tribe.getResources());
+        addStorage(storage, tribe.getCentralStorage());
+        storage.sort(Comparator.comparingLong(StorageRow::id));
+        jdbcTemplate.batchUpdate(UPDATE_RESOURCES, storage, batchSize, (PreparedStatement ps, StorageRow row) -> {
+            ps.setInt(1, row.food());
+            ps.setInt(2, row.water());
+            ps.setLong(3, row.lastModifiedTick());
+            ps.setLong(4, row.id());
+        });
+    }
+
+    private void addStorage(List<StorageRow> storage, Resources resources) {
+        if (resources != null && resources.getId() != null) {
+            storage.add(new StorageRow(resources.getId(), resources.getFood(), resources.getWater(),
+                resources.getLastModifiedTick()));
+        }
+    }
+
+    private record StorageRow(long id, int food, int water, long lastModifiedTick) {}
+}
@@ -0,0 +1,82 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.ResourceType;
+
+import java.util.Map;
+
+/**
+ * The binary format tribes are exported, imported and cloned in.
+ *
+ * An export starts with the magic bytes {@code GSTR}, a version byte and a flags
+ * byte; with {@link #FLAG_DEFLATE} set, everything after the header is Deflate
+ * compressed. The body holds, in order:
+ * <ul>
+ *   <li>the names of the person roles and resource types, so that later values
+ *       refer to them by index and survive reordered enums</li>
+ *   <li>the tribe: name, description, tick, random seed, bond level, progress points,
+ *       lifestyle, technologies, resources, central storage, generic storages and policy;
+ *       from version 2 the policy ends with its encoded effect settings</li>
+ *   <li>the families, in blocks of up to {@link #BLOCK_ROWS} rows</li>
+ *   <li>the members, in blocks of up to {@link #BLOCK_ROWS} rows</li>
+ * </ul>
+ * Each block is its row count followed by one column after the other; a count of
+ * zero ends the section. Integers are varints (zigzag encoded where they may be
+ * negative), ticks are stored as their distance from the tribe's tick, a member's
+ * family as the difference from the previous member's family index, and skills as
+ * the XOR of their bits with those of the previous member, so repeated values take
+ * a byte. Strings are a varint of their UTF-8 length plus one, with zero for null.
+ *
+ * Families and members are written and read a block at a time, so neither side
+ * holds the whole population in memory.
+ */
+public final class TribeExportFormat {
+
+    static final byte[] MAGIC = {'G', 'S', 'T', 'R'};
+
+    /**
+     * Version written by this build; older versions are still read
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The body is Deflate compressed
+     */
+    static final int FLAG_DEFLATE = 1;
+
+    /**
+     * Rows per block when writing
+     */
+    static final int BLOCK_ROWS = 4096;
+
+    /**
+     * Largest block accepted when reading
+     */
+    static final int MAX_BLOCK_ROWS = 1 << 16;
+
+    /**
+     * Longest string accepted when reading, in bytes
+     */
+    static final int MAX_STRING_BYTES = 1 << 20;
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private TribeExportFormat() {
+    }
+
+    /**
+     * A family with its storage.
+     *
+     * @param genericStorage the amounts in the family's generic storage, or null if it has none
+     */
+    public record FamilyRow(String name, int food, int water, long lastModifiedTick,
+                            Map<ResourceType, Integer> genericStorage) {}
+
+    /**
+     * A member of the tribe.
+     *
+     * @param family the index of the member's family in the order families were written, or -1
+     */
+    public record PersonRow(String name, Person.PersonRole role, int age, int health, double huntingSkill,
+                            double gatheringSkill, long lastModifiedTick, int family) {}
+}
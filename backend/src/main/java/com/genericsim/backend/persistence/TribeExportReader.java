@@ -0,0 +1,387 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.model.EffectSettings;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.LifestyleType;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.ResourceStorage;
+import com.genericsim.backend.model.ResourceType;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.TechnologyType;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportFormat.FamilyRow;
+import com.genericsim.backend.persistence.TribeExportFormat.PersonRow;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads a tribe written in the {@link TribeExportFormat}.
+ *
+ * Read the tribe, then the blocks of families until an empty one, then the blocks
+ * of members until an empty one. Malformed input fails with an {@link IOException}.
+ * Closing the reader releases the inflater but leaves the source stream open.
+ */
+public class TribeExportReader implements AutoCloseable {
+
+    private enum Section { TRIBE, FAMILIES, PERSONS, FINISHED }
+
+    private final Inflater inflater;
+    private final DataInputStream in;
+    private final Person.PersonRole[] roles;
+    private final ResourceType[] resourceTypes;
+    private final int version;
+    private Section section = Section.TRIBE;
+    private long currentTick;
+    private int familyCount;
+
+    /**
+     * Start reading an export by checking its header.
+     *
+     * @param source the stream to read from
+     * @throws IOException if the stream is not an export of a supported version
+     */
+    public TribeExportReader(InputStream source) throws IOException {
+        DataInputStream header = new DataInputStream(source);
+        byte[] magic = new byte[TribeExportFormat.MAGIC.length];
+        try {
+            header.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("Not a tribe export");
+        }
+        if (!Arrays.equals(magic, TribeExportFormat.MAGIC)) {
+            throw new IOException("Not a tribe export");
+        }
+        version = header.readUnsignedByte();
+        if (version < 1 || version > TribeExportFormat.VERSION) {
+            throw new IOException("Unsupported tribe export version " + version);
+        }
+        int flags = header.readUnsignedByte();
+        if ((flags & ~TribeExportFormat.FLAG_DEFLATE) != 0) {
+            throw new IOException("Unsupported tribe export flags " + flags);
+        }
+        if ((flags & TribeExportFormat.FLAG_DEFLATE) != 0) {
+            inflater = new Inflater();
+            source = new InflaterInputStream(source, inflater, TribeExportFormat.BUFFER_SIZE);
+        } else {
+            inflater = null;
+        }
+        in = new DataInputStream(new BufferedInputStream(source, TribeExportFormat.BUFFER_SIZE));
+
+        roles = new Person.PersonRole[readCount(Person.PersonRole.values().length * 2 + 16)];
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = readEnum(Person.PersonRole.class);
+        }
+        resourceTypes = new ResourceType[readCount(ResourceType.values().length * 2 + 16)];
+        for (int i = 0; i < resourceTypes.length; i++) {
+            resourceTypes[i] = readEnum(ResourceType.class);
+        }
+    }
+
+    /**
+     * Read the tribe itself.
+     *
+     * @return a new, unsaved tribe with its storages, policy and technologies but no
+     *         members or families
+     */
+    public Tribe readTribe() throws IOException {
+        expect(Section.TRIBE);
+        Tribe tribe = new Tribe(readString(), readString());
+        currentTick = readSignedVarLong();
+        tribe.setCurrentTick(currentTick);
+        tribe.setRandomSeed(in.readLong());
+        tribe.setBondLevel(readSignedVarInt());
+        tribe.setProgressPoints(readSignedVarInt());
+        String lifestyle = readString();
+        tribe.setLifestyle(lifestyle != null ? parse(LifestyleType.class, lifestyle) : null);
+        int technologies = readCount(TechnologyType.values().length * 2 + 16);
+        for (int i = 0; i < technologies; i++) {
+            tribe.addTechnology(readEnum(TechnologyType.class));
+        }
+        tribe.setResources(readResources());
+        tribe.setCentralStorage(readResources());
+        tribe.setGenericStorage(toStorage(readStorage()));
+        tribe.setGenericCentralStorage(toStorage(readStorage()));
+        tribe.setPolicy(readPolicy());
+        section = Section.FAMILIES;
+        return tribe;
+    }
+
+    /**
+     * Read the whole export into memory, for tribes small enough to simulate there.
+     *
+     * @return a new, unsaved tribe with its families and members, in export order
+     */
+    public Tribe readAll() throws IOException {
+        Tribe tribe = readTribe();
+        List<Family> families = new ArrayList<>();
+        for (List<FamilyRow> rows = nextFamilies(); !rows.isEmpty(); rows = nextFamilies()) {
+            for (FamilyRow row : rows) {
+                Family family = new Family(row.name());
+                family.getStorage().setFood(row.food());
+                family.getStorage().setWater(row.water());
+                family.getStorage().setLastModifiedTick(row.lastModifiedTick());
+                family.setGenericStorage(toStorage(row.genericStorage()));
+                tribe.addFamily(family);
+                families.add(family);
+            }
+        }
+        for (List<PersonRow> rows = nextPersons(); !rows.isEmpty(); rows = nextPersons()) {
+            for (PersonRow row : rows) {
+                Person person = new Person(row.name(), row.role(), row.age(), row.health());
+                person.setHuntingSkill(row.huntingSkill());
+                person.setGatheringSkill(row.gatheringSkill());
+                person.setLastModifiedTick(row.lastModifiedTick());
+                tribe.addMember(person);
+                if (row.family() >= 0) {
+                    families.get(row.family()).addMember(person);
+                }
+            }
+        }
+        return tribe;
+    }
+
+    /**
+     * Read the next block of families.
+     *
+     * @return the families, or an empty list once all have been read
+     */
+    public List<FamilyRow> nextFamilies() throws IOException {
+        if (section == Section.PERSONS) {
+            return List.of();
+        }
+        expect(Section.FAMILIES);
+        int count = readCount(TribeExportFormat.MAX_BLOCK_ROWS);
+        if (count == 0) {
+            section = Section.PERSONS;
+            return List.of();
+        }
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = readString();
+        }
+        int[] food = new int[count];
+        for (int i = 0; i < count; i++) {
+            food[i] = readSignedVarInt();
+        }
+        int[] water = new int[count];
+        for (int i = 0; i < count; i++) {
+            water[i] = readSignedVarInt();
+        }
+        long[] modifiedTicks = new long[count];
+        for (int i = 0; i < count; i++) {
+            modifiedTicks[i] = currentTick - readSignedVarLong();
+        }
+        List<FamilyRow> families = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            families.add(new FamilyRow(names[i], food[i], water[i], modifiedTicks[i], readStorage()));
+        }
+        familyCount += count;
+        return families;
+    }
+
+    /**
+     * Read the next block of members. All families must have been read.
+     *
+     * @return the members, or an empty list once all have been read
+     */
+    public List<PersonRow> nextPersons() throws IOException {
+        if (section == Section.FINISHED) {
+            return List.of();
+        }
+        expect(Section.PERSONS);
+        int count = readCount(TribeExportFormat.MAX_BLOCK_ROWS);
+        if (count == 0) {
+            section = Section.FINISHED;
+            return List.of();
+        }
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = readString();
+        }
+        Person.PersonRole[] personRoles = new Person.PersonRole[count];
+        for (int i = 0; i < count; i++) {
+            personRoles[i] = lookup(roles, in.readUnsignedByte());
+        }
+        int[] ages = new int[count];
+        for (int i = 0; i < count; i++) {
+            ages[i] = readSignedVarInt();
+        }
+        int[] health = new int[count];
+        for (int i = 0; i < count; i++) {
+            health[i] = readSignedVarInt();
+        }
+        double[] huntingSkills = new double[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous ^= readVarLong();
+            huntingSkills[i] = Double.longBitsToDouble(previous);
+        }
+        double[] gatheringSkills = new double[count];
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous ^= readVarLong();
+            gatheringSkills[i] = Double.longBitsToDouble(previous);
+        }
+        long[] modifiedTicks = new long[count];
+        for (int i = 0; i < count; i++) {
+            modifiedTicks[i] = currentTick - readSignedVarLong();
+        }
+        List<PersonRow> persons = new ArrayList<>(count);
+        int family = -1;
+        for (int i = 0; i < count; i++) {
+            family += readSignedVarInt();
+            if (family < -1 || family >= familyCount) {
+                throw new IOException("Corrupt tribe export: unknown family " + family);
+            }
+            persons.add(new PersonRow(names[i], personRoles[i], ages[i], health[i], huntingSkills[i],
+                gatheringSkills[i], modifiedTicks[i], family));
+        }
+        return persons;
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+    private Resources readResources() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Resources resources = new Resources(readSignedVarInt(), readSignedVarInt());
+        resources.setLastModifiedTick(currentTick - readSignedVarLong());
+        return resources;
+    }
+
+    private Map<ResourceType, Integer> readStorage() throws IOException {
+        int size = readCount(resourceTypes.length + 1);
+        if (size == 0) {
+            return null;
+        }
+        Map<ResourceType, Integer> amounts = new EnumMap<>(ResourceType.class);
+        for (int i = 1; i < size; i++) {
+            amounts.put(lookup(resourceTypes, readCount(Integer.MAX_VALUE)), readSignedVarInt());
+        }
+        return amounts;
+    }
+
+    private static ResourceStorage toStorage(Map<ResourceType, Integer> amounts) {
+        if (amounts == null) {
+            return null;
+        }
+        ResourceStorage storage = new ResourceStorage();
+        storage.getResources().putAll(amounts);
+        return storage;
+    }
+
+    private Policy readPolicy() throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Policy policy = new Policy(readString(), readString(), readSignedVarInt(), readSignedVarInt(),
+            readSignedVarInt(), readSignedVarInt());
+        String sharingPriority = readString();
+        policy.setSharingPriority(sharingPriority != null ? parse(Policy.SharingPriority.class, sharingPriority) : null);
+        policy.setEnableCentralStorage(in.readBoolean());
+        policy.setCentralStorageTaxRate(readSignedVarInt());
+        policy.setStorageDecayRate(in.readDouble());
+        policy.setStorageDecayInterval(readSignedVarInt());
+        policy.setLastModifiedTick(currentTick - readSignedVarLong());
+        if (version >= 2) {
+            String effectSettings = readString();
+            try {
+                policy.setEffectSettings(effectSettings != null ? EffectSettings.decode(effectSettings) : EffectSettings.NONE);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt tribe export: effect settings " + effectSettings);
+            }
+        }
+        return policy;
+    }
+
+    private void expect(Section expected) {
+        if (section != expected) {
+            throw new IllegalStateException("Expected to read " + expected + " but at " + section);
+        }
+    }
+
+    private <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+        String name = readString();
+        if (name == null) {
+            throw new IOException("Corrupt tribe export: missing " + type.getSimpleName());
+        }
+        return parse(type, name);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name) throws IOException {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown " + type.getSimpleName() + " " + name);
+        }
+    }
+
+    private static <E> E lookup(E[] dictionary, int index) throws IOException {
+        if (index >= dictionary.length) {
+            throw new IOException("Corrupt tribe export: unknown index " + index);
+        }
+        return dictionary[index];
+    }
+
+    private int readCount(int max) throws IOException {
+        long count = readVarLong();
+        if (count < 0 || count > max) {
+            throw new IOException("Corrupt tribe export: count " + count + " out of range");
+        }
+        return (int) count;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt tribe export: malformed varint");
+    }
+
+    private long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readSignedVarInt() throws IOException {
+        long value = readSignedVarLong();
+        if (value != (int) value) {
+            throw new IOException("Corrupt tribe export: " + value + " out of range");
+        }
+        return (int) value;
+    }
+
+    private String readString() throws IOException {
+        int length = readCount(TribeExportFormat.MAX_STRING_BYTES + 1);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
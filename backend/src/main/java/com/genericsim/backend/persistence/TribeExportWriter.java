@@ -0,0 +1,360 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.ResourceStorage;
+import com.genericsim.backend.model.ResourceType;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.TechnologyType;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportFormat.FamilyRow;
+import com.genericsim.backend.persistence.TribeExportFormat.PersonRow;
+import com.genericsim.backend.simulation.PopulationStore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a tribe in the {@link TribeExportFormat}.
+ *
+ * Write the tribe, then its families, then its members, then call {@link #finish()}.
+ * Families and members are buffered a block at a time and written column by column.
+ */
+public class TribeExportWriter {
+
+    private enum Section { TRIBE, FAMILIES, PERSONS, FINISHED }
+
+    private static final Person.PersonRole[] ROLES = Person.PersonRole.values();
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
+    private final OutputStream target;
+    private final Deflater deflater;
+    private final DeflaterOutputStream compressed;
+    private final DataOutputStream out;
+    private final List<FamilyRow> families = new ArrayList<>();
+    private final List<PersonRow> persons = new ArrayList<>();
+    private Section section = Section.TRIBE;
+    private long currentTick;
+    private int familyCount;
+
+    /**
+     * Start an export by writing its header.
+     *
+     * @param target the stream to write to; left open by {@link #finish()}
+     * @param compress whether to Deflate compress everything after the header
+     */
+    public TribeExportWriter(OutputStream target, boolean compress) throws IOException {
+        this.target = target;
+        target.write(TribeExportFormat.MAGIC);
+        target.write(TribeExportFormat.VERSION);
+        target.write(compress ? TribeExportFormat.FLAG_DEFLATE : 0);
+        if (compress) {
+            // Exports are streamed, so trade a little size for speed
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            compressed = new DeflaterOutputStream(target, deflater, TribeExportFormat.BUFFER_SIZE);
+        } else {
+            deflater = null;
+            compressed = null;
+        }
+        out = new DataOutputStream(new BufferedOutputStream(compress ? compressed : target,
+            TribeExportFormat.BUFFER_SIZE));
+
+        writeVarLong(ROLES.length);
+        for (Person.PersonRole role : ROLES) {
+            writeString(role.name());
+        }
+        writeVarLong(RESOURCE_TYPES.length);
+        for (ResourceType type : RESOURCE_TYPES) {
+            writeString(type.name());
+        }
+    }
+
+    /**
+     * Write the tribe itself, without members and families.
+     *
+     * @param tribe the tribe, with its technologies and storages loaded
+     */
+    public void writeTribe(Tribe tribe) throws IOException {
+        expect(Section.TRIBE);
+        currentTick = tribe.getCurrentTick();
+        writeString(tribe.getName());
+        writeString(tribe.getDescription());
+        writeSignedVarLong(tribe.getCurrentTick());
+        out.writeLong(tribe.getRandomSeed());
+        writeSignedVarLong(tribe.getBondLevel());
+        writeSignedVarLong(tribe.getProgressPoints());
+        writeString(tribe.getLifestyle() != null ? tribe.getLifestyle().name() : null);
+        List<String> technologies = tribe.getTechnologies().stream().map(TechnologyType::name).sorted().toList();
+        writeVarLong(technologies.size());
+        for (String technology : technologies) {
+            writeString(technology);
+        }
+        writeResources(tribe.getResources());
+        writeResources(tribe.getCentralStorage());
+        writeStorage(tribe.getGenericStorage() != null ? tribe.getGenericStorage().getResources() : null);
+        writeStorage(tribe.getGenericCentralStorage() != null
+            ? tribe.getGenericCentralStorage().getResources() : null);
+        writePolicy(tribe.getPolicy());
+        section = Section.FAMILIES;
+    }
+
+    /**
+     * Write the next family.
+     *
+     * @param family the family
+     * @return the index members of the family refer to it by
+     */
+    public int writeFamily(FamilyRow family) throws IOException {
+        expect(Section.FAMILIES);
+        families.add(family);
+        if (families.size() == TribeExportFormat.BLOCK_ROWS) {
+            writeFamilyBlock();
+        }
+        return familyCount++;
+    }
+
+    /**
+     * Write the next member. Ends the families.
+     *
+     * @param person the member
+     */
+    public void writePerson(PersonRow person) throws IOException {
+        if (section == Section.FAMILIES) {
+            endFamilies();
+        }
+        expect(Section.PERSONS);
+        if (person.family() < -1 || person.family() >= familyCount) {
+            throw new IllegalArgumentException("Unknown family index " + person.family());
+        }
+        persons.add(person);
+        if (persons.size() == TribeExportFormat.BLOCK_ROWS) {
+            writePersonBlock();
+        }
+    }
+
+    /**
+     * Write a tribe held in memory with its families and members, and finish the export.
+     * Members are written in the order of the tribe's member list, and refer to the
+     * family whose member list contains them.
+     *
+     * @param tribe the tribe, with its families, their storage and its members loaded
+     */
+    public void writeAll(Tribe tribe) throws IOException {
+        writeTribe(tribe);
+        Map<Person, Integer> familyIndexes = new IdentityHashMap<>();
+        for (Family family : tribe.getFamilies()) {
+            Resources storage = family.getStorage();
+            int index = writeFamily(new FamilyRow(family.getName(),
+                storage != null ? storage.getFood() : 0, storage != null ? storage.getWater() : 0,
+                storage != null ? storage.getLastModifiedTick() : currentTick,
+                family.getGenericStorage() != null ? family.getGenericStorage().getResources() : null));
+            for (Person member : family.getMembers()) {
+                familyIndexes.put(member, index);
+            }
+        }
+        for (Person person : tribe.getMembers()) {
+            writePerson(new PersonRow(person.getName(), person.getRole(), person.getAge(), person.getHealth(),
+                person.getHuntingSkill(), person.getGatheringSkill(), person.getLastModifiedTick(),
+                familyIndexes.getOrDefault(person, -1)));
+        }
+        finish();
+    }
+
+    /**
+     * Write a tribe whose population is held in a store, and finish the export.
+     * Members and family storage are taken from the store, which may be ahead of the
+     * entities, e.g. in the middle of a batch of ticks; members are written in store order.
+     *
+     * @param tribe the tribe, with its technologies and storages loaded
+     * @param store the tribe's population
+     */
+    public void writeAll(Tribe tribe, PopulationStore store) throws IOException {
+        writeTribe(tribe);
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            Family family = store.getFamily(f);
+            writeFamily(new FamilyRow(family.getName(), store.getFamilyFood(f), store.getFamilyWater(f),
+                store.getFamilyModifiedTick(f),
+                family.getGenericStorage() != null ? family.getGenericStorage().getResources() : null));
+        }
+        for (int row = 0; row < store.size(); row++) {
+            writePerson(new PersonRow(store.getPerson(row).getName(), store.getRole(row), store.getAge(row),
+                store.getHealth(row), store.getHuntingSkill(row), store.getGatheringSkill(row),
+                store.getModifiedTick(row), store.getFamilyIndex(row)));
+        }
+        finish();
+    }
+
+    /**
+     * End the export and flush it to the target stream, without closing it.
+     */
+    public void finish() throws IOException {
+        if (section == Section.FAMILIES) {
+            endFamilies();
+        }
+        expect(Section.PERSONS);
+        writePersonBlock();
+        writeVarLong(0);
+        out.flush();
+        if (compressed != null) {
+            compressed.finish();
+            deflater.end();
+        }
+        target.flush();
+        section = Section.FINISHED;
+    }
+
+    private void endFamilies() throws IOException {
+        writeFamilyBlock();
+        writeVarLong(0);
+        section = Section.PERSONS;
+    }
+
+    private void writeFamilyBlock() throws IOException {
+        if (families.isEmpty()) {
+            return;
+        }
+        writeVarLong(families.size());
+        for (FamilyRow family : families) {
+            writeString(family.name());
+        }
+        for (FamilyRow family : families) {
+            writeSignedVarLong(family.food());
+        }
+        for (FamilyRow family : families) {
+            writeSignedVarLong(family.water());
+        }
+        for (FamilyRow family : families) {
+            writeSignedVarLong(currentTick - family.lastModifiedTick());
+        }
+        for (FamilyRow family : families) {
+            writeStorage(family.genericStorage());
+        }
+        families.clear();
+    }
+
+    private void writePersonBlock() throws IOException {
+        if (persons.isEmpty()) {
+            return;
+        }
+        writeVarLong(persons.size());
+        for (PersonRow person : persons) {
+            writeString(person.name());
+        }
+        for (PersonRow person : persons) {
+            out.writeByte(person.role().ordinal());
+        }
+        for (PersonRow person : persons) {
+            writeSignedVarLong(person.age());
+        }
+        for (PersonRow person : persons) {
+            writeSignedVarLong(person.health());
+        }
+        long previous = 0;
+        for (PersonRow person : persons) {
+            long bits = Double.doubleToRawLongBits(person.huntingSkill());
+            writeVarLong(bits ^ previous);
+            previous = bits;
+        }
+        previous = 0;
+        for (PersonRow person : persons) {
+            long bits = Double.doubleToRawLongBits(person.gatheringSkill());
+            writeVarLong(bits ^ previous);
+            previous = bits;
+        }
+        for (PersonRow person : persons) {
+            writeSignedVarLong(currentTick - person.lastModifiedTick());
+        }
+        int previousFamily = -1;
+        for (PersonRow person : persons) {
+            writeSignedVarLong(person.family() - previousFamily);
+            previousFamily = person.family();
+        }
+        persons.clear();
+    }
+
+    private void writeResources(Resources resources) throws IOException {
+        out.writeBoolean(resources != null);
+        if (resources != null) {
+            writeSignedVarLong(resources.getFood());
+            writeSignedVarLong(resources.getWater());
+            writeSignedVarLong(currentTick - resources.getLastModifiedTick());
+        }
+    }
+
+    /**
+     * Write the amounts of a {@link ResourceStorage}: their count plus one, or zero
+     * for no storage, then each resource type index and amount.
+     */
+    private void writeStorage(Map<ResourceType, Integer> amounts) throws IOException {
+        if (amounts == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(amounts.size() + 1L);
+        for (ResourceType type : RESOURCE_TYPES) {
+            Integer amount = amounts.get(type);
+            if (amount != null) {
+                writeVarLong(type.ordinal());
+                writeSignedVarLong(amount);
+            }
+        }
+    }
+
+    private void writePolicy(Policy policy) throws IOException {
+        out.writeBoolean(policy != null);
+        if (policy == null) {
+            return;
+        }
+        writeString(policy.getName());
+        writeString(policy.getDescription());
+        writeSignedVarLong(policy.getFoodTaxRate());
+        writeSignedVarLong(policy.getWaterTaxRate());
+        writeSignedVarLong(policy.getHuntingIncentive());
+        writeSignedVarLong(policy.getGatheringIncentive());
+        writeString(policy.getSharingPriority() != null ? policy.getSharingPriority().name() : null);
+        out.writeBoolean(policy.isEnableCentralStorage());
+        writeSignedVarLong(policy.getCentralStorageTaxRate());
+        out.writeDouble(policy.getStorageDecayRate());
+        writeSignedVarLong(policy.getStorageDecayInterval());
+        writeSignedVarLong(currentTick - policy.getLastModifiedTick());
+        writeString(policy.getEffectSettings().encode());
+    }
+
+    private void expect(Section expected) {
+        if (section != expected) {
+            throw new IllegalStateException("Expected to write " + expected + " but at " + section);
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        out.write(bytes);
+    }
+}
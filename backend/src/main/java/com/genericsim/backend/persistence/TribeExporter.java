@@ -0,0 +1,141 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.ResourceType;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportFormat.FamilyRow;
+import com.genericsim.backend.persistence.TribeExportFormat.PersonRow;
+import com.genericsim.backend.repository.TribeRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exports a tribe from the database in the {@link TribeExportFormat}.
+ *
+ * Only the tribe row and its storages and policy are loaded as entities; families
+ * and members are streamed from JDBC result sets into the writer, so the population
+ * is never held in memory. Members refer to their family by its position in the
+ * export, so the IDs of the exported tribe do not matter to the import.
+ */
+@Component
+public class TribeExporter {
+
+    private static final String SELECT_FAMILIES =
+        "select f.id, f.name, s.food, s.water, s.last_modified_tick, f.generic_storage_id, a.resource_type, a.amount "
+        + "from families f "
+        + "left join resources s on s.id = f.storage_id "
+        + "left join resource_storage_amounts a on a.storage_id = f.generic_storage_id "
+        + "where f.tribe_id = ? order by f.id";
+    private static final String SELECT_PERSONS =
+        "select name, role, age, health, hunting_skill, gathering_skill, last_modified_tick, family_id "
+        + "from persons where tribe_id = ? order by id";
+
+    private final TribeRepository tribeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TribeExporter(TribeRepository tribeRepository, JdbcTemplate jdbcTemplate) {
+        this.tribeRepository = tribeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Write a tribe as it is in the database. Must run in a transaction, which should
+     * see a consistent snapshot of the tribe.
+     *
+     * @param tribeId the ID of the tribe
+     * @param writer the writer, before anything was written to it
+     * @throws RuntimeException if tribe is not found
+     */
+    public void export(Long tribeId, TribeExportWriter writer) throws IOException {
+        Tribe tribe = tribeRepository.findById(tribeId)
+            .orElseThrow(() -> new RuntimeException("Tribe not found"));
+        writer.writeTribe(tribe);
+
+        Map<Long, Integer> familyIndexes = new HashMap<>();
+        try {
+            FamilyRows families = new FamilyRows(writer, familyIndexes);
+            jdbcTemplate.query(SELECT_FAMILIES, families, tribeId);
+            families.finish();
+
+            jdbcTemplate.query(SELECT_PERSONS, (ResultSet rs) -> {
+                Long familyId = rs.getObject(8, Long.class);
+                Integer family = familyId != null ? familyIndexes.get(familyId) : null;
+                PersonRow person = new PersonRow(rs.getString(1), Person.PersonRole.valueOf(rs.getString(2)),
+                    rs.getInt(3), rs.getInt(4), rs.getDouble(5), rs.getDouble(6), rs.getLong(7),
+                    family != null ? family : -1);
+                write(() -> writer.writePerson(person));
+            }, tribeId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private static void write(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Collects the one row per storage amount of each family into a family row.
+     */
+    private static final class FamilyRows implements RowCallbackHandler {
+
+        private final TribeExportWriter writer;
+        private final Map<Long, Integer> familyIndexes;
+        private Long id;
+        private String name;
+        private int food;
+        private int water;
+        private long lastModifiedTick;
+        private Map<ResourceType, Integer> genericStorage;
+
+        private FamilyRows(TribeExportWriter writer, Map<Long, Integer> familyIndexes) {
+            this.writer = writer;
+            this.familyIndexes = familyIndexes;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long familyId = rs.getLong(1);
+            if (id == null || id != familyId) {
+                finish();
+                id = familyId;
+                name = rs.getString(2);
+                food = rs.getInt(3);
+                water = rs.getInt(4);
+                lastModifiedTick = rs.getLong(5);
+                genericStorage = rs.getObject(6) != null ? new EnumMap<>(ResourceType.class) : null;
+            }
+            String type = rs.getString(7);
+            if (type != null && genericStorage != null) {
+                genericStorage.put(ResourceType.valueOf(type), rs.getInt(8));
+            }
+        }
+
+        private void finish() {
+            if (id != null) {
+                FamilyRow family = new FamilyRow(name, food, water, lastModifiedTick, genericStorage);
+                write(() -> familyIndexes.put(id, writer.writeFamily(family)));
+                id = null;
+            }
+        }
+    }
+}
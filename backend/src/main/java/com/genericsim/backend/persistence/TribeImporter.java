@@ -0,0 +1,253 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.config.PersistenceProperties;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.PopulationAggregates;
+import com.genericsim.backend.model.PopulationAggregatesConverter;
+import com.genericsim.backend.model.ResourceType;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportFormat.FamilyRow;
+import com.genericsim.backend.persistence.TribeExportFormat.PersonRow;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates a tribe from an export in the {@link TribeExportFormat}, or from a tribe
+ * built in memory.
+ *
+ * The tribe row with its storages and policy is saved through the entity manager;
+ * families and members are inserted with JDBC batches as their blocks are read,
+ * so the population is never held in memory as entities. Rows are inserted in the
+ * order they were exported, so the new IDs keep the members and families in the
+ * same order, and a tribe imported with the same seed ticks exactly like the original.
+ */
+@Component
+public class TribeImporter {
+
+    private static final String INSERT_RESOURCES =
+        "insert into resources (food, water, last_modified_tick) values (?, ?, ?)";
+    private static final String INSERT_STORAGE = "insert into resource_storage default values";
+    private static final String INSERT_AMOUNT =
+        "insert into resource_storage_amounts (storage_id, resource_type, amount) values (?, ?, ?)";
+    private static final String INSERT_FAMILY =
+        "insert into families (name, tribe_id, storage_id, generic_storage_id) values (?, ?, ?, ?)";
+    private static final String INSERT_PERSON =
+        "insert into persons (name, role, age, health, hunting_skill, gathering_skill, last_modified_tick, "
+        + "tribe_id, family_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_TRIBE = "update tribes set aggregates = ?, population = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final PopulationAggregatesConverter aggregatesConverter = new PopulationAggregatesConverter();
+    private final int batchSize;
+
+    public TribeImporter(JdbcTemplate jdbcTemplate, EntityManager entityManager, PersistenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, properties.getJdbcBatchSize());
+    }
+
+    /**
+     * Read an export into a new tribe. Must run in a transaction.
+     *
+     * @param reader the reader, before anything was read from it
+     * @param name the name of the new tribe, or null to keep the exported name
+     * @return the new tribe, detached, with its aggregates but without members or families
+     * @throws IOException if the export cannot be read
+     */
+    public Tribe importTribe(TribeExportReader reader, String name) throws IOException {
+        Tribe tribe = reader.readTribe();
+        if (name != null) {
+            tribe.setName(name);
+        }
+        entityManager.persist(tribe);
+        entityManager.flush();
+        entityManager.detach(tribe);
+
+        List<Long> familyIds = new ArrayList<>();
+        for (List<FamilyRow> families = reader.nextFamilies(); !families.isEmpty();
+                families = reader.nextFamilies()) {
+            insertFamilies(tribe.getId(), families, familyIds);
+        }
+        for (List<PersonRow> persons = reader.nextPersons(); !persons.isEmpty(); persons = reader.nextPersons()) {
+            insertPersons(tribe.getId(), persons, familyIds);
+            addToAggregates(tribe, persons);
+        }
+        updateAggregates(tribe);
+        return tribe;
+    }
+
+    /**
+     * Save a tribe built in memory the same way: the tribe row through the entity
+     * manager, and its families and members with JDBC batches, in list order.
+     * Must run in a transaction.
+     *
+     * @param tribe the new tribe, with its families and members; the population is
+     *              taken out of the tribe and left to be garbage collected
+     * @return the tribe, detached, with its aggregates but without members or families
+     */
+    public Tribe insertTribe(Tribe tribe) {
+        List<FamilyRow> families = new ArrayList<>(tribe.getFamilies().size());
+        Map<Person, Integer> familyIndexes = new IdentityHashMap<>();
+        for (Family family : tribe.getFamilies()) {
+            Resources storage = family.getStorage();
+            families.add(new FamilyRow(family.getName(),
+                storage != null ? storage.getFood() : 0, storage != null ? storage.getWater() : 0,
+                storage != null ? storage.getLastModifiedTick() : tribe.getCurrentTick(),
+                family.getGenericStorage() != null ? family.getGenericStorage().getResources() : null));
+            for (Person member : family.getMembers()) {
+                familyIndexes.put(member, families.size() - 1);
+            }
+        }
+        List<PersonRow> persons = new ArrayList<>(tribe.getMembers().size());
+        for (Person person : tribe.getMembers()) {
+            persons.add(new PersonRow(person.getName(), person.getRole(), person.getAge(), person.getHealth(),
+                person.getHuntingSkill(), person.getGatheringSkill(), person.getLastModifiedTick(),
+                familyIndexes.getOrDefault(person, -1)));
+        }
+
+        // Only the tribe row and its storages and policy are cascaded
+        tribe.getFamilies().clear();
+        tribe.setMembers(new ArrayList<>());
+        entityManager.persist(tribe);
+        entityManager.flush();
+        entityManager.detach(tribe);
+
+        List<Long> familyIds = new ArrayList<>();
+        insertFamilies(tribe.getId(), families, familyIds);
+        insertPersons(tribe.getId(), persons, familyIds);
+        addToAggregates(tribe, persons);
+        updateAggregates(tribe);
+        return tribe;
+    }
+
+    private static void addToAggregates(Tribe tribe, List<PersonRow> persons) {
+        PopulationAggregates aggregates = tribe.getAggregates();
+        for (PersonRow person : persons) {
+            aggregates.add(person.role(), person.age(), person.health(), person.huntingSkill(),
+                person.gatheringSkill());
+        }
+    }
+
+    private void updateAggregates(Tribe tribe) {
+        PopulationAggregates aggregates = tribe.getAggregates();
+        jdbcTemplate.update(UPDATE_TRIBE, aggregatesConverter.convertToDatabaseColumn(aggregates),
+            aggregates.getCount(), tribe.getId());
+    }
+
+    private void insertFamilies(Long tribeId, List<FamilyRow> families, List<Long> familyIds) {
+        long[] storageIds = insertReturningIds(INSERT_RESOURCES, families, (ps, family) -> {
+            ps.setInt(1, family.food());
+            ps.setInt(2, family.water());
+            ps.setLong(3, family.lastModifiedTick());
+        });
+        List<Map<ResourceType, Integer>> genericStorages = families.stream()
+            .map(FamilyRow::genericStorage)
+            .filter(storage -> storage != null)
+            .toList();
+        long[] genericStorageIds = insertReturningIds(INSERT_STORAGE, genericStorages, (ps, storage) -> {});
+
+        List<StorageAmount> amounts = new ArrayList<>();
+        for (int i = 0; i < genericStorages.size(); i++) {
+            for (Map.Entry<ResourceType, Integer> amount : genericStorages.get(i).entrySet()) {
+                amounts.add(new StorageAmount(genericStorageIds[i], amount.getKey(), amount.getValue()));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_AMOUNT, amounts, batchSize, (PreparedStatement ps, StorageAmount amount) -> {
+            ps.setLong(1, amount.storageId());
+            ps.setString(2, amount.type().name());
+            ps.setInt(3, amount.amount());
+        });
+
+        long[] ids = insertReturningIds(INSERT_FAMILY, families, new RowSetter<>() {
+            private int row;
+            private int genericStorage;
+
+            @Override
+            public void set(PreparedStatement ps, FamilyRow family) throws SQLException {
+                ps.setString(1, family.name());
+                ps.setLong(2, tribeId);
+                ps.setLong(3, storageIds[row++]);
+                if (family.genericStorage() != null) {
+                    ps.setLong(4, genericStorageIds[genericStorage++]);
+                } else {
+                    ps.setNull(4, Types.BIGINT);
+                }
+            }
+        });
+        for (long id : ids) {
+            familyIds.add(id);
+        }
+    }
+
+    private void insertPersons(Long tribeId, List<PersonRow> persons, List<Long> familyIds) {
+        jdbcTemplate.batchUpdate(INSERT_PERSON, persons, batchSize, (PreparedStatement ps, PersonRow person) -> {
+            ps.setString(1, person.name());
+            ps.setString(2, person.role().name());
+            ps.setInt(3, person.age());
+            ps.setInt(4, person.health());
+            ps.setDouble(5, person.huntingSkill());
+            ps.setDouble(6, person.gatheringSkill());
+            ps.setLong(7, person.lastModifiedTick());
+            ps.setLong(8, tribeId);
+            if (person.family() >= 0) {
+                ps.setLong(9, familyIds.get(person.family()));
+            } else {
+                ps.setNull(9, Types.BIGINT);
+            }
+        });
+    }
+
+    /**
+     * Insert rows in batches and collect their generated IDs, in row order.
+     */
+    private <T> long[] insertReturningIds(String sql, List<T> rows, RowSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return new long[0];
+        }
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            long[] ids = new long[rows.size()];
+            int next = 0;
+            try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    for (T row : rows.subList(from, Math.min(rows.size(), from + batchSize))) {
+                        setter.set(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids[next++] = keys.getLong(1);
+                        }
+                    }
+                }
+            }
+            if (next != ids.length) {
+                throw new IllegalStateException("Expected " + ids.length + " generated IDs but got " + next);
+            }
+            return ids;
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowSetter<T> {
+        void set(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    private record StorageAmount(long storageId, ResourceType type, int amount) {}
+}
@@ -0,0 +1,65 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fetch plans for loading tribes.
+ *
+ * Loading a tribe with {@code findById} and walking its associations lazily costs a
+ * query per family, since every family loads its member list on first use. Each
+ * method here loads exactly what one kind of caller reads, in a fixed number of
+ * queries whatever the size of the tribe:
+ * <ul>
+ *   <li>{@link #loadPopulation(Long)} for ticks and the full tribe state: the tribe
+ *       with its resources and policy, its families with their storage and members,
+ *       and its member list (four queries)</li>
+ *   <li>{@link #loadSummary(Long)} for statistics: the tribe row with its resources
+ *       and policy only, since statistics are read from the stored aggregates
+ *       (one query)</li>
+ * </ul>
+ * Must be called in a transaction, which the returned tribe is attached to.
+ */
+@Component
+public class TribeLoader {
+
+    private final TribeRepository tribeRepository;
+
+    public TribeLoader(TribeRepository tribeRepository) {
+        this.tribeRepository = tribeRepository;
+    }
+
+    /**
+     * Load a tribe with everything a tick or a full state DTO reads.
+     *
+     * @param tribeId the ID of the tribe
+     * @return the tribe with its families, family members and members loaded, or empty if not found
+     */
+    public Optional<Tribe> loadPopulation(Long tribeId) {
+        return tribeRepository.findById(tribeId).map(tribe -> {
+            // Families first, so persons find their family already loaded. Family member
+            // lists are subselect fetched, so the first one loads all of them
+            List<Family> families = tribe.getFamilies();
+            if (!families.isEmpty()) {
+                families.get(0).getMembers().size();
+            }
+            tribe.getMembers().size();
+            return tribe;
+        });
+    }
+
+    /**
+     * Load a tribe without its members and families.
+     *
+     * @param tribeId the ID of the tribe
+     * @return the tribe, or empty if not found
+     */
+    public Optional<Tribe> loadSummary(Long tribeId) {
+        return tribeRepository.findById(tribeId);
+    }
+}
@@ -0,0 +1,316 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.config.PersistenceProperties;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.ResourceStorage;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.simulation.PopulationStore;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * In-memory tribe state for write-behind persistence.
+ *
+ * When {@code simulation.persistence.write-behind} is enabled, a tribe is loaded
+ * once, detached from JPA and kept here together with its {@link PopulationStore}.
+ * From then on the in-memory copy is the source of truth: ticks and policy changes
+ * are applied to it without touching the database, and reads are served from it.
+ * Changed tribes are written back by merging them in a checkpoint; the merged copy,
+ * which has the IDs of entities created in memory since, then replaces the one held.
+ *
+ * Staleness of the database copy is bounded: dirty tribes are checkpointed every
+ * {@code checkpoint-interval-ms}, a tribe that runs {@code max-dirty-ticks} ticks
+ * ahead of its last checkpoint is checkpointed immediately, and everything still
+ * dirty is checkpointed on shutdown. A tribe that fails to checkpoint stays dirty
+ * and is retried on the next run.
+ *
+ * Each tribe has its own lock, so ticks of different tribes run concurrently while
+ * ticks, reads and checkpoints of the same tribe are serialized.
+ */
+@Component
+public class WriteBehindTribeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindTribeCache.class);
+
+    private final TribeLoader tribeLoader;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxDirtyTicks;
+    private final Map<Long, HotTribe> tribes = new ConcurrentHashMap<>();
+    private final AtomicLong checkpointedTribes = new AtomicLong();
+    private final AtomicLong failedCheckpoints = new AtomicLong();
+    private volatile Instant lastCheckpointAt;
+    private volatile long lastCheckpointMillis;
+
+    public WriteBehindTribeCache(TribeLoader tribeLoader, EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate, PersistenceProperties properties) {
+        this.tribeLoader = tribeLoader;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = properties.isWriteBehind();
+        this.maxDirtyTicks = Math.max(1, properties.getMaxDirtyTicks());
+    }
+
+    /**
+     * @return true if write-behind persistence is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Change a tribe in memory, loading it from the database on first use.
+     * The update receives the tribe and its population store; it must leave the
+     * entities in sync with the store (see {@link PopulationStore#flush(Tribe)}).
+     *
+     * @param tribeId the ID of the tribe
+     * @param update the change to apply
+     * @return the value returned by the update
+     * @throws RuntimeException if tribe is not found
+     */
+    public <T> T update(Long tribeId, BiFunction<Tribe, PopulationStore, T> update) {
+        while (true) {
+            HotTribe hot = tribes.computeIfAbsent(tribeId, this::load);
+            hot.lock.lock();
+            try {
+                if (hot.evicted) {
+                    continue; // Dropped while we waited; pick up the reloaded copy
+                }
+                T result = update.apply(hot.tribe, hot.store);
+                hot.markDirty();
+                if (hot.dirtyTicks() >= maxDirtyTicks) {
+                    checkpoint(hot);
+                }
+                return result;
+            } finally {
+                hot.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Read a tribe from memory if it is held here.
+     *
+     * @param tribeId the ID of the tribe
+     * @param reader function reading the tribe entities
+     * @return the value returned by the reader, or empty if the tribe is not in memory
+     */
+    public <T> Optional<T> read(Long tribeId, Function<Tribe, T> reader) {
+        HotTribe hot = tribes.get(tribeId);
+        if (hot == null) {
+            return Optional.empty();
+        }
+        hot.lock.lock();
+        try {
+            return hot.evicted ? Optional.empty() : Optional.of(reader.apply(hot.tribe));
+        } finally {
+            hot.lock.unlock();
+        }
+    }
+
+    /**
+     * Checkpoint a tribe if it is dirty and drop it from memory.
+     *
+     * @param tribeId the ID of the tribe
+     * @throws RuntimeException if the tribe is dirty and could not be checkpointed
+     */
+    public void evict(Long tribeId) {
+        HotTribe hot = tribes.get(tribeId);
+        if (hot == null) {
+            return;
+        }
+        hot.lock.lock();
+        try {
+            if (hot.dirtySince != 0 && !checkpoint(hot)) {
+                throw new RuntimeException("Tribe could not be checkpointed");
+            }
+            hot.evicted = true;
+            tribes.remove(tribeId, hot);
+        } finally {
+            hot.lock.unlock();
+        }
+    }
+
+    /**
+     * Write every dirty tribe to the database.
+     *
+     * @return the number of tribes checkpointed
+     */
+    public int checkpointAll() {
+        long start = System.nanoTime();
+        int checkpointed = 0;
+        for (HotTribe hot : tribes.values()) {
+            hot.lock.lock();
+            try {
+                if (checkpoint(hot)) {
+                    checkpointed++;
+                }
+            } finally {
+                hot.lock.unlock();
+            }
+        }
+        lastCheckpointMillis = (System.nanoTime() - start) / 1_000_000;
+        lastCheckpointAt = Instant.now();
+        if (checkpointed > 0) {
+            logger.debug("Checkpointed {} tribes in {} ms", checkpointed, lastCheckpointMillis);
+        }
+        return checkpointed;
+    }
+
+    @Scheduled(fixedDelayString = "${simulation.persistence.checkpoint-interval-ms:5000}",
+               initialDelayString = "${simulation.persistence.checkpoint-interval-ms:5000}")
+    public void scheduledCheckpoint() {
+        if (enabled) {
+            checkpointAll();
+        }
+    }
+
+    /**
+     * @return the changes waiting to be checkpointed
+     */
+    public CheckpointBacklog getBacklog() {
+        int dirtyTribes = 0;
+        long dirtyTicks = 0;
+        long oldestDirtySince = Long.MAX_VALUE;
+        for (HotTribe hot : tribes.values()) {
+            long dirtySince = hot.dirtySince;
+            if (dirtySince != 0) {
+                dirtyTribes++;
+                dirtyTicks += hot.dirtyTicks();
+                oldestDirtySince = Math.min(oldestDirtySince, dirtySince);
+            }
+        }
+        long oldestDirtyMillis = dirtyTribes > 0 ? (System.nanoTime() - oldestDirtySince) / 1_000_000 : 0;
+        return new CheckpointBacklog(enabled, tribes.size(), dirtyTribes, dirtyTicks, oldestDirtyMillis,
+            lastCheckpointAt, lastCheckpointMillis, checkpointedTribes.get(), failedCheckpoints.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!tribes.isEmpty()) {
+            logger.info("Checkpointing {} in-memory tribes before shutdown", tribes.size());
+            checkpointAll();
+        }
+    }
+
+    /**
+     * Load a tribe with everything a tick or a DTO touches and detach it,
+     * so that it can outlive the transaction.
+     */
+    private HotTribe load(Long tribeId) {
+        Tribe tribe = transactionTemplate.execute(status -> detach(tribeLoader.loadPopulation(tribeId)
+            .orElseThrow(() -> new RuntimeException("Tribe not found"))));
+        return new HotTribe(tribe, PopulationStore.load(tribe));
+    }
+
+    /**
+     * Initialize what the loader leaves lazy, and what a merge leaves lazy, and
+     * detach a managed tribe. Called within a transaction.
+     */
+    private Tribe detach(Tribe tribe) {
+        Hibernate.initialize(tribe.getTechnologies());
+        Hibernate.initialize(tribe.getMembers());
+        initialize(tribe.getGenericStorage());
+        initialize(tribe.getGenericCentralStorage());
+        for (Family family : tribe.getFamilies()) {
+            Hibernate.initialize(family.getMembers());
+            initialize(family.getGenericStorage());
+        }
+        entityManager.detach(tribe);
+        return tribe;
+    }
+
+    private void initialize(ResourceStorage storage) {
+        if (storage != null) {
+            Hibernate.initialize(storage.getResources());
+        }
+    }
+
+    /**
+     * Merge a dirty tribe into the database. The caller holds the tribe's lock.
+     *
+     * The detached graph does not learn the IDs of entities inserted by the merge,
+     * such as a policy created in memory, so it would insert them again on every
+     * checkpoint. The merged copy is held from then on instead.
+     *
+     * @return true if the tribe was written
+     */
+    private boolean checkpoint(HotTribe hot) {
+        if (hot.dirtySince == 0) {
+            return false;
+        }
+        try {
+            Tribe merged = transactionTemplate.execute(status -> {
+                Tribe managed = entityManager.merge(hot.tribe);
+                // Write before detaching, which would drop the pending changes
+                entityManager.flush();
+                return detach(managed);
+            });
+            hot.replace(merged);
+            hot.markClean();
+            checkpointedTribes.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            failedCheckpoints.incrementAndGet();
+            logger.error("Error checkpointing tribe {}: {}", hot.tribe.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A tribe held in memory with its population store.
+     */
+    private static final class HotTribe {
+        private volatile Tribe tribe;
+        private volatile PopulationStore store;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long checkpointedTick;
+        private volatile long dirtySince;
+        private volatile boolean evicted;
+
+        private HotTribe(Tribe tribe, PopulationStore store) {
+            this.tribe = tribe;
+            this.store = store;
+            this.checkpointedTick = tribe.getCurrentTick();
+        }
+
+        /**
+         * Hold a copy of the tribe in the same state, with a store built from it.
+         */
+        private void replace(Tribe copy) {
+            tribe = copy;
+            store = PopulationStore.load(copy);
+        }
+
+        private void markDirty() {
+            if (dirtySince == 0) {
+                dirtySince = System.nanoTime();
+            }
+        }
+
+        private void markClean() {
+            dirtySince = 0;
+            checkpointedTick = tribe.getCurrentTick();
+        }
+
+        private long dirtyTicks() {
+            return tribe.getCurrentTick() - checkpointedTick;
+        }
+    }
+}
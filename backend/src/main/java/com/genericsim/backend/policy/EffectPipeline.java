@@ -0,0 +1,112 @@
+package com.genericsim.backend.policy;
+
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.model.EffectSettings;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registered effects of a {@link PolicyEngine}, and the plans compiled from them.
+ *
+ * Immutable apart from its plan cache: registering an effect makes a new pipeline,
+ * so a tick that started on the old one finishes on it. Plans are compiled once per
+ * distinct {@link EffectSettings} and then shared.
+ */
+final class EffectPipeline {
+
+    /**
+     * Compiled plans kept before the cache is cleared, bounding it when tribes
+     * keep changing their settings
+     */
+    private static final int MAX_PLANS = 1024;
+
+    static final EffectPipeline EMPTY = new EffectPipeline(List.of(), List.of());
+
+    /**
+     * Effects in registration order
+     */
+    private final List<PolicyEffect> effects;
+
+    /**
+     * Timers of the effects, in the same order
+     */
+    private final List<TickMeters.EffectTimers> timers;
+
+    /**
+     * The plan of tribes without effect settings
+     */
+    private final EffectPlan defaultPlan;
+
+    private final Map<EffectSettings, EffectPlan> plans = new ConcurrentHashMap<>();
+
+    private EffectPipeline(List<PolicyEffect> effects, List<TickMeters.EffectTimers> timers) {
+        this.effects = effects;
+        this.timers = timers;
+        this.defaultPlan = compile(EffectSettings.NONE);
+    }
+
+    /**
+     * @return a pipeline with the effect registered after those of this one
+     */
+    EffectPipeline with(PolicyEffect effect, TickMeters.EffectTimers effectTimers) {
+        List<PolicyEffect> moreEffects = new ArrayList<>(effects);
+        moreEffects.add(effect);
+        List<TickMeters.EffectTimers> moreTimers = new ArrayList<>(timers);
+        moreTimers.add(effectTimers);
+        return new EffectPipeline(List.copyOf(moreEffects), List.copyOf(moreTimers));
+    }
+
+    List<PolicyEffect> getEffects() {
+        return effects;
+    }
+
+    EffectPlan defaultPlan() {
+        return defaultPlan;
+    }
+
+    /**
+     * @param settings a tribe's effect settings
+     * @return the plan of tribes with these settings
+     */
+    EffectPlan planFor(EffectSettings settings) {
+        if (settings.isEmpty()) {
+            return defaultPlan;
+        }
+        EffectPlan plan = plans.get(settings);
+        if (plan == null) {
+            if (plans.size() >= MAX_PLANS) {
+                plans.clear();
+            }
+            plan = plans.computeIfAbsent(settings, this::compile);
+        }
+        return plan;
+    }
+
+    /**
+     * Order each phase's enabled effects by the priority they run at, effects of the
+     * same priority in registration order.
+     */
+    private EffectPlan compile(EffectSettings settings) {
+        int phases = PolicyPhase.values().length;
+        PolicyEffect[][] planEffects = new PolicyEffect[phases][];
+        TickMeters.EffectTimers[][] planTimers = new TickMeters.EffectTimers[phases][];
+        for (PolicyPhase phase : PolicyPhase.values()) {
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < effects.size(); i++) {
+                PolicyEffect effect = effects.get(i);
+                if (effect.getPhase() == phase && settings.isEnabled(effect.getName())) {
+                    order.add(i);
+                }
+            }
+            // A stable sort keeps registration order within a priority
+            order.sort(Comparator.comparingInt(i -> settings.priority(effects.get(i).getName(), effects.get(i).getPriority())));
+            planEffects[phase.ordinal()] = order.stream().map(effects::get).toArray(PolicyEffect[]::new);
+            planTimers[phase.ordinal()] = order.stream().map(timers::get).toArray(TickMeters.EffectTimers[]::new);
+        }
+        return new EffectPlan(planEffects, planTimers);
+    }
+}
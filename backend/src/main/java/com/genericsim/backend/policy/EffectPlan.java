@@ -0,0 +1,47 @@
+package com.genericsim.backend.policy;
+
+import com.genericsim.backend.metrics.TickMeters;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The effects a tribe runs in each phase, in execution order, compiled by the
+ * {@link PolicyEngine} from its registered effects and the tribe's effect settings.
+ *
+ * Immutable and array-backed, so running a phase only walks two arrays. A plan is
+ * shared by every tribe with the same settings, and replaced, not changed, when an
+ * effect is registered.
+ */
+public final class EffectPlan {
+
+    /**
+     * Effects of each phase by phase ordinal, in execution order
+     */
+    final PolicyEffect[][] effects;
+
+    /**
+     * Timers of the effects, in the same order
+     */
+    final TickMeters.EffectTimers[][] timers;
+
+    EffectPlan(PolicyEffect[][] effects, TickMeters.EffectTimers[][] timers) {
+        this.effects = effects;
+        this.timers = timers;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the effects run in the phase, in execution order
+     */
+    public List<PolicyEffect> getEffects(PolicyPhase phase) {
+        return List.of(effects[phase.ordinal()]);
+    }
+
+    /**
+     * @return every effect of the plan, phase by phase
+     */
+    List<PolicyEffect> allEffects() {
+        return Arrays.stream(effects).flatMap(Arrays::stream).toList();
+    }
+}
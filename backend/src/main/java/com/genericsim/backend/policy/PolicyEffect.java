@@ -1,5 +1,7 @@
 package com.genericsim.backend.policy;
 
+import com.genericsim.backend.model.Tribe;
+
 /**
  * Base interface for all policy effects in the simulation.
  * 
@@ -54,6 +56,21 @@ public interface PolicyEffect {
      */
     void apply(TickContext context);
     
+    /**
+     * Get the first tick after the tribe's current tick on which this effect may
+     * change a tribe that has no members.
+     * 
+     * The tick engine skips the ticks of an extinct tribe up to the earliest such
+     * tick over all effects, so effects opt in to skipping by overriding this.
+     * The default, the very next tick, means the tribe is simulated every tick.
+     * 
+     * @param tribe a tribe without members
+     * @return the tick number, or Long.MAX_VALUE if the effect never changes such a tribe
+     */
+    default long nextActiveTick(Tribe tribe) {
+        return tribe.getCurrentTick() + 1;
+    }
+    
     /**
      * Get a human-readable name for this effect.
      * Used for logging and debugging.
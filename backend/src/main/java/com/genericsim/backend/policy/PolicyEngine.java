@@ -1,5 +1,12 @@
 package com.genericsim.backend.policy;
 
+import com.genericsim.backend.jfr.PolicyEffectEvent;
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.model.EffectSettings;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.Tribe;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -8,69 +15,149 @@ import java.util.stream.Collectors;
 /**
  * Central policy engine that manages and executes policy effects.
  * 
- * The engine maintains a registry of effects organized by phase and priority,
- * and executes them in the correct order during simulation ticks.
+ * The engine compiles its registered effects into an {@link EffectPlan} per phase
+ * and priority, and executes them in that order during simulation ticks. A tribe
+ * may disable effects or move them within their phase through its policy's
+ * {@link EffectSettings}; tribes with the same settings share one compiled plan.
  * 
- * Effects are registered at startup and remain constant during execution.
+ * Effects may be registered while tribes are ticked: registration compiles a new
+ * pipeline and swaps it in, and a tick runs on the pipeline it started with.
+ * Every execution of an effect is counted and, outside replays, emitted as a flight
+ * recorder event; it is timed (see {@link TickMeters}) in the ticks the tick engine
+ * samples for timing.
  */
 @Component
 public class PolicyEngine {
     
     /**
-     * Registry of effects organized by phase.
-     * Within each phase, effects are sorted by priority (ascending).
+     * Registered effects and the plans compiled from them, replaced on registration
      */
-    private final Map<PolicyPhase, List<PolicyEffect>> effectsByPhase;
+    private volatile EffectPipeline pipeline = EffectPipeline.EMPTY;
+    
+    private final TickMeters meters;
     
     /**
-     * Create a new policy engine.
+     * Create a new policy engine whose effects are not timed or counted.
      * Effects are registered via registerEffect() or provided through dependency injection.
      */
     public PolicyEngine() {
-        this.effectsByPhase = new EnumMap<>(PolicyPhase.class);
-        for (PolicyPhase phase : PolicyPhase.values()) {
-            effectsByPhase.put(phase, new ArrayList<>());
-        }
+        this(TickMeters.NONE);
+    }
+    
+    /**
+     * Create a new policy engine.
+     * 
+     * @param meters the meters effect executions are timed and counted with
+     */
+    @Autowired
+    public PolicyEngine(TickMeters meters) {
+        this.meters = meters;
     }
     
     /**
      * Register a policy effect with the engine.
-     * Effects are automatically organized by phase and priority.
+     * Effects are automatically organized by phase and priority; effects of the
+     * same priority run in registration order.
      * 
      * @param effect the effect to register
      */
-    public void registerEffect(PolicyEffect effect) {
-        List<PolicyEffect> phaseEffects = effectsByPhase.get(effect.getPhase());
-        phaseEffects.add(effect);
-        // Sort by priority after adding
-        phaseEffects.sort(Comparator.comparingInt(PolicyEffect::getPriority));
+    public synchronized void registerEffect(PolicyEffect effect) {
+        pipeline = pipeline.with(effect, meters.effectTimers(effect));
     }
     
     /**
-     * Execute all effects for a specific phase on the given context.
-     * Effects are filtered using shouldApply() before execution.
+     * Get the plan a tribe's effects run by, for its current effect settings.
+     * 
+     * @param tribe the tribe
+     * @return the compiled plan
+     */
+    public EffectPlan planFor(Tribe tribe) {
+        Policy policy = tribe.getPolicy();
+        return policy == null ? pipeline.defaultPlan() : pipeline.planFor(policy.getEffectSettings());
+    }
+    
+    /**
+     * Execute the tribe's effects for a specific phase on the given context.
+     * Effects are filtered using shouldApply() before execution, and those
+     * applied are recorded in the context.
+     * 
+     * The tribe's plan is looked up on the first phase of a tick and kept in the
+     * context, so all phases of a tick run on the same plan.
      * 
      * @param phase the simulation phase to execute
      * @param context the tick context
      */
     public void executePhase(PolicyPhase phase, TickContext context) {
-        List<PolicyEffect> effects = effectsByPhase.get(phase);
-        for (PolicyEffect effect : effects) {
-            if (effect.shouldApply(context)) {
+        EffectPlan plan = context.getEffectPlan();
+        if (plan == null) {
+            plan = planFor(context.getTribe());
+            context.setEffectPlan(plan);
+        }
+        PolicyEffect[] effects = plan.effects[phase.ordinal()];
+        TickMeters.EffectTimers[] timers = plan.timers[phase.ordinal()];
+        boolean timed = context.isEffectsTimed();
+        boolean counted = context.isEffectsCounted();
+        boolean emitted = context.isEventsEmitted();
+        for (int i = 0; i < effects.length; i++) {
+            PolicyEffect effect = effects[i];
+            PolicyEffectEvent event = emitted ? PolicyEffectEvent.started() : null;
+            long start = timed ? meters.start() : 0;
+            boolean applied = effect.shouldApply(context);
+            if (applied) {
                 effect.apply(context);
+                context.recordAppliedEffect(phase, effect);
+            }
+            if (timed) {
+                timers[i].record(applied, start);
+            }
+            if (counted) {
+                timers[i].count(applied);
+            }
+            if (event != null) {
+                event.end(phase, effect, context, applied);
             }
         }
     }
     
     /**
-     * Get all registered effects for a specific phase.
+     * Get the first tick on which any of the tribe's effects may change it,
+     * when it has no members.
+     * 
+     * @param tribe a tribe without members
+     * @return the earliest {@link PolicyEffect#nextActiveTick(Tribe)} over the tribe's
+     *         enabled effects, or Long.MAX_VALUE if no effect ever changes such a tribe
+     */
+    public long nextActiveTick(Tribe tribe) {
+        long next = Long.MAX_VALUE;
+        for (PolicyEffect[] effects : planFor(tribe).effects) {
+            for (PolicyEffect effect : effects) {
+                next = Math.min(next, effect.nextActiveTick(tribe));
+            }
+        }
+        return next;
+    }
+    
+    /**
+     * Get all registered effects for a specific phase, in the order they run for
+     * tribes without effect settings.
      * Useful for debugging and testing.
      * 
      * @param phase the phase to query
      * @return immutable list of effects for that phase
      */
     public List<PolicyEffect> getEffectsForPhase(PolicyPhase phase) {
-        return Collections.unmodifiableList(effectsByPhase.get(phase));
+        return pipeline.defaultPlan().getEffects(phase);
+    }
+    
+    /**
+     * Check whether an effect of the given name is registered, e.g. before
+     * accepting effect settings that name it.
+     * 
+     * @param name the effect name
+     * @return true if a registered effect has that name
+     */
+    public boolean hasEffect(String name) {
+        return pipeline.getEffects().stream().anyMatch(effect -> effect.getName().equals(name));
     }
     
     /**
@@ -79,9 +166,7 @@ public class PolicyEngine {
      * @return total number of registered effects
      */
     public int getEffectCount() {
-        return effectsByPhase.values().stream()
-            .mapToInt(List::size)
-            .sum();
+        return pipeline.getEffects().size();
     }
     
     /**
@@ -91,12 +176,13 @@ public class PolicyEngine {
      * @return map of phase to effect names
      */
     public Map<PolicyPhase, List<String>> getEffectSummary() {
-        return effectsByPhase.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                e -> e.getValue().stream()
-                    .map(PolicyEffect::getName)
-                    .collect(Collectors.toList())
-            ));
+        EffectPlan plan = pipeline.defaultPlan();
+        Map<PolicyPhase, List<String>> summary = new EnumMap<>(PolicyPhase.class);
+        for (PolicyPhase phase : PolicyPhase.values()) {
+            summary.put(phase, plan.getEffects(phase).stream()
+                .map(PolicyEffect::getName)
+                .collect(Collectors.toList()));
+        }
+        return summary;
     }
 }
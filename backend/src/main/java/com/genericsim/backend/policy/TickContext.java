@@ -1,12 +1,18 @@
 package com.genericsim.backend.policy;
 
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.metrics.TribeCounters;
 import com.genericsim.backend.model.Family;
 import com.genericsim.backend.model.Tribe;
 import com.genericsim.backend.service.FamilyService;
+import com.genericsim.backend.simulation.FamilyPartitioner;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -32,10 +38,47 @@ public class TickContext {
     
     /**
      * Random number generator for stochastic effects.
-     * Shared across all effects for consistency.
+     * Shared across all effects for consistency; derived from the tribe seed
+     * and tick number so effects are reproducible.
      */
     private final Random random;
     
+    /**
+     * Runs per-family work of effects, in parallel for large tribes.
+     * Sequential unless the tick engine provides its partitioner.
+     */
+    private FamilyPartitioner familyPartitioner = FamilyPartitioner.SEQUENTIAL;
+    
+    /**
+     * Counters of the simulation events of the tribe this tick.
+     * Counts nothing unless the tick engine provides the tribe's counters.
+     */
+    private TribeCounters counters = TribeCounters.NONE;
+    
+    /**
+     * Whether the policy engine times the effects run this tick.
+     * The tick engine turns it off for ticks it does not time (see {@link TickMeters#sample()}).
+     */
+    private boolean effectsTimed = true;
+    
+    /**
+     * Whether the policy engine counts the effects run this tick, timed or not.
+     * The tick engine turns it off when it records no metrics, e.g. for replays.
+     */
+    private boolean effectsCounted = true;
+    
+    /**
+     * Whether the policy engine and effects emit flight recorder events this tick.
+     * The tick engine turns it off for replays.
+     */
+    private boolean eventsEmitted = true;
+    
+    /**
+     * The effects the tribe runs this tick, looked up by the policy engine on the
+     * first phase so that effects registered meanwhile wait for the next tick.
+     */
+    private EffectPlan effectPlan;
+    
     /**
      * Elder count calculated at the start of the tick.
      * Used for elder-based bonuses in multiple effects.
@@ -55,6 +98,11 @@ public class TickContext {
      */
     private final Map<Family, FamilyResourceSnapshot> preGatheringStorage;
     
+    /**
+     * Effects applied so far in this tick, in the order they were applied.
+     */
+    private final List<AppliedEffect> appliedEffects = new ArrayList<>();
+    
     /**
      * Create a new tick context for processing a tribe's simulation tick.
      * 
@@ -109,8 +157,32 @@ public class TickContext {
         return Math.max(0, family.getStorage().getWater() - snapshot.water);
     }
     
+    /**
+     * Record that an effect was applied in this tick.
+     * 
+     * @param phase the phase the effect was applied in
+     * @param effect the effect
+     */
+    public void recordAppliedEffect(PolicyPhase phase, PolicyEffect effect) {
+        appliedEffects.add(new AppliedEffect(phase, effect.getName()));
+    }
+    
+    /**
+     * Get the effects applied so far in this tick.
+     * 
+     * @return unmodifiable list of applied effects, in order
+     */
+    public List<AppliedEffect> getAppliedEffects() {
+        return Collections.unmodifiableList(appliedEffects);
+    }
+    
     /**
      * Snapshot of family resource levels.
      */
     public record FamilyResourceSnapshot(int food, int water) {}
+    
+    /**
+     * A policy effect that was applied, by phase and effect name.
+     */
+    public record AppliedEffect(PolicyPhase phase, String name) {}
 }
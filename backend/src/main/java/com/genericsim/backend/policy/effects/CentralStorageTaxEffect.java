@@ -1,8 +1,10 @@
 package com.genericsim.backend.policy.effects;
 
+import com.genericsim.backend.jfr.ResourceTransferEvent;
+import com.genericsim.backend.metrics.DomainCounter;
 import com.genericsim.backend.model.Family;
-import com.genericsim.backend.model.Person;
 import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
 import com.genericsim.backend.policy.PolicyEffect;
 import com.genericsim.backend.policy.PolicyPhase;
 import com.genericsim.backend.policy.TickContext;
@@ -43,9 +45,12 @@ public class CentralStorageTaxEffect implements PolicyEffect {
         var policy = tribe.getPolicy();
         int taxRate = policy.getCentralStorageTaxRate();
         Resources centralStorage = tribe.getCentralStorage();
+        Family[] families = tribe.getFamilies().toArray(new Family[0]);
         
-        // Process tax for each family based on what they gathered this tick
-        for (Family family : tribe.getFamilies()) {
+        // Tax each family based on what they gathered this tick; families are taxed
+        // independently and the deposits are summed before touching central storage
+        Deposit deposit = context.getFamilyPartitioner().reduce(families.length, Deposit::new, (total, f) -> {
+            Family family = families[f];
             int foodGathered = context.getFoodGathered(family);
             int waterGathered = context.getWaterGathered(family);
             
@@ -53,18 +58,47 @@ public class CentralStorageTaxEffect implements PolicyEffect {
             int foodTax = (foodGathered * taxRate) / 100;
             int waterTax = (waterGathered * taxRate) / 100;
             
-            // Transfer tax to central storage
+            // Take tax out of family storage
             if (foodTax > 0) {
                 Resources familyStorage = family.getStorage();
                 familyStorage.setFood(familyStorage.getFood() - foodTax);
-                centralStorage.setFood(centralStorage.getFood() + foodTax);
+                total.food += foodTax;
             }
             
             if (waterTax > 0) {
                 Resources familyStorage = family.getStorage();
                 familyStorage.setWater(familyStorage.getWater() - waterTax);
-                centralStorage.setWater(centralStorage.getWater() + waterTax);
+                total.water += waterTax;
             }
+        }, Deposit::merge);
+        
+        // Transfer collected tax to central storage
+        centralStorage.setFood(centralStorage.getFood() + deposit.food);
+        centralStorage.setWater(centralStorage.getWater() + deposit.water);
+        context.getCounters().add(DomainCounter.FOOD_TAXED, deposit.food);
+        context.getCounters().add(DomainCounter.WATER_TAXED, deposit.water);
+        if (context.isEventsEmitted()) {
+            ResourceTransferEvent.emit(ResourceTransferEvent.Kind.TAX, tribe, null, null, deposit.food, deposit.water);
+        }
+    }
+    
+    @Override
+    public long nextActiveTick(Tribe tribe) {
+        // Without members nothing is gathered, so there is nothing to tax
+        return Long.MAX_VALUE;
+    }
+    
+    /**
+     * Tax collected from a group of families.
+     */
+    private static final class Deposit {
+        private int food;
+        private int water;
+        
+        private Deposit merge(Deposit other) {
+            food += other.food;
+            water += other.water;
+            return this;
         }
     }
     
@@ -1,5 +1,8 @@
 package com.genericsim.backend.policy.effects;
 
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
 import com.genericsim.backend.policy.PolicyEffect;
 import com.genericsim.backend.policy.PolicyPhase;
 import com.genericsim.backend.policy.TickContext;
@@ -50,6 +53,35 @@ public class StorageDecayEffect implements PolicyEffect {
         context.getFamilyService().applyStorageDecay(tribe, decayRate);
     }
     
+    @Override
+    public long nextActiveTick(Tribe tribe) {
+        var policy = tribe.getPolicy();
+        if (policy == null || policy.getStorageDecayInterval() <= 0 || !hasStoredResources(tribe)) {
+            return Long.MAX_VALUE;
+        }
+        
+        // Next multiple of the decay interval
+        long interval = policy.getStorageDecayInterval();
+        return (tribe.getCurrentTick() / interval + 1) * interval;
+    }
+    
+    /**
+     * Decay leaves empty storage empty, so a tribe whose storage has fully
+     * decayed is never changed again.
+     */
+    private boolean hasStoredResources(Tribe tribe) {
+        for (Family family : tribe.getFamilies()) {
+            if (isNotEmpty(family.getStorage())) {
+                return true;
+            }
+        }
+        return isNotEmpty(tribe.getCentralStorage());
+    }
+    
+    private boolean isNotEmpty(Resources storage) {
+        return storage != null && (storage.getFood() != 0 || storage.getWater() != 0);
+    }
+    
     @Override
     public String getName() {
         return "StorageDecay";
@@ -0,0 +1,116 @@
+package com.genericsim.backend.readmodel;
+
+import com.genericsim.backend.config.ChangeTrackingProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent deaths of every tribe, for working out what changed since a tick.
+ *
+ * Changed persons and family storage carry the tick they last changed in, but the
+ * dead are deleted, so the IDs of the dead are kept here for the last
+ * {@code simulation.changes.retained-ticks} ticks. The log of a tribe starts with
+ * the first tick processed after startup; for anything before that, or older than
+ * the retained window, callers fall back to the full tribe state.
+ *
+ * Deaths recorded inside a transaction are logged when it commits.
+ */
+@Component
+public class TribeChangeLog {
+
+    private final long retainedTicks;
+    private final Map<Long, DeathLog> logs = new ConcurrentHashMap<>();
+
+    public TribeChangeLog(ChangeTrackingProperties properties) {
+        this.retainedTicks = Math.max(1, properties.getRetainedTicks());
+    }
+
+    /**
+     * Record that a tribe was ticked up to a tick, after the current transaction commits
+     * if there is one.
+     *
+     * @param tribeId the ID of the tribe
+     * @param tick the tick the tribe is at after ticking
+     * @param deaths the IDs of the persons who died since the previous record
+     */
+    public void record(Long tribeId, long tick, List<Long> deaths) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    logs.computeIfAbsent(tribeId, id -> new DeathLog()).add(tick, deaths);
+                }
+            });
+        } else {
+            logs.computeIfAbsent(tribeId, id -> new DeathLog()).add(tick, deaths);
+        }
+    }
+
+    /**
+     * Get the persons of a tribe who died after a tick.
+     *
+     * @param tribeId the ID of the tribe
+     * @param sinceTick the tick the caller has seen
+     * @param currentTick the tick of the tribe state being compared against
+     * @return the IDs of those who died after {@code sinceTick}, up to {@code currentTick},
+     *         or empty if the log does not cover that range
+     */
+    public Optional<List<Long>> deathsAfter(Long tribeId, long sinceTick, long currentTick) {
+        if (sinceTick >= currentTick) {
+            return Optional.of(List.of());
+        }
+        DeathLog log = logs.get(tribeId);
+        return log == null ? Optional.empty() : log.deathsAfter(sinceTick, currentTick);
+    }
+
+    private final class DeathLog {
+
+        private final ArrayDeque<Death> deaths = new ArrayDeque<>();
+
+        /**
+         * Every death after this tick, up to {@link #latest}, is in the log
+         */
+        private long from = Long.MAX_VALUE;
+        private long latest = Long.MIN_VALUE;
+
+        private synchronized void add(long tick, List<Long> personIds) {
+            if (tick < latest || from == Long.MAX_VALUE) {
+                // First record, or the tribe went back in time: nothing before is known
+                deaths.clear();
+                from = tick;
+            }
+            latest = tick;
+            for (Long personId : personIds) {
+                deaths.addLast(new Death(tick, personId));
+            }
+            long horizon = latest - retainedTicks;
+            while (!deaths.isEmpty() && deaths.peekFirst().tick() <= horizon) {
+                deaths.removeFirst();
+            }
+            from = Math.max(from, horizon);
+        }
+
+        private synchronized Optional<List<Long>> deathsAfter(long sinceTick, long currentTick) {
+            if (sinceTick < from || latest < currentTick) {
+                return Optional.empty();
+            }
+            List<Long> result = new ArrayList<>();
+            for (Death death : deaths) {
+                if (death.tick() > sinceTick && death.tick() <= currentTick) {
+                    result.add(death.personId());
+                }
+            }
+            return Optional.of(result);
+        }
+    }
+
+    private record Death(long tick, long personId) {}
+}
@@ -0,0 +1,233 @@
+package com.genericsim.backend.readmodel;
+
+import com.genericsim.backend.config.EventStreamProperties;
+import com.genericsim.backend.dto.TribeDeltaDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams of tribe deltas.
+ *
+ * Clients subscribe to one tribe or to all tribes and receive a {@code delta} event
+ * with a {@link TribeDeltaDTO} after every tick or policy update. Each subscriber has
+ * its own bounded queue, drained by a sender thread, so a slow client never holds up
+ * the tick or other clients. When a subscriber's queue is full, everything queued for
+ * it is dropped and replaced by a single {@code resync} event, after which the client
+ * reloads the full state and carries on with the deltas that follow.
+ *
+ * Deltas published inside a transaction are sent when it commits, after the snapshot
+ * of the same change, so a client reloading on resync never gets an older state.
+ */
+@Component
+public class TribeEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(TribeEventStream.class);
+
+    private static final Object RESYNC = new Object();
+
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final Map<Long, Set<Subscriber>> tribeSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allTribeSubscribers = new CopyOnWriteArraySet<>();
+    private final ExecutorService senders = Executors.newCachedThreadPool(new SenderThreadFactory());
+
+    public TribeEventStream(EventStreamProperties properties) {
+        this.bufferSize = Math.max(1, properties.getBufferSize());
+        this.timeoutMs = properties.getTimeoutMs();
+    }
+
+    /**
+     * Open a stream of the deltas of one tribe.
+     *
+     * @param tribeId the ID of the tribe
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long tribeId) {
+        return subscribe(tribeId, new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * Open a stream of the deltas of every tribe.
+     *
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribeAll() {
+        return subscribe(null, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long tribeId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(tribeId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        if (tribeId == null) {
+            allTribeSubscribers.add(subscriber);
+        } else {
+            tribeSubscribers.computeIfAbsent(tribeId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * @param tribeId the ID of the tribe
+     * @return true if anyone receives the deltas of the tribe, so it is worth computing them
+     */
+    public boolean hasSubscribers(Long tribeId) {
+        Set<Subscriber> subscribers = tribeSubscribers.get(tribeId);
+        return !allTribeSubscribers.isEmpty() || (subscribers != null && !subscribers.isEmpty());
+    }
+
+    /**
+     * @return the number of open streams
+     */
+    public int getSubscriberCount() {
+        return allTribeSubscribers.size() + tribeSubscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Queue a delta for the subscribers of its tribe and of all tribes, after the
+     * current transaction commits if there is one.
+     *
+     * @param delta the delta to send
+     */
+    public void publish(TribeDeltaDTO delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(delta);
+                }
+            });
+        } else {
+            dispatch(delta);
+        }
+    }
+
+    private void dispatch(TribeDeltaDTO delta) {
+        Set<Subscriber> subscribers = tribeSubscribers.get(delta.getTribeId());
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(delta));
+        }
+        allTribeSubscribers.forEach(subscriber -> subscriber.offer(delta));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscriber.tribeId == null) {
+            allTribeSubscribers.remove(subscriber);
+        } else {
+            tribeSubscribers.computeIfPresent(subscriber.tribeId,
+                (id, subscribers) -> subscribers.remove(subscriber) && subscribers.isEmpty() ? null : subscribers);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        allTribeSubscribers.forEach(subscriber -> subscriber.emitter.complete());
+        tribeSubscribers.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    /**
+     * An open stream with its queue of unsent events.
+     */
+    private final class Subscriber {
+
+        private final Long tribeId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Object> queue = new ArrayDeque<>();
+        private boolean draining;
+
+        private Subscriber(Long tribeId, SseEmitter emitter) {
+            this.tribeId = tribeId;
+            this.emitter = emitter;
+        }
+
+        private void offer(TribeDeltaDTO delta) {
+            synchronized (this) {
+                if (queue.size() >= bufferSize) {
+                    // The resync reloads a state that already includes this delta
+                    queue.clear();
+                    queue.add(RESYNC);
+                } else {
+                    queue.add(delta);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object event;
+                synchronized (this) {
+                    event = queue.poll();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(toEvent(event));
+                } catch (IOException | IllegalStateException e) {
+                    // The client has gone; the container completes the emitter
+                    logger.debug("Dropping event stream: {}", e.getMessage());
+                    unsubscribe(this);
+                    synchronized (this) {
+                        queue.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toEvent(Object event) {
+            if (event == RESYNC) {
+                return SseEmitter.event().name("resync").data(tribeId == null ? "all" : tribeId.toString());
+            }
+            TribeDeltaDTO delta = (TribeDeltaDTO) event;
+            return SseEmitter.event()
+                .name("delta")
+                .id(delta.getTribeId() + "-" + delta.getRevision())
+                .data(delta, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "tribe-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.genericsim.backend.readmodel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genericsim.backend.config.ReadModelProperties;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeStatisticsDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory read model of the latest state of every tribe.
+ *
+ * Writers publish the tick and a new revision of a tribe once a tick or change is
+ * complete, which costs the same whatever the tribe's size. The tribe is serialized
+ * into a snapshot on its first read after that, and the snapshot is served to later
+ * readers of the same revision without touching JPA or taking a lock. Each tribe's
+ * revision is replaced atomically and only by a newer one, so a slow writer cannot
+ * roll a tribe back, and a snapshot is only kept while its revision is the latest.
+ *
+ * Revisions published inside a transaction become visible when it commits, so readers
+ * never see a tick that was rolled back. At most {@code simulation.read-model.max-snapshots}
+ * snapshots are kept; those serialized longest ago are dropped first. Only the small
+ * revision record is kept for every tribe.
+ */
+@Component
+public class TribeReadModel {
+
+    /**
+     * The state and statistics of a tribe, taken at the same tick.
+     */
+    public record TribeView(TribeStateDTO state, TribeStatisticsDTO statistics) {}
+
+    /**
+     * The latest published tick and revision of a tribe.
+     */
+    private record Revision(long tick, long revision) {
+
+        private boolean isNewerThan(Revision other) {
+            return tick != other.tick ? tick > other.tick : revision > other.revision;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxSnapshots;
+    private final Map<Long, Revision> revisions = new ConcurrentHashMap<>();
+    private final Map<Long, TribeSnapshot> snapshots = new ConcurrentHashMap<>();
+    /**
+     * Tribes in the order their snapshots were kept, possibly repeated, for dropping
+     * the oldest; its size is tracked separately as the queue does not count cheaply
+     */
+    private final Queue<Long> keptOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger kept = new AtomicInteger();
+    private final AtomicLong nextRevision = new AtomicLong();
+
+    public TribeReadModel(ObjectMapper objectMapper, ReadModelProperties properties) {
+        this.objectMapper = objectMapper;
+        this.maxSnapshots = Math.max(1, properties.getMaxSnapshots());
+    }
+
+    /**
+     * Record that a tribe changed, after the current transaction commits if there is one.
+     * Its next read serializes it again. Ignored if a newer tick or change of the tribe
+     * has been published meanwhile.
+     *
+     * @param tribeId the ID of the tribe
+     * @param tick the tick the tribe is at after the change
+     * @return the revision of the change
+     */
+    public long publish(Long tribeId, long tick) {
+        Revision published = new Revision(tick, nextRevision.incrementAndGet());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(tribeId, published);
+                }
+            });
+        } else {
+            put(tribeId, published);
+        }
+        return published.revision();
+    }
+
+    /**
+     * @param tribeId the ID of the tribe
+     * @return the snapshot of the tribe's latest revision, or null if it has not been
+     *         read since it last changed
+     */
+    public TribeSnapshot get(Long tribeId) {
+        TribeSnapshot snapshot = snapshots.get(tribeId);
+        Revision latest = revisions.get(tribeId);
+        return snapshot != null && latest != null && snapshot.revision() == latest.revision() ? snapshot : null;
+    }
+
+    /**
+     * Get the snapshot of a tribe's latest revision, serializing the tribe if it has
+     * changed since it was last read.
+     *
+     * @param tribeId the ID of the tribe
+     * @param reader reads the tribe's current state and statistics
+     * @return the snapshot
+     */
+    public TribeSnapshot get(Long tribeId, Supplier<TribeView> reader) {
+        TribeSnapshot snapshot = get(tribeId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Taken before reading, so a change published meanwhile is not hidden by the
+        // snapshot of the state before it
+        Revision latest = revisions.computeIfAbsent(tribeId, id -> new Revision(Long.MIN_VALUE, nextRevision.incrementAndGet()));
+        TribeView view = reader.get();
+        snapshot = serialize(view, latest.revision());
+        if (revisions.get(tribeId) == latest) {
+            keep(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drop what is held of a tribe, e.g. because it was deleted.
+     *
+     * @param tribeId the ID of the tribe
+     */
+    public void evict(Long tribeId) {
+        revisions.remove(tribeId);
+        snapshots.remove(tribeId);
+    }
+
+    private TribeSnapshot serialize(TribeView view, long revision) {
+        try {
+            return new TribeSnapshot(view.state().getTribeId(), view.state().getCurrentTick(), revision,
+                objectMapper.writeValueAsBytes(view.state()), objectMapper.writeValueAsBytes(view.statistics()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Tribe snapshot could not be serialized", e);
+        }
+    }
+
+    private void put(Long tribeId, Revision published) {
+        if (revisions.merge(tribeId, published, (current, next) -> next.isNewerThan(current) ? next : current) == published) {
+            // Superseded; get() would not serve it anyway
+            snapshots.remove(tribeId);
+        }
+    }
+
+    private void keep(TribeSnapshot snapshot) {
+        snapshots.put(snapshot.tribeId(), snapshot);
+        keptOrder.add(snapshot.tribeId());
+        kept.incrementAndGet();
+        while (kept.get() > maxSnapshots) {
+            Long oldest = keptOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            kept.decrementAndGet();
+            // The tribe may have been kept again since; dropping it early only costs a read
+            snapshots.remove(oldest);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.genericsim.backend.readmodel;
+
+/**
+ * Immutable, serialized state of a tribe after a completed tick or change.
+ *
+ * @param tribeId the ID of the tribe
+ * @param tick the tick the snapshot was taken at
+ * @param revision the revision of the tribe the snapshot was taken of; increases with
+ *                 every change, so changes within a tick (e.g. policy updates) get a new ETag
+ * @param state the tribe state as JSON
+ * @param statistics the tribe statistics as JSON
+ */
+public record TribeSnapshot(long tribeId, long tick, long revision, byte[] state, byte[] statistics) {
+
+    /**
+     * @return the entity tag identifying this snapshot, quoted
+     */
+    public String getETag() {
+        return "\"" + tribeId + "-" + tick + "-" + revision + "\"";
+    }
+}
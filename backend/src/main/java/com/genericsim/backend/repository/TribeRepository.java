@@ -2,8 +2,14 @@ package com.genericsim.backend.repository;
 
 import com.genericsim.backend.model.Tribe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface TribeRepository extends JpaRepository<Tribe, Long> {
+public interface TribeRepository extends JpaRepository<Tribe, Long>, TribeSummaryRepository {
+
+    @Query("select t.id from Tribe t order by t.id")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,68 @@
+package com.genericsim.backend.repository;
+
+import com.genericsim.backend.dto.TribeSummaryDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page of the tribe listing: the ID of that row and
+ * the value it was sorted by. The next page starts at the rows that sort after this pair.
+ * Encoded together with the order it was issued for, so that it cannot be applied to a
+ * listing in another order.
+ *
+ * @param sort the order of the listing
+ * @param descending whether the listing is in descending order
+ * @param id the tribe ID of the last row
+ * @param value the sort value of the last row
+ */
+public record TribeSummaryCursor(TribeSummarySort sort, boolean descending, long id, Comparable<?> value) {
+
+    /**
+     * @return the cursor after the given row of a listing in the given order
+     */
+    public static TribeSummaryCursor after(TribeSummaryDTO row, TribeSummarySort sort, boolean descending) {
+        return new TribeSummaryCursor(sort, descending, row.getTribeId(), sort.valueOf(row));
+    }
+
+    /**
+     * @return the cursor as an opaque URL-safe string
+     */
+    public String encode() {
+        String text = sort.getProperty() + "," + direction(descending) + "," + id + "," + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a cursor returned by {@link #encode()}.
+     *
+     * @param encoded the encoded cursor
+     * @param sort the order of the listing it is used with
+     * @param descending whether that listing is in descending order
+     * @return the cursor
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another order
+     */
+    public static TribeSummaryCursor decode(String encoded, TribeSummarySort sort, boolean descending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split(",", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (!parts[0].equals(sort.getProperty()) || !parts[1].equals(direction(descending))) {
+            throw new IllegalArgumentException("Cursor was issued for another order");
+        }
+        try {
+            return new TribeSummaryCursor(sort, descending, Long.parseLong(parts[2]), sort.parse(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    private static String direction(boolean descending) {
+        return descending ? "desc" : "asc";
+    }
+}
@@ -0,0 +1,25 @@
+package com.genericsim.backend.repository;
+
+import com.genericsim.backend.dto.TribeSummaryFilterDTO;
+import com.genericsim.backend.dto.TribeSummaryPageDTO;
+
+/**
+ * Keyset-paginated tribe listing, read with a single projection query.
+ */
+public interface TribeSummaryRepository {
+
+    /**
+     * Get one page of tribe summaries.
+     * Pages continue after the last row of the previous page rather than skipping
+     * an offset, so every page costs the same however deep the listing goes.
+     *
+     * @param filter bounds on the listed values
+     * @param sort the order of the listing
+     * @param descending whether to list in descending order
+     * @param after the position after the last row of the previous page, or null for the first page
+     * @param limit the maximum number of tribes on the page
+     * @return the page, with a cursor for the next page if there are more tribes
+     */
+    TribeSummaryPageDTO findSummaries(TribeSummaryFilterDTO filter, TribeSummarySort sort, boolean descending,
+                                      TribeSummaryCursor after, int limit);
+}
@@ -0,0 +1,109 @@
+package com.genericsim.backend.repository;
+
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.dto.TribeSummaryFilterDTO;
+import com.genericsim.backend.dto.TribeSummaryPageDTO;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link TribeSummaryRepository}.
+ *
+ * Rows are built by a constructor projection over the tribe row and its resources,
+ * so no entities are loaded. A page starts at the rows that sort after the
+ * {@link TribeSummaryCursor}, using the sort column and the tribe ID as the key.
+ */
+public class TribeSummaryRepositoryImpl implements TribeSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    public TribeSummaryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public TribeSummaryPageDTO findSummaries(TribeSummaryFilterDTO filter, TribeSummarySort sort, boolean descending,
+                                             TribeSummaryCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TribeSummaryDTO> query = cb.createQuery(TribeSummaryDTO.class);
+        Root<Tribe> tribe = query.from(Tribe.class);
+        Join<Tribe, Resources> resources = tribe.join("resources", JoinType.LEFT);
+        Path<Long> id = tribe.get("id");
+        Expression<Integer> food = cb.coalesce(resources.get("food"), 0);
+        Expression<Integer> water = cb.coalesce(resources.get("water"), 0);
+
+        query.select(cb.construct(TribeSummaryDTO.class, id, tribe.get("name"), tribe.get("currentTick"),
+            tribe.get("population"), food, water, tribe.get("bondLevel")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getName() != null && !filter.getName().isBlank()) {
+                predicates.add(cb.like(cb.lower(tribe.get("name")),
+                    "%" + escapeLike(filter.getName().toLowerCase()) + "%", '\\'));
+            }
+            addRange(cb, predicates, tribe.get("currentTick"), filter.getMinTick(), filter.getMaxTick());
+            addRange(cb, predicates, tribe.get("population"), filter.getMinPopulation(), filter.getMaxPopulation());
+            addRange(cb, predicates, food, filter.getMinFood(), filter.getMaxFood());
+            addRange(cb, predicates, water, filter.getMinWater(), filter.getMaxWater());
+            addRange(cb, predicates, tribe.get("bondLevel"), filter.getMinBondLevel(), filter.getMaxBondLevel());
+        }
+
+        Expression<?> column = switch (sort) {
+            case TRIBE_ID -> id;
+            case TRIBE_NAME -> tribe.get("name");
+            case CURRENT_TICK -> tribe.get("currentTick");
+            case POPULATION -> tribe.get("population");
+            case FOOD -> food;
+            case WATER -> water;
+            case BOND_LEVEL -> tribe.get("bondLevel");
+        };
+        if (after != null) {
+            predicates.add(cb.or(
+                beyond(cb, column, after.value(), descending),
+                cb.and(cb.equal(column, after.value()), beyond(cb, id, after.id(), descending))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(descending ? cb.desc(column) : cb.asc(column), descending ? cb.desc(id) : cb.asc(id));
+
+        // One extra row tells whether there is a next page
+        List<TribeSummaryDTO> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        if (rows.size() <= limit) {
+            return new TribeSummaryPageDTO(rows, null);
+        }
+        List<TribeSummaryDTO> page = new ArrayList<>(rows.subList(0, limit));
+        TribeSummaryDTO last = page.get(limit - 1);
+        return new TribeSummaryPageDTO(page, TribeSummaryCursor.after(last, sort, descending).encode());
+    }
+
+    private static <T extends Comparable<? super T>> void addRange(CriteriaBuilder cb, List<Predicate> predicates,
+                                                                   Expression<? extends T> column, T min, T max) {
+        if (min != null) {
+            predicates.add(cb.greaterThanOrEqualTo(column, min));
+        }
+        if (max != null) {
+            predicates.add(cb.lessThanOrEqualTo(column, max));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression column, Comparable value, boolean descending) {
+        return descending ? cb.lessThan(column, value) : cb.greaterThan(column, value);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
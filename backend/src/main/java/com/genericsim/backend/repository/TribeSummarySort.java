@@ -0,0 +1,59 @@
+package com.genericsim.backend.repository;
+
+import com.genericsim.backend.dto.TribeSummaryDTO;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Orders in which the tribe listing can be paged, named after the
+ * {@link TribeSummaryDTO} property they sort by. Ties are broken by tribe ID.
+ */
+public enum TribeSummarySort {
+    TRIBE_ID("tribeId", TribeSummaryDTO::getTribeId, Long::valueOf),
+    TRIBE_NAME("tribeName", TribeSummaryDTO::getTribeName, text -> text),
+    CURRENT_TICK("currentTick", TribeSummaryDTO::getCurrentTick, Long::valueOf),
+    POPULATION("population", TribeSummaryDTO::getPopulation, Integer::valueOf),
+    FOOD("food", TribeSummaryDTO::getFood, Integer::valueOf),
+    WATER("water", TribeSummaryDTO::getWater, Integer::valueOf),
+    BOND_LEVEL("bondLevel", TribeSummaryDTO::getBondLevel, Integer::valueOf);
+
+    private final String property;
+    private final Function<TribeSummaryDTO, Comparable<?>> value;
+    private final Function<String, Comparable<?>> parser;
+
+    TribeSummarySort(String property, Function<TribeSummaryDTO, Comparable<?>> value,
+                     Function<String, Comparable<?>> parser) {
+        this.property = property;
+        this.value = value;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return the value of a row that this order sorts by
+     */
+    Comparable<?> valueOf(TribeSummaryDTO summary) {
+        return value.apply(summary);
+    }
+
+    /**
+     * @return the value written by {@link #valueOf(TribeSummaryDTO)}, read back from text
+     * @throws NumberFormatException if a numeric value is malformed
+     */
+    Comparable<?> parse(String text) {
+        return parser.apply(text);
+    }
+
+    /**
+     * @param property a {@link TribeSummaryDTO} property name
+     * @return the order sorting by that property, or empty if there is none
+     */
+    public static Optional<TribeSummarySort> fromProperty(String property) {
+        return Arrays.stream(values()).filter(sort -> sort.property.equals(property)).findFirst();
+    }
+}
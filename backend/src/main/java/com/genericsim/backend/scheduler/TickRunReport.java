@@ -0,0 +1,33 @@
+package com.genericsim.backend.scheduler;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Completion report for one scheduled run over all tribes.
+ *
+ * @param startedAt when the run started
+ * @param wallClockMillis total elapsed time of the run
+ * @param workerThreads size of the worker pool used for the run
+ * @param results one entry per tribe, in tribe id order
+ */
+public record TickRunReport(Instant startedAt, long wallClockMillis, int workerThreads, List<TribeResult> results) {
+
+    public long getSucceeded() {
+        return results.stream().filter(TribeResult::success).count();
+    }
+
+    public long getFailed() {
+        return results.size() - getSucceeded();
+    }
+
+    /**
+     * Outcome of ticking a single tribe.
+     *
+     * @param tribeId the tribe ID
+     * @param durationMillis time spent processing the tribe, including its transaction
+     * @param success whether the tick completed
+     * @param error error message if the tick failed, otherwise null
+     */
+    public record TribeResult(Long tribeId, double durationMillis, boolean success, String error) {}
+}
@@ -1,14 +1,22 @@
 package com.genericsim.backend.scheduler;
 
-import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.config.SchedulerProperties;
 import com.genericsim.backend.repository.TribeRepository;
 import com.genericsim.backend.service.TribeService;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class TribeScheduler {
@@ -17,27 +25,89 @@ public class TribeScheduler {
     
     private final TribeService tribeService;
     private final TribeRepository tribeRepository;
+    private final int workerThreads;
+    private final ExecutorService workers;
+    private volatile TickRunReport lastReport;
 
-    public TribeScheduler(TribeService tribeService, TribeRepository tribeRepository) {
+    public TribeScheduler(TribeService tribeService, TribeRepository tribeRepository, SchedulerProperties properties) {
         this.tribeService = tribeService;
         this.tribeRepository = tribeRepository;
+        this.workerThreads = Math.max(1, properties.getWorkerThreads());
+        this.workers = Executors.newFixedThreadPool(workerThreads, new WorkerThreadFactory());
     }
 
     // Runs every day at midnight (cron: second, minute, hour, day, month, weekday)
     @Scheduled(cron = "0 0 0 * * *")
     public void processDailyTick() {
-        logger.info("Processing daily tick for all tribes");
+        tickAllTribes();
+    }
+
+    /**
+     * Process one tick for every tribe on the worker pool.
+     * Each tribe is ticked in its own transaction; a failing tribe is reported
+     * and does not affect the others.
+     * 
+     * @return report with per-tribe durations and total wall-clock time
+     */
+    public TickRunReport tickAllTribes() {
+        logger.info("Processing daily tick for all tribes on {} worker threads", workerThreads);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        
+        List<Long> tribeIds = tribeRepository.findAllIds();
+        List<CompletableFuture<TickRunReport.TribeResult>> futures = new ArrayList<>(tribeIds.size());
+        for (Long tribeId : tribeIds) {
+            futures.add(CompletableFuture.supplyAsync(() -> tickTribe(tribeId), workers));
+        }
         
-        List<Tribe> tribes = tribeRepository.findAll();
-        for (Tribe tribe : tribes) {
-            try {
-                tribeService.processTick(tribe.getId());
-                logger.info("Processed tick for tribe: {} (ID: {})", tribe.getName(), tribe.getId());
-            } catch (Exception e) {
-                logger.error("Error processing tick for tribe {}: {}", tribe.getId(), e.getMessage());
-            }
+        List<TickRunReport.TribeResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<TickRunReport.TribeResult> future : futures) {
+            results.add(future.join());
         }
         
-        logger.info("Daily tick processing completed. Processed {} tribes", tribes.size());
+        long wallClockMillis = (System.nanoTime() - start) / 1_000_000;
+        TickRunReport report = new TickRunReport(startedAt, wallClockMillis, workerThreads, results);
+        lastReport = report;
+        
+        logger.info("Daily tick processing completed. Processed {} tribes ({} failed) in {} ms",
+            results.size(), report.getFailed(), wallClockMillis);
+        return report;
+    }
+
+    /**
+     * @return the report of the most recent run, or null if no run has completed yet
+     */
+    public TickRunReport getLastReport() {
+        return lastReport;
+    }
+
+    private TickRunReport.TribeResult tickTribe(Long tribeId) {
+        long start = System.nanoTime();
+        try {
+            tribeService.processTick(tribeId);
+            double duration = (System.nanoTime() - start) / 1_000_000.0;
+            logger.debug("Processed tick for tribe {} in {} ms", tribeId, duration);
+            return new TickRunReport.TribeResult(tribeId, duration, true, null);
+        } catch (Exception e) {
+            double duration = (System.nanoTime() - start) / 1_000_000.0;
+            logger.error("Error processing tick for tribe {}: {}", tribeId, e.getMessage());
+            return new TickRunReport.TribeResult(tribeId, duration, false, String.valueOf(e.getMessage()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "tribe-tick-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
@@ -1,20 +1,45 @@
 package com.genericsim.backend.service;
 
+import com.genericsim.backend.jfr.ResourceTransferEvent;
 import com.genericsim.backend.model.*;
 import com.genericsim.backend.repository.FamilyRepository;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.SurplusMarket;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class FamilyService {
 
     private final FamilyRepository familyRepository;
-    private final Random random = new Random();
+    
+    /**
+     * Whether transfers are emitted as flight recorder events
+     */
+    private final boolean events;
 
+    @Autowired
     public FamilyService(FamilyRepository familyRepository) {
+        this(familyRepository, true);
+    }
+
+    private FamilyService(FamilyRepository familyRepository, boolean events) {
         this.familyRepository = familyRepository;
+        this.events = events;
+    }
+
+    /**
+     * Get a family service that works the same, but emits no flight recorder events,
+     * for re-running ticks that were already simulated.
+     *
+     * @return the family service
+     */
+    public FamilyService withoutEvents() {
+        return new FamilyService(familyRepository, false);
     }
 
     /**
@@ -23,13 +48,22 @@ public class FamilyService {
      */
     @Transactional
     public void initializeFamilies(Tribe tribe) {
+        initializeFamilies(tribe, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Create families and distribute tribe members among them,
+     * shuffling members with the given generator.
+     */
+    @Transactional
+    public void initializeFamilies(Tribe tribe, Random random) {
         int memberCount = tribe.getMembers().size();
         int familyCount = Math.max(1, memberCount / 3); // Roughly 3 people per family
         
         // Create families
         List<Family> families = new ArrayList<>();
         for (int i = 0; i < familyCount; i++) {
-            Family family = new Family("Family " + (char)('A' + i));
+            Family family = new Family("Family " + familyLetters(i));
             family.setTribe(tribe);
             family.setStorage(new Resources(30, 30)); // Starting storage
             families.add(family);
@@ -37,7 +71,7 @@ public class FamilyService {
         
         // Distribute members to families
         List<Person> members = new ArrayList<>(tribe.getMembers());
-        Collections.shuffle(members);
+        Collections.shuffle(members, random);
         
         for (int i = 0; i < members.size(); i++) {
             Person person = members.get(i);
@@ -51,6 +85,18 @@ public class FamilyService {
         }
     }
 
+    /**
+     * Letters of a family's name, counting A to Z and then AA, AB, and so on, so
+     * large tribes keep readable family names.
+     */
+    static String familyLetters(int index) {
+        StringBuilder letters = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            letters.append((char) ('A' + i % 26));
+        }
+        return letters.reverse().toString();
+    }
+
     /**
      * Process daily resource consumption for a family.
      * Each member needs 3 food and 4 water per day.
@@ -75,6 +121,13 @@ public class FamilyService {
      * Borrowing from richest first, success depends on tribe bond level.
      */
     public boolean borrowResources(Family needyFamily, Tribe tribe, int foodNeeded, int waterNeeded) {
+        return borrowResources(needyFamily, tribe, foodNeeded, waterNeeded, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Attempt to borrow resources from other families, rolling for bond-based success with the given generator.
+     */
+    public boolean borrowResources(Family needyFamily, Tribe tribe, int foodNeeded, int waterNeeded, Random random) {
         // Get all other families sorted by total resources (richest first)
         List<Family> otherFamilies = tribe.getFamilies().stream()
             .filter(f -> !f.getId().equals(needyFamily.getId()))
@@ -92,6 +145,7 @@ public class FamilyService {
             
             // Sharing success based on bond level (0-100 scale)
             int bondChance = tribe.getBondLevel();
+            if (bondChance == 0) break; // No roll can succeed, and failing leaves the bond at 0
             boolean sharingSucceeds = random.nextInt(100) < bondChance;
             
             if (sharingSucceeds) {
@@ -142,6 +196,13 @@ public class FamilyService {
      * Determine which family member suffers health loss based on sharing priority.
      */
     public Person selectMemberToSuffer(Family family, Policy policy) {
+        return selectMemberToSuffer(family, policy, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Determine which family member suffers health loss, drawing random picks from the given generator.
+     */
+    public Person selectMemberToSuffer(Family family, Policy policy, Random random) {
         List<Person> members = family.getMembers();
         if (members.isEmpty()) return null;
         
@@ -189,6 +250,159 @@ public class FamilyService {
         }
     }
 
+    /**
+     * Columnar variant of {@link #consumeFamilyResources(Family)} operating on a population store.
+     */
+    public boolean consumeFamilyResources(PopulationStore store, int family) {
+        int memberCount = store.getFamilyMemberCount(family);
+        int foodNeeded = memberCount * 3;
+        int waterNeeded = memberCount * 4;
+        
+        int food = store.getFamilyFood(family);
+        int water = store.getFamilyWater(family);
+        boolean hasSufficient = food >= foodNeeded && water >= waterNeeded;
+        
+        store.setFamilyFood(family, Math.max(0, food - foodNeeded));
+        store.setFamilyWater(family, Math.max(0, water - waterNeeded));
+        
+        return hasSufficient;
+    }
+
+    /**
+     * Columnar variant of {@link #borrowResources(Family, Tribe, int, int)}.
+     * Lenders with a surplus are taken from the tick's surplus market, richest first
+     * (ties keep family order), with the same bond-level rolls. Each roll costs
+     * O(log F), the walk stops once the bond level reaches 0, and the market is
+     * updated after a transfer.
+     */
+    public boolean borrowResources(PopulationStore store, SurplusMarket market, int needyFamily, Tribe tribe,
+                                   int foodNeeded, int waterNeeded, Random random) {
+        SurplusMarket.Cursor lenders = market.lenders();
+        for (int richFamily = lenders.next(); richFamily >= 0; richFamily = lenders.next()) {
+            if (richFamily == needyFamily) continue;
+            
+            // Sharing success based on bond level (0-100 scale)
+            if (tribe.getBondLevel() == 0) break;
+            boolean sharingSucceeds = random.nextInt(100) < tribe.getBondLevel();
+            
+            if (sharingSucceeds) {
+                transfer(store, tribe, richFamily, needyFamily, foodNeeded, waterNeeded);
+                market.update(richFamily);
+                market.update(needyFamily);
+                tribe.setBondLevel(Math.min(100, tribe.getBondLevel() + 1));
+                return true;
+            } else {
+                tribe.setBondLevel(Math.max(0, tribe.getBondLevel() - 2));
+            }
+        }
+        
+        return false;
+    }
+
+    private void transfer(PopulationStore store, Tribe tribe, int richFamily, int needyFamily, int foodNeeded,
+                          int waterNeeded) {
+        int foodToGive = Math.min(foodNeeded, store.getFamilyFood(richFamily) / 2);
+        int waterToGive = Math.min(waterNeeded, store.getFamilyWater(richFamily) / 2);
+        
+        store.setFamilyFood(richFamily, store.getFamilyFood(richFamily) - foodToGive);
+        store.setFamilyWater(richFamily, store.getFamilyWater(richFamily) - waterToGive);
+        
+        store.setFamilyFood(needyFamily, store.getFamilyFood(needyFamily) + foodToGive);
+        store.setFamilyWater(needyFamily, store.getFamilyWater(needyFamily) + waterToGive);
+        if (events) {
+            ResourceTransferEvent.emit(ResourceTransferEvent.Kind.BORROW, tribe, store.getFamily(richFamily),
+                store.getFamily(needyFamily), foodToGive, waterToGive);
+        }
+    }
+
+    /**
+     * Columnar variant of {@link #accessCentralStorage(Family, Tribe, int, int)}.
+     */
+    public boolean accessCentralStorage(PopulationStore store, int family, Tribe tribe, int foodNeeded, int waterNeeded) {
+        if (!tribe.getPolicy().isEnableCentralStorage() || tribe.getCentralStorage() == null) {
+            return false;
+        }
+        
+        Resources central = tribe.getCentralStorage();
+        int foodToGive = Math.min(foodNeeded, central.getFood());
+        int waterToGive = Math.min(waterNeeded, central.getWater());
+        
+        central.setFood(central.getFood() - foodToGive);
+        central.setWater(central.getWater() - waterToGive);
+        
+        store.setFamilyFood(family, store.getFamilyFood(family) + foodToGive);
+        store.setFamilyWater(family, store.getFamilyWater(family) + waterToGive);
+        if (events) {
+            ResourceTransferEvent.emit(ResourceTransferEvent.Kind.CENTRAL_WITHDRAWAL, tribe, null,
+                store.getFamily(family), foodToGive, waterToGive);
+        }
+        
+        return foodToGive > 0 || waterToGive > 0;
+    }
+
+    /**
+     * Columnar variant of {@link #selectMemberToSuffer(Family, Policy)}.
+     *
+     * @return the person row of the selected member, or -1 if the family has no members
+     */
+    public int selectMemberToSuffer(PopulationStore store, int family, Policy policy, Random random) {
+        int count = store.getFamilyMemberCount(family);
+        if (count == 0) return -1;
+        
+        return switch (policy.getSharingPriority()) {
+            case ELDER -> {
+                int elder = firstWithRole(store, family, Person.PersonRole.ELDER);
+                yield elder >= 0 ? elder : oldest(store, family);
+            }
+            case CHILD -> {
+                int child = firstWithRole(store, family, Person.PersonRole.CHILD);
+                yield child >= 0 ? child : youngest(store, family);
+            }
+            case HUNTER -> {
+                int hunter = firstWithRole(store, family, Person.PersonRole.HUNTER);
+                yield hunter >= 0 ? hunter : store.getFamilyMember(family, 0);
+            }
+            case GATHERER -> {
+                int gatherer = firstWithRole(store, family, Person.PersonRole.GATHERER);
+                yield gatherer >= 0 ? gatherer : store.getFamilyMember(family, 0);
+            }
+            case YOUNGEST -> youngest(store, family);
+            case RANDOM -> store.getFamilyMember(family, random.nextInt(count));
+        };
+    }
+
+    private int firstWithRole(PopulationStore store, int family, Person.PersonRole role) {
+        for (int k = 0; k < store.getFamilyMemberCount(family); k++) {
+            int row = store.getFamilyMember(family, k);
+            if (store.getRole(row) == role) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private int oldest(PopulationStore store, int family) {
+        int best = store.getFamilyMember(family, 0);
+        for (int k = 1; k < store.getFamilyMemberCount(family); k++) {
+            int row = store.getFamilyMember(family, k);
+            if (store.getAge(row) > store.getAge(best)) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
+    private int youngest(PopulationStore store, int family) {
+        int best = store.getFamilyMember(family, 0);
+        for (int k = 1; k < store.getFamilyMemberCount(family); k++) {
+            int row = store.getFamilyMember(family, k);
+            if (store.getAge(row) < store.getAge(best)) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
     public List<Family> getFamiliesByTribe(Long tribeId) {
         return familyRepository.findByTribeId(tribeId);
     }
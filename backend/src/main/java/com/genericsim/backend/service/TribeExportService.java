@@ -0,0 +1,152 @@
+package com.genericsim.backend.service;
+
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.journal.TickJournal;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportReader;
+import com.genericsim.backend.persistence.TribeExportWriter;
+import com.genericsim.backend.persistence.TribeExporter;
+import com.genericsim.backend.persistence.TribeImporter;
+import com.genericsim.backend.persistence.TribeLoader;
+import com.genericsim.backend.persistence.WriteBehindTribeCache;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.simulation.PopulationStore;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Exports tribes to, and imports them from, the binary tribe export format,
+ * and clones tribes through it.
+ */
+@Service
+public class TribeExportService {
+
+    private final TribeRepository tribeRepository;
+    private final WriteBehindTribeCache hotTribes;
+    private final TribeExporter exporter;
+    private final TribeImporter importer;
+    private final TribeLoader tribeLoader;
+    private final TickJournal journal;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+
+    public TribeExportService(TribeRepository tribeRepository, WriteBehindTribeCache hotTribes,
+                              TribeExporter exporter, TribeImporter importer, TribeLoader tribeLoader,
+                              TickJournal journal, PlatformTransactionManager transactionManager) {
+        this.tribeRepository = tribeRepository;
+        this.hotTribes = hotTribes;
+        this.exporter = exporter;
+        this.importer = importer;
+        this.tribeLoader = tribeLoader;
+        this.journal = journal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Families and members are read with separate queries, which must see the same tick
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Check that a tribe can be exported, before an export response is started.
+     *
+     * @param tribeId the ID of the tribe
+     * @throws RuntimeException if tribe is not found
+     */
+    public void prepareExport(Long tribeId) {
+        if (!tribeRepository.existsById(tribeId)) {
+            throw new RuntimeException("Tribe not found");
+        }
+    }
+
+    /**
+     * Write a tribe to a stream. A tribe held in memory by write-behind persistence
+     * is checkpointed and dropped from memory first, so the export has its latest state.
+     *
+     * @param tribeId the ID of the tribe
+     * @param out the stream to write to; left open
+     * @param compress whether to Deflate compress the export
+     * @throws RuntimeException if tribe is not found
+     */
+    public void exportTribe(Long tribeId, OutputStream out, boolean compress) throws IOException {
+        hotTribes.evict(tribeId);
+        execute(snapshotTemplate, () -> {
+            exporter.export(tribeId, new TribeExportWriter(out, compress));
+            return null;
+        });
+    }
+
+    /**
+     * Create a new tribe from an export. With the journal enabled, the new tribe is
+     * journaled before this returns, so it can be recovered even if it is never ticked.
+     *
+     * @param in the export
+     * @param name the name of the new tribe, or null to keep the exported name
+     * @return the new tribe's listing row
+     * @throws IOException if the export cannot be read
+     */
+    public TribeSummaryDTO importTribe(InputStream in, String name) throws IOException {
+        try (TribeExportReader reader = new TribeExportReader(in)) {
+            Tribe tribe = execute(transactionTemplate, () -> {
+                Tribe imported = importer.importTribe(reader, name);
+                if (journal.isEnabled()) {
+                    // The importer leaves the tribe without its population, which the snapshot needs
+                    Tribe loaded = tribeLoader.loadPopulation(imported.getId()).orElseThrow();
+                    journal.begin(loaded, PopulationStore.load(loaded)).commit();
+                }
+                return imported;
+            });
+            return new TribeSummaryDTO(tribe);
+        }
+    }
+
+    /**
+     * Create a copy of a tribe, with the same members, families, storage, policy and
+     * random seed, so that it evolves exactly like the original until either is changed.
+     *
+     * @param tribeId the ID of the tribe to copy
+     * @param name the name of the copy, or null to keep the original name
+     * @return the copy's listing row
+     * @throws RuntimeException if tribe is not found
+     */
+    public TribeSummaryDTO cloneTribe(Long tribeId, String name) {
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        try {
+            exportTribe(tribeId, export, false);
+            return importTribe(new ByteArrayInputStream(export.toByteArray()), name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Run a callback that may fail with an {@link IOException} in a transaction,
+     * rolling back and rethrowing if it does.
+     */
+    private static <T> T execute(TransactionTemplate template, IOCallback<T> callback) throws IOException {
+        try {
+            return template.execute(status -> {
+                try {
+                    return callback.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOCallback<T> {
+        T run() throws IOException;
+    }
+}
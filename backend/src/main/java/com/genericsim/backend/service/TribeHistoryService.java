@@ -0,0 +1,171 @@
+package com.genericsim.backend.service;
+
+import com.genericsim.backend.config.JournalProperties;
+import com.genericsim.backend.dto.JournalEntryDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.journal.JournalReplay;
+import com.genericsim.backend.journal.TickJournal;
+import com.genericsim.backend.journal.TribeReplayer;
+import com.genericsim.backend.persistence.TribeExportWriter;
+import com.genericsim.backend.repository.TribeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the history of tribes from the tick journal, rewinds tribes to past ticks,
+ * and recovers tribes that were lost from the database, e.g. with the in-memory
+ * database when the server stopped.
+ */
+@Service
+public class TribeHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TribeHistoryService.class);
+
+    private final TickJournal journal;
+    private final TribeReplayer replayer;
+    private final TribeExportService tribeExportService;
+    private final TribeService tribeService;
+    private final TribeRepository tribeRepository;
+    private final JournalProperties properties;
+
+    public TribeHistoryService(TickJournal journal, TribeReplayer replayer, TribeExportService tribeExportService,
+                               TribeService tribeService, TribeRepository tribeRepository,
+                               JournalProperties properties) {
+        this.journal = journal;
+        this.replayer = replayer;
+        this.tribeExportService = tribeExportService;
+        this.tribeService = tribeService;
+        this.tribeRepository = tribeRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Get the journaled history of a tribe, from its latest snapshot at or before a tick.
+     *
+     * @param tribeId the ID of the tribe
+     * @param fromTick the earliest tick to include
+     * @param limit the maximum number of entries
+     * @return the entries in journal order, starting with the snapshot if it is in range
+     * @throws RuntimeException if the tribe has no journaled history
+     */
+    public List<JournalEntryDTO> getJournal(Long tribeId, long fromTick, int limit) {
+        List<JournalEntryDTO> entries = new ArrayList<>();
+        boolean found = journal.read(tribeId, fromTick, record -> {
+            if (record.tick() >= fromTick) {
+                entries.add(new JournalEntryDTO(record));
+            }
+            return entries.size() < limit;
+        });
+        if (!found) {
+            throw new RuntimeException("Tribe not found in journal");
+        }
+        return entries;
+    }
+
+    /**
+     * Get a tribe as it was right after a past tick, before any change made at that
+     * tick, rebuilt from the journal. The state is not saved, so its members and
+     * families have no IDs.
+     *
+     * @param tribeId the ID of the tribe
+     * @param tick the tick
+     * @return the tribe's state at the tick
+     * @throws RuntimeException if the tribe has no journaled history
+     * @throws IllegalArgumentException if the tick is not in the tribe's journaled history
+     */
+    public TribeStateDTO getTribeAt(Long tribeId, long tick) {
+        TribeStateDTO state = tribeService.convertToDTO(rewind(tribeId, tick).tribe());
+        state.setTribeId(tribeId);
+        return state;
+    }
+
+    /**
+     * Create a new tribe from a tribe as it was right after a past tick, before any
+     * change made at that tick, e.g. to undo a policy change. The new tribe has the
+     * same random seed, so it evolves exactly like the original did from that tick
+     * until either is changed.
+     *
+     * @param tribeId the ID of the tribe
+     * @param tick the tick
+     * @param name the name of the new tribe, or null to keep the original name
+     * @return the new tribe's listing row
+     * @throws RuntimeException if the tribe has no journaled history
+     * @throws IllegalArgumentException if the tick is not in the tribe's journaled history
+     */
+    public TribeSummaryDTO restoreTribe(Long tribeId, long tick, String name) {
+        return importReplay(rewind(tribeId, tick), name);
+    }
+
+    private JournalReplay rewind(Long tribeId, long tick) {
+        JournalReplay replay = replayer.replay(tribeId, tick)
+            .orElseThrow(() -> new RuntimeException("Tribe not found in journal"));
+        logger.debug("Rewound tribe {} to tick {} from the snapshot at tick {}", tribeId, tick,
+            replay.snapshotTick());
+        return replay;
+    }
+
+    /**
+     * Recover lost tribes once the application has started, if configured to.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        if (journal.isEnabled() && properties.isRecoverOnStartup()) {
+            recover();
+        }
+    }
+
+    /**
+     * Rebuild every tribe that has a history in the journal but is not in the database,
+     * by replaying it from its latest snapshot and importing the result as a new tribe.
+     * A tribe recovered under a new ID is retired in the journal under its old one, but
+     * only once the import has committed and journaled it under the new ID, so that a
+     * crash in between leaves at least one of the two to recover from.
+     *
+     * @return the new IDs of the recovered tribes, by their journaled IDs
+     */
+    public Map<Long, Long> recover() {
+        Map<Long, Long> recovered = new LinkedHashMap<>();
+        for (Long tribeId : journal.getTribeIds()) {
+            if (tribeRepository.existsById(tribeId)) {
+                continue;
+            }
+            Optional<JournalReplay> replay = replayer.replay(tribeId);
+            if (replay.isEmpty()) {
+                continue;
+            }
+            // Returns once the import has committed, with the new tribe journaled
+            TribeSummaryDTO imported = importReplay(replay.get(), null);
+            if (!imported.getTribeId().equals(tribeId)) {
+                journal.retire(tribeId, imported.getCurrentTick());
+            }
+            recovered.put(tribeId, imported.getTribeId());
+            logger.info("Recovered tribe {} from the journal as tribe {} at tick {}", tribeId,
+                imported.getTribeId(), imported.getCurrentTick());
+        }
+        return recovered;
+    }
+
+    private TribeSummaryDTO importReplay(JournalReplay replay, String name) {
+        try {
+            ByteArrayOutputStream export = new ByteArrayOutputStream();
+            new TribeExportWriter(export, false).writeAll(replay.tribe());
+            return tribeExportService.importTribe(new ByteArrayInputStream(export.toByteArray()), name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
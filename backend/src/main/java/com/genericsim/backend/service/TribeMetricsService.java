@@ -0,0 +1,67 @@
+package com.genericsim.backend.service;
+
+import com.genericsim.backend.dto.TribeCountersDTO;
+import com.genericsim.backend.dto.TribeMetricSeriesDTO;
+import com.genericsim.backend.metrics.DomainCounters;
+import com.genericsim.backend.metrics.Downsampling;
+import com.genericsim.backend.metrics.TribeCounters;
+import com.genericsim.backend.metrics.TribeMetric;
+import com.genericsim.backend.metrics.TribeMetricStore;
+import com.genericsim.backend.repository.TribeRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Reads what has been recorded about the ticks of tribes since startup: their
+ * per-tick metrics and the simulation events counted in them.
+ */
+@Service
+public class TribeMetricsService {
+
+    private final TribeMetricStore metrics;
+    private final DomainCounters counters;
+    private final TribeRepository tribeRepository;
+
+    public TribeMetricsService(TribeMetricStore metrics, DomainCounters counters, TribeRepository tribeRepository) {
+        this.metrics = metrics;
+        this.counters = counters;
+        this.tribeRepository = tribeRepository;
+    }
+
+    /**
+     * Get a range of one of a tribe's per-tick metrics.
+     *
+     * @param tribeId the ID of the tribe
+     * @param metric the metric
+     * @param fromTick the first tick of the range
+     * @param toTick the last tick of the range, or null for the latest tick recorded
+     * @param points the most points to return, at least {@link Downsampling#MIN_POINTS}
+     * @param downsampling how to reduce the points read if there are more than that
+     * @return the range, without points if the tribe has not been ticked since startup;
+     *         empty if the tribe is not found
+     */
+    public Optional<TribeMetricSeriesDTO> getMetric(Long tribeId, TribeMetric metric, long fromTick, Long toTick,
+                                                    int points, Downsampling downsampling) {
+        if (!tribeRepository.existsById(tribeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(metrics.query(tribeId, metric, fromTick, toTick, points, downsampling));
+    }
+
+    /**
+     * Get the simulation events counted in a tribe's latest ticks.
+     *
+     * @param tribeId the ID of the tribe
+     * @param ticks the most ticks to return
+     * @return the counts, without ticks if the tribe has not been ticked since startup;
+     *         empty if the tribe is not found
+     */
+    public Optional<TribeCountersDTO> getCounters(Long tribeId, int ticks) {
+        if (!tribeRepository.existsById(tribeId)) {
+            return Optional.empty();
+        }
+        TribeCounters tribeCounters = counters.get(tribeId).orElse(TribeCounters.NONE);
+        return Optional.of(new TribeCountersDTO(tribeId, tribeCounters, ticks));
+    }
+}
@@ -1,63 +1,111 @@
 package com.genericsim.backend.service;
 
+import com.genericsim.backend.dto.EffectSettingDTO;
 import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TickBatchDTO;
+import com.genericsim.backend.dto.TribeChangesDTO;
+import com.genericsim.backend.dto.TribeDeltaDTO;
 import com.genericsim.backend.dto.TribeStateDTO;
 import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.dto.TribeSummaryFilterDTO;
+import com.genericsim.backend.dto.TribeSummaryPageDTO;
+import com.genericsim.backend.jfr.PhaseEvent;
+import com.genericsim.backend.journal.JournalSession;
+import com.genericsim.backend.journal.TickJournal;
+import com.genericsim.backend.metrics.MetricRecorder;
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.metrics.TribeMetricStore;
 import com.genericsim.backend.model.*;
+import com.genericsim.backend.persistence.TickResultWriter;
+import com.genericsim.backend.persistence.TribeLoader;
+import com.genericsim.backend.persistence.WriteBehindTribeCache;
 import com.genericsim.backend.policy.PolicyEngine;
-import com.genericsim.backend.policy.PolicyPhase;
 import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.readmodel.TribeChangeLog;
+import com.genericsim.backend.readmodel.TribeEventStream;
+import com.genericsim.backend.readmodel.TribeReadModel;
+import com.genericsim.backend.readmodel.TribeSnapshot;
 import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.repository.TribeSummaryCursor;
+import com.genericsim.backend.repository.TribeSummarySort;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.RandomStreamFactory;
+import com.genericsim.backend.simulation.ResourceTransfer;
+import com.genericsim.backend.simulation.TickEngine;
+import com.genericsim.backend.simulation.TickRecorder;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 @Service
 public class TribeService {
 
     private final TribeRepository tribeRepository;
+    private final TribeLoader tribeLoader;
     private final FamilyService familyService;
+    private final TickEngine tickEngine;
     private final PolicyEngine policyEngine;
-    private final Random random = new Random();
+    private final RandomStreamFactory randomStreams;
+    private final WriteBehindTribeCache hotTribes;
+    private final TickResultWriter tickResultWriter;
+    private final TribeReadModel readModel;
+    private final TribeEventStream events;
+    private final TribeChangeLog changeLog;
+    private final TickJournal journal;
+    private final TribeMetricStore metrics;
+    private final TickMeters meters;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
 
-    public TribeService(TribeRepository tribeRepository, FamilyService familyService, PolicyEngine policyEngine) {
+    public TribeService(TribeRepository tribeRepository, TribeLoader tribeLoader, FamilyService familyService,
+                        TickEngine tickEngine, PolicyEngine policyEngine, RandomStreamFactory randomStreams,
+                        WriteBehindTribeCache hotTribes,
+                        TickResultWriter tickResultWriter, TribeReadModel readModel, TribeEventStream events,
+                        TribeChangeLog changeLog, TickJournal journal, TribeMetricStore metrics,
+                        TickMeters meters, TransactionTemplate transactionTemplate, EntityManager entityManager) {
         this.tribeRepository = tribeRepository;
+        this.tribeLoader = tribeLoader;
         this.familyService = familyService;
+        this.tickEngine = tickEngine;
         this.policyEngine = policyEngine;
+        this.randomStreams = randomStreams;
+        this.hotTribes = hotTribes;
+        this.tickResultWriter = tickResultWriter;
+        this.readModel = readModel;
+        this.events = events;
+        this.changeLog = changeLog;
+        this.journal = journal;
+        this.metrics = metrics;
+        this.meters = meters;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
     }
 
     @Transactional
     public Tribe createTribe(String name, String description) {
-        Tribe tribe = new Tribe(name, description);
-        
-        // Initialize resources (now mostly for backward compatibility)
-        Resources resources = new Resources(100, 100);
-        tribe.setResources(resources);
-        
-        // Initialize central storage if needed
-        tribe.setCentralStorage(new Resources(0, 0));
-        
-        // Initialize generic resource storage
-        ResourceStorage genericStorage = new ResourceStorage();
-        genericStorage.initializeDefaults();
-        genericStorage.setAmount(ResourceType.FOOD, 100);
-        genericStorage.setAmount(ResourceType.WATER, 100);
-        tribe.setGenericStorage(genericStorage);
-        
-        // Initialize generic central storage
-        ResourceStorage genericCentralStorage = new ResourceStorage();
-        genericCentralStorage.initializeDefaults();
-        tribe.setGenericCentralStorage(genericCentralStorage);
-        
-        // Set default lifestyle
-        tribe.setLifestyle(LifestyleType.HUNTER_GATHERER);
-        
-        // Initialize policy with default values
-        Policy policy = new Policy("Default Policy", "Standard tribe policy", 10, 10, 5, 5);
-        tribe.setPolicy(policy);
+        return createTribe(name, description, null);
+    }
+
+    /**
+     * Create a tribe with the default starting members, families and policy.
+     * 
+     * @param name the tribe name
+     * @param description the tribe description
+     * @param seed random seed for the tribe; a fresh seed is generated when null.
+     *             Two tribes created with the same seed evolve identically.
+     * @return the saved tribe, journaled once the transaction commits
+     */
+    @Transactional
+    public Tribe createTribe(String name, String description, Long seed) {
+        Tribe tribe = newTribe(name, description, seed != null ? seed : randomStreams.newSeed());
         
         // Initialize with some starting members
         Person hunter1 = new Person("Hunter Alpha", Person.PersonRole.HUNTER, 25, 100);
@@ -80,181 +128,277 @@ public class TribeService {
         tribe.addMember(child);
         tribe.addMember(elder);
         
+        // Save before forming families, so members get their IDs (and load order) in list order
+        tribe = tribeRepository.save(tribe);
+        
         // Initialize families
-        familyService.initializeFamilies(tribe);
+        familyService.initializeFamilies(tribe, randomStreams.forTick(tribe.getRandomSeed(), 0).tribe());
         
-        return tribeRepository.save(tribe);
+        tribe = tribeRepository.saveAndFlush(tribe);
+        
+        // Journal the starting state, so the tribe can be recovered before its first tick
+        journal.begin(tribe, PopulationStore.load(tribe)).commit();
+        return tribe;
     }
 
-    @Transactional
-    public TribeStateDTO processTick(Long tribeId) {
-        Tribe tribe = tribeRepository.findById(tribeId)
-            .orElseThrow(() -> new RuntimeException("Tribe not found"));
+    /**
+     * Build a new tribe with the default resources, storages, lifestyle and policy,
+     * but no members or families.
+     *
+     * @param name the tribe name
+     * @param description the tribe description
+     * @param seed random seed for the tribe
+     * @return the tribe, not yet saved
+     */
+    static Tribe newTribe(String name, String description, long seed) {
+        Tribe tribe = new Tribe(name, description);
+        tribe.setRandomSeed(seed);
         
-        // Increment tick
-        tribe.setCurrentTick(tribe.getCurrentTick() + 1);
+        // Initialize resources (now mostly for backward compatibility)
+        Resources resources = new Resources(100, 100);
+        tribe.setResources(resources);
         
-        // Create tick context for policy engine
-        TickContext context = new TickContext(tribe, familyService, random);
+        // Initialize central storage if needed
+        tribe.setCentralStorage(new Resources(0, 0));
         
-        // Calculate elder count and bonuses for this tick
-        int elderCount = (int) countByAgeGroup(tribe, Person.AgeGroup.ELDER);
-        double elderGatheringBonus = 1.0 + (elderCount * 0.02); // 2% per elder
-        context.setElderCount(elderCount);
-        context.setElderGatheringBonus(elderGatheringBonus);
+        // Initialize generic resource storage
+        ResourceStorage genericStorage = new ResourceStorage();
+        genericStorage.initializeDefaults();
+        genericStorage.setAmount(ResourceType.FOOD, 100);
+        genericStorage.setAmount(ResourceType.WATER, 100);
+        tribe.setGenericStorage(genericStorage);
         
-        // Snapshot family storage before gathering
-        for (Family family : tribe.getFamilies()) {
-            context.snapshotFamilyStorage(family);
-        }
+        // Initialize generic central storage
+        ResourceStorage genericCentralStorage = new ResourceStorage();
+        genericCentralStorage.initializeDefaults();
+        tribe.setGenericCentralStorage(genericCentralStorage);
         
-        // Phase 1: Gathering - resources go to family storage
-        for (Person person : tribe.getMembers()) {
-            if (person.getHealth() <= 30) continue; // Too weak to work
-            
-            int foodGathered = 0;
-            int waterGathered = 0;
-            
-            if (person.getRole() == Person.PersonRole.HUNTER) {
-                // Hunting - skill-based food gathering
-                int baseFood = 10 + random.nextInt(10);
-                double skillMultiplier = 1.0 + person.getHuntingSkill();
-                int incentive = tribe.getPolicy().getHuntingIncentive();
-                foodGathered = (int) (baseFood * skillMultiplier * elderGatheringBonus) + incentive;
-                
-                // Improve hunting skill slightly on success
-                if (foodGathered > 15) {
-                    person.setHuntingSkill(Math.min(1.0, person.getHuntingSkill() + 0.01));
-                }
-            } else if (person.getRole() == Person.PersonRole.GATHERER) {
-                // Gathering - skill-based food and water gathering
-                int baseFood = 5 + random.nextInt(5);
-                int baseWater = 8 + random.nextInt(8);
-                double skillMultiplier = 1.0 + person.getGatheringSkill();
-                int incentive = tribe.getPolicy().getGatheringIncentive();
-                foodGathered = (int) (baseFood * skillMultiplier * elderGatheringBonus) + incentive;
-                waterGathered = (int) (baseWater * skillMultiplier * elderGatheringBonus) + incentive;
-                
-                // Improve gathering skill slightly on success
-                if (foodGathered > 7 || waterGathered > 10) {
-                    person.setGatheringSkill(Math.min(1.0, person.getGatheringSkill() + 0.01));
-                }
-            }
-            
-            // Add gathered resources to family storage
-            if (person.getFamily() != null) {
-                Resources familyStorage = person.getFamily().getStorage();
-                familyStorage.setFood(familyStorage.getFood() + foodGathered);
-                familyStorage.setWater(familyStorage.getWater() + waterGathered);
-            }
-        }
+        // Set default lifestyle
+        tribe.setLifestyle(LifestyleType.HUNTER_GATHERER);
         
-        // Execute policy engine for production phase (e.g., central storage tax)
-        policyEngine.executePhase(PolicyPhase.PRODUCTION, context);
+        // Initialize policy with default values
+        Policy policy = new Policy("Default Policy", "Standard tribe policy", 10, 10, 5, 5);
+        tribe.setPolicy(policy);
+        return tribe;
+    }
+
+    public TribeStateDTO processTick(Long tribeId) {
+        return tickTribe(tribeId, (tribe, store, session, recorder) -> {
+            tickEngine.advance(tribe, store, 1, recorder);
+            saveTickResults(tribe, store);
+            return convertToDTO(tribe);
+        });
+    }
+
+    /**
+     * Advance a tribe by several ticks in a single transaction.
+     * The tribe is loaded once, all ticks run in memory through the tick engine,
+     * and the result is saved once at the end.
+     * 
+     * @param tribeId the ID of the tribe
+     * @param count number of ticks to process
+     * @param summaries if true, return one summary row per tick instead of the final state
+     * @return TickBatchDTO describing the processed range
+     * @throws RuntimeException if tribe is not found
+     */
+    public TickBatchDTO processTicks(Long tribeId, int count, boolean summaries) {
+        return tickTribe(tribeId, (tribe, store, session, recorder) -> runBatch(tribe, store, recorder, count,
+            summaries));
+    }
+
+    private TickBatchDTO runBatch(Tribe tribe, PopulationStore store, TickRecorder recorder, int count,
+                                  boolean summaries) {
+        TickBatchDTO batch = new TickBatchDTO();
+        batch.setTribeId(tribe.getId());
+        batch.setStartTick(tribe.getCurrentTick());
         
-        // Phase 2: Family upkeep and sharing
-        for (Family family : tribe.getFamilies()) {
-            boolean hasSufficient = familyService.consumeFamilyResources(family);
-            
-            if (!hasSufficient) {
-                // Try to borrow from other families
-                int foodNeeded = family.getMembers().size() * 3;
-                int waterNeeded = family.getMembers().size() * 4;
-                boolean borrowed = familyService.borrowResources(family, tribe, foodNeeded, waterNeeded);
-                
-                // If borrowing failed, try central storage
-                if (!borrowed && tribe.getPolicy().isEnableCentralStorage()) {
-                    borrowed = familyService.accessCentralStorage(family, tribe, foodNeeded, waterNeeded);
-                }
-                
-                // If still insufficient, someone suffers
-                if (!borrowed) {
-                    Person toSuffer = familyService.selectMemberToSuffer(family, tribe.getPolicy());
-                    if (toSuffer != null) {
-                        toSuffer.setHealth(Math.max(0, toSuffer.getHealth() - 15));
-                    }
-                }
-            } else {
-                // Family has sufficient resources - members recover health slightly
-                for (Person person : family.getMembers()) {
-                    if (person.getHealth() < 100) {
-                        person.setHealth(Math.min(100, person.getHealth() + 5));
-                    }
-                }
+        List<TickBatchDTO.TickSummaryDTO> rows = summaries ? new ArrayList<>(count) : null;
+        if (rows != null) {
+            for (int i = 0; i < count; i++) {
+                int deaths = tickEngine.advance(tribe, store, 1, recorder);
+                rows.add(new TickBatchDTO.TickSummaryDTO(tribe, store.size(), deaths));
             }
+        } else {
+            // Quiescent stretches of the batch are skipped in closed form
+            tickEngine.advance(tribe, store, count, recorder);
         }
+        saveTickResults(tribe, store);
         
-        // Execute policy engine for resource decay phase
-        policyEngine.executePhase(PolicyPhase.RESOURCE_DECAY, context);
-        
-        // Phase 4: Aging and role transitions
-        if (tribe.getCurrentTick() % 365 == 0) {
-            for (Person person : tribe.getMembers()) {
-                person.setAge(person.getAge() + 1);
-                
-                // Update roles based on age
-                if (person.getAge() >= 60 && person.getRole() != Person.PersonRole.ELDER) {
-                    person.setRole(Person.PersonRole.ELDER);
-                } else if (person.getAge() >= 16 && person.getAge() < 60 && person.getRole() == Person.PersonRole.CHILD) {
-                    // Assign role based on random or need
-                    person.setRole(random.nextBoolean() ? Person.PersonRole.HUNTER : Person.PersonRole.GATHERER);
-                    // Initialize appropriate skill
-                    if (person.getRole() == Person.PersonRole.HUNTER) {
-                        person.setHuntingSkill(0.5);
-                    } else {
-                        person.setGatheringSkill(0.5);
-                    }
-                }
-            }
+        batch.setEndTick(tribe.getCurrentTick());
+        batch.setTicksProcessed(count);
+        if (summaries) {
+            batch.setTicks(rows);
+        } else {
+            batch.setFinalState(convertToDTO(tribe));
         }
-        
-        // Phase 5: Progress Points Calculation
-        int youngAdults = (int) countByAgeGroup(tribe, Person.AgeGroup.YOUNG_ADULT);
-        int adults = (int) countByAgeGroup(tribe, Person.AgeGroup.ADULT);
-        int elders = (int) countByAgeGroup(tribe, Person.AgeGroup.ELDER);
-        
-        // Progress generation by age group
-        int progressGenerated = (youngAdults * 2) + (adults * 1);
-        
-        // Base decay and elder preservation
-        int baseDecay = 30;
-        int elderPreservation = elders * 10;
-        int netDecay = Math.max(0, baseDecay - elderPreservation);
-        
-        // Update progress points
-        int newProgress = tribe.getProgressPoints() + progressGenerated - netDecay;
-        tribe.setProgressPoints(Math.max(0, newProgress));
-        
-        // Phase 6: Remove deceased members (health = 0)
-        tribe.getMembers().removeIf(person -> person.getHealth() <= 0);
-        
-        // Update tribe resources for backward compatibility (sum of all family storage)
-        int totalFood = tribe.getFamilies().stream()
-            .mapToInt(f -> f.getStorage().getFood())
-            .sum();
-        int totalWater = tribe.getFamilies().stream()
-            .mapToInt(f -> f.getStorage().getWater())
-            .sum();
-        tribe.getResources().setFood(totalFood);
-        tribe.getResources().setWater(totalWater);
-        
-        tribeRepository.save(tribe);
-        
-        return convertToDTO(tribe);
+        return batch;
+    }
+
+    /**
+     * Run ticks against a tribe and its population store, then publish a snapshot.
+     * With write-behind persistence the ticks run on the in-memory tribe; otherwise
+     * the tribe is loaded in a transaction. The ticks must end with
+     * {@link #saveTickResults(Tribe, PopulationStore)}.
+     */
+    private <T> T tickTribe(Long tribeId, TribeChange<T> ticks) {
+        if (hotTribes.isEnabled()) {
+            return hotTribes.update(tribeId, publishing(ticks));
+        }
+        return transactionTemplate.execute(status -> {
+            // Tick results bypass the persistence context, so earlier changes go out first
+            entityManager.flush();
+            Tribe tribe = tribeLoader.loadPopulation(tribeId)
+                .orElseThrow(() -> new RuntimeException("Tribe not found"));
+            return publishing(ticks).apply(tribe, PopulationStore.load(tribe));
+        });
+    }
+
+    /**
+     * Copy tick results from the store to the entities. Unless the tribe is held in
+     * memory, the results are first written to the database in JDBC batches.
+     * The dead are recorded in the change log, since they are no longer there to be stamped.
+     */
+    private void saveTickResults(Tribe tribe, PopulationStore store) {
+        PhaseEvent event = PhaseEvent.started(tribe, TickMeters.Phase.PERSISTENCE);
+        long start = meters.start();
+        changeLog.record(tribe.getId(), tribe.getCurrentTick(),
+            store.getRemovedPersons().stream().map(Person::getId).toList());
+        if (!hotTribes.isEnabled()) {
+            tickResultWriter.write(tribe, store);
+        }
+        store.flush(tribe);
+        meters.recordPhase(TickMeters.Phase.PERSISTENCE, start);
+        event.commit();
+    }
+
+    /**
+     * Run a change against a tribe and its population store, then publish a snapshot.
+     * With write-behind persistence the change is applied to the in-memory tribe and
+     * written to the database by a later checkpoint; otherwise the tribe is loaded and
+     * saved in a transaction. The change must flush the store before it returns.
+     */
+    private <T> T updateTribe(Long tribeId, TribeChange<T> update) {
+        if (hotTribes.isEnabled()) {
+            return hotTribes.update(tribeId, publishing(update));
+        }
+        return transactionTemplate.execute(status -> {
+            Tribe tribe = tribeLoader.loadPopulation(tribeId)
+                .orElseThrow(() -> new RuntimeException("Tribe not found"));
+            T result = publishing(update).apply(tribe, PopulationStore.load(tribe));
+            tribeRepository.save(tribe);
+            return result;
+        });
     }
 
+    /**
+     * Wrap a change so that it is journaled and its ticks recorded in the metric store,
+     * and a new revision of the tribe is published to the read model once it is done,
+     * followed by a delta for event stream subscribers if the tribe has any.
+     */
+    private <T> BiFunction<Tribe, PopulationStore, T> publishing(TribeChange<T> change) {
+        return (tribe, store) -> {
+            // Only streamed tribes collect the dead; the rest of the delta is read from the tick stamps
+            DeathCollector dead = events.hasSubscribers(tribe.getId()) ? new DeathCollector(tribe) : null;
+            JournalSession session = journal.begin(tribe, store);
+            MetricRecorder metricRecorder = metrics.begin(tribe.getId());
+            TickRecorder recorder = session.andThen(metricRecorder);
+            T result = change.apply(tribe, store, session, dead != null ? recorder.andThen(dead) : recorder);
+            session.commit();
+            metricRecorder.commit();
+            long revision = readModel.publish(tribe.getId(), tribe.getCurrentTick());
+            if (dead != null) {
+                events.publish(new TribeDeltaDTO(tribe, dead.fromTick, dead.personIds, dead.policy,
+                    new TribeStatisticsDTO(tribe), revision));
+            }
+            return result;
+        };
+    }
+
+    private TribeReadModel.TribeView viewOf(Tribe tribe) {
+        return new TribeReadModel.TribeView(convertToDTO(tribe), new TribeStatisticsDTO(tribe));
+    }
+
+    /**
+     * Get the latest snapshot of a tribe's state and statistics.
+     * Served from the read model without touching the database once the tribe has
+     * been read since its last tick or change; otherwise the tribe is read from
+     * memory or loaded, and serialized.
+     *
+     * @param tribeId the ID of the tribe
+     * @return the latest snapshot
+     * @throws RuntimeException if tribe is not found
+     */
+    public TribeSnapshot getTribeSnapshot(Long tribeId) {
+        return readModel.get(tribeId, () -> hotTribes.read(tribeId, this::viewOf).orElseGet(() ->
+            transactionTemplate.execute(status -> viewOf(tribeLoader.loadPopulation(tribeId)
+                .orElseThrow(() -> new RuntimeException("Tribe not found"))))));
+    }
+
+    @Transactional(readOnly = true)
     public TribeStateDTO getTribeState(Long tribeId) {
-        Tribe tribe = tribeRepository.findById(tribeId)
-            .orElseThrow(() -> new RuntimeException("Tribe not found"));
-        return convertToDTO(tribe);
+        return hotTribes.read(tribeId, this::convertToDTO).orElseGet(() -> {
+            Tribe tribe = tribeLoader.loadPopulation(tribeId)
+                .orElseThrow(() -> new RuntimeException("Tribe not found"));
+            return convertToDTO(tribe);
+        });
+    }
+
+    /**
+     * Get what changed in a tribe after a tick: the persons and families stamped with a
+     * later tick, the dead, the scalar tribe fields and the policy if it was updated.
+     * Falls back to the full state if {@code sinceTick} is older than the deaths kept in
+     * the change log, or ahead of the tribe.
+     *
+     * @param tribeId the ID of the tribe
+     * @param sinceTick the tick the client has seen
+     * @return the changes, or the full state with {@code fullSnapshot} set
+     * @throws RuntimeException if tribe is not found
+     */
+    @Transactional(readOnly = true)
+    public TribeChangesDTO getTribeChanges(Long tribeId, long sinceTick) {
+        return hotTribes.read(tribeId, tribe -> changesOf(tribe, sinceTick)).orElseGet(() -> {
+            Tribe tribe = tribeLoader.loadPopulation(tribeId)
+                .orElseThrow(() -> new RuntimeException("Tribe not found"));
+            return changesOf(tribe, sinceTick);
+        });
     }
 
+    private TribeChangesDTO changesOf(Tribe tribe, long sinceTick) {
+        long currentTick = tribe.getCurrentTick();
+        Optional<List<Long>> deaths = sinceTick > currentTick
+            ? Optional.empty()
+            : changeLog.deathsAfter(tribe.getId(), sinceTick, currentTick);
+        return deaths
+            .map(dead -> new TribeChangesDTO(tribe, sinceTick, dead))
+            .orElseGet(() -> TribeChangesDTO.fullSnapshot(sinceTick, convertToDTO(tribe)));
+    }
+
+    @Transactional(readOnly = true)
     public List<TribeStateDTO> getAllTribes() {
         return tribeRepository.findAll().stream()
-            .map(this::convertToDTO)
+            .map(tribe -> hotTribes.read(tribe.getId(), this::convertToDTO).orElseGet(() -> convertToDTO(tribe)))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of the tribe listing, without loading members or families.
+     * With write-behind persistence, tribes are listed as of their last checkpoint.
+     *
+     * @param filter bounds on the listed values
+     * @param sort the order of the listing
+     * @param descending whether to list in descending order
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of tribes on the page
+     * @return the page of tribe summaries
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another order
+     */
+    @Transactional(readOnly = true)
+    public TribeSummaryPageDTO getTribeSummaries(TribeSummaryFilterDTO filter, TribeSummarySort sort,
+                                                 boolean descending, String after, int limit) {
+        TribeSummaryCursor cursor = after != null ? TribeSummaryCursor.decode(after, sort, descending) : null;
+        return tribeRepository.findSummaries(filter, sort, descending, cursor, limit);
+    }
+
     /**
      * Get tribe statistics in a frontend-friendly format.
      * Provides aggregated data including population counts, role breakdown,
@@ -264,10 +408,13 @@ public class TribeService {
      * @return TribeStatisticsDTO containing aggregated statistics
      * @throws RuntimeException if tribe is not found
      */
+    @Transactional(readOnly = true)
     public TribeStatisticsDTO getTribeStatistics(Long tribeId) {
-        Tribe tribe = tribeRepository.findById(tribeId)
-            .orElseThrow(() -> new RuntimeException("Tribe not found"));
-        return new TribeStatisticsDTO(tribe);
+        return hotTribes.read(tribeId, TribeStatisticsDTO::new).orElseGet(() -> {
+            Tribe tribe = tribeLoader.loadSummary(tribeId)
+                .orElseThrow(() -> new RuntimeException("Tribe not found"));
+            return new TribeStatisticsDTO(tribe);
+        });
     }
 
     /**
@@ -277,18 +424,28 @@ public class TribeService {
      * @param tribeId the ID of the tribe
      * @param policyUpdate the policy changes to apply
      * @return TribeStateDTO with updated state
+     * @throws IllegalArgumentException if an effect setting names no registered effect
      * @throws RuntimeException if tribe is not found
      */
-    @Transactional
     public TribeStateDTO updateTribePolicy(Long tribeId, PolicyUpdateDTO policyUpdate) {
-        Tribe tribe = tribeRepository.findById(tribeId)
-            .orElseThrow(() -> new RuntimeException("Tribe not found"));
-        
+        if (policyUpdate.getEffects() != null
+                && !policyUpdate.getEffects().keySet().stream().allMatch(policyEngine::hasEffect)) {
+            throw new IllegalArgumentException("Unknown policy effect");
+        }
+        return updateTribe(tribeId, (tribe, store, session, recorder) -> {
+            applyPolicyUpdate(tribe, policyUpdate);
+            session.policyChanged(tribe);
+            return convertToDTO(tribe);
+        });
+    }
+
+    private void applyPolicyUpdate(Tribe tribe, PolicyUpdateDTO policyUpdate) {
         Policy policy = tribe.getPolicy();
         if (policy == null) {
             policy = new Policy("Default Policy", "Standard tribe policy", 10, 10, 5, 5);
             tribe.setPolicy(policy);
         }
+        policy.setLastModifiedTick(tribe.getCurrentTick());
         
         // Update only non-null values
         if (policyUpdate.getFoodTaxRate() != null) {
@@ -318,12 +475,20 @@ public class TribeService {
         if (policyUpdate.getStorageDecayInterval() != null) {
             policy.setStorageDecayInterval(policyUpdate.getStorageDecayInterval());
         }
-        
-        tribeRepository.save(tribe);
-        return convertToDTO(tribe);
+        if (policyUpdate.getEffects() != null) {
+            EffectSettings settings = policy.getEffectSettings();
+            for (Map.Entry<String, EffectSettingDTO> effect : policyUpdate.getEffects().entrySet()) {
+                // A null setting resets the effect to its default
+                settings = settings.with(effect.getKey(), effect.getValue() != null
+                    ? effect.getValue().toSetting() : new EffectSettings.Setting(true, null));
+            }
+            policy.setEffectSettings(settings);
+        }
     }
 
-    private TribeStateDTO convertToDTO(Tribe tribe) {
+    TribeStateDTO convertToDTO(Tribe tribe) {
+        PhaseEvent event = PhaseEvent.started(tribe, TickMeters.Phase.DTO_CONVERSION);
+        long start = meters.start();
         TribeStateDTO dto = new TribeStateDTO();
         dto.setTribeId(tribe.getId());
         dto.setTribeName(tribe.getName());
@@ -340,12 +505,52 @@ public class TribeService {
         dto.setFamilies(tribe.getFamilies().stream()
             .map(TribeStateDTO.FamilyDTO::new)
             .collect(Collectors.toList()));
+        meters.recordPhase(TickMeters.Phase.DTO_CONVERSION, start);
+        event.commit();
         return dto;
     }
 
-    private long countByAgeGroup(Tribe tribe, Person.AgeGroup ageGroup) {
-        return tribe.getMembers().stream()
-            .filter(person -> person.getAgeGroup() == ageGroup)
-            .count();
+    /**
+     * Collects the IDs of the persons who die in a change, for the delta sent to event
+     * stream subscribers. The store keeps the removed persons until it is flushed, in
+     * the order they died, so each tick's dead are the last ones on its list.
+     */
+    private static class DeathCollector implements TickRecorder {
+
+        private final long fromTick;
+        private final TribeStateDTO.PolicyDTO policy;
+        private final List<Long> personIds = new ArrayList<>();
+
+        private DeathCollector(Tribe tribe) {
+            this.fromTick = tribe.getCurrentTick();
+            this.policy = tribe.getPolicy() != null ? new TribeStateDTO.PolicyDTO(tribe.getPolicy()) : null;
+        }
+
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        @Override
+        public void tickRun(Tribe tribe, PopulationStore store, int deaths, List<TickContext.AppliedEffect> effects,
+                            List<ResourceTransfer> transfers) {
+            List<Person> removed = store.getRemovedPersons();
+            for (Person person : removed.subList(removed.size() - deaths, removed.size())) {
+                personIds.add(person.getId());
+            }
+        }
+
+        @Override
+        public void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick) {
+        }
+    }
+
+    /**
+     * A change of a tribe, recorded in a journal session. Ticks are run with the
+     * recorder, which reports them to the session and the metric store.
+     */
+    @FunctionalInterface
+    private interface TribeChange<T> {
+        T apply(Tribe tribe, PopulationStore store, JournalSession session, TickRecorder recorder);
     }
 }
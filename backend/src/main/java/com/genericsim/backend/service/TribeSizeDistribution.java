@@ -0,0 +1,76 @@
+package com.genericsim.backend.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * How the member counts of generated tribes are spread between a minimum and a maximum.
+ */
+public enum TribeSizeDistribution {
+
+    /**
+     * Every size in the range is equally likely
+     */
+    UNIFORM {
+        @Override
+        int sample(Random random, int minMembers, int maxMembers) {
+            return minMembers + random.nextInt(maxMembers - minMembers + 1);
+        }
+    },
+
+    /**
+     * Sizes cluster around the geometric mean of the range, which then spans
+     * two standard deviations either way; sizes outside it are drawn again
+     */
+    LOG_NORMAL {
+        @Override
+        int sample(Random random, int minMembers, int maxMembers) {
+            double logMin = Math.log(minMembers);
+            double logMax = Math.log(maxMembers);
+            double mean = (logMin + logMax) / 2;
+            double deviation = (logMax - logMin) / 4;
+            while (true) {
+                long size = Math.round(Math.exp(mean + deviation * random.nextGaussian()));
+                if (size >= minMembers && size <= maxMembers) {
+                    return (int) size;
+                }
+            }
+        }
+    },
+
+    /**
+     * Most tribes are close to the minimum and a few are much larger, with the
+     * 80/20 Pareto shape cut off at the maximum
+     */
+    PARETO {
+        private static final double SHAPE = 1.16;
+
+        @Override
+        int sample(Random random, int minMembers, int maxMembers) {
+            // Inverse of the Pareto distribution truncated to [min, max]
+            double tail = Math.pow((double) minMembers / maxMembers, SHAPE);
+            double u = random.nextDouble();
+            double size = minMembers / Math.pow(1 - u * (1 - tail), 1 / SHAPE);
+            return (int) Math.min(maxMembers, Math.max(minMembers, Math.floor(size)));
+        }
+    };
+
+    /**
+     * Draw a tribe size.
+     *
+     * @param random the generator to draw with
+     * @param minMembers the smallest size, at least 1
+     * @param maxMembers the largest size, at least {@code minMembers}
+     * @return the size
+     */
+    abstract int sample(Random random, int minMembers, int maxMembers);
+
+    /**
+     * @param name a distribution name, in any case
+     * @return the distribution with that name, or empty if there is none
+     */
+    public static Optional<TribeSizeDistribution> fromName(String name) {
+        return Arrays.stream(values()).filter(distribution -> distribution.name().equalsIgnoreCase(name)).findFirst();
+    }
+}
@@ -0,0 +1,168 @@
+package com.genericsim.backend.service;
+
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.dto.WorldGenerationDTO;
+import com.genericsim.backend.journal.TickJournal;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeImporter;
+import com.genericsim.backend.persistence.TribeLoader;
+import com.genericsim.backend.simulation.PopulationStore;
+import com.genericsim.backend.simulation.RandomStreamFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates worlds of synthetic tribes, e.g. for load tests.
+ *
+ * Each tribe is drawn from its own random stream of the world seed, so the same
+ * request with the same seed generates the same tribes. A tribe gets the default
+ * resources and policy of a created tribe, a size drawn from a
+ * {@link TribeSizeDistribution}, and members with a hunter-gatherer age pyramid:
+ * <ul>
+ *   <li>ages fall off exponentially to 75, so about half the tribe are children
+ *       and one in twenty are elders</li>
+ *   <li>roles follow from age as the tick engine assigns them: children under 16,
+ *       elders from 60, and hunters and gatherers in equal numbers in between</li>
+ *   <li>health is full for the young and declines from 35</li>
+ *   <li>the skill of an adult's role grows with the years worked in it, from the
+ *       0.5 a new hunter or gatherer starts with</li>
+ * </ul>
+ * Members are grouped into families by {@link FamilyService#initializeFamilies}.
+ * Tribes are generated and inserted one after the other, with JDBC batches, so only
+ * one tribe's population is held in memory at a time. With the journal enabled, each
+ * tribe is read back after it is inserted and journaled as of its first tick.
+ */
+@Service
+public class WorldGenerationService {
+
+    private static final int MAX_AGE = 75;
+    private static final double MEAN_AGE = 28.0;
+    private static final int ADULT_AGE = 16;
+    private static final int ELDER_AGE = 60;
+
+    private final FamilyService familyService;
+    private final TribeImporter importer;
+    private final TribeLoader tribeLoader;
+    private final TickJournal journal;
+    private final RandomStreamFactory randomStreams;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public WorldGenerationService(FamilyService familyService, TribeImporter importer, TribeLoader tribeLoader,
+                                  TickJournal journal, RandomStreamFactory randomStreams,
+                                  PlatformTransactionManager transactionManager, EntityManager entityManager) {
+        this.familyService = familyService;
+        this.importer = importer;
+        this.tribeLoader = tribeLoader;
+        this.journal = journal;
+        this.randomStreams = randomStreams;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Generate and save a world of tribes, in one transaction.
+     *
+     * @param tribeCount the number of tribes
+     * @param minMembers the fewest members of a tribe, at least 1
+     * @param maxMembers the most members of a tribe, at least {@code minMembers}
+     * @param distribution how tribe sizes are spread between the two
+     * @param seed the world seed, or null for a fresh one
+     * @param namePrefix tribes are named with this and their number
+     * @return the new tribes' listing rows, with the seed and totals
+     */
+    public WorldGenerationDTO generateWorld(int tribeCount, int minMembers, int maxMembers,
+                                            TribeSizeDistribution distribution, Long seed, String namePrefix) {
+        long start = System.nanoTime();
+        long worldSeed = seed != null ? seed : randomStreams.newSeed();
+        WorldGenerationDTO world = new WorldGenerationDTO();
+        world.setSeed(worldSeed);
+        world.setTribes(transactionTemplate.execute(status -> {
+            List<TribeSummaryDTO> tribes = new ArrayList<>(tribeCount);
+            for (int i = 0; i < tribeCount; i++) {
+                Tribe tribe = generateTribe(worldSeed, i, minMembers, maxMembers, distribution, namePrefix);
+                world.setFamilies(world.getFamilies() + tribe.getFamilies().size());
+                tribe = importer.insertTribe(tribe);
+                world.setPopulation(world.getPopulation() + tribe.getAggregates().getCount());
+                tribes.add(new TribeSummaryDTO(tribe));
+                if (journal.isEnabled()) {
+                    Tribe loaded = tribeLoader.loadPopulation(tribe.getId()).orElseThrow();
+                    journal.begin(loaded, PopulationStore.load(loaded)).commit();
+                    entityManager.clear();
+                }
+            }
+            return tribes;
+        }));
+        world.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return world;
+    }
+
+    /**
+     * Generate one tribe of a world, with its members and families, without saving it.
+     *
+     * @param worldSeed the world seed
+     * @param index the number of the tribe in the world, from 0
+     * @return the tribe
+     */
+    Tribe generateTribe(long worldSeed, int index, int minMembers, int maxMembers,
+                        TribeSizeDistribution distribution, String namePrefix) {
+        Random world = randomStreams.create(worldSeed, 0, index);
+        int size = distribution.sample(world, minMembers, maxMembers);
+        Tribe tribe = TribeService.newTribe(namePrefix + " " + (index + 1), "Generated tribe", world.nextLong());
+
+        Random random = randomStreams.forTick(tribe.getRandomSeed(), 0).tribe();
+        List<Person> members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Person person = generatePerson(i, random);
+            person.setTribe(tribe);
+            members.add(person);
+        }
+        // Set at once, so the aggregates are built once rather than for every member
+        tribe.setMembers(members);
+        familyService.initializeFamilies(tribe, random);
+        return tribe;
+    }
+
+    private static Person generatePerson(int index, Random random) {
+        // Exponential ages truncated to MAX_AGE, by inverting their distribution function
+        double survival = Math.exp(-(MAX_AGE + 1) / MEAN_AGE);
+        int age = Math.min(MAX_AGE, (int) (-MEAN_AGE * Math.log(1 - random.nextDouble() * (1 - survival))));
+
+        Person.PersonRole role;
+        Person.PersonRole trade = random.nextBoolean() ? Person.PersonRole.HUNTER : Person.PersonRole.GATHERER;
+        if (age < ADULT_AGE) {
+            role = Person.PersonRole.CHILD;
+        } else if (age >= ELDER_AGE) {
+            role = Person.PersonRole.ELDER;
+        } else {
+            role = trade;
+        }
+
+        double health = 100 - Math.max(0, age - 35) * 1.2 + random.nextGaussian() * 8;
+        Person person = new Person("Member " + (index + 1), role, age, (int) Math.round(clamp(health, 20, 100)));
+
+        // Elders keep the skill of the trade they worked in
+        if (age >= ADULT_AGE) {
+            int years = Math.min(age, ELDER_AGE) - ADULT_AGE;
+            double skill = clamp(0.5 + years * 0.015 + random.nextGaussian() * 0.08, 0, 1);
+            if (trade == Person.PersonRole.HUNTER) {
+                person.setHuntingSkill(skill);
+            } else {
+                person.setGatheringSkill(skill);
+            }
+        }
+        return person;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,170 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.config.TickProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs per-family work of a tick over family partitions on a {@link ForkJoinPool}.
+ *
+ * The family range is split recursively until partitions are small enough, and
+ * each partition is handled by one task. Work for a family must only touch that
+ * family's storage and members; anything shared with the rest of the tribe is
+ * accumulated per partition with {@link #reduce} and merged once the phase ends.
+ * Tribes with fewer families than the configured threshold run sequentially on
+ * the calling thread.
+ */
+@Component
+public class FamilyPartitioner {
+
+    /**
+     * Partitioner that always runs on the calling thread.
+     */
+    public static final FamilyPartitioner SEQUENTIAL = new FamilyPartitioner(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    @Autowired
+    public FamilyPartitioner(TickProperties properties) {
+        this(new ForkJoinPool(properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors()),
+            Math.max(1, properties.getParallelThreshold()));
+    }
+
+    /**
+     * @param pool pool running the partitions, or null to always run sequentially
+     * @param threshold minimum number of families before work is forked
+     */
+    public FamilyPartitioner(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Run an action for every family index in [0, familyCount).
+     *
+     * @param familyCount number of families
+     * @param action action receiving the family index
+     */
+    public void forEach(int familyCount, IntConsumer action) {
+        if (!isParallel(familyCount)) {
+            for (int f = 0; f < familyCount; f++) {
+                action.accept(f);
+            }
+            return;
+        }
+        pool.invoke(new ForEachTask(0, familyCount, grainSize(familyCount), action));
+    }
+
+    /**
+     * Fold every family index into an accumulator, one accumulator per partition,
+     * and combine the partition results. The combiner must be commutative and
+     * associative so the result does not depend on how the range was split.
+     *
+     * @param familyCount number of families
+     * @param identity creates an empty accumulator for a partition
+     * @param accumulator adds one family to an accumulator
+     * @param combiner merges two accumulators
+     * @return the combined accumulator
+     */
+    public <T> T reduce(int familyCount, Supplier<T> identity, ObjIntConsumer<T> accumulator,
+                        BinaryOperator<T> combiner) {
+        if (!isParallel(familyCount)) {
+            T result = identity.get();
+            for (int f = 0; f < familyCount; f++) {
+                accumulator.accept(result, f);
+            }
+            return result;
+        }
+        return pool.invoke(new ReduceTask<>(0, familyCount, grainSize(familyCount), identity, accumulator, combiner));
+    }
+
+    private boolean isParallel(int familyCount) {
+        return pool != null && familyCount >= threshold && pool.getParallelism() > 1;
+    }
+
+    private int grainSize(int familyCount) {
+        // A few partitions per worker keeps them balanced when family sizes differ
+        return Math.max(1, familyCount / (pool.getParallelism() * 4));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class ForEachTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer action;
+
+        ForEachTask(int from, int to, int grain, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int f = from; f < to; f++) {
+                    action.accept(f);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForEachTask(from, mid, grain, action), new ForEachTask(mid, to, grain, action));
+        }
+    }
+
+    private static final class ReduceTask<T> extends RecursiveTask<T> {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final Supplier<T> identity;
+        private final ObjIntConsumer<T> accumulator;
+        private final BinaryOperator<T> combiner;
+
+        ReduceTask(int from, int to, int grain, Supplier<T> identity, ObjIntConsumer<T> accumulator,
+                   BinaryOperator<T> combiner) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= grain) {
+                T result = identity.get();
+                for (int f = from; f < to; f++) {
+                    accumulator.accept(result, f);
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            ReduceTask<T> left = new ReduceTask<>(from, mid, grain, identity, accumulator, combiner);
+            ReduceTask<T> right = new ReduceTask<>(mid, to, grain, identity, accumulator, combiner);
+            left.fork();
+            T rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
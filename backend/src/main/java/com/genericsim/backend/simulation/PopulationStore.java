@@ -0,0 +1,452 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.PopulationAggregates;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columnar, in-memory view of a tribe's population used by the tick engine.
+ *
+ * Person state is held in parallel primitive arrays indexed by row, and family
+ * storage in parallel arrays indexed by family position in {@link Tribe#getFamilies()}.
+ * Rows follow the order of {@link Tribe#getMembers()} and each family keeps its
+ * members in the order of {@link Family#getMembers()}, so phase logic iterating
+ * the store visits people in exactly the same order as a loop over the entities.
+ *
+ * The store is loaded from and flushed back to the JPA entities; in between,
+ * the entities are not touched except for family storage, which is synchronized
+ * around policy phases (see {@link #flushFamilyStorage()} and {@link #reloadFamilyStorage()}).
+ *
+ * The store keeps its own {@link PopulationAggregates}, updated by every setter, so
+ * counts by age group or role are O(1).
+ *
+ * Every setter that changes a value also stamps the person or family storage with
+ * the tick set by {@link #beginTick(long)}, so readers can tell what changed after a
+ * given tick (see {@link Person#getLastModifiedTick()}). Phases that update persons from several
+ * threads pass a partition-local delta to the setters instead and merge it into
+ * {@link #getAggregates()} once the partitions are done.
+ */
+public class PopulationStore {
+
+    private static final Person.PersonRole[] ROLES = Person.PersonRole.values();
+
+    // Person columns
+    private final Person[] persons;
+    private final byte[] role;
+    private final int[] age;
+    private final int[] health;
+    private final double[] huntingSkill;
+    private final double[] gatheringSkill;
+    private final int[] familyIndex;
+    private final long[] modifiedTick;
+    private int size;
+
+    // Family columns
+    private final Family[] families;
+    private final int[] familyFood;
+    private final int[] familyWater;
+    private final int[][] familyMembers;
+    private final int[] familyMemberCount;
+    private final long[] familyModifiedTick;
+
+    private final PopulationAggregates aggregates = new PopulationAggregates();
+
+    /**
+     * Tick stamped on changed persons and family storage
+     */
+    private long tick;
+
+    /**
+     * Persons removed by {@link #removeDeceased()} since the last flush.
+     */
+    private final List<Person> removed = new ArrayList<>();
+
+    private PopulationStore(int personCount, int familyCount) {
+        this.persons = new Person[personCount];
+        this.role = new byte[personCount];
+        this.age = new int[personCount];
+        this.health = new int[personCount];
+        this.huntingSkill = new double[personCount];
+        this.gatheringSkill = new double[personCount];
+        this.familyIndex = new int[personCount];
+        this.modifiedTick = new long[personCount];
+        this.families = new Family[familyCount];
+        this.familyFood = new int[familyCount];
+        this.familyWater = new int[familyCount];
+        this.familyMembers = new int[familyCount][];
+        this.familyMemberCount = new int[familyCount];
+        this.familyModifiedTick = new long[familyCount];
+    }
+
+    /**
+     * Load the population of a tribe into a new store.
+     * Family members that are not part of the tribe's member list are ignored, and
+     * a person's family is the family whose member list contains them.
+     *
+     * @param tribe the tribe to load
+     * @return a store mirroring the tribe's members and family storage
+     */
+    public static PopulationStore load(Tribe tribe) {
+        List<Person> members = tribe.getMembers();
+        List<Family> familyList = tribe.getFamilies();
+        PopulationStore store = new PopulationStore(members.size(), familyList.size());
+        store.tick = tribe.getCurrentTick();
+
+        for (int f = 0; f < familyList.size(); f++) {
+            Family family = familyList.get(f);
+            store.families[f] = family;
+            Resources storage = family.getStorage();
+            store.familyFood[f] = storage.getFood();
+            store.familyWater[f] = storage.getWater();
+            store.familyModifiedTick[f] = storage.getLastModifiedTick();
+        }
+
+        Map<Person, Integer> personRows = new IdentityHashMap<>(members.size() * 2);
+        for (int i = 0; i < members.size(); i++) {
+            Person person = members.get(i);
+            personRows.put(person, i);
+            store.persons[i] = person;
+            store.role[i] = (byte) person.getRole().ordinal();
+            store.age[i] = person.getAge();
+            store.health[i] = person.getHealth();
+            store.huntingSkill[i] = person.getHuntingSkill();
+            store.gatheringSkill[i] = person.getGatheringSkill();
+            store.familyIndex[i] = -1;
+            store.modifiedTick[i] = person.getLastModifiedTick();
+            store.aggregates.add(person.getRole(), store.age[i], store.health[i],
+                store.huntingSkill[i], store.gatheringSkill[i]);
+        }
+        store.size = members.size();
+
+        for (int f = 0; f < familyList.size(); f++) {
+            List<Person> familyMembers = familyList.get(f).getMembers();
+            int[] rows = new int[familyMembers.size()];
+            int count = 0;
+            for (Person person : familyMembers) {
+                Integer row = personRows.get(person);
+                if (row != null) {
+                    rows[count++] = row;
+                    store.familyIndex[row] = f;
+                }
+            }
+            // Tribe order, so a family ticks the same whether or not it was reloaded
+            Arrays.sort(rows, 0, count);
+            store.familyMembers[f] = rows;
+            store.familyMemberCount[f] = count;
+        }
+        return store;
+    }
+
+    /**
+     * Write the store back to the tribe's entities.
+     * Updates every surviving person and family storage, and detaches removed
+     * persons from both the tribe and their family. The tribe's aggregates follow
+     * the entity changes and end up equal to {@link #getAggregates()}.
+     *
+     * @param tribe the tribe this store was loaded from
+     */
+    public void flush(Tribe tribe) {
+        for (int i = 0; i < size; i++) {
+            Person person = persons[i];
+            person.setRole(ROLES[role[i]]);
+            person.setAge(age[i]);
+            person.setHealth(health[i]);
+            person.setHuntingSkill(huntingSkill[i]);
+            person.setGatheringSkill(gatheringSkill[i]);
+            person.setLastModifiedTick(modifiedTick[i]);
+        }
+        flushFamilyStorage();
+
+        if (!removed.isEmpty()) {
+            Set<Person> dead = Collections.newSetFromMap(new IdentityHashMap<>(removed.size() * 2));
+            dead.addAll(removed);
+            tribe.removeMembers(dead);
+            for (Family family : families) {
+                family.getMembers().removeIf(dead::contains);
+            }
+            removed.clear();
+        }
+    }
+
+    /**
+     * Copy family storage columns into the family {@link Resources} entities.
+     * Called before policy phases so effects see the current amounts.
+     */
+    public void flushFamilyStorage() {
+        for (int f = 0; f < families.length; f++) {
+            Resources storage = families[f].getStorage();
+            storage.setFood(familyFood[f]);
+            storage.setWater(familyWater[f]);
+            storage.setLastModifiedTick(familyModifiedTick[f]);
+        }
+    }
+
+    /**
+     * Read family storage back from the {@link Resources} entities.
+     * Called after policy phases to pick up changes made by effects.
+     */
+    public void reloadFamilyStorage() {
+        for (int f = 0; f < families.length; f++) {
+            Resources storage = families[f].getStorage();
+            if (familyFood[f] != storage.getFood() || familyWater[f] != storage.getWater()) {
+                familyFood[f] = storage.getFood();
+                familyWater[f] = storage.getWater();
+                familyModifiedTick[f] = tick;
+            }
+        }
+    }
+
+    /**
+     * Remove all persons with health at or below zero, preserving the order of
+     * the survivors both in the store and within each family.
+     *
+     * @return the number of persons removed
+     */
+    public int removeDeceased() {
+        int[] remap = new int[size];
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (health[read] <= 0) {
+                remap[read] = -1;
+                removed.add(persons[read]);
+                aggregates.remove(ROLES[role[read]], age[read], health[read], huntingSkill[read], gatheringSkill[read]);
+                continue;
+            }
+            remap[read] = write;
+            if (write != read) {
+                persons[write] = persons[read];
+                role[write] = role[read];
+                age[write] = age[read];
+                health[write] = health[read];
+                huntingSkill[write] = huntingSkill[read];
+                gatheringSkill[write] = gatheringSkill[read];
+                familyIndex[write] = familyIndex[read];
+                modifiedTick[write] = modifiedTick[read];
+            }
+            write++;
+        }
+        int removedCount = size - write;
+        if (removedCount == 0) {
+            return 0;
+        }
+        Arrays.fill(persons, write, size, null);
+        size = write;
+
+        for (int f = 0; f < families.length; f++) {
+            int[] rows = familyMembers[f];
+            int count = 0;
+            for (int k = 0; k < familyMemberCount[f]; k++) {
+                int row = remap[rows[k]];
+                if (row >= 0) {
+                    rows[count++] = row;
+                }
+            }
+            if (count != familyMemberCount[f]) {
+                familyModifiedTick[f] = tick;
+            }
+            familyMemberCount[f] = count;
+        }
+        return removedCount;
+    }
+
+    /**
+     * Set the tick stamped on persons and family storage changed from now on.
+     * Called by the tick engine at the start of every tick.
+     *
+     * @param tick the tick being simulated
+     */
+    public void beginTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Count living persons in the given age group.
+     *
+     * @param ageGroup the age group to count
+     * @return number of persons whose age falls in the group
+     */
+    public int countByAgeGroup(Person.AgeGroup ageGroup) {
+        return aggregates.countByAgeGroup(ageGroup);
+    }
+
+    /**
+     * @return running totals of the living persons in the store
+     */
+    public PopulationAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * @return persons removed by {@link #removeDeceased()} since the last flush
+     */
+    public List<Person> getRemovedPersons() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    // Person accessors
+
+    public int size() {
+        return size;
+    }
+
+    public Person getPerson(int row) {
+        return persons[row];
+    }
+
+    public Person.PersonRole getRole(int row) {
+        return ROLES[role[row]];
+    }
+
+    public void setRole(int row, Person.PersonRole value) {
+        aggregates.roleChanged(ROLES[role[row]], value);
+        if (role[row] != value.ordinal()) {
+            modifiedTick[row] = tick;
+        }
+        role[row] = (byte) value.ordinal();
+    }
+
+    public int getAge(int row) {
+        return age[row];
+    }
+
+    public void setAge(int row, int value) {
+        aggregates.ageChanged(age[row], value);
+        if (age[row] != value) {
+            modifiedTick[row] = tick;
+        }
+        age[row] = value;
+    }
+
+    public int getHealth(int row) {
+        return health[row];
+    }
+
+    public void setHealth(int row, int value) {
+        setHealth(row, value, aggregates);
+    }
+
+    /**
+     * Set health, recording the change in the given aggregates rather than the store's own.
+     */
+    public void setHealth(int row, int value, PopulationAggregates changes) {
+        changes.healthChanged(health[row], value);
+        if (health[row] != value) {
+            modifiedTick[row] = tick;
+        }
+        health[row] = value;
+    }
+
+    public double getHuntingSkill(int row) {
+        return huntingSkill[row];
+    }
+
+    public void setHuntingSkill(int row, double value) {
+        setHuntingSkill(row, value, aggregates);
+    }
+
+    /**
+     * Set hunting skill, recording the change in the given aggregates rather than the store's own.
+     */
+    public void setHuntingSkill(int row, double value, PopulationAggregates changes) {
+        changes.huntingSkillChanged(huntingSkill[row], value);
+        if (huntingSkill[row] != value) {
+            modifiedTick[row] = tick;
+        }
+        huntingSkill[row] = value;
+    }
+
+    public double getGatheringSkill(int row) {
+        return gatheringSkill[row];
+    }
+
+    public void setGatheringSkill(int row, double value) {
+        setGatheringSkill(row, value, aggregates);
+    }
+
+    /**
+     * Set gathering skill, recording the change in the given aggregates rather than the store's own.
+     */
+    public void setGatheringSkill(int row, double value, PopulationAggregates changes) {
+        changes.gatheringSkillChanged(gatheringSkill[row], value);
+        if (gatheringSkill[row] != value) {
+            modifiedTick[row] = tick;
+        }
+        gatheringSkill[row] = value;
+    }
+
+    /**
+     * @return the tick in which role, age, health or a skill of the person last changed
+     */
+    public long getModifiedTick(int row) {
+        return modifiedTick[row];
+    }
+
+    /**
+     * @return the family position of the person, or -1 if the person has no family
+     */
+    public int getFamilyIndex(int row) {
+        return familyIndex[row];
+    }
+
+    // Family accessors
+
+    public int getFamilyCount() {
+        return families.length;
+    }
+
+    public Family getFamily(int family) {
+        return families[family];
+    }
+
+    public int getFamilyFood(int family) {
+        return familyFood[family];
+    }
+
+    public void setFamilyFood(int family, int value) {
+        if (familyFood[family] != value) {
+            familyModifiedTick[family] = tick;
+        }
+        familyFood[family] = value;
+    }
+
+    public int getFamilyWater(int family) {
+        return familyWater[family];
+    }
+
+    public void setFamilyWater(int family, int value) {
+        if (familyWater[family] != value) {
+            familyModifiedTick[family] = tick;
+        }
+        familyWater[family] = value;
+    }
+
+    /**
+     * @return the tick in which the family's storage or member count last changed
+     */
+    public long getFamilyModifiedTick(int family) {
+        return familyModifiedTick[family];
+    }
+
+    public int getFamilyMemberCount(int family) {
+        return familyMemberCount[family];
+    }
+
+    /**
+     * @param family the family position
+     * @param k the member position within the family
+     * @return the person row of the k-th member of the family
+     */
+    public int getFamilyMember(int family, int k) {
+        return familyMembers[family][k];
+    }
+}
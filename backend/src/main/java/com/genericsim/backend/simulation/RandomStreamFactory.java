@@ -0,0 +1,43 @@
+package com.genericsim.backend.simulation;
+
+import java.util.Random;
+
+/**
+ * Source of deterministic random streams for the simulation.
+ *
+ * Every stream is a pure function of a tribe seed, a tick number and a stream id,
+ * so a tick draws the same numbers no matter which thread runs it or how its work
+ * is partitioned. Implementations are registered as Spring beans and can be
+ * replaced to plug in a different generator.
+ */
+public interface RandomStreamFactory {
+
+    /**
+     * Create a fresh seed for a new tribe.
+     *
+     * @return a seed to persist with the tribe
+     */
+    long newSeed();
+
+    /**
+     * Create the stream identified by the given coordinates.
+     * Calling this twice with the same arguments yields two generators producing the same sequence.
+     *
+     * @param seed the tribe seed
+     * @param tick the tick number
+     * @param stream the stream id within the tick
+     * @return a new generator positioned at the start of the stream
+     */
+    Random create(long seed, long tick, long stream);
+
+    /**
+     * Get the streams for one tick of a tribe.
+     *
+     * @param seed the tribe seed
+     * @param tick the tick number
+     * @return the tick's random streams
+     */
+    default TickRandom forTick(long seed, long tick) {
+        return new TickRandom(this, seed, tick);
+    }
+}
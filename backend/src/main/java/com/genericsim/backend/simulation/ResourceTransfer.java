@@ -0,0 +1,18 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.policy.PolicyPhase;
+
+/**
+ * The net food and water moved in and out of family and central storage
+ * by one phase of a tick.
+ *
+ * @param phase the phase: {@link PolicyPhase#RESOURCE_COLLECTION} for gathering,
+ *              {@link PolicyPhase#UPKEEP} for consumption, borrowing and central storage
+ *              draws, or the policy phase whose effects moved the resources
+ * @param familyFood change of the food in all family storage
+ * @param familyWater change of the water in all family storage
+ * @param centralFood change of the food in central storage
+ * @param centralWater change of the water in central storage
+ */
+public record ResourceTransfer(PolicyPhase phase, int familyFood, int familyWater, int centralFood,
+                               int centralWater) {}
@@ -0,0 +1,65 @@
+package com.genericsim.backend.simulation;
+
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * Default {@link RandomStreamFactory} based on SplitMix64.
+ *
+ * Stream seeds are derived by hashing the (seed, tick, stream) coordinates, and each
+ * stream is a counter passed through the SplitMix64 finalizer. Streams hold no shared
+ * state, so concurrent ticks never contend on a common seed.
+ */
+@Component
+public class SplitMixRandomStreamFactory implements RandomStreamFactory {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SecureRandom seedSource = new SecureRandom();
+
+    @Override
+    public long newSeed() {
+        return seedSource.nextLong();
+    }
+
+    @Override
+    public Random create(long seed, long tick, long stream) {
+        long derived = mix64(seed ^ mix64(tick * GOLDEN_GAMMA + 1));
+        derived = mix64(derived ^ mix64(stream * GOLDEN_GAMMA + 2));
+        return new SplitMixRandom(derived);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * {@link Random} whose bits come from a SplitMix64 counter instead of the
+     * shared atomic linear congruential seed.
+     */
+    static final class SplitMixRandom extends Random {
+
+        private long state;
+
+        SplitMixRandom(long seed) {
+            super(0L);
+            this.state = seed;
+        }
+
+        @Override
+        public synchronized void setSeed(long seed) {
+            super.setSeed(seed);
+            this.state = seed;
+        }
+
+        @Override
+        protected int next(int bits) {
+            state += GOLDEN_GAMMA;
+            return (int) (mix64(state) >>> (64 - bits));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.genericsim.backend.simulation;
+
+/**
+ * Per-tick index of the families that can lend food and water.
+ *
+ * Families with a food surplus (more food than six days of rations for their
+ * members) are kept in an indexed binary max-heap ordered by total storage,
+ * richest first, with ties going to the family that comes first in the tribe.
+ * {@link #lenders()} walks that order lazily, so a borrow attempt only pays for the
+ * lenders it actually asks. After a family's storage changes, {@link #update(int)}
+ * moves it in O(log F).
+ *
+ * The market reads storage from the {@link PopulationStore} it was opened on and
+ * must be told about every storage change made while it is in use.
+ */
+public final class SurplusMarket {
+
+    private final PopulationStore store;
+    private final int[] heap;
+    private final int[] position;
+    private int size;
+
+    // Frontier of the lender walk: heap positions ordered like the heap itself
+    private final int[] frontier;
+    private int frontierSize;
+
+    private SurplusMarket(PopulationStore store) {
+        int familyCount = store.getFamilyCount();
+        this.store = store;
+        this.heap = new int[familyCount];
+        this.position = new int[familyCount];
+        this.frontier = new int[familyCount];
+    }
+
+    /**
+     * Build a market over the current family storage of a store in O(F).
+     *
+     * @param store the population store
+     * @return a market containing every family with a surplus
+     */
+    public static SurplusMarket open(PopulationStore store) {
+        SurplusMarket market = new SurplusMarket(store);
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            if (market.hasSurplus(f)) {
+                market.position[f] = market.size;
+                market.heap[market.size++] = f;
+            } else {
+                market.position[f] = -1;
+            }
+        }
+        for (int i = (market.size >>> 1) - 1; i >= 0; i--) {
+            market.siftDown(i);
+        }
+        return market;
+    }
+
+    /**
+     * Re-evaluate a family after its storage changed, adding it to or removing it
+     * from the market as its surplus appears or disappears.
+     *
+     * @param family the family position
+     */
+    public void update(int family) {
+        int i = position[family];
+        boolean surplus = hasSurplus(family);
+        if (i < 0) {
+            if (surplus) {
+                position[family] = size;
+                heap[size++] = family;
+                siftUp(size - 1);
+            }
+        } else if (!surplus) {
+            removeAt(i);
+        } else {
+            siftUp(i);
+            siftDown(position[family]);
+        }
+    }
+
+    /**
+     * @return true if the family is currently offered as a lender
+     */
+    public boolean contains(int family) {
+        return position[family] >= 0;
+    }
+
+    /**
+     * @return the number of families currently able to lend
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Start a walk over the lenders, richest first.
+     * The walk is only valid until the market is next updated, and starting a new
+     * walk ends the previous one.
+     *
+     * @return cursor returning family positions
+     */
+    public Cursor lenders() {
+        frontierSize = 0;
+        if (size > 0) {
+            frontier[frontierSize++] = 0;
+        }
+        return this::nextLender;
+    }
+
+    /**
+     * Lazy iteration over lenders.
+     */
+    @FunctionalInterface
+    public interface Cursor {
+        /**
+         * @return the next family position, or -1 when every lender was returned
+         */
+        int next();
+    }
+
+    private int nextLender() {
+        if (frontierSize == 0) {
+            return -1;
+        }
+        // Pop the best heap position; its children are the only new candidates
+        int top = frontier[0];
+        frontier[0] = frontier[--frontierSize];
+        frontierDown(0);
+        int left = 2 * top + 1;
+        if (left < size) {
+            frontierPush(left);
+            if (left + 1 < size) {
+                frontierPush(left + 1);
+            }
+        }
+        return heap[top];
+    }
+
+    private boolean hasSurplus(int family) {
+        return store.getFamilyFood(family) - store.getFamilyMemberCount(family) * 6 > 0;
+    }
+
+    /**
+     * Lender order: larger total storage first, then lower family position.
+     */
+    private boolean before(int familyA, int familyB) {
+        int totalA = store.getFamilyFood(familyA) + store.getFamilyWater(familyA);
+        int totalB = store.getFamilyFood(familyB) + store.getFamilyWater(familyB);
+        return totalA > totalB || (totalA == totalB && familyA < familyB);
+    }
+
+    private void removeAt(int i) {
+        int removed = heap[i];
+        position[removed] = -1;
+        size--;
+        if (i == size) {
+            return;
+        }
+        int moved = heap[size];
+        heap[i] = moved;
+        position[moved] = i;
+        siftUp(i);
+        siftDown(position[moved]);
+    }
+
+    private void siftUp(int i) {
+        int family = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(family, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = family;
+        position[family] = i;
+    }
+
+    private void siftDown(int i) {
+        int family = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], family)) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = family;
+        position[family] = i;
+    }
+
+    private void frontierPush(int heapIndex) {
+        int i = frontierSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(heap[heapIndex], heap[frontier[parent]])) {
+                break;
+            }
+            frontier[i] = frontier[parent];
+            i = parent;
+        }
+        frontier[i] = heapIndex;
+    }
+
+    private void frontierDown(int i) {
+        if (frontierSize == 0) {
+            return;
+        }
+        int heapIndex = frontier[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= frontierSize) {
+                break;
+            }
+            if (child + 1 < frontierSize && before(heap[frontier[child + 1]], heap[frontier[child]])) {
+                child++;
+            }
+            if (!before(heap[frontier[child]], heap[heapIndex])) {
+                break;
+            }
+            frontier[i] = frontier[child];
+            i = child;
+        }
+        frontier[i] = heapIndex;
+    }
+}
@@ -0,0 +1,555 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.jfr.PhaseEvent;
+import com.genericsim.backend.jfr.TickEvent;
+import com.genericsim.backend.metrics.DomainCounter;
+import com.genericsim.backend.metrics.DomainCounters;
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.metrics.TribeCounters;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.PopulationAggregates;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.PolicyEngine;
+import com.genericsim.backend.policy.PolicyPhase;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.service.FamilyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs the hard-coded simulation phases of a tick against a {@link PopulationStore}.
+ *
+ * The engine never touches person entities; callers load a store from the tribe,
+ * run one or more ticks and flush the store back. Family storage is mirrored to
+ * the entities around each policy phase so that {@link com.genericsim.backend.policy.PolicyEffect}s
+ * keep working on the entity model. Each tick and its hard-coded phases are emitted as
+ * flight recorder events, and a sample of them is timed (see {@link TickMeters}); its
+ * shortfalls, borrowing, suffering and deaths are counted (see {@link DomainCounters}).
+ */
+@Component
+public class TickEngine {
+
+    /**
+     * Progress points lost per tick when no elders preserve knowledge
+     */
+    private static final int BASE_PROGRESS_DECAY = 30;
+
+    private final FamilyService familyService;
+    private final PolicyEngine policyEngine;
+    private final RandomStreamFactory randomStreams;
+    private final FamilyPartitioner partitioner;
+    private final TickMeters meters;
+    private final DomainCounters counters;
+
+    /**
+     * Whether ticks, phases, effects and transfers are emitted as flight recorder events
+     */
+    private final boolean events;
+
+    @Autowired
+    public TickEngine(FamilyService familyService, PolicyEngine policyEngine, RandomStreamFactory randomStreams,
+                      FamilyPartitioner partitioner, TickMeters meters, DomainCounters counters) {
+        this(familyService, policyEngine, randomStreams, partitioner, meters, counters, true);
+    }
+
+    private TickEngine(FamilyService familyService, PolicyEngine policyEngine, RandomStreamFactory randomStreams,
+                       FamilyPartitioner partitioner, TickMeters meters, DomainCounters counters, boolean events) {
+        this.familyService = familyService;
+        this.policyEngine = policyEngine;
+        this.randomStreams = randomStreams;
+        this.partitioner = partitioner;
+        this.meters = meters;
+        this.counters = counters;
+        this.events = events;
+    }
+
+    /**
+     * Get an engine that runs the same phases and policy effects, but neither times
+     * nor counts its ticks nor emits them as flight recorder events, for re-running
+     * ticks that were already simulated.
+     *
+     * @return the engine
+     */
+    public TickEngine withoutMetrics() {
+        return new TickEngine(familyService.withoutEvents(), policyEngine, randomStreams, partitioner,
+            TickMeters.NONE, DomainCounters.NONE, false);
+    }
+
+    /**
+     * Advance the tribe by one tick.
+     *
+     * @param tribe the tribe being simulated; scalar fields are updated in place
+     * @param store the columnar population of the tribe
+     * @return the number of members who died during the tick
+     */
+    public int runTick(Tribe tribe, PopulationStore store) {
+        return runTick(tribe, store, TickRecorder.NONE);
+    }
+
+    /**
+     * Advance the tribe by one tick and report it to a recorder.
+     *
+     * @param tribe the tribe being simulated; scalar fields are updated in place
+     * @param store the columnar population of the tribe
+     * @param recorder receives the tick once it is done
+     * @return the number of members who died during the tick
+     */
+    public int runTick(Tribe tribe, PopulationStore store, TickRecorder recorder) {
+        TickEvent tickEvent = events ? TickEvent.started() : null;
+        // Only a sample of ticks is timed, phases and effects included
+        TickMeters tickMeters = meters.sample();
+        long tickStart = tickMeters.start();
+        // ...but every one is counted
+        meters.countTick();
+        // Increment tick
+        tribe.setCurrentTick(tribe.getCurrentTick() + 1);
+        store.beginTick(tribe.getCurrentTick());
+
+        // All draws of this tick come from streams derived from the tribe seed and tick number
+        TickRandom random = randomStreams.forTick(tribe.getRandomSeed(), tribe.getCurrentTick());
+
+        // Create tick context for policy engine
+        TickContext context = new TickContext(tribe, familyService, random.policy());
+        context.setFamilyPartitioner(partitioner);
+        TribeCounters tribeCounters = counters.forTribe(tribe);
+        context.setCounters(tribeCounters);
+        context.setEffectsTimed(tickMeters.isEnabled());
+        context.setEffectsCounted(meters.isEnabled());
+        context.setEventsEmitted(events);
+
+        // Calculate elder count and bonuses for this tick
+        int elderCount = store.countByAgeGroup(Person.AgeGroup.ELDER);
+        double elderGatheringBonus = 1.0 + (elderCount * 0.02); // 2% per elder
+        context.setElderCount(elderCount);
+        context.setElderGatheringBonus(elderGatheringBonus);
+
+        // Snapshot family storage before gathering
+        store.flushFamilyStorage();
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            context.snapshotFamilyStorage(store.getFamily(f));
+        }
+
+        // Resource transfers are only measured for a recorder
+        TransferLedger ledger = recorder.isRecording() ? new TransferLedger(tribe, store) : null;
+
+        Policy policy = tribe.getPolicy();
+        PhaseEvent phaseEvent = startPhase(tribe, TickMeters.Phase.GATHERING);
+        long phaseStart = tickMeters.start();
+        gather(store, policy, elderGatheringBonus, random);
+        tickMeters.recordPhase(TickMeters.Phase.GATHERING, phaseStart);
+        endPhase(phaseEvent);
+        if (ledger != null) {
+            ledger.record(PolicyPhase.RESOURCE_COLLECTION);
+        }
+
+        // Execute policy engine for production phase (e.g., central storage tax)
+        executePolicyPhase(PolicyPhase.PRODUCTION, context, store);
+        if (ledger != null) {
+            ledger.record(PolicyPhase.PRODUCTION);
+        }
+
+        phaseEvent = startPhase(tribe, TickMeters.Phase.UPKEEP);
+        phaseStart = tickMeters.start();
+        upkeep(store, tribe, policy, random.lending(), tribeCounters);
+        tickMeters.recordPhase(TickMeters.Phase.UPKEEP, phaseStart);
+        endPhase(phaseEvent);
+        if (ledger != null) {
+            ledger.record(PolicyPhase.UPKEEP);
+        }
+
+        // Execute policy engine for resource decay phase
+        executePolicyPhase(PolicyPhase.RESOURCE_DECAY, context, store);
+        if (ledger != null) {
+            ledger.record(PolicyPhase.RESOURCE_DECAY);
+        }
+
+        if (tribe.getCurrentTick() % 365 == 0) {
+            phaseEvent = startPhase(tribe, TickMeters.Phase.AGING);
+            phaseStart = tickMeters.start();
+            age(store, random.tribe());
+            tickMeters.recordPhase(TickMeters.Phase.AGING, phaseStart);
+            endPhase(phaseEvent);
+        }
+
+        phaseEvent = startPhase(tribe, TickMeters.Phase.PROGRESS);
+        phaseStart = tickMeters.start();
+        updateProgress(store, tribe);
+        tickMeters.recordPhase(TickMeters.Phase.PROGRESS, phaseStart);
+        endPhase(phaseEvent);
+
+        // Remove deceased members (health = 0)
+        phaseEvent = startPhase(tribe, TickMeters.Phase.CLEANUP);
+        phaseStart = tickMeters.start();
+        int deceased = store.removeDeceased();
+
+        updateTribeResources(tribe, store);
+        tickMeters.recordPhase(TickMeters.Phase.CLEANUP, phaseStart);
+        endPhase(phaseEvent);
+        tribeCounters.add(DomainCounter.DEATHS, deceased);
+        tribeCounters.endTick(tribe.getCurrentTick());
+        tickMeters.recordTick(tickStart);
+        if (tickEvent != null) {
+            tickEvent.end(tribe, store.size(), deceased);
+        }
+        recorder.tickRun(tribe, store, deceased, context.getAppliedEffects(),
+            ledger != null ? ledger.transfers : List.of());
+        return deceased;
+    }
+
+    /**
+     * Advance the tribe by a number of ticks, skipping quiescent stretches
+     * (see {@link #fastForward}) instead of simulating them.
+     *
+     * @param tribe the tribe being simulated
+     * @param store the columnar population of the tribe
+     * @param ticks the number of ticks to advance
+     * @return the number of members who died
+     */
+    public int advance(Tribe tribe, PopulationStore store, long ticks) {
+        return advance(tribe, store, ticks, TickRecorder.NONE);
+    }
+
+    /**
+     * Advance the tribe by a number of ticks, reporting every simulated tick
+     * and every skipped stretch to a recorder.
+     *
+     * @param tribe the tribe being simulated
+     * @param store the columnar population of the tribe
+     * @param ticks the number of ticks to advance
+     * @param recorder receives the ticks as they are done
+     * @return the number of members who died
+     */
+    public int advance(Tribe tribe, PopulationStore store, long ticks, TickRecorder recorder) {
+        int deceased = 0;
+        long remaining = ticks;
+        while (remaining > 0) {
+            long fromTick = tribe.getCurrentTick();
+            long skipped = fastForward(tribe, store, remaining);
+            if (skipped > 0) {
+                recorder.ticksSkipped(tribe, store, fromTick);
+                remaining -= skipped;
+            } else {
+                deceased += runTick(tribe, store, recorder);
+                remaining--;
+            }
+        }
+        return deceased;
+    }
+
+    /**
+     * Skip ticks of a quiescent tribe without simulating them.
+     *
+     * A tribe is quiescent when it has no members and no family storage below zero:
+     * nothing is gathered, consumed, borrowed or aged, so a tick only advances the
+     * counter and decays progress points, unless a policy effect acts on it. The
+     * tribe is advanced in closed form up to the tick before the next one on which
+     * an effect may act (see {@link com.genericsim.backend.policy.PolicyEffect#nextActiveTick}).
+     * Random streams are derived per tick, so skipping changes no later draw.
+     *
+     * @param tribe the tribe being simulated
+     * @param store the columnar population of the tribe
+     * @param maxTicks the most ticks to skip
+     * @return the number of ticks skipped; 0 if the next tick has to be simulated
+     */
+    public long fastForward(Tribe tribe, PopulationStore store, long maxTicks) {
+        // A tribe without policy cannot be ticked, so it is left to runTick to fail
+        if (maxTicks <= 0 || tribe.getPolicy() == null || !isQuiescent(store)) {
+            return 0;
+        }
+
+        // Effects read family storage from the entities
+        store.flushFamilyStorage();
+        long currentTick = tribe.getCurrentTick();
+        long nextActiveTick = policyEngine.nextActiveTick(tribe);
+        long skipped = nextActiveTick == Long.MAX_VALUE
+            ? maxTicks
+            : Math.min(maxTicks, nextActiveTick - currentTick - 1);
+        if (skipped <= 0) {
+            return 0;
+        }
+
+        tribe.setCurrentTick(currentTick + skipped);
+        // Without members no progress is generated and no elder slows the decay
+        long progress = tribe.getProgressPoints() - skipped * BASE_PROGRESS_DECAY;
+        tribe.setProgressPoints((int) Math.max(0, progress));
+        updateTribeResources(tribe, store);
+        return skipped;
+    }
+
+    private boolean isQuiescent(PopulationStore store) {
+        if (store.size() > 0) {
+            return false;
+        }
+        // Empty families still consume nothing, unless storage is negative
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            if (store.getFamilyFood(f) < 0 || store.getFamilyWater(f) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Update tribe resources for backward compatibility (sum of all family storage).
+     */
+    private void updateTribeResources(Tribe tribe, PopulationStore store) {
+        int totalFood = 0;
+        int totalWater = 0;
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            totalFood += store.getFamilyFood(f);
+            totalWater += store.getFamilyWater(f);
+        }
+        tribe.getResources().setFood(totalFood);
+        tribe.getResources().setWater(totalWater);
+    }
+
+    /**
+     * Gathering phase - resources go to family storage.
+     * Each family gathers with its own random stream, visiting members in family order,
+     * so families can be processed in parallel; members without a family share partition -1.
+     */
+    private void gather(PopulationStore store, Policy policy, double elderGatheringBonus, TickRandom random) {
+        int huntingIncentive = policy.getHuntingIncentive();
+        int gatheringIncentive = policy.getGatheringIncentive();
+
+        PopulationAggregates changes = partitioner.reduce(store.getFamilyCount(), PopulationAggregates::new, (delta, f) -> {
+            Random familyRandom = random.partition(f);
+            for (int k = 0; k < store.getFamilyMemberCount(f); k++) {
+                gatherMember(store, store.getFamilyMember(f, k), elderGatheringBonus,
+                    huntingIncentive, gatheringIncentive, familyRandom, delta);
+            }
+        }, PopulationAggregates::merge);
+        store.getAggregates().merge(changes);
+
+        Random unaffiliatedRandom = null;
+        for (int i = 0; i < store.size(); i++) {
+            if (store.getFamilyIndex(i) < 0) {
+                if (unaffiliatedRandom == null) {
+                    unaffiliatedRandom = random.partition(-1);
+                }
+                gatherMember(store, i, elderGatheringBonus, huntingIncentive, gatheringIncentive, unaffiliatedRandom,
+                    store.getAggregates());
+            }
+        }
+    }
+
+    private void gatherMember(PopulationStore store, int i, double elderGatheringBonus,
+                              int huntingIncentive, int gatheringIncentive, Random random,
+                              PopulationAggregates changes) {
+        if (store.getHealth(i) <= 30) return; // Too weak to work
+
+        int foodGathered = 0;
+        int waterGathered = 0;
+        Person.PersonRole role = store.getRole(i);
+
+        if (role == Person.PersonRole.HUNTER) {
+            // Hunting - skill-based food gathering
+            int baseFood = 10 + random.nextInt(10);
+            double skillMultiplier = 1.0 + store.getHuntingSkill(i);
+            foodGathered = (int) (baseFood * skillMultiplier * elderGatheringBonus) + huntingIncentive;
+
+            // Improve hunting skill slightly on success
+            if (foodGathered > 15) {
+                store.setHuntingSkill(i, Math.min(1.0, store.getHuntingSkill(i) + 0.01), changes);
+            }
+        } else if (role == Person.PersonRole.GATHERER) {
+            // Gathering - skill-based food and water gathering
+            int baseFood = 5 + random.nextInt(5);
+            int baseWater = 8 + random.nextInt(8);
+            double skillMultiplier = 1.0 + store.getGatheringSkill(i);
+            foodGathered = (int) (baseFood * skillMultiplier * elderGatheringBonus) + gatheringIncentive;
+            waterGathered = (int) (baseWater * skillMultiplier * elderGatheringBonus) + gatheringIncentive;
+
+            // Improve gathering skill slightly on success
+            if (foodGathered > 7 || waterGathered > 10) {
+                store.setGatheringSkill(i, Math.min(1.0, store.getGatheringSkill(i) + 0.01), changes);
+            }
+        }
+
+        // Add gathered resources to family storage
+        int family = store.getFamilyIndex(i);
+        if (family >= 0) {
+            store.setFamilyFood(family, store.getFamilyFood(family) + foodGathered);
+            store.setFamilyWater(family, store.getFamilyWater(family) + waterGathered);
+        }
+    }
+
+    /**
+     * Family upkeep and sharing phase.
+     * Every family first consumes from its own storage, in parallel for large tribes;
+     * families that ran short then borrow, draw from central storage or suffer in
+     * family order, since lenders, bond level and central storage are shared.
+     */
+    private void upkeep(PopulationStore store, Tribe tribe, Policy policy, Random random, TribeCounters counters) {
+        int familyCount = store.getFamilyCount();
+        boolean[] shortOfResources = new boolean[familyCount];
+        PopulationAggregates changes = partitioner.reduce(familyCount, PopulationAggregates::new, (delta, f) -> {
+            if (familyService.consumeFamilyResources(store, f)) {
+                // Family has sufficient resources - members recover health slightly
+                for (int k = 0; k < store.getFamilyMemberCount(f); k++) {
+                    int row = store.getFamilyMember(f, k);
+                    if (store.getHealth(row) < 100) {
+                        store.setHealth(row, Math.min(100, store.getHealth(row) + 5), delta);
+                    }
+                }
+            } else {
+                shortOfResources[f] = true;
+            }
+        }, PopulationAggregates::merge);
+        store.getAggregates().merge(changes);
+
+        // Lenders are indexed once, on the first shortfall of the tick
+        SurplusMarket market = null;
+        for (int f = 0; f < familyCount; f++) {
+            if (shortOfResources[f]) {
+                counters.increment(DomainCounter.SHORTFALLS);
+                if (market == null) {
+                    market = SurplusMarket.open(store);
+                }
+
+                // Try to borrow from other families
+                int foodNeeded = store.getFamilyMemberCount(f) * 3;
+                int waterNeeded = store.getFamilyMemberCount(f) * 4;
+                boolean borrowed = familyService.borrowResources(store, market, f, tribe, foodNeeded, waterNeeded, random);
+                counters.increment(borrowed ? DomainCounter.BORROWS : DomainCounter.BORROW_FAILURES);
+
+                // If borrowing failed, try central storage
+                if (!borrowed && policy.isEnableCentralStorage()) {
+                    borrowed = familyService.accessCentralStorage(store, f, tribe, foodNeeded, waterNeeded);
+                    market.update(f);
+                    if (borrowed) {
+                        counters.increment(DomainCounter.CENTRAL_WITHDRAWALS);
+                    }
+                }
+
+                // If still insufficient, someone suffers
+                if (!borrowed) {
+                    int toSuffer = familyService.selectMemberToSuffer(store, f, policy, random);
+                    if (toSuffer >= 0) {
+                        store.setHealth(toSuffer, Math.max(0, store.getHealth(toSuffer) - 15));
+                        counters.increment(DomainCounter.SUFFERED);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Yearly aging and role transitions.
+     */
+    private void age(PopulationStore store, Random random) {
+        for (int i = 0; i < store.size(); i++) {
+            int age = store.getAge(i) + 1;
+            store.setAge(i, age);
+            Person.PersonRole role = store.getRole(i);
+
+            // Update roles based on age
+            if (age >= 60 && role != Person.PersonRole.ELDER) {
+                store.setRole(i, Person.PersonRole.ELDER);
+            } else if (age >= 16 && age < 60 && role == Person.PersonRole.CHILD) {
+                // Assign role based on random or need, with the matching starting skill
+                if (random.nextBoolean()) {
+                    store.setRole(i, Person.PersonRole.HUNTER);
+                    store.setHuntingSkill(i, 0.5);
+                } else {
+                    store.setRole(i, Person.PersonRole.GATHERER);
+                    store.setGatheringSkill(i, 0.5);
+                }
+            }
+        }
+    }
+
+    /**
+     * Start the flight recorder event of a phase, unless this engine emits none.
+     *
+     * @return the event, or null
+     */
+    private PhaseEvent startPhase(Tribe tribe, TickMeters.Phase phase) {
+        return events ? PhaseEvent.started(tribe, phase) : null;
+    }
+
+    private static void endPhase(PhaseEvent event) {
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Progress points calculation based on the age structure of the tribe.
+     */
+    private void updateProgress(PopulationStore store, Tribe tribe) {
+        int youngAdults = store.countByAgeGroup(Person.AgeGroup.YOUNG_ADULT);
+        int adults = store.countByAgeGroup(Person.AgeGroup.ADULT);
+        int elders = store.countByAgeGroup(Person.AgeGroup.ELDER);
+
+        // Progress generation by age group
+        int progressGenerated = (youngAdults * 2) + (adults * 1);
+
+        // Base decay and elder preservation
+        int elderPreservation = elders * 10;
+        int netDecay = Math.max(0, BASE_PROGRESS_DECAY - elderPreservation);
+
+        int newProgress = tribe.getProgressPoints() + progressGenerated - netDecay;
+        tribe.setProgressPoints(Math.max(0, newProgress));
+    }
+
+    private void executePolicyPhase(PolicyPhase phase, TickContext context, PopulationStore store) {
+        store.flushFamilyStorage();
+        policyEngine.executePhase(phase, context);
+        store.reloadFamilyStorage();
+    }
+
+    /**
+     * Measures the resources each phase of a tick moves in and out of family and
+     * central storage, from the totals before and after the phase.
+     */
+    private static final class TransferLedger {
+
+        private final Tribe tribe;
+        private final PopulationStore store;
+        private final List<ResourceTransfer> transfers = new ArrayList<>(4);
+        private long familyFood;
+        private long familyWater;
+        private int centralFood;
+        private int centralWater;
+
+        private TransferLedger(Tribe tribe, PopulationStore store) {
+            this.tribe = tribe;
+            this.store = store;
+            measure();
+        }
+
+        private void record(PolicyPhase phase) {
+            long previousFamilyFood = familyFood;
+            long previousFamilyWater = familyWater;
+            int previousCentralFood = centralFood;
+            int previousCentralWater = centralWater;
+            measure();
+            ResourceTransfer transfer = new ResourceTransfer(phase,
+                (int) (familyFood - previousFamilyFood), (int) (familyWater - previousFamilyWater),
+                centralFood - previousCentralFood, centralWater - previousCentralWater);
+            if (transfer.familyFood() != 0 || transfer.familyWater() != 0
+                    || transfer.centralFood() != 0 || transfer.centralWater() != 0) {
+                transfers.add(transfer);
+            }
+        }
+
+        private void measure() {
+            familyFood = 0;
+            familyWater = 0;
+            for (int f = 0; f < store.getFamilyCount(); f++) {
+                familyFood += store.getFamilyFood(f);
+                familyWater += store.getFamilyWater(f);
+            }
+            Resources central = tribe.getCentralStorage();
+            centralFood = central != null ? central.getFood() : 0;
+            centralWater = central != null ? central.getWater() : 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.genericsim.backend.simulation;
+
+import java.util.Random;
+
+/**
+ * Random streams available during one tick of one tribe.
+ *
+ * Sequential phases share a few named streams, while partitioned work (such as
+ * gathering, which is partitioned by family) gets one independent stream per
+ * partition. Keeping the streams separate means adding draws in one phase never
+ * shifts the numbers seen by another.
+ *
+ * The named streams are created lazily and are not thread-safe; partition streams
+ * are created fresh on every call and may be used from any thread.
+ */
+public final class TickRandom {
+
+    private static final long TRIBE_STREAM = -1;
+    private static final long POLICY_STREAM = -2;
+    private static final long LENDING_STREAM = -3;
+
+    private final RandomStreamFactory factory;
+    private final long seed;
+    private final long tick;
+    private Random tribe;
+    private Random policy;
+    private Random lending;
+
+    TickRandom(RandomStreamFactory factory, long seed, long tick) {
+        this.factory = factory;
+        this.seed = seed;
+        this.tick = tick;
+    }
+
+    /**
+     * @return stream for tribe-wide sequential draws, such as role assignment on aging
+     */
+    public Random tribe() {
+        if (tribe == null) {
+            tribe = factory.create(seed, tick, TRIBE_STREAM);
+        }
+        return tribe;
+    }
+
+    /**
+     * @return stream handed to policy effects through the tick context
+     */
+    public Random policy() {
+        if (policy == null) {
+            policy = factory.create(seed, tick, POLICY_STREAM);
+        }
+        return policy;
+    }
+
+    /**
+     * @return stream for lending and suffering rolls during upkeep
+     */
+    public Random lending() {
+        if (lending == null) {
+            lending = factory.create(seed, tick, LENDING_STREAM);
+        }
+        return lending;
+    }
+
+    /**
+     * Create the stream of a work partition. Partition -1 is reserved for
+     * members that belong to no family.
+     *
+     * @param partition the partition index, usually a family position
+     * @return a new generator for the partition
+     */
+    public Random partition(int partition) {
+        return factory.create(seed, tick, partition);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+}
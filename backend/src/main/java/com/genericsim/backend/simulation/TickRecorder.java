@@ -0,0 +1,89 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.TickContext;
+
+import java.util.List;
+
+/**
+ * Receives what happened in each tick the {@link TickEngine} advances a tribe by.
+ * The engine only measures resource transfers for a recorder that is recording;
+ * every recorder is told about every tick.
+ */
+public interface TickRecorder {
+
+    /**
+     * A recorder that records nothing
+     */
+    TickRecorder NONE = new TickRecorder() {
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        @Override
+        public void tickRun(Tribe tribe, PopulationStore store, int deaths, List<TickContext.AppliedEffect> effects,
+                            List<ResourceTransfer> transfers) {
+        }
+
+        @Override
+        public void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick) {
+        }
+    };
+
+    /**
+     * @return whether the engine should measure the resource transfers of the ticks it runs
+     */
+    boolean isRecording();
+
+    /**
+     * Called after a tick was simulated.
+     *
+     * @param tribe the tribe, at the end of the tick
+     * @param store the tribe's population, at the end of the tick
+     * @param deaths the number of members who died during the tick
+     * @param effects the policy effects applied during the tick, in order
+     * @param transfers the non-zero resource transfers of the tick, in phase order;
+     *                  empty if no recorder is recording
+     */
+    void tickRun(Tribe tribe, PopulationStore store, int deaths, List<TickContext.AppliedEffect> effects,
+                 List<ResourceTransfer> transfers);
+
+    /**
+     * Called after quiescent ticks were skipped in closed form.
+     *
+     * @param tribe the tribe, at the last skipped tick
+     * @param store the tribe's population, at the last skipped tick
+     * @param fromTick the tick the tribe was at before the skip
+     */
+    void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick);
+
+    /**
+     * Combine this recorder with another one, which is told about each tick after this one.
+     *
+     * @param next the other recorder
+     * @return a recorder reporting to both, recording if either of them is
+     */
+    default TickRecorder andThen(TickRecorder next) {
+        TickRecorder first = this;
+        return new TickRecorder() {
+            @Override
+            public boolean isRecording() {
+                return first.isRecording() || next.isRecording();
+            }
+
+            @Override
+            public void tickRun(Tribe tribe, PopulationStore store, int deaths,
+                                List<TickContext.AppliedEffect> effects, List<ResourceTransfer> transfers) {
+                first.tickRun(tribe, store, deaths, effects, transfers);
+                next.tickRun(tribe, store, deaths, effects, transfers);
+            }
+
+            @Override
+            public void ticksSkipped(Tribe tribe, PopulationStore store, long fromTick) {
+                first.ticksSkipped(tribe, store, fromTick);
+                next.ticksSkipped(tribe, store, fromTick);
+            }
+        };
+    }
+}
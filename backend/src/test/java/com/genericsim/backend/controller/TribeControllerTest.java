@@ -64,6 +64,40 @@ public class TribeControllerTest {
                 .andExpect(jsonPath("$.members").isArray());
     }
 
+    @Test
+    public void testProcessTickBatch() throws Exception {
+        String requestBody = "{\"name\":\"Batch Tribe\",\"description\":\"A tribe for batch ticks\"}";
+        MvcResult createResult = mockMvc.perform(post("/api/tribes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Long tribeId = extractTribeId(createResult.getResponse().getContentAsString());
+
+        // Full final state
+        mockMvc.perform(post("/api/tribes/" + tribeId + "/tick").param("count", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startTick").value(0))
+                .andExpect(jsonPath("$.endTick").value(20))
+                .andExpect(jsonPath("$.finalState.currentTick").value(20))
+                .andExpect(jsonPath("$.ticks").doesNotExist());
+
+        // Per-tick summaries
+        mockMvc.perform(post("/api/tribes/" + tribeId + "/tick")
+                .param("count", "3")
+                .param("summary", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.endTick").value(23))
+                .andExpect(jsonPath("$.ticks.length()").value(3))
+                .andExpect(jsonPath("$.ticks[0].tick").value(21))
+                .andExpect(jsonPath("$.finalState").doesNotExist());
+
+        // Out of range count
+        mockMvc.perform(post("/api/tribes/" + tribeId + "/tick").param("count", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetTribeState() throws Exception {
         // First create a tribe
@@ -170,6 +204,107 @@ public class TribeControllerTest {
                 .andExpect(jsonPath("$.policy.gatheringIncentive").value(5)); // Should remain unchanged
     }
 
+    @Test
+    public void testUpdateTribeEffectSettings() throws Exception {
+        String requestBody = "{\"name\":\"Effect Settings Tribe\",\"description\":\"A tribe without storage decay\"}";
+        MvcResult createResult = mockMvc.perform(post("/api/tribes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Long tribeId = extractTribeId(createResult.getResponse().getContentAsString());
+
+        String policyUpdate = "{\"effects\":{\"StorageDecay\":{\"enabled\":false},\"CentralStorageTax\":{\"priority\":5}}}";
+        mockMvc.perform(put("/api/tribes/" + tribeId + "/policy")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(policyUpdate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.policy.effects.StorageDecay.enabled").value(false))
+                .andExpect(jsonPath("$.policy.effects.CentralStorageTax.enabled").value(true))
+                .andExpect(jsonPath("$.policy.effects.CentralStorageTax.priority").value(5));
+
+        // Re-enabling an effect at its own priority drops its setting
+        mockMvc.perform(put("/api/tribes/" + tribeId + "/policy")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"effects\":{\"StorageDecay\":{\"enabled\":true}}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.policy.effects.StorageDecay").doesNotExist())
+                .andExpect(jsonPath("$.policy.effects.CentralStorageTax.priority").value(5));
+
+        mockMvc.perform(put("/api/tribes/" + tribeId + "/policy")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"effects\":{\"NoSuchEffect\":{\"enabled\":false}}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetTribeSummaries() throws Exception {
+        String requestBody = "{\"name\":\"Summary Listed Tribe\",\"description\":\"A tribe in the listing\"}";
+        mockMvc.perform(post("/api/tribes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tribes/summaries")
+                .param("name", "summary listed")
+                .param("sort", "population")
+                .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tribes.length()").value(1))
+                .andExpect(jsonPath("$.tribes[0].tribeName").value("Summary Listed Tribe"))
+                .andExpect(jsonPath("$.tribes[0].population").value(6))
+                .andExpect(jsonPath("$.tribes[0].bondLevel").value(50))
+                .andExpect(jsonPath("$.tribes[0].members").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testGetTribeSummariesRejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/tribes/summaries").param("sort", "members"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tribes/summaries").param("direction", "sideways"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tribes/summaries").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tribes/summaries").param("limit", "501"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tribes/summaries").param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGenerateWorld() throws Exception {
+        String requestBody = "{\"tribes\":3,\"minMembers\":20,\"maxMembers\":40,"
+            + "\"sizeDistribution\":\"uniform\",\"seed\":5,\"namePrefix\":\"Generated\"}";
+        mockMvc.perform(post("/api/tribes/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seed").value(5))
+                .andExpect(jsonPath("$.tribes.length()").value(3))
+                .andExpect(jsonPath("$.tribes[2].tribeName").value("Generated 3"))
+                .andExpect(jsonPath("$.tribes[0].population").isNumber());
+    }
+
+    @Test
+    public void testGenerateWorldRejectsInvalidRequests() throws Exception {
+        String[] requests = {
+            "{\"sizeDistribution\":\"normal\"}",
+            "{\"tribes\":0}",
+            "{\"tribes\":10001}",
+            "{\"minMembers\":0}",
+            "{\"minMembers\":100,\"maxMembers\":99}",
+            "{\"tribes\":10000,\"maxMembers\":1001}"
+        };
+        for (String request : requests) {
+            mockMvc.perform(post("/api/tribes/generate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     private Long extractTribeId(String json) {
         // Simple extraction of tribeId from JSON response
         int start = json.indexOf("\"tribeId\":") + 10;
@@ -0,0 +1,89 @@
+package com.genericsim.backend.controller;
+
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class TribeMetricsControllerTest {
+
+    private static final long UNKNOWN_TRIBE_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Test
+    public void testGetTribeMetricOfTribeNotTicked() throws Exception {
+        Long tribeId = tribeService.createTribe("Unticked Tribe", "A tribe without metrics").getId();
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/metrics/food"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tribeId").value(tribeId))
+                .andExpect(jsonPath("$.metric").value("food"))
+                .andExpect(jsonPath("$.points.length()").value(0));
+    }
+
+    @Test
+    public void testGetTribeMetricRejectsInvalidParameters() throws Exception {
+        Long tribeId = tribeService.createTribe("Charted Tribe", "A tribe with metrics").getId();
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/metrics/happiness"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/metrics/population").param("downsampling", "median"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/metrics/population").param("points", "2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetTribeMetricOfUnknownTribe() throws Exception {
+        mockMvc.perform(get("/api/tribes/" + UNKNOWN_TRIBE_ID + "/metrics/population"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetTribeCounters() throws Exception {
+        Long tribeId = tribeService.createTribe("Counted Tribe", "A tribe with counters").getId();
+        tribeService.processTicks(tribeId, 5, true);
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/counters").param("ticks", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tribeId").value(tribeId))
+                .andExpect(jsonPath("$.rates.shortfalls").isNumber())
+                .andExpect(jsonPath("$.ticks.length()").value(3))
+                .andExpect(jsonPath("$.ticks[2].tick").value(5))
+                .andExpect(jsonPath("$.ticks[2].counts.deaths").isNumber());
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/counters").param("ticks", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetTribeCountersOfTribeNotTicked() throws Exception {
+        Long tribeId = tribeService.createTribe("Uncounted Tribe", "A tribe without counters").getId();
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/counters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tribeId").value(tribeId))
+                .andExpect(jsonPath("$.rates.shortfalls").value(0.0))
+                .andExpect(jsonPath("$.ticks.length()").value(0));
+    }
+
+    @Test
+    public void testGetTribeCountersOfUnknownTribe() throws Exception {
+        mockMvc.perform(get("/api/tribes/" + UNKNOWN_TRIBE_ID + "/counters"))
+                .andExpect(status().isNotFound());
+    }
+}
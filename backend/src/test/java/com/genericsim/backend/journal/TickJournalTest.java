@@ -0,0 +1,493 @@
+package com.genericsim.backend.journal;
+
+import com.genericsim.backend.config.JournalProperties;
+import com.genericsim.backend.dto.EffectSettingDTO;
+import com.genericsim.backend.dto.JournalEntryDTO;
+import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.policy.PolicyPhase;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeExportService;
+import com.genericsim.backend.service.TribeHistoryService;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The tick journal: what it records, replaying, rewinding and recovering tribes
+ * from it, and its segments on disk.
+ *
+ * Not transactional: ticks are journaled when their transactions commit, so test
+ * data is committed and removed again after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TickJournalTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("simulation.journal.enabled", () -> "true");
+        registry.add("simulation.journal.directory", () -> journalDirectory.resolve("app").toString());
+        registry.add("simulation.journal.snapshot-interval-ticks", () -> "100");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TickJournal journal;
+
+    @Autowired
+    private TribeReplayer replayer;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeHistoryService tribeHistoryService;
+
+    @Autowired
+    private TribeExportService tribeExportService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        createdTribes.forEach(id -> jdbcTemplate.update("delete from persons where tribe_id = ?", id));
+        tribeRepository.deleteAllById(createdTribes);
+        // Otherwise the next recovery would bring them back
+        createdTribes.forEach(id -> journal.retire(id, 0));
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testJournalsTicksAndPolicyChanges() {
+        Long tribeId = createTribe(7L);
+        tribeService.processTick(tribeId);
+        tribeService.processTicks(tribeId, 2, true);
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setEnableCentralStorage(true);
+        update.setCentralStorageTaxRate(30);
+        update.setEffects(Map.of("StorageDecay", new EffectSettingDTO(false, null)));
+        tribeService.updateTribePolicy(tribeId, update);
+        tribeService.processTicks(tribeId, 3, false);
+
+        List<JournalEntryDTO> entries = tribeHistoryService.getJournal(tribeId, 0, 100);
+        assertEquals(List.of("SNAPSHOT", "TICK", "TICK", "TICK", "POLICY_CHANGE", "TICK", "TICK", "TICK"),
+            entries.stream().map(JournalEntryDTO::getType).toList());
+        assertEquals(0, entries.get(0).getTick());
+        assertEquals(List.of(1L, 2L, 3L, 3L, 4L, 5L, 6L), entries.stream().skip(1).map(JournalEntryDTO::getTick).toList());
+
+        JournalEntryDTO firstTick = entries.get(1);
+        assertEquals(0L, firstTick.getPolicyVersion());
+        assertEquals(PolicyPhase.RESOURCE_COLLECTION, firstTick.getTransfers().get(0).phase());
+        assertTrue(firstTick.getTransfers().get(0).familyFood() > 0, "Gathering adds food to family storage");
+
+        JournalEntryDTO policyChange = entries.get(4);
+        assertEquals(1L, policyChange.getPolicyVersion());
+        assertTrue(policyChange.getPolicy().isEnableCentralStorage());
+        assertEquals(30, policyChange.getPolicy().getCentralStorageTaxRate());
+        assertEquals(Map.of("StorageDecay", new EffectSettingDTO(false, null)), policyChange.getPolicy().getEffects());
+
+        JournalEntryDTO taxedTick = entries.get(5);
+        assertEquals(1L, taxedTick.getPolicyVersion());
+        assertTrue(taxedTick.getEffects().stream().anyMatch(effect ->
+                effect.phase() == PolicyPhase.PRODUCTION && effect.name().equals("CentralStorageTax")),
+            "Tax effect applied once central storage is enabled");
+        assertTrue(taxedTick.getTransfers().stream().anyMatch(transfer ->
+                transfer.phase() == PolicyPhase.PRODUCTION && transfer.centralFood() > 0),
+            "Tax moves food into central storage");
+
+        assertEquals(List.of(5L, 6L), tribeHistoryService.getJournal(tribeId, 5, 100).stream()
+            .map(JournalEntryDTO::getTick).toList());
+        assertEquals(2, tribeHistoryService.getJournal(tribeId, 0, 2).size());
+    }
+
+    @Test
+    public void testReplayRebuildsTribe() {
+        Long tribeId = createTribe(11L);
+        tribeService.processTicks(tribeId, 150, false);
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setSharingPriority("YOUNGEST");
+        update.setEnableCentralStorage(true);
+        tribeService.updateTribePolicy(tribeId, update);
+        for (int i = 0; i < 40; i++) {
+            tribeService.processTick(tribeId);
+        }
+        tribeService.processTicks(tribeId, 400, true);
+
+        JournalReplay replay = replayer.replay(tribeId).orElseThrow();
+        TribeStateDTO expected = tribeService.getTribeState(tribeId);
+
+        assertEquals(0, replay.divergentTicks(), "Re-run ticks match the journal");
+        // Replay starts from the latest snapshot, taken in the middle of the last batch
+        assertEquals(500, replay.snapshotTick());
+        assertEquals(expected.getCurrentTick() - replay.snapshotTick(), replay.ticksReplayed());
+        assertSameState(expected, replay.tribe());
+    }
+
+    @Test
+    public void testRecoversTribeMissingFromDatabase() {
+        Long tribeId = createTribe(13L);
+        tribeService.processTicks(tribeId, 120, false);
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setFoodTaxRate(20);
+        tribeService.updateTribePolicy(tribeId, update);
+        tribeService.processTicks(tribeId, 30, false);
+        TribeSummaryDTO reference = tribeExportService.cloneTribe(tribeId, null);
+        createdTribes.add(reference.getTribeId());
+
+        loseTribe(tribeId);
+
+        Map<Long, Long> recovered = tribeHistoryService.recover();
+        Long recoveredId = recovered.get(tribeId);
+        assertNotNull(recoveredId);
+        createdTribes.add(recoveredId);
+        assertFalse(journal.getTribeIds().contains(tribeId), "Journaled under the new ID from now on");
+
+        tribeService.processTicks(recoveredId, 50, false);
+        tribeService.processTicks(reference.getTribeId(), 50, false);
+        assertSameState(tribeService.getTribeState(reference.getTribeId()), tribeService.getTribeState(recoveredId));
+    }
+
+    @Test
+    public void testRecoversTribeLostAgainBeforeItsNextTick() {
+        Long tribeId = createTribe(17L);
+        tribeService.processTicks(tribeId, 120, false);
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setSharingPriority("YOUNGEST");
+        tribeService.updateTribePolicy(tribeId, update);
+        TribeStateDTO expected = tribeService.getTribeState(tribeId);
+
+        // Two restarts in a row, the second before the recovered tribe ticks
+        loseTribe(tribeId);
+        Long firstId = tribeHistoryService.recover().get(tribeId);
+        assertNotNull(firstId);
+        loseTribe(firstId);
+        Long secondId = tribeHistoryService.recover().get(firstId);
+        assertNotNull(secondId, "The first recovery was journaled under its new ID");
+        createdTribes.add(secondId);
+
+        assertFalse(journal.getTribeIds().contains(tribeId));
+        assertFalse(journal.getTribeIds().contains(firstId));
+        assertSameState(expected, tribeService.getTribeState(secondId));
+    }
+
+    @Test
+    public void testRecoversTribesThatNeverTicked() {
+        Long tribeId = createTribe(19L);
+        TribeSummaryDTO clone = tribeExportService.cloneTribe(tribeId, "Never ticked clone");
+        TribeStateDTO expected = tribeService.getTribeState(tribeId);
+
+        loseTribe(tribeId);
+        loseTribe(clone.getTribeId());
+        Map<Long, Long> recovered = tribeHistoryService.recover();
+        createdTribes.addAll(recovered.values());
+
+        assertEquals(2, recovered.size());
+        assertSameState(expected, tribeService.getTribeState(recovered.get(tribeId)));
+        assertSameState(expected, tribeService.getTribeState(recovered.get(clone.getTribeId())));
+    }
+
+    @Test
+    public void testRewindsToPastTick() {
+        Long tribeId = createTribe(19L);
+        tribeService.processTicks(tribeId, 130, false);
+        TribeSummaryDTO atTick130 = tribeExportService.cloneTribe(tribeId, null);
+        createdTribes.add(atTick130.getTribeId());
+        tribeService.processTicks(tribeId, 120, false);
+        TribeSummaryDTO atTick250 = tribeExportService.cloneTribe(tribeId, null);
+        createdTribes.add(atTick250.getTribeId());
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setFoodTaxRate(90);
+        tribeService.updateTribePolicy(tribeId, update);
+        tribeService.processTicks(tribeId, 100, false);
+
+        JournalReplay replay = replayer.replay(tribeId, 130).orElseThrow();
+        assertEquals(100, replay.snapshotTick(), "Starts from the nearest snapshot before the tick");
+        assertEquals(30, replay.ticksReplayed());
+        assertEquals(0, replay.divergentTicks());
+
+        TribeStateDTO view = tribeHistoryService.getTribeAt(tribeId, 130);
+        assertEquals(tribeId, view.getTribeId());
+        assertSameState(tribeService.getTribeState(atTick130.getTribeId()), view);
+
+        // The policy change made at tick 250 is undone
+        TribeSummaryDTO restored = tribeHistoryService.restoreTribe(tribeId, 250, "Restored Tribe");
+        createdTribes.add(restored.getTribeId());
+        assertEquals("Restored Tribe", restored.getTribeName());
+        assertEquals(250, restored.getCurrentTick());
+        assertNotEquals(90, tribeService.getTribeState(restored.getTribeId()).getPolicy().getFoodTaxRate());
+
+        tribeService.processTicks(restored.getTribeId(), 50, false);
+        tribeService.processTicks(atTick250.getTribeId(), 50, false);
+        assertSameState(tribeService.getTribeState(atTick250.getTribeId()),
+            tribeService.getTribeState(restored.getTribeId()));
+    }
+
+    @Test
+    public void testRewindEndpoints() throws Exception {
+        Long tribeId = createTribe(23L);
+        tribeService.processTicks(tribeId, 10, false);
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/history/4"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tribeId").value(tribeId))
+            .andExpect(jsonPath("$.currentTick").value(4))
+            .andExpect(jsonPath("$.members").isArray());
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/history/11"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/tribes/" + tribeId + "/restore").param("tick", "-1"))
+            .andExpect(status().isBadRequest());
+
+        String body = mockMvc.perform(post("/api/tribes/" + tribeId + "/restore").param("tick", "7"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tribeName").value("Journaled Tribe"))
+            .andExpect(jsonPath("$.currentTick").value(7))
+            .andReturn().getResponse().getContentAsString();
+        createdTribes.add(Long.valueOf(body.replaceAll(".*\"tribeId\":(\\d+).*", "$1")));
+    }
+
+    @Test
+    public void testJournalEndpoint() throws Exception {
+        Long tribeId = createTribe(17L);
+        tribeService.processTicks(tribeId, 3, false);
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/journal").param("fromTick", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].type").value("TICK"))
+            .andExpect(jsonPath("$[0].tick").value(1))
+            .andExpect(jsonPath("$[0].transfers[0].phase").value("RESOURCE_COLLECTION"));
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/journal").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSegmentsRollAndCompact() throws IOException {
+        Path directory = journalDirectory.resolve("segments");
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(4096);
+        properties.setCompactAfterSegments(100);
+        properties.setRetainedTicks(0);
+        TickJournal segments = new TickJournal(properties);
+
+        for (long tick = 0; tick < 400; tick += 100) {
+            segments.append(List.of(new JournalRecord.Snapshot(1, tick, 5, 0, new byte[1000])));
+            for (long t = tick + 1; t <= tick + 20; t++) {
+                segments.append(List.of(tickRecord(1, t), tickRecord(2, t)));
+            }
+        }
+        // Larger than a segment
+        segments.append(List.of(new JournalRecord.Snapshot(2, 320, 5, 0, new byte[10_000])));
+        segments.append(List.of(tickRecord(2, 321)));
+        int segmentCount = segments.getSegmentCount();
+        assertTrue(segmentCount > 3, "Rolled over to new segments");
+
+        List<Long> tribeOne = ticksOf(segments, 1);
+        assertEquals(300L, tribeOne.get(0), "Read from the latest snapshot");
+        assertEquals(21, tribeOne.size());
+        assertEquals(List.of(320L, 321L), ticksOf(segments, 2));
+
+        long before = segments.getSize();
+        segments.compact();
+        assertTrue(segments.getSize() < before - 3 * 1000, "Only records from the latest snapshots are kept");
+        assertEquals(2, segments.getSegmentCount());
+        assertEquals(tribeOne, ticksOf(segments, 1));
+        assertEquals(List.of(320L, 321L), ticksOf(segments, 2));
+        segments.append(List.of(tickRecord(1, 321)));
+        segments.force();
+
+        // Reopened from disk, the index is rebuilt by scanning the segments
+        TickJournal reopened = new TickJournal(properties);
+        assertEquals(List.of(1L, 2L), reopened.getTribeIds());
+        assertEquals(22, ticksOf(reopened, 1).size());
+        reopened.retire(2L, 321);
+        assertEquals(List.of(1L), reopened.getTribeIds());
+        assertFalse(reopened.read(2L, Long.MAX_VALUE, record -> true));
+    }
+
+    @Test
+    public void testCompactionKeepsRetainedTicks() {
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(journalDirectory.resolve("retained").toString());
+        properties.setSegmentSize(4096);
+        properties.setCompactAfterSegments(100);
+        properties.setRetainedTicks(150);
+        TickJournal segments = new TickJournal(properties);
+
+        segments.append(List.of(new JournalRecord.Snapshot(1, 0, 5, 0, new byte[100])));
+        for (long tick = 1; tick <= 450; tick++) {
+            segments.append(List.of(tickRecord(1, tick)));
+            if (tick % 100 == 0) {
+                segments.append(List.of(new JournalRecord.Snapshot(1, tick, 5, 0, new byte[100])));
+            }
+        }
+        assertEquals(100L, ticksFrom(segments, 1, 150).get(0), "Read from the nearest snapshot at or before");
+        assertEquals(300L, ticksFrom(segments, 1, 300).get(0));
+        assertEquals(0L, ticksFrom(segments, 1, 99).get(0));
+
+        segments.compact();
+        // Tick 300 is the first of the last 150, so everything from its snapshot on is kept
+        assertEquals(300L, ticksFrom(segments, 1, 320).get(0));
+        assertEquals(300L, ticksFrom(segments, 1, 150).get(0), "Older snapshots are dropped");
+        assertEquals(152, ticksFrom(segments, 1, 300).size(), "Every record from that snapshot on is kept");
+        assertEquals(List.of(400L, 401L, 402L), ticksFrom(segments, 1, 400).subList(0, 3));
+
+        List<Long> stopped = new ArrayList<>();
+        segments.read(1L, 400, record -> {
+            stopped.add(record.tick());
+            return record.tick() < 405;
+        });
+        assertEquals(405L, stopped.get(stopped.size() - 1), "Reading stops when the visitor says so");
+    }
+
+    @Test
+    public void testTornWriteIsDropped() throws IOException {
+        Path directory = journalDirectory.resolve("torn");
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(1 << 16);
+        TickJournal segments = new TickJournal(properties);
+        segments.append(List.of(new JournalRecord.Snapshot(1, 0, 5, 0, new byte[10])));
+        for (long tick = 1; tick <= 5; tick++) {
+            segments.append(List.of(tickRecord(1, tick)));
+        }
+        segments.force();
+
+        // Flip a byte in the body of the last record, as if the process died while writing it
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+        int[] lastOffset = {0};
+        segments.read(1L, Long.MAX_VALUE, record -> true);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int offset = JournalSegment.HEADER_SIZE;
+            while (buffer.getInt(offset) != 0) {
+                lastOffset[0] = offset;
+                offset += JournalSegment.FRAME_HEADER_SIZE + buffer.getInt(offset);
+            }
+            int position = lastOffset[0] + JournalSegment.FRAME_HEADER_SIZE + 20;
+            buffer.put(position, (byte) (buffer.get(position) + 1));
+        }
+
+        TickJournal reopened = new TickJournal(properties);
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), ticksOf(reopened, 1));
+        reopened.append(List.of(tickRecord(1, 5)));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), ticksOf(new TickJournal(properties), 1));
+    }
+
+    private static JournalRecord.Tick tickRecord(long tribeId, long tick) {
+        return new JournalRecord.Tick(tribeId, tick, 5, 0, 0, List.of(), List.of());
+    }
+
+    private static List<Long> ticksOf(TickJournal journal, long tribeId) {
+        return ticksFrom(journal, tribeId, Long.MAX_VALUE);
+    }
+
+    private static List<Long> ticksFrom(TickJournal journal, long tribeId, long tick) {
+        List<Long> ticks = new ArrayList<>();
+        journal.read(tribeId, tick, record -> ticks.add(record.tick()));
+        return ticks;
+    }
+
+    private Long createTribe(long seed) {
+        Long tribeId = tribeService.createTribe("Journaled Tribe", "A tribe with a history", seed).getId();
+        createdTribes.add(tribeId);
+        return tribeId;
+    }
+
+    /**
+     * Delete a tribe from the database, as a crash before its next checkpoint would.
+     */
+    private void loseTribe(Long tribeId) {
+        jdbcTemplate.update("delete from persons where tribe_id = ?", tribeId);
+        tribeRepository.deleteById(tribeId);
+        createdTribes.remove(tribeId);
+    }
+
+    private static void assertSameState(TribeStateDTO expected, Tribe actual) {
+        assertEquals(expected.getCurrentTick(), actual.getCurrentTick());
+        assertEquals(expected.getProgressPoints(), actual.getProgressPoints());
+        assertEquals(expected.getBondLevel(), actual.getBondLevel());
+        assertEquals(expected.getResources().getFood(), actual.getResources().getFood());
+        assertEquals(expected.getCentralStorage().getFood(), actual.getCentralStorage().getFood());
+        assertEquals(expected.getPolicy(), new TribeStateDTO.PolicyDTO(actual.getPolicy()));
+        assertEquals(expected.getMembers().size(), actual.getMembers().size());
+        for (int i = 0; i < actual.getMembers().size(); i++) {
+            TribeStateDTO.PersonDTO person = expected.getMembers().get(i);
+            Person replayed = actual.getMembers().get(i);
+            assertEquals(person.getName(), replayed.getName());
+            assertEquals(person.getAge(), replayed.getAge());
+            assertEquals(person.getHealth(), replayed.getHealth());
+            assertEquals(person.getHuntingSkill(), replayed.getHuntingSkill());
+            assertEquals(person.getGatheringSkill(), replayed.getGatheringSkill());
+        }
+    }
+
+    private static void assertSameState(TribeStateDTO expected, TribeStateDTO actual) {
+        assertEquals(expected.getCurrentTick(), actual.getCurrentTick());
+        assertEquals(expected.getProgressPoints(), actual.getProgressPoints());
+        assertEquals(expected.getBondLevel(), actual.getBondLevel());
+        assertEquals(expected.getResources(), actual.getResources());
+        assertEquals(expected.getCentralStorage(), actual.getCentralStorage());
+        assertEquals(expected.getPolicy(), actual.getPolicy());
+        assertEquals(withoutIds(expected.getMembers()), withoutIds(actual.getMembers()));
+        assertEquals(withoutFamilyIds(expected.getFamilies()), withoutFamilyIds(actual.getFamilies()));
+    }
+
+    private static List<TribeStateDTO.PersonDTO> withoutIds(List<TribeStateDTO.PersonDTO> members) {
+        members.forEach(person -> {
+            person.setId(null);
+            person.setFamilyId(null);
+        });
+        return members;
+    }
+
+    private static List<TribeStateDTO.FamilyDTO> withoutFamilyIds(List<TribeStateDTO.FamilyDTO> families) {
+        families.forEach(family -> family.setId(null));
+        return families;
+    }
+}
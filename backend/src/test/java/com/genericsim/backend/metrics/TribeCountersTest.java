@@ -0,0 +1,79 @@
+package com.genericsim.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TribeCountersTest {
+
+    @Test
+    public void testTicksAreKeptInRingBufferOldestFirst() {
+        TribeCounters counters = new TribeCounters(newTotals(), 5, 5);
+        for (long tick = 1; tick <= 8; tick++) {
+            counters.add(DomainCounter.DEATHS, tick);
+            counters.endTick(tick);
+        }
+
+        List<TribeCounters.TickCounts> recent = counters.recent(10);
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L), recent.stream().map(TribeCounters.TickCounts::tick).toList());
+        assertEquals(8, recent.get(4).get(DomainCounter.DEATHS));
+        assertEquals(List.of(7L, 8L), counters.recent(2).stream().map(TribeCounters.TickCounts::tick).toList());
+    }
+
+    @Test
+    public void testRateIsAveragedOverWindow() {
+        TribeCounters counters = new TribeCounters(newTotals(), 10, 4);
+        assertEquals(0, counters.rate(DomainCounter.SHORTFALLS));
+
+        counters.add(DomainCounter.SHORTFALLS, 2);
+        counters.endTick(1);
+        assertEquals(2, counters.rate(DomainCounter.SHORTFALLS));
+
+        // Three quiet ticks, then a spike that pushes the first tick out of the window
+        for (long tick = 2; tick <= 4; tick++) {
+            counters.endTick(tick);
+        }
+        assertEquals(0.5, counters.rate(DomainCounter.SHORTFALLS));
+        counters.add(DomainCounter.SHORTFALLS, 12);
+        counters.endTick(5);
+        assertEquals(3, counters.rate(DomainCounter.SHORTFALLS));
+
+        // The window keeps sliding once the ring buffer wraps
+        for (long tick = 6; tick <= 25; tick++) {
+            counters.increment(DomainCounter.SHORTFALLS);
+            counters.endTick(tick);
+        }
+        assertEquals(1, counters.rate(DomainCounter.SHORTFALLS));
+    }
+
+    @Test
+    public void testConcurrentIncrementsAreAllCounted() {
+        LongAdder[] totals = newTotals();
+        TribeCounters counters = new TribeCounters(totals, 10, 10);
+        IntStream.range(0, 100_000).parallel().forEach(i -> counters.increment(DomainCounter.BORROW_FAILURES));
+        counters.endTick(1);
+
+        assertEquals(100_000, counters.recent(1).get(0).get(DomainCounter.BORROW_FAILURES));
+        assertEquals(100_000, totals[DomainCounter.BORROW_FAILURES.ordinal()].sum());
+    }
+
+    @Test
+    public void testNoneCountsNothing() {
+        TribeCounters.NONE.increment(DomainCounter.DEATHS);
+        TribeCounters.NONE.endTick(1);
+        assertTrue(TribeCounters.NONE.recent(10).isEmpty());
+        assertEquals(0, TribeCounters.NONE.rate(DomainCounter.DEATHS));
+    }
+
+    private static LongAdder[] newTotals() {
+        LongAdder[] totals = new LongAdder[DomainCounter.values().length];
+        for (int c = 0; c < totals.length; c++) {
+            totals[c] = new LongAdder();
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,194 @@
+package com.genericsim.backend.metrics;
+
+import com.genericsim.backend.config.MetricsProperties;
+import com.genericsim.backend.dto.TribeMetricSeriesDTO;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.simulation.PopulationStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TribeMetricStoreTest {
+
+    private static final long TRIBE_ID = 1L;
+
+    @Test
+    public void testChunkRoundTripsIrregularTicksAndValues() {
+        Random random = new Random(3);
+        GorillaChunk chunk = new GorillaChunk(3);
+        List<long[]> ticks = new ArrayList<>();
+        List<double[]> rows = new ArrayList<>();
+        long tick = 0;
+        for (int i = 0; i < 2000; i++) {
+            // Mostly one tick apart, with the occasional skipped stretch
+            tick += random.nextInt(10) == 0 ? 1 + random.nextInt(100_000) : 1;
+            double[] row = {random.nextInt(5) == 0 ? random.nextGaussian() : 42.0, -i, Double.NaN};
+            chunk.append(tick, row);
+            ticks.add(new long[]{tick});
+            rows.add(row.clone());
+        }
+        chunk.seal();
+
+        List<Long> decodedTicks = new ArrayList<>();
+        List<double[]> decodedRows = new ArrayList<>();
+        chunk.forEach((t, values) -> {
+            decodedTicks.add(t);
+            decodedRows.add(values.clone());
+        });
+
+        assertEquals(ticks.size(), decodedTicks.size());
+        for (int i = 0; i < ticks.size(); i++) {
+            assertEquals(ticks.get(i)[0], decodedTicks.get(i));
+            assertArrayEquals(rows.get(i), decodedRows.get(i));
+        }
+    }
+
+    @Test
+    public void testSteadyTicksCompressWell() {
+        TribeMetricStore store = newStore(List.of(new MetricsProperties.Tier(1, 0)));
+        Tribe tribe = newTribe();
+        record(store, tribe, 10_000, tick -> 100);
+
+        // Seven metrics over 10000 ticks would be 560000 bytes as raw doubles;
+        // an unchanged tick takes one bit for the tick and one per metric
+        assertTrue(store.sizeInBytes(TRIBE_ID) < 12_000,
+            "steady series took " + store.sizeInBytes(TRIBE_ID) + " bytes");
+    }
+
+    @Test
+    public void testCoarseTiersHoldMinMaxAndAverage() {
+        TribeMetricStore store = newStore(List.of(new MetricsProperties.Tier(1, 0),
+            new MetricsProperties.Tier(10, 0)));
+        Tribe tribe = newTribe();
+        record(store, tribe, 100, tick -> (int) tick);
+
+        // 100 ticks in 10 points read from the 10-tick tier without downsampling
+        TribeMetricSeriesDTO series = store.query(TRIBE_ID, TribeMetric.FOOD, 0, 99L, 10, Downsampling.LTTB);
+        assertEquals(10, series.getResolutionTicks());
+        assertNull(series.getDownsampling());
+        assertEquals(10, series.getPoints().size());
+        // The first bucket only has ticks 1 to 9
+        assertEquals(new MetricPoint(0, 1, 9, 5), series.getPoints().get(0));
+        assertEquals(new MetricPoint(50, 50, 59, 54.5), series.getPoints().get(5));
+
+        // A range asked for tick by tick comes from the finest tier
+        series = store.query(TRIBE_ID, TribeMetric.FOOD, 20, 29L, 100, Downsampling.LTTB);
+        assertEquals(1, series.getResolutionTicks());
+        assertEquals(10, series.getPoints().size());
+        assertEquals(new MetricPoint(25, 25, 25, 25), series.getPoints().get(5));
+    }
+
+    @Test
+    public void testPendingBucketIsIncluded() {
+        TribeMetricStore store = newStore(List.of(new MetricsProperties.Tier(100, 0)));
+        Tribe tribe = newTribe();
+        record(store, tribe, 150, tick -> (int) tick);
+
+        List<MetricPoint> points = store.query(TRIBE_ID, TribeMetric.FOOD, 0, null, 10, Downsampling.LTTB)
+            .getPoints();
+        assertEquals(2, points.size());
+        assertEquals(new MetricPoint(100, 100, 150, 125), points.get(1));
+    }
+
+    @Test
+    public void testExpiredChunksFallBackToCoarserTier() {
+        MetricsProperties properties = new MetricsProperties();
+        properties.setChunkPoints(100);
+        properties.setTiers(List.of(new MetricsProperties.Tier(1, 1_000), new MetricsProperties.Tier(100, 0)));
+        TribeMetricStore store = new TribeMetricStore(properties);
+        Tribe tribe = newTribe();
+        record(store, tribe, 5_000, tick -> (int) tick);
+
+        // Recent ticks are still kept tick by tick
+        TribeMetricSeriesDTO recent = store.query(TRIBE_ID, TribeMetric.FOOD, 4_500, 4_600L, 1_000,
+            Downsampling.LTTB);
+        assertEquals(1, recent.getResolutionTicks());
+        assertEquals(101, recent.getPoints().size());
+
+        // Early ticks are only left at the coarser resolution
+        TribeMetricSeriesDTO early = store.query(TRIBE_ID, TribeMetric.FOOD, 100, 199L, 1_000,
+            Downsampling.LTTB);
+        assertEquals(100, early.getResolutionTicks());
+        assertEquals(List.of(new MetricPoint(100, 100, 199, 149.5)), early.getPoints());
+    }
+
+    @Test
+    public void testMinMaxAvgDownsamplingKeepsExtremes() {
+        TribeMetricStore store = newStore(List.of(new MetricsProperties.Tier(1, 0)));
+        Tribe tribe = newTribe();
+        record(store, tribe, 10_000, tick -> tick == 5_000 ? 1_000 : (int) (tick % 7));
+
+        TribeMetricSeriesDTO series = store.query(TRIBE_ID, TribeMetric.FOOD, 1, 10_000L, 100,
+            Downsampling.MIN_MAX_AVG);
+        assertEquals("MIN_MAX_AVG", series.getDownsampling());
+        assertEquals(100, series.getPoints().size());
+        assertEquals(1_000, series.getPoints().stream().mapToDouble(MetricPoint::max).max().orElseThrow());
+        assertEquals(0, series.getPoints().stream().mapToDouble(MetricPoint::min).min().orElseThrow());
+    }
+
+    @Test
+    public void testLttbKeepsEndpointsAndSpikes() {
+        TribeMetricStore store = newStore(List.of(new MetricsProperties.Tier(1, 0)));
+        Tribe tribe = newTribe();
+        record(store, tribe, 10_000, tick -> tick == 5_000 ? 1_000 : 10);
+
+        List<MetricPoint> points = store.query(TRIBE_ID, TribeMetric.FOOD, 1, 10_000L, 300, Downsampling.LTTB)
+            .getPoints();
+        assertEquals(300, points.size());
+        assertEquals(1, points.get(0).tick());
+        assertEquals(10_000, points.get(points.size() - 1).tick());
+        assertTrue(points.stream().anyMatch(point -> point.tick() == 5_000));
+    }
+
+    @Test
+    public void testNothingIsAppendedBeforeCommit() {
+        TribeMetricStore store = newStore(List.of(new MetricsProperties.Tier(1, 0)));
+        Tribe tribe = newTribe();
+        MetricRecorder recorder = store.begin(TRIBE_ID);
+        tribe.setCurrentTick(1);
+        recorder.tickRun(tribe, PopulationStore.load(tribe), 0, List.of(), List.of());
+
+        assertTrue(store.query(TRIBE_ID, TribeMetric.POPULATION, 0, null, 10, Downsampling.LTTB)
+            .getPoints().isEmpty());
+        recorder.commit();
+        assertEquals(1, store.query(TRIBE_ID, TribeMetric.POPULATION, 0, null, 10, Downsampling.LTTB)
+            .getPoints().size());
+    }
+
+    private static TribeMetricStore newStore(List<MetricsProperties.Tier> tiers) {
+        MetricsProperties properties = new MetricsProperties();
+        properties.setTiers(tiers);
+        return new TribeMetricStore(properties);
+    }
+
+    private static Tribe newTribe() {
+        Tribe tribe = new Tribe("Charted", "A tribe with metrics");
+        tribe.setResources(new Resources(0, 0));
+        tribe.setCentralStorage(new Resources(0, 0));
+        return tribe;
+    }
+
+    /**
+     * Record ticks 1 to {@code ticks} with the given food, committed in batches of 1000.
+     */
+    private static void record(TribeMetricStore store, Tribe tribe, int ticks,
+                               LongToIntFunction food) {
+        PopulationStore population = PopulationStore.load(tribe);
+        MetricRecorder recorder = store.begin(TRIBE_ID);
+        for (long tick = 1; tick <= ticks; tick++) {
+            tribe.setCurrentTick(tick);
+            tribe.getResources().setFood(food.applyAsInt(tick));
+            recorder.tickRun(tribe, population, 0, List.of(), List.of());
+            if (tick % 1000 == 0) {
+                recorder.commit();
+            }
+        }
+        recorder.commit();
+    }
+}
@@ -0,0 +1,118 @@
+package com.genericsim.backend.persistence;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Wraps the data source so that tests can count the statements sent to the database.
+ * Import it into a Spring Boot test and call {@link #reset()} before the code under test.
+ * Every execution of a prepared statement is recorded once, so a JDBC batch counts as one.
+ */
+@TestConfiguration
+public class StatementCounter {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return proxy(bean, (target, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    return result instanceof Connection connection ? countingConnection(connection) : result;
+                });
+            }
+        };
+    }
+
+    /**
+     * Forget all statements executed so far.
+     */
+    public static void reset() {
+        executed.clear();
+    }
+
+    /**
+     * @return the SQL of every statement executed since the last reset, lower case
+     */
+    public static List<String> statements() {
+        synchronized (executed) {
+            return new ArrayList<>(executed);
+        }
+    }
+
+    /**
+     * @param prefix the start of the SQL, e.g. {@code "update persons"}
+     * @return the number of statements executed since the last reset that start with the prefix
+     */
+    public static long count(String prefix) {
+        return statements().stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    /**
+     * @return the number of queries executed since the last reset
+     */
+    public static long queries() {
+        return count("select");
+    }
+
+    /**
+     * @return the SQL of every write statement executed since the last reset
+     */
+    public static List<String> writes() {
+        return statements().stream().filter(sql -> !sql.startsWith("select")).toList();
+    }
+
+    private static Object countingConnection(Connection connection) {
+        return proxy(connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                String sql = ((String) args[0]).trim().toLowerCase();
+                return proxy(statement, (ps, psMethod, psArgs) -> {
+                    if (EXECUTE_METHODS.contains(psMethod.getName())) {
+                        executed.add(sql);
+                    }
+                    return psMethod.invoke(ps, psArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    private static Object proxy(Object target, TargetHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            try {
+                return handler.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(),
+            ClassUtils.getAllInterfaces(target), invocationHandler);
+    }
+
+    private interface TargetHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
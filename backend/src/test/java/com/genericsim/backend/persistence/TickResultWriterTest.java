@@ -0,0 +1,120 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the write statements sent to the database per tick. The batch size is
+ * set below the tribe size so that persons take more than one batch.
+ */
+@SpringBootTest(properties = "simulation.persistence.jdbc-batch-size=4")
+@Import(StatementCounter.class)
+@Transactional
+public class TickResultWriterTest {
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        StatementCounter.reset();
+    }
+
+    @Test
+    public void testTickIsWrittenWithBatchedStatements() {
+        Long tribeId = tribeService.createTribe("Batched", "Batch flush test tribe").getId();
+        entityManager.flush();
+        StatementCounter.reset();
+
+        TribeStateDTO ticked = tribeService.processTick(tribeId);
+        entityManager.flush();
+
+        // 6 persons in batches of 4, one storage batch and the tribe row; nobody died
+        assertEquals(2, StatementCounter.count("update persons"));
+        assertEquals(1, StatementCounter.count("update resources"));
+        assertEquals(1, StatementCounter.count("update tribes"));
+        assertEquals(0, StatementCounter.count("delete from persons"));
+        assertEquals(4, StatementCounter.writes().size(), "Unexpected writes: " + StatementCounter.writes());
+
+        entityManager.clear();
+        Tribe stored = tribeRepository.findById(tribeId).orElseThrow();
+        assertEquals(1, stored.getCurrentTick());
+        assertEquals(ticked.getResources().getFood(), stored.getResources().getFood());
+        assertEquals(ticked.getResources().getWater(), stored.getResources().getWater());
+        assertEquals(ticked.getBondLevel(), stored.getBondLevel());
+        assertEquals(ticked.getMembers().size(), stored.getMembers().size());
+        for (int i = 0; i < stored.getMembers().size(); i++) {
+            Person person = stored.getMembers().get(i);
+            assertEquals(ticked.getMembers().get(i).getName(), person.getName());
+            assertEquals(ticked.getMembers().get(i).getAge(), person.getAge());
+            assertEquals(ticked.getMembers().get(i).getHealth(), person.getHealth());
+        }
+        assertEquals(stored.getMembers().size(), stored.getAggregates().getCount());
+    }
+
+    @Test
+    public void testDeathsAreDeletedInBulk() {
+        Tribe tribe = tribeService.createTribe("Doomed", "Batch flush test tribe");
+        // Nobody can gather, eat or recover, so the whole tribe dies on the next tick
+        tribe.getMembers().forEach(person -> person.setHealth(0));
+        tribe.getFamilies().forEach(family -> {
+            family.getStorage().setFood(0);
+            family.getStorage().setWater(0);
+        });
+        entityManager.flush();
+        StatementCounter.reset();
+
+        assertEquals(0, tribeService.processTick(tribe.getId()).getMembers().size());
+        entityManager.flush();
+
+        // 6 deaths deleted 4 IDs at a time, no surviving persons to update
+        assertEquals(2, StatementCounter.count("delete from persons"));
+        assertEquals(0, StatementCounter.count("update persons"));
+        assertEquals(1, StatementCounter.count("update resources"));
+        assertEquals(1, StatementCounter.count("update tribes"));
+        assertEquals(4, StatementCounter.writes().size(), "Unexpected writes: " + StatementCounter.writes());
+
+        entityManager.clear();
+        Tribe stored = tribeRepository.findById(tribe.getId()).orElseThrow();
+        assertEquals(0, stored.getMembers().size());
+        assertTrue(stored.getFamilies().stream().allMatch(family -> family.getMembers().isEmpty()));
+        assertEquals(0, stored.getAggregates().getCount());
+    }
+
+    @Test
+    public void testStatementsPerTickDoNotDependOnTickCount() {
+        Long tribeId = tribeService.createTribe("Batched", "Batch flush test tribe").getId();
+        entityManager.flush();
+        StatementCounter.reset();
+
+        tribeService.processTicks(tribeId, 20, false);
+        entityManager.flush();
+
+        // A batch of ticks is written once, at the end
+        assertEquals(1, StatementCounter.count("update tribes"));
+        assertEquals(1, StatementCounter.count("update resources"));
+        assertTrue(StatementCounter.count("update persons") <= 2);
+        assertTrue(StatementCounter.count("delete from persons") <= 2);
+
+        entityManager.clear();
+        assertEquals(20, tribeRepository.findById(tribeId).orElseThrow().getCurrentTick());
+    }
+}
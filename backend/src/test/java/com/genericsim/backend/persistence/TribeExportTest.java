@@ -0,0 +1,284 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.dto.EffectSettingDTO;
+import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.model.LifestyleType;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.ResourceStorage;
+import com.genericsim.backend.model.ResourceType;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.TechnologyType;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.persistence.TribeExportFormat.FamilyRow;
+import com.genericsim.backend.persistence.TribeExportFormat.PersonRow;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeExportService;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tribes exported to the binary tribe export format and imported or cloned from it.
+ *
+ * Not transactional: exports and imports run in their own transactions, so test
+ * data is committed and removed again after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TribeExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TribeExportService tribeExportService;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        // Large imported populations are removed in bulk rather than entity by entity
+        createdTribes.forEach(id -> jdbcTemplate.update("delete from persons where tribe_id = ?", id));
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testImportRecreatesTribe() throws IOException {
+        Long tribeId = createTribe();
+        tribeService.processTicks(tribeId, 5, false);
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setFoodTaxRate(25);
+        update.setEnableCentralStorage(true);
+        update.setEffects(Map.of("CentralStorageTax", new EffectSettingDTO(null, 5)));
+        tribeService.updateTribePolicy(tribeId, update);
+        transactionTemplate.executeWithoutResult(status -> {
+            Tribe tribe = tribeRepository.findById(tribeId).orElseThrow();
+            tribe.addTechnology(TechnologyType.FIRE);
+            tribe.setProgressPoints(42);
+            tribe.getGenericStorage().setAmount(ResourceType.WOOD, 7);
+            tribe.getFamilies().get(0).getGenericStorage().setAmount(ResourceType.STONE, 3);
+        });
+
+        TribeSummaryDTO imported = importTribe(export(tribeId, true), "Imported");
+        createdTribes.add(imported.getTribeId());
+        assertEquals("Imported", imported.getTribeName());
+        assertEquals(5, imported.getCurrentTick());
+
+        TribeStateDTO original = tribeService.getTribeState(tribeId);
+        TribeStateDTO copy = tribeService.getTribeState(imported.getTribeId());
+        assertEquals(imported.getPopulation(), copy.getMembers().size());
+        assertEquals(describe(original), describe(copy));
+        transactionTemplate.executeWithoutResult(status -> {
+            Tribe source = tribeRepository.findById(tribeId).orElseThrow();
+            Tribe target = tribeRepository.findById(imported.getTribeId()).orElseThrow();
+            assertEquals(source.getRandomSeed(), target.getRandomSeed());
+            assertEquals(42, target.getProgressPoints());
+            assertEquals(source.getLifestyle(), target.getLifestyle());
+            assertEquals(source.getTechnologies(), target.getTechnologies());
+            assertEquals(source.getGenericStorage().getResources(), target.getGenericStorage().getResources());
+            assertEquals(source.getGenericCentralStorage().getResources(),
+                target.getGenericCentralStorage().getResources());
+            assertEquals(3, target.getFamilies().get(0).getGenericStorage().getAmount(ResourceType.STONE));
+            assertEquals(source.getPolicy().getLastModifiedTick(), target.getPolicy().getLastModifiedTick());
+            assertEquals(source.getPolicy().getEffectSettings(), target.getPolicy().getEffectSettings());
+            assertEquals(5, target.getPolicy().getEffectSettings().priority("CentralStorageTax", 0));
+            assertEquals(source.getAggregates().getHealthSum(), target.getAggregates().getHealthSum());
+        });
+    }
+
+    @Test
+    public void testCloneTicksLikeOriginal() {
+        Long tribeId = createTribe();
+        tribeService.processTicks(tribeId, 3, false);
+
+        TribeSummaryDTO clone = tribeExportService.cloneTribe(tribeId, null);
+        createdTribes.add(clone.getTribeId());
+        assertEquals("Export", clone.getTribeName());
+        assertNotEquals(tribeId, clone.getTribeId());
+
+        tribeService.processTicks(tribeId, 20, false);
+        tribeService.processTicks(clone.getTribeId(), 20, false);
+        assertEquals(describe(tribeService.getTribeState(tribeId)),
+            describe(tribeService.getTribeState(clone.getTribeId())));
+    }
+
+    @Test
+    public void testCompressionIsOptional() throws IOException {
+        Long tribeId = createTribe();
+        byte[] plain = export(tribeId, false);
+        byte[] compressed = export(tribeId, true);
+        assertEquals(0, plain[5]);
+        assertEquals(1, compressed[5]);
+
+        TribeSummaryDTO fromPlain = importTribe(plain, null);
+        createdTribes.add(fromPlain.getTribeId());
+        TribeSummaryDTO fromCompressed = importTribe(compressed, null);
+        createdTribes.add(fromCompressed.getTribeId());
+        assertEquals(describe(tribeService.getTribeState(fromPlain.getTribeId())),
+            describe(tribeService.getTribeState(fromCompressed.getTribeId())));
+    }
+
+    @Test
+    public void testMalformedExportIsRejected() throws IOException {
+        long tribes = tribeRepository.count();
+        assertThrows(IOException.class, () -> importTribe("not an export".getBytes(), null));
+
+        byte[] export = export(createTribe(), true);
+        byte[] newer = export.clone();
+        newer[4] = (byte) (TribeExportFormat.VERSION + 1);
+        assertThrows(IOException.class, () -> importTribe(newer, null));
+
+        // A truncated upload leaves nothing behind
+        assertThrows(IOException.class, () -> importTribe(Arrays.copyOf(export, export.length / 2), null));
+        assertEquals(tribes + 1, tribeRepository.count());
+    }
+
+    @Test
+    public void testLargeTribeRoundTrip() throws IOException {
+        int memberCount = 100_000;
+        int familyCount = 2_500;
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        TribeExportWriter writer = new TribeExportWriter(written, true);
+        writer.writeTribe(largeTribe());
+        for (int f = 0; f < familyCount; f++) {
+            Map<ResourceType, Integer> storage = new EnumMap<>(ResourceType.class);
+            storage.put(ResourceType.FOOD, f % 50);
+            storage.put(ResourceType.WATER, f % 70);
+            writer.writeFamily(new FamilyRow("Family " + f, f % 100, f % 90, 900 + f % 100, storage));
+        }
+        Person.PersonRole[] roles = Person.PersonRole.values();
+        for (int i = 0; i < memberCount; i++) {
+            writer.writePerson(new PersonRow("Person " + i, roles[i % roles.length], i % 80, 40 + i % 61,
+                (i % 100) / 100.0, 0.5, 1000 - i % 3, i / 40));
+        }
+        writer.finish();
+        byte[] export = written.toByteArray();
+
+        TribeSummaryDTO imported = importTribe(export, null);
+        createdTribes.add(imported.getTribeId());
+        byte[] exportedAgain = export(imported.getTribeId(), true);
+
+        assertEquals(memberCount, imported.getPopulation());
+        assertEquals(memberCount, tribeService.getTribeStatistics(imported.getTribeId()).getTotalPopulation());
+        assertArrayEquals(export, exportedAgain);
+    }
+
+    @Test
+    public void testExportImportAndCloneEndpoints() throws Exception {
+        Long tribeId = createTribe();
+
+        MvcResult started = mockMvc.perform(get("/api/tribes/" + tribeId + "/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        byte[] export = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"tribe-" + tribeId + ".tribe\""))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        String imported = mockMvc.perform(post("/api/tribes/import").param("name", "Uploaded")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM).content(export))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tribeName").value("Uploaded"))
+            .andExpect(jsonPath("$.population").value(6))
+            .andReturn().getResponse().getContentAsString();
+        createdTribes.add(Long.valueOf(imported.replaceAll(".*\"tribeId\":(\\d+).*", "$1")));
+
+        String cloned = mockMvc.perform(post("/api/tribes/" + tribeId + "/clone").param("name", "Twin"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tribeName").value("Twin"))
+            .andReturn().getResponse().getContentAsString();
+        createdTribes.add(Long.valueOf(cloned.replaceAll(".*\"tribeId\":(\\d+).*", "$1")));
+
+        mockMvc.perform(post("/api/tribes/import")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[] {1, 2, 3}))
+            .andExpect(status().isBadRequest());
+    }
+
+    private Tribe largeTribe() {
+        Tribe tribe = new Tribe("Large", "Large exported tribe");
+        tribe.setCurrentTick(1000);
+        tribe.setRandomSeed(-123456789L);
+        tribe.setLifestyle(LifestyleType.HUNTER_GATHERER);
+        tribe.addTechnology(TechnologyType.FIRE);
+        tribe.setResources(new Resources(500, 400));
+        tribe.setCentralStorage(new Resources(0, 0));
+        ResourceStorage storage = new ResourceStorage();
+        storage.initializeDefaults();
+        tribe.setGenericStorage(storage);
+        tribe.setPolicy(new Policy("Default Policy", "Standard tribe policy", 10, 10, 5, 5));
+        return tribe;
+    }
+
+    private byte[] export(Long tribeId, boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tribeExportService.exportTribe(tribeId, out, compress);
+        return out.toByteArray();
+    }
+
+    private TribeSummaryDTO importTribe(byte[] export, String name) throws IOException {
+        return tribeExportService.importTribe(new ByteArrayInputStream(export), name);
+    }
+
+    /**
+     * Everything in a tribe state except the name and the IDs, which differ between copies.
+     */
+    private static List<Object> describe(TribeStateDTO state) {
+        Map<Long, Integer> familyIndexes = new HashMap<>();
+        List<Object> description = new ArrayList<>(List.of(state.getCurrentTick(), state.getBondLevel(),
+            state.getProgressPoints(), state.getResources(), state.getCentralStorage(), state.getPolicy()));
+        for (TribeStateDTO.FamilyDTO family : state.getFamilies()) {
+            familyIndexes.put(family.getId(), familyIndexes.size());
+            description.add(List.of(family.getName(), family.getStorage(), family.getMemberCount()));
+        }
+        for (TribeStateDTO.PersonDTO person : state.getMembers()) {
+            description.add(Arrays.asList(person.getName(), person.getRole(), person.getAge(), person.getHealth(),
+                person.getHuntingSkill(), person.getGatheringSkill(), familyIndexes.get(person.getFamilyId())));
+        }
+        return description;
+    }
+
+    private Long createTribe() {
+        Long tribeId = tribeService.createTribe("Export", "Export test tribe").getId();
+        createdTribes.add(tribeId);
+        return tribeId;
+    }
+}
@@ -0,0 +1,177 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeSummaryFilterDTO;
+import com.genericsim.backend.dto.TribeSummaryPageDTO;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.repository.TribeSummarySort;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query budgets of the tribe endpoints. Each budget is checked on the default tribe
+ * and on a tribe with a hundred more families, so a query per member or per family
+ * fails the build.
+ *
+ * Not transactional: every call must load the tribe from the database, as it does
+ * in a request, so test data is committed and removed again after each test.
+ */
+@SpringBootTest
+@Import(StatementCounter.class)
+public class TribeFetchPlanTest {
+
+    /**
+     * Tribe with resources and policy, families with storage, family members, tribe members
+     */
+    private static final int POPULATION_QUERY_BUDGET = 4;
+
+    /**
+     * Tribe with resources and policy; statistics come from the stored aggregates
+     */
+    private static final int STATISTICS_QUERY_BUDGET = 1;
+
+    /**
+     * One projection query per page of the tribe listing
+     */
+    private static final int SUMMARY_QUERY_BUDGET = 1;
+
+    private static final int LARGE_TRIBE_EXTRA_FAMILIES = 100;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testProcessTickQueryBudget() {
+        for (Long tribeId : List.of(createTribe(0), createTribe(LARGE_TRIBE_EXTRA_FAMILIES))) {
+            StatementCounter.reset();
+            tribeService.processTick(tribeId);
+            assertQueries(POPULATION_QUERY_BUDGET);
+        }
+    }
+
+    @Test
+    public void testProcessTicksQueryBudget() {
+        for (Long tribeId : List.of(createTribe(0), createTribe(LARGE_TRIBE_EXTRA_FAMILIES))) {
+            StatementCounter.reset();
+            tribeService.processTicks(tribeId, 10, true);
+            assertQueries(POPULATION_QUERY_BUDGET);
+        }
+    }
+
+    @Test
+    public void testTribeStateQueryBudget() {
+        for (Long tribeId : List.of(createTribe(0), createTribe(LARGE_TRIBE_EXTRA_FAMILIES))) {
+            StatementCounter.reset();
+            int members = tribeService.getTribeState(tribeId).getMembers().size();
+            assertQueries(POPULATION_QUERY_BUDGET);
+            assertTrue(members >= 6);
+        }
+    }
+
+    @Test
+    public void testTribeStatisticsQueryBudget() {
+        for (Long tribeId : List.of(createTribe(0), createTribe(LARGE_TRIBE_EXTRA_FAMILIES))) {
+            StatementCounter.reset();
+            int population = tribeService.getTribeStatistics(tribeId).getTotalPopulation();
+            assertQueries(STATISTICS_QUERY_BUDGET);
+            assertTrue(population >= 6);
+        }
+    }
+
+    @Test
+    public void testTribeSummariesQueryBudget() {
+        createTribe(0);
+        createTribe(LARGE_TRIBE_EXTRA_FAMILIES);
+        TribeSummaryFilterDTO filter = new TribeSummaryFilterDTO();
+        filter.setName("Fetch plan");
+
+        StatementCounter.reset();
+        TribeSummaryPageDTO page = tribeService.getTribeSummaries(filter, TribeSummarySort.POPULATION, true, null, 1);
+        assertQueries(SUMMARY_QUERY_BUDGET);
+        assertEquals(6 + 3 * LARGE_TRIBE_EXTRA_FAMILIES, page.getTribes().get(0).getPopulation());
+
+        StatementCounter.reset();
+        page = tribeService.getTribeSummaries(filter, TribeSummarySort.POPULATION, true, page.getNextCursor(), 1);
+        assertQueries(SUMMARY_QUERY_BUDGET);
+        assertEquals(6, page.getTribes().get(0).getPopulation());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testPolicyUpdateQueryBudget() {
+        for (Long tribeId : List.of(createTribe(0), createTribe(LARGE_TRIBE_EXTRA_FAMILIES))) {
+            PolicyUpdateDTO update = new PolicyUpdateDTO();
+            update.setFoodTaxRate(20);
+            StatementCounter.reset();
+            tribeService.updateTribePolicy(tribeId, update);
+            assertQueries(POPULATION_QUERY_BUDGET);
+        }
+    }
+
+    @Test
+    public void testLargeTribeIsFullyLoaded() {
+        Long tribeId = createTribe(LARGE_TRIBE_EXTRA_FAMILIES);
+
+        TribeStateDTO state = tribeService.getTribeState(tribeId);
+        assertEquals(6 + 3 * LARGE_TRIBE_EXTRA_FAMILIES, state.getMembers().size());
+        assertEquals(2 + LARGE_TRIBE_EXTRA_FAMILIES, state.getFamilies().size());
+        assertTrue(state.getFamilies().stream().allMatch(family -> family.getMemberCount() == 3));
+        assertTrue(state.getMembers().stream().allMatch(person -> person.getFamilyId() != null));
+    }
+
+    private void assertQueries(int budget) {
+        assertTrue(StatementCounter.queries() <= budget,
+            "Expected at most " + budget + " queries, got " + StatementCounter.statements());
+    }
+
+    /**
+     * Create a default tribe and add families of three to it.
+     */
+    private Long createTribe(int extraFamilies) {
+        Long tribeId = tribeService.createTribe("Fetch plan", "Fetch plan test tribe").getId();
+        createdTribes.add(tribeId);
+        transactionTemplate.executeWithoutResult(status -> {
+            Tribe tribe = tribeRepository.findById(tribeId).orElseThrow();
+            for (int f = 0; f < extraFamilies; f++) {
+                Family family = new Family("Family " + f);
+                family.setStorage(new Resources(30, 30));
+                tribe.addFamily(family);
+                for (int p = 0; p < 3; p++) {
+                    Person person = new Person("Person " + f + "-" + p, Person.PersonRole.GATHERER, 30, 100);
+                    tribe.addMember(person);
+                    family.addMember(person);
+                }
+            }
+        });
+        return tribeId;
+    }
+}
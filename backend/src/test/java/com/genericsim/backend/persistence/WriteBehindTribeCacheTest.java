@@ -0,0 +1,186 @@
+package com.genericsim.backend.persistence;
+
+import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.model.Policy;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: the cache loads and checkpoints tribes in its own transactions,
+ * so test data is committed and removed again after each test. Scheduled checkpoints
+ * are pushed out of the way so that the tests decide when checkpoints happen.
+ */
+@SpringBootTest(properties = {
+    "simulation.persistence.write-behind=true",
+    "simulation.persistence.checkpoint-interval-ms=3600000",
+    "simulation.persistence.max-dirty-ticks=10"
+})
+public class WriteBehindTribeCacheTest {
+
+    @Autowired
+    private WriteBehindTribeCache hotTribes;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        createdTribes.forEach(hotTribes::evict);
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testTicksStayInMemoryUntilCheckpoint() {
+        Long tribeId = createTribe();
+
+        TribeStateDTO ticked = tribeService.processTicks(tribeId, 5, false).getFinalState();
+        assertEquals(5, ticked.getCurrentTick());
+        assertEquals(0, storedTick(tribeId));
+        assertEquals(5, tribeService.getTribeState(tribeId).getCurrentTick());
+
+        CheckpointBacklog backlog = hotTribes.getBacklog();
+        assertTrue(backlog.writeBehind());
+        assertTrue(backlog.dirtyTribes() >= 1);
+        assertTrue(backlog.dirtyTicks() >= 5);
+
+        assertTrue(hotTribes.checkpointAll() >= 1);
+        assertEquals(5, storedTick(tribeId));
+        assertEquals(0, hotTribes.getBacklog().dirtyTribes());
+        assertEquals(ticked.getResources().getFood(), stored(tribeId).getResources().getFood());
+        assertEquals(ticked.getMembers().size(), stored(tribeId).getMembers().size());
+    }
+
+    @Test
+    public void testTribeTooFarAheadIsCheckpointedImmediately() {
+        Long tribeId = createTribe();
+
+        tribeService.processTicks(tribeId, 9, false);
+        assertEquals(0, storedTick(tribeId));
+
+        tribeService.processTick(tribeId);
+        assertEquals(10, storedTick(tribeId));
+        assertEquals(0, hotTribes.getBacklog().dirtyTicks());
+    }
+
+    @Test
+    public void testPolicyUpdateAppliesToInMemoryTribe() {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setFoodTaxRate(33);
+        assertEquals(33, tribeService.updateTribePolicy(tribeId, update).getPolicy().getFoodTaxRate());
+        assertEquals(10, stored(tribeId).getPolicy().getFoodTaxRate());
+
+        // Later ticks see the new policy and the checkpoint keeps both changes
+        tribeService.processTick(tribeId);
+        hotTribes.evict(tribeId);
+        Tribe stored = stored(tribeId);
+        assertEquals(33, stored.getPolicy().getFoodTaxRate());
+        assertEquals(2, stored.getCurrentTick());
+    }
+
+    @Test
+    public void testEntitiesCreatedInMemoryAreInsertedOnce() {
+        Long tribeId = createTribe();
+        // Without a policy, the policy update creates one in memory
+        transactionTemplate.executeWithoutResult(status -> {
+            Tribe tribe = tribeRepository.findById(tribeId).orElseThrow();
+            Policy policy = tribe.getPolicy();
+            tribe.setPolicy(null);
+            entityManager.remove(policy);
+        });
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setFoodTaxRate(33);
+        tribeService.updateTribePolicy(tribeId, update);
+
+        hotTribes.checkpointAll();
+        Long policyId = stored(tribeId).getPolicy().getId();
+        int policies = countPolicies();
+
+        tribeService.processTick(tribeId);
+        hotTribes.checkpointAll();
+        tribeService.processTick(tribeId);
+        hotTribes.checkpointAll();
+
+        Tribe stored = stored(tribeId);
+        assertEquals(policyId, stored.getPolicy().getId());
+        assertEquals(33, stored.getPolicy().getFoodTaxRate());
+        assertEquals(policies, countPolicies());
+        assertEquals(tribeService.getTribeState(tribeId).getMembers().size(), stored.getMembers().size());
+    }
+
+    @Test
+    public void testDeathsAreCheckpointed() {
+        Long tribeId = createTribe();
+        // Nobody can gather, eat or recover, so the whole tribe dies on the next tick
+        transactionTemplate.executeWithoutResult(status -> {
+            Tribe tribe = tribeRepository.findById(tribeId).orElseThrow();
+            tribe.getMembers().forEach(person -> person.setHealth(0));
+            tribe.getFamilies().forEach(family -> {
+                family.getStorage().setFood(0);
+                family.getStorage().setWater(0);
+            });
+        });
+
+        assertEquals(0, tribeService.processTick(tribeId).getMembers().size());
+        assertEquals(6, stored(tribeId).getMembers().size());
+
+        hotTribes.checkpointAll();
+        assertEquals(0, stored(tribeId).getMembers().size());
+    }
+
+    private Long createTribe() {
+        Long tribeId = tribeService.createTribe("Write-behind", "Write-behind test tribe").getId();
+        createdTribes.add(tribeId);
+        return tribeId;
+    }
+
+    private int countPolicies() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM policies", Integer.class);
+    }
+
+    private long storedTick(Long tribeId) {
+        return stored(tribeId).getCurrentTick();
+    }
+
+    /**
+     * Read the tribe as stored in the database, with its members and policy loaded.
+     */
+    private Tribe stored(Long tribeId) {
+        return transactionTemplate.execute(status -> {
+            Tribe tribe = tribeRepository.findById(tribeId).orElseThrow();
+            tribe.getMembers().size();
+            return tribe;
+        });
+    }
+}
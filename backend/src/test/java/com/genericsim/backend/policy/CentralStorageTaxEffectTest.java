@@ -3,12 +3,14 @@ package com.genericsim.backend.policy;
 import com.genericsim.backend.model.*;
 import com.genericsim.backend.policy.effects.CentralStorageTaxEffect;
 import com.genericsim.backend.service.FamilyService;
+import com.genericsim.backend.simulation.FamilyPartitioner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -171,4 +173,56 @@ public class CentralStorageTaxEffectTest {
         assertEquals(30, tribe.getCentralStorage().getFood());
         assertEquals(26, tribe.getCentralStorage().getWater());
     }
+
+    @Test
+    public void testParallelTaxMatchesSequential() {
+        Tribe sequential = createTaxedTribe();
+        Tribe parallel = createTaxedTribe();
+
+        FamilyPartitioner partitioner = new FamilyPartitioner(new ForkJoinPool(4), 1);
+        try {
+            effect.apply(gatheredContext(sequential, FamilyPartitioner.SEQUENTIAL));
+            effect.apply(gatheredContext(parallel, partitioner));
+        } finally {
+            partitioner.shutdown();
+        }
+
+        assertEquals(sequential.getCentralStorage().getFood(), parallel.getCentralStorage().getFood());
+        assertEquals(sequential.getCentralStorage().getWater(), parallel.getCentralStorage().getWater());
+        assertTrue(parallel.getCentralStorage().getFood() > 0);
+        for (int i = 0; i < sequential.getFamilies().size(); i++) {
+            assertEquals(sequential.getFamilies().get(i).getStorage().getFood(),
+                parallel.getFamilies().get(i).getStorage().getFood());
+            assertEquals(sequential.getFamilies().get(i).getStorage().getWater(),
+                parallel.getFamilies().get(i).getStorage().getWater());
+        }
+    }
+
+    private Tribe createTaxedTribe() {
+        Tribe tribe = new Tribe("Test", "Test");
+        Policy policy = new Policy("Test", "Test", 10, 10, 5, 5);
+        policy.setEnableCentralStorage(true);
+        policy.setCentralStorageTaxRate(15);
+        tribe.setPolicy(policy);
+        tribe.setCentralStorage(new Resources(0, 0));
+        for (int i = 0; i < 500; i++) {
+            Family family = new Family("Family " + i);
+            family.setStorage(new Resources(i % 40, i % 25));
+            tribe.addFamily(family);
+        }
+        return tribe;
+    }
+
+    private TickContext gatheredContext(Tribe tribe, FamilyPartitioner partitioner) {
+        TickContext context = new TickContext(tribe, familyService, new Random());
+        context.setFamilyPartitioner(partitioner);
+        int i = 0;
+        for (Family family : tribe.getFamilies()) {
+            context.snapshotFamilyStorage(family);
+            family.getStorage().setFood(family.getStorage().getFood() + 7 * (i % 13));
+            family.getStorage().setWater(family.getStorage().getWater() + 5 * (i % 17));
+            i++;
+        }
+        return context;
+    }
 }
@@ -1,5 +1,7 @@
 package com.genericsim.backend.policy;
 
+import com.genericsim.backend.model.EffectSettings;
+import com.genericsim.backend.model.Policy;
 import com.genericsim.backend.model.Tribe;
 import com.genericsim.backend.service.FamilyService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +10,7 @@ import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -99,8 +102,106 @@ public class PolicyEngineTest {
         assertTrue(summary.get(PolicyPhase.RESOURCE_COLLECTION).contains("TestEffect"));
     }
 
+    @Test
+    public void testTribeCanDisableEffect() {
+        TestEffect decay = new TestEffect("Decay", PolicyPhase.RESOURCE_COLLECTION, 100);
+        TestEffect tax = new TestEffect("Tax", PolicyPhase.RESOURCE_COLLECTION, 200);
+        policyEngine.registerEffect(decay);
+        policyEngine.registerEffect(tax);
+
+        Tribe tribe = tribeWithSettings(Map.of("Decay", new EffectSettings.Setting(false, null)));
+        policyEngine.executePhase(PolicyPhase.RESOURCE_COLLECTION, new TickContext(tribe, familyService, new Random()));
+
+        assertFalse(decay.wasApplied);
+        assertTrue(tax.wasApplied);
+        assertEquals(List.of(tax), policyEngine.planFor(tribe).getEffects(PolicyPhase.RESOURCE_COLLECTION));
+        // Other tribes still run every effect
+        assertEquals(List.of(decay, tax), policyEngine.getEffectsForPhase(PolicyPhase.RESOURCE_COLLECTION));
+    }
+
+    @Test
+    public void testTribeCanOverridePriority() {
+        TestEffect first = new TestEffect("First", PolicyPhase.RESOURCE_COLLECTION, 100);
+        TestEffect second = new TestEffect("Second", PolicyPhase.RESOURCE_COLLECTION, 200);
+        TestEffect third = new TestEffect("Third", PolicyPhase.RESOURCE_COLLECTION, 200);
+        policyEngine.registerEffect(first);
+        policyEngine.registerEffect(second);
+        policyEngine.registerEffect(third);
+
+        // Equal priorities keep registration order
+        Tribe tribe = tribeWithSettings(Map.of("First", new EffectSettings.Setting(true, 200)));
+        assertEquals(List.of(first, second, third), policyEngine.planFor(tribe).getEffects(PolicyPhase.RESOURCE_COLLECTION));
+
+        tribe.getPolicy().setEffectSettings(tribe.getPolicy().getEffectSettings()
+            .with("First", new EffectSettings.Setting(true, 300)));
+        TickContext context = new TickContext(tribe, familyService, new Random());
+        policyEngine.executePhase(PolicyPhase.RESOURCE_COLLECTION, context);
+
+        assertEquals(List.of("Second", "Third", "First"),
+            context.getAppliedEffects().stream().map(TickContext.AppliedEffect::name).toList());
+    }
+
+    @Test
+    public void testEffectRegisteredDuringTickRunsFromNextTick() {
+        TestEffect collection = new TestEffect("Collection", PolicyPhase.RESOURCE_COLLECTION, 100);
+        policyEngine.registerEffect(collection);
+        Tribe tribe = new Tribe("Test", "Test");
+        TickContext context = new TickContext(tribe, familyService, new Random());
+        policyEngine.executePhase(PolicyPhase.RESOURCE_COLLECTION, context);
+
+        TestEffect decay = new TestEffect("Decay", PolicyPhase.RESOURCE_DECAY, 100);
+        policyEngine.registerEffect(decay);
+        policyEngine.executePhase(PolicyPhase.RESOURCE_DECAY, context);
+        assertFalse(decay.wasApplied, "A tick runs on the effects it started with");
+
+        policyEngine.executePhase(PolicyPhase.RESOURCE_DECAY, new TickContext(tribe, familyService, new Random()));
+        assertTrue(decay.wasApplied);
+        assertEquals(2, policyEngine.getEffectCount());
+    }
+
+    @Test
+    public void testPlansAreSharedAndRecompiledOnRegistration() {
+        policyEngine.registerEffect(new TestEffect("Decay", PolicyPhase.RESOURCE_DECAY, 100));
+        Map<String, EffectSettings.Setting> disabled = Map.of("Decay", new EffectSettings.Setting(false, null));
+        Tribe tribe = tribeWithSettings(disabled);
+        Tribe other = tribeWithSettings(disabled);
+
+        EffectPlan plan = policyEngine.planFor(tribe);
+        assertSame(plan, policyEngine.planFor(other));
+        assertSame(policyEngine.planFor(new Tribe("Test", "Test")), policyEngine.planFor(new Tribe("Other", "Other")));
+
+        policyEngine.registerEffect(new TestEffect("Tax", PolicyPhase.RESOURCE_DECAY, 50));
+        EffectPlan recompiled = policyEngine.planFor(tribe);
+        assertNotSame(plan, recompiled);
+        assertEquals(List.of("Tax"), recompiled.getEffects(PolicyPhase.RESOURCE_DECAY).stream()
+            .map(PolicyEffect::getName).toList());
+    }
+
+    @Test
+    public void testEffectSettingsEncoding() {
+        EffectSettings settings = EffectSettings.of(Map.of(
+            "StorageDecay", new EffectSettings.Setting(false, null),
+            "CentralStorageTax", new EffectSettings.Setting(true, 50),
+            "Gathering", new EffectSettings.Setting(true, null)));
+
+        assertEquals("CentralStorageTax@50,StorageDecay!", settings.encode());
+        assertEquals(settings, EffectSettings.decode(settings.encode()));
+        assertSame(EffectSettings.NONE, EffectSettings.decode(""));
+        assertThrows(IllegalArgumentException.class,
+            () -> EffectSettings.of(Map.of("Bad,Name", new EffectSettings.Setting(false, null))));
+    }
+
+    private static Tribe tribeWithSettings(Map<String, EffectSettings.Setting> settings) {
+        Tribe tribe = new Tribe("Test", "Test");
+        Policy policy = new Policy("Test Policy", "Test", 10, 10, 5, 5);
+        policy.setEffectSettings(EffectSettings.of(settings));
+        tribe.setPolicy(policy);
+        return tribe;
+    }
+
     // Test implementation of PolicyEffect
     private static class TestEffect implements PolicyEffect {
+        private final String name;
         private final PolicyPhase phase;
         private final int priority;
         private final boolean shouldApply;
@@ -111,6 +212,15 @@ public class PolicyEngineTest {
         }
 
         public TestEffect(PolicyPhase phase, int priority, boolean shouldApply) {
+            this("TestEffect", phase, priority, shouldApply);
+        }
+
+        public TestEffect(String name, PolicyPhase phase, int priority) {
+            this(name, phase, priority, true);
+        }
+
+        public TestEffect(String name, PolicyPhase phase, int priority, boolean shouldApply) {
+            this.name = name;
             this.phase = phase;
             this.priority = priority;
             this.shouldApply = shouldApply;
@@ -138,7 +248,7 @@ public class PolicyEngineTest {
 
         @Override
         public String getName() {
-            return "TestEffect";
+            return name;
         }
     }
 }
@@ -0,0 +1,184 @@
+package com.genericsim.backend.readmodel;
+
+import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TribeChangesDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Changes since a tick, worked out from the ticks stamped on persons and family
+ * storage and the deaths kept in the change log.
+ *
+ * Not transactional: deaths are logged when the tick commits, so test data is
+ * committed and removed again after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TribeChangesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private TribeReadModel readModel;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.forEach(readModel::evict);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testChangesCatchUpWithState() {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+        TribeStateDTO seen = tribeService.getTribeState(tribeId);
+        tribeService.processTicks(tribeId, 5, false);
+
+        TribeChangesDTO changes = tribeService.getTribeChanges(tribeId, 1);
+        assertFalse(changes.isFullSnapshot());
+        assertEquals(6, changes.getCurrentTick());
+
+        TribeStateDTO current = tribeService.getTribeState(tribeId);
+        assertEquals(current.getMembers(), apply(seen.getMembers(), changes));
+        assertEquals(current.getFamilies(), applyFamilies(seen.getFamilies(), changes));
+        assertEquals(current.getBondLevel(), changes.getBondLevel());
+        assertEquals(current.getProgressPoints(), changes.getProgressPoints());
+        assertEquals(current.getResources().getFood(), changes.getResources().getFood());
+        assertTrue(changes.getChangedPersons().size() <= current.getMembers().size());
+    }
+
+    @Test
+    public void testNothingChangedSinceCurrentTick() {
+        Long tribeId = createTribe();
+        tribeService.processTicks(tribeId, 3, false);
+
+        TribeChangesDTO changes = tribeService.getTribeChanges(tribeId, 3);
+        assertFalse(changes.isFullSnapshot());
+        assertTrue(changes.getChangedPersons().isEmpty());
+        assertTrue(changes.getChangedFamilies().isEmpty());
+        assertTrue(changes.getDeaths().isEmpty());
+        assertNull(changes.getPolicy());
+    }
+
+    @Test
+    public void testDeathsAreListed() {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+        List<Long> doomed = transactionTemplate.execute(status -> {
+            // Without food, water or health the first family dies on the next tick
+            Tribe tribe = tribeRepository.findById(tribeId).orElseThrow();
+            Family family = tribe.getFamilies().get(0);
+            family.getStorage().setFood(0);
+            family.getStorage().setWater(0);
+            family.getMembers().forEach(person -> person.setHealth(0));
+            return family.getMembers().stream().map(Person::getId).toList();
+        });
+        tribeService.processTick(tribeId);
+
+        TribeChangesDTO changes = tribeService.getTribeChanges(tribeId, 1);
+        assertFalse(changes.isFullSnapshot());
+        assertEquals(doomed, changes.getDeaths());
+        assertTrue(changes.getChangedPersons().stream().noneMatch(person -> doomed.contains(person.getId())));
+        assertTrue(tribeService.getTribeChanges(tribeId, 2).getDeaths().isEmpty());
+    }
+
+    @Test
+    public void testPolicyUpdateIsSentFromItsTick() {
+        Long tribeId = createTribe();
+        tribeService.processTicks(tribeId, 2, false);
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setWaterTaxRate(35);
+        tribeService.updateTribePolicy(tribeId, update);
+
+        assertEquals(35, tribeService.getTribeChanges(tribeId, 2).getPolicy().getWaterTaxRate());
+        tribeService.processTick(tribeId);
+        assertNull(tribeService.getTribeChanges(tribeId, 3).getPolicy());
+    }
+
+    @Test
+    public void testFullSnapshotOutsideLoggedTicks() {
+        Long tribeId = createTribe();
+        tribeService.processTicks(tribeId, 2, false);
+        tribeService.processTick(tribeId);
+
+        // The log of this tribe starts at tick 2, its first tick since startup
+        TribeChangesDTO beforeLog = tribeService.getTribeChanges(tribeId, 1);
+        assertTrue(beforeLog.isFullSnapshot());
+        assertEquals(3, beforeLog.getSnapshot().getCurrentTick());
+        assertNull(beforeLog.getChangedPersons());
+
+        assertFalse(tribeService.getTribeChanges(tribeId, 2).isFullSnapshot());
+        assertTrue(tribeService.getTribeChanges(tribeId, 4).isFullSnapshot());
+    }
+
+    @Test
+    public void testChangesEndpoint() throws Exception {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/changes").param("sinceTick", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tribeId").value(tribeId))
+            .andExpect(jsonPath("$.currentTick").value(1))
+            .andExpect(jsonPath("$.fullSnapshot").value(false))
+            .andExpect(jsonPath("$.changedPersons").isArray());
+
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/changes").param("sinceTick", "-1"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private List<TribeStateDTO.PersonDTO> apply(List<TribeStateDTO.PersonDTO> members, TribeChangesDTO changes) {
+        Map<Long, TribeStateDTO.PersonDTO> byId = new LinkedHashMap<>();
+        members.forEach(person -> byId.put(person.getId(), person));
+        changes.getDeaths().forEach(byId::remove);
+        changes.getChangedPersons().forEach(person -> byId.put(person.getId(), person));
+        return new ArrayList<>(byId.values());
+    }
+
+    private List<TribeStateDTO.FamilyDTO> applyFamilies(List<TribeStateDTO.FamilyDTO> families,
+                                                        TribeChangesDTO changes) {
+        Map<Long, TribeStateDTO.FamilyDTO> byId = new LinkedHashMap<>();
+        families.forEach(family -> byId.put(family.getId(), family));
+        changes.getChangedFamilies().forEach(family -> byId.put(family.getId(), family));
+        return new ArrayList<>(byId.values());
+    }
+
+    private Long createTribe() {
+        Long tribeId = tribeService.createTribe("Changes", "Changes test tribe").getId();
+        createdTribes.add(tribeId);
+        return tribeId;
+    }
+}
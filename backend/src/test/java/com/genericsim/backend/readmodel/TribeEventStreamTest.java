@@ -0,0 +1,313 @@
+package com.genericsim.backend.readmodel;
+
+import com.genericsim.backend.config.EventStreamProperties;
+import com.genericsim.backend.dto.PolicyUpdateDTO;
+import com.genericsim.backend.dto.TickBatchDTO;
+import com.genericsim.backend.dto.TribeDeltaDTO;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tribe deltas pushed to event stream subscribers.
+ *
+ * Not transactional: deltas are sent when the change commits, so test data is
+ * committed and removed again after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TribeEventStreamTest {
+
+    private static final String RESYNC = "resync";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private TribeReadModel readModel;
+
+    @Autowired
+    private TribeEventStream events;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        emitters.forEach(RecordingEmitter::close);
+        emitters.clear();
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.forEach(readModel::evict);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testTickSendsDeltaToTribeAndAllTribeSubscribers() throws Exception {
+        Long tribeId = createTribe();
+        Long otherTribeId = createTribe();
+        RecordingEmitter tribeEvents = subscribe(tribeId);
+        RecordingEmitter allEvents = subscribe(null);
+
+        tribeService.processTick(tribeId);
+        tribeService.processTick(otherTribeId);
+
+        TribeDeltaDTO delta = (TribeDeltaDTO) tribeEvents.next();
+        assertEquals(tribeId, delta.getTribeId());
+        assertEquals(0, delta.getFromTick());
+        assertEquals(1, delta.getTick());
+        assertEquals(tribeService.getTribeSnapshot(tribeId).revision(), delta.getRevision());
+        assertEquals(1, delta.getStatistics().getCurrentTick());
+        assertNull(delta.getPolicy());
+        assertNull(tribeEvents.poll());
+
+        assertEquals(tribeId, ((TribeDeltaDTO) allEvents.next()).getTribeId());
+        assertEquals(otherTribeId, ((TribeDeltaDTO) allEvents.next()).getTribeId());
+    }
+
+    @Test
+    public void testBatchDeltaListsEveryDeath() throws Exception {
+        Long tribeId = createTribe();
+        List<Long> members = memberIds(tribeService.getTribeState(tribeId));
+        RecordingEmitter tribeEvents = subscribe(tribeId);
+
+        // Long enough for the starting members to die out
+        TickBatchDTO batch = tribeService.processTicks(tribeId, 30000, false);
+
+        TribeDeltaDTO delta = (TribeDeltaDTO) tribeEvents.next();
+        List<Long> survivors = memberIds(batch.getFinalState());
+        assertFalse(delta.getDeaths().isEmpty());
+        assertEquals(members.stream().filter(id -> !survivors.contains(id)).sorted().toList(),
+            delta.getDeaths().stream().sorted().toList());
+        assertTrue(delta.getChangedPersons().stream().allMatch(person -> survivors.contains(person.getId())));
+    }
+
+    @Test
+    public void testPolicyUpdateSendsPolicy() throws Exception {
+        Long tribeId = createTribe();
+        RecordingEmitter tribeEvents = subscribe(tribeId);
+
+        PolicyUpdateDTO update = new PolicyUpdateDTO();
+        update.setFoodTaxRate(30);
+        tribeService.updateTribePolicy(tribeId, update);
+
+        TribeDeltaDTO delta = (TribeDeltaDTO) tribeEvents.next();
+        assertEquals(0, delta.getTick());
+        assertEquals(30, delta.getPolicy().getFoodTaxRate());
+        assertTrue(delta.getChangedPersons().isEmpty());
+        assertTrue(delta.getDeaths().isEmpty());
+    }
+
+    @Test
+    public void testSubscribersAreTracked() {
+        Long tribeId = createTribe();
+        assertFalse(events.hasSubscribers(tribeId));
+
+        RecordingEmitter tribeEvents = subscribe(tribeId);
+        assertTrue(events.hasSubscribers(tribeId));
+
+        tribeEvents.close();
+        assertFalse(events.hasSubscribers(tribeId));
+    }
+
+    @Test
+    public void testSlowSubscriberIsResynced() throws Exception {
+        EventStreamProperties properties = new EventStreamProperties();
+        properties.setBufferSize(2);
+        TribeEventStream stream = new TribeEventStream(properties);
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        stream.subscribe(1L, slow);
+        try {
+            stream.publish(delta(1L, 1));
+            assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+            // The sender is stuck on tick 1 while ticks 2 to 10 overflow the buffer
+            for (int tick = 2; tick <= 10; tick++) {
+                stream.publish(delta(1L, tick));
+            }
+            slow.gate.countDown();
+
+            assertEquals(1, ((TribeDeltaDTO) slow.next()).getTick());
+            assertEquals(RESYNC, slow.next());
+            assertNull(slow.poll());
+
+            stream.publish(delta(1L, 11));
+            assertEquals(11, ((TribeDeltaDTO) slow.next()).getTick());
+        } finally {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeltaListsOnlyChanges() {
+        Tribe tribe = new Tribe("Delta", "Delta test tribe");
+        tribe.setId(1L);
+        Family changedFamily = family(10L, tribe);
+        family(11L, tribe);
+        Person unchanged = person(1L, 30, 100);
+        Person aged = person(2L, 30, 100);
+        tribe.addMember(unchanged);
+        tribe.addMember(aged);
+
+        tribe.setCurrentTick(1);
+        aged.setAge(31);
+        aged.setLastModifiedTick(1);
+        changedFamily.getStorage().setFood(15);
+        changedFamily.getStorage().setLastModifiedTick(1);
+
+        TribeDeltaDTO delta = new TribeDeltaDTO(tribe, 0, List.of(3L), null, new TribeStatisticsDTO(), 7);
+        assertEquals(List.of(2L), delta.getChangedPersons().stream().map(TribeStateDTO.PersonDTO::getId).toList());
+        assertEquals(31, delta.getChangedPersons().get(0).getAge());
+        assertEquals(List.of(3L), delta.getDeaths());
+        assertEquals(List.of(10L), delta.getChangedFamilies().stream().map(TribeStateDTO.FamilyDTO::getId).toList());
+        assertEquals(15, delta.getChangedFamilies().get(0).getStorage().getFood());
+        assertNull(delta.getPolicy());
+        assertEquals(7, delta.getRevision());
+    }
+
+    @Test
+    public void testTribeEventStreamEndpoint() throws Exception {
+        Long tribeId = createTribe();
+
+        MvcResult result = mockMvc.perform(get("/api/tribes/" + tribeId + "/events")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        tribeService.processTick(tribeId);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        // The event is written in parts, so wait for its data rather than its name
+        while (!content.contains("\"tick\":1") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains("event:delta"), content);
+        assertTrue(content.contains("\"tribeId\":" + tribeId), content);
+        assertTrue(content.contains("\"tick\":1"), content);
+    }
+
+    private RecordingEmitter subscribe(Long tribeId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        events.subscribe(tribeId, emitter);
+        return emitter;
+    }
+
+    private Long createTribe() {
+        Long tribeId = tribeService.createTribe("Event stream", "Event stream test tribe").getId();
+        createdTribes.add(tribeId);
+        return tribeId;
+    }
+
+    private static TribeDeltaDTO delta(Long tribeId, long tick) {
+        TribeDeltaDTO delta = new TribeDeltaDTO();
+        delta.setTribeId(tribeId);
+        delta.setTick(tick);
+        delta.setRevision(tick);
+        return delta;
+    }
+
+    private static List<Long> memberIds(TribeStateDTO state) {
+        return state.getMembers().stream().map(TribeStateDTO.PersonDTO::getId).toList();
+    }
+
+    private static Person person(Long id, int age, int health) {
+        Person person = new Person("Person " + id, Person.PersonRole.GATHERER, age, health);
+        person.setId(id);
+        return person;
+    }
+
+    private static Family family(Long id, Tribe tribe) {
+        Family family = new Family("Family " + id);
+        family.setId(id);
+        family.setStorage(new Resources(20, 20));
+        tribe.addFamily(family);
+        return family;
+    }
+
+    /**
+     * Emitter that records the deltas and resyncs sent to it instead of writing them to
+     * a response; sending can be held up with a gate to play a slow client.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final List<Runnable> completionCallbacks = new ArrayList<>();
+        private CountDownLatch gate;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof TribeDeltaDTO delta) {
+                    received.add(delta);
+                } else if (part.getData().toString().startsWith("event:" + RESYNC)) {
+                    received.add(RESYNC);
+                }
+            });
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallbacks.add(callback);
+        }
+
+        Object next() throws InterruptedException {
+            Object event = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event received");
+            return event;
+        }
+
+        Object poll() throws InterruptedException {
+            return received.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Close the stream as the container does when the client disconnects.
+         */
+        void close() {
+            completionCallbacks.forEach(Runnable::run);
+        }
+    }
+}
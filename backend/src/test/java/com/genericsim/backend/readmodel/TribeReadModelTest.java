@@ -0,0 +1,194 @@
+package com.genericsim.backend.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genericsim.backend.config.ReadModelProperties;
+import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.persistence.StatementCounter;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Reads of tribe state and statistics through the read model.
+ *
+ * Not transactional: snapshots are published when the change commits, so test data
+ * is committed and removed again after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCounter.class)
+public class TribeReadModelTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private TribeReadModel readModel;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.forEach(readModel::evict);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testNotModifiedUntilNextTick() throws Exception {
+        Long tribeId = createTribe();
+
+        String etag = mockMvc.perform(get("/api/tribes/" + tribeId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.tribeId").value(tribeId))
+            .andExpect(jsonPath("$.currentTick").value(0))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/tribes/" + tribeId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        tribeService.processTick(tribeId);
+
+        String nextEtag = mockMvc.perform(get("/api/tribes/" + tribeId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentTick").value(1))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nextEtag);
+    }
+
+    @Test
+    public void testPolicyUpdateChangesETagWithinTick() throws Exception {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+        String etag = mockMvc.perform(get("/api/tribes/" + tribeId))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/tribes/" + tribeId + "/policy")
+                .contentType("application/json")
+                .content("{\"foodTaxRate\":25}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tribes/" + tribeId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentTick").value(1))
+            .andExpect(jsonPath("$.policy.foodTaxRate").value(25));
+    }
+
+    @Test
+    public void testStatisticsShareTheSnapshot() throws Exception {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+
+        String etag = mockMvc.perform(get("/api/tribes/" + tribeId + "/statistics"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tribeId").value(tribeId))
+            .andExpect(jsonPath("$.currentTick").value(1))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/tribes/" + tribeId).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/statistics").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testSnapshotIsReadWithoutQueriesOnceSerialized() throws Exception {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+        mockMvc.perform(get("/api/tribes/" + tribeId)).andExpect(status().isOk());
+
+        StatementCounter.reset();
+        mockMvc.perform(get("/api/tribes/" + tribeId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tribes/" + tribeId + "/statistics")).andExpect(status().isOk());
+        assertEquals(0, StatementCounter.queries(), "Unexpected queries: " + StatementCounter.statements());
+    }
+
+    @Test
+    public void testFirstReadTakesSnapshot() throws Exception {
+        Long tribeId = createTribe();
+        assertNull(readModel.get(tribeId));
+
+        mockMvc.perform(get("/api/tribes/" + tribeId)).andExpect(status().isOk());
+
+        TribeSnapshot snapshot = readModel.get(tribeId);
+        assertNotNull(snapshot);
+        assertEquals(0, snapshot.tick());
+    }
+
+    @Test
+    public void testTickIsNotSerializedUntilRead() {
+        Long tribeId = createTribe();
+        TribeSnapshot before = tribeService.getTribeSnapshot(tribeId);
+
+        tribeService.processTick(tribeId);
+        assertNull(readModel.get(tribeId), "The snapshot of the previous tick is not served");
+
+        TribeSnapshot after = tribeService.getTribeSnapshot(tribeId);
+        assertEquals(1, after.tick());
+        assertTrue(after.revision() > before.revision());
+        assertSame(after, tribeService.getTribeSnapshot(tribeId));
+    }
+
+    @Test
+    public void testOlderRevisionDoesNotReplaceNewer() {
+        Long tribeId = createTribe();
+        tribeService.processTick(tribeId);
+        TribeSnapshot current = tribeService.getTribeSnapshot(tribeId);
+
+        readModel.publish(tribeId, current.tick() - 1);
+
+        assertSame(current, readModel.get(tribeId));
+    }
+
+    @Test
+    public void testSnapshotsAreBounded() {
+        ReadModelProperties properties = new ReadModelProperties();
+        properties.setMaxSnapshots(2);
+        TribeReadModel bounded = new TribeReadModel(new ObjectMapper(), properties);
+        for (long tribeId = 1; tribeId <= 3; tribeId++) {
+            bounded.publish(tribeId, 0);
+            bounded.get(tribeId, viewOf(tribeId));
+        }
+
+        assertNull(bounded.get(1L), "The snapshot serialized first is dropped");
+        assertNotNull(bounded.get(2L));
+        assertNotNull(bounded.get(3L));
+        assertEquals(1L, bounded.get(1L, viewOf(1L)).tribeId());
+    }
+
+    private static Supplier<TribeReadModel.TribeView> viewOf(long tribeId) {
+        TribeStateDTO state = new TribeStateDTO();
+        state.setTribeId(tribeId);
+        return () -> new TribeReadModel.TribeView(state, new TribeStatisticsDTO());
+    }
+
+    private Long createTribe() {
+        Long tribeId = tribeService.createTribe("Read model", "Read model test tribe").getId();
+        createdTribes.add(tribeId);
+        return tribeId;
+    }
+}
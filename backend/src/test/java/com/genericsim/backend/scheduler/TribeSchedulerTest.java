@@ -0,0 +1,86 @@
+package com.genericsim.backend.scheduler;
+
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.service.TribeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: each tribe is ticked in its own transaction on a worker thread,
+ * so test data is committed and removed again after each test.
+ */
+@SpringBootTest
+public class TribeSchedulerTest {
+
+    @Autowired
+    private TribeScheduler tribeScheduler;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testTicksAllTribesConcurrently() {
+        for (int i = 0; i < 8; i++) {
+            createdTribes.add(tribeService.createTribe("Scheduled " + i, "Scheduler test tribe").getId());
+        }
+
+        TickRunReport report = tribeScheduler.tickAllTribes();
+
+        Map<Long, TickRunReport.TribeResult> results = report.results().stream()
+            .collect(Collectors.toMap(TickRunReport.TribeResult::tribeId, Function.identity()));
+        for (Long tribeId : createdTribes) {
+            TickRunReport.TribeResult result = results.get(tribeId);
+            assertNotNull(result);
+            assertTrue(result.success());
+            assertTrue(result.durationMillis() >= 0);
+            assertEquals(1, tribeRepository.findById(tribeId).orElseThrow().getCurrentTick());
+        }
+        assertTrue(report.wallClockMillis() >= 0);
+        assertSame(report, tribeScheduler.getLastReport());
+    }
+
+    @Test
+    public void testFailingTribeDoesNotAffectOthers() {
+        Long healthy = tribeService.createTribe("Healthy", "Scheduler test tribe").getId();
+        createdTribes.add(healthy);
+
+        // A tribe without policy cannot be ticked
+        Tribe broken = new Tribe("Broken", "Tribe without policy");
+        broken.setResources(new Resources(0, 0));
+        Long brokenId = tribeRepository.save(broken).getId();
+        createdTribes.add(brokenId);
+
+        TickRunReport report = tribeScheduler.tickAllTribes();
+
+        Map<Long, TickRunReport.TribeResult> results = report.results().stream()
+            .collect(Collectors.toMap(TickRunReport.TribeResult::tribeId, Function.identity()));
+        assertFalse(results.get(brokenId).success());
+        assertTrue(results.get(healthy).success());
+        assertTrue(report.getFailed() >= 1);
+        assertEquals(1, tribeRepository.findById(healthy).orElseThrow().getCurrentTick());
+        assertEquals(0, tribeRepository.findById(brokenId).orElseThrow().getCurrentTick());
+    }
+}
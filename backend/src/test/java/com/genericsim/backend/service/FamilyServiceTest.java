@@ -50,6 +50,16 @@ public class FamilyServiceTest {
         }
     }
 
+    @Test
+    public void testFamilyNamesContinuePastZ() {
+        assertEquals("A", FamilyService.familyLetters(0));
+        assertEquals("Z", FamilyService.familyLetters(25));
+        assertEquals("AA", FamilyService.familyLetters(26));
+        assertEquals("AZ", FamilyService.familyLetters(51));
+        assertEquals("ZZ", FamilyService.familyLetters(701));
+        assertEquals("AAA", FamilyService.familyLetters(702));
+    }
+
     @Test
     public void testConsumeFamilyResources() {
         Family family = testTribe.getFamilies().get(0);
@@ -1,13 +1,25 @@
 package com.genericsim.backend.service;
 
+import com.genericsim.backend.dto.TickBatchDTO;
 import com.genericsim.backend.dto.TribeStateDTO;
+import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.dto.TribeSummaryFilterDTO;
+import com.genericsim.backend.dto.TribeSummaryPageDTO;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.PopulationAggregates;
 import com.genericsim.backend.model.Tribe;
 import com.genericsim.backend.repository.TribeRepository;
+import com.genericsim.backend.repository.TribeSummarySort;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -20,6 +32,9 @@ public class TribeServiceTest {
     @Autowired
     private TribeRepository tribeRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     public void testCreateTribe() {
         Tribe tribe = tribeService.createTribe("Test Tribe", "A test tribe");
@@ -92,4 +107,201 @@ public class TribeServiceTest {
         TribeStateDTO state = tribeService.getTribeState(tribeId);
         assertEquals(5, state.getCurrentTick());
     }
+
+    @Test
+    public void testProcessTicksBatch() {
+        Tribe tribe = tribeService.createTribe("Test Tribe", "A test tribe");
+        Long tribeId = tribe.getId();
+        
+        TickBatchDTO batch = tribeService.processTicks(tribeId, 10, false);
+        
+        assertEquals(0, batch.getStartTick());
+        assertEquals(10, batch.getEndTick());
+        assertEquals(10, batch.getTicksProcessed());
+        assertNull(batch.getTicks());
+        assertNotNull(batch.getFinalState());
+        assertEquals(10, batch.getFinalState().getCurrentTick());
+        
+        TribeStateDTO state = tribeService.getTribeState(tribeId);
+        assertEquals(10, state.getCurrentTick());
+        assertEquals(batch.getFinalState().getResources().getFood(), state.getResources().getFood());
+    }
+
+    @Test
+    public void testProcessTicksBatchWithSummaries() {
+        Tribe tribe = tribeService.createTribe("Test Tribe", "A test tribe");
+        Long tribeId = tribe.getId();
+        tribeService.processTick(tribeId);
+        
+        TickBatchDTO batch = tribeService.processTicks(tribeId, 5, true);
+        
+        assertNull(batch.getFinalState());
+        assertEquals(5, batch.getTicks().size());
+        for (int i = 0; i < 5; i++) {
+            TickBatchDTO.TickSummaryDTO row = batch.getTicks().get(i);
+            assertEquals(2 + i, row.getTick());
+            assertTrue(row.getPopulation() > 0);
+        }
+        
+        TribeStateDTO state = tribeService.getTribeState(tribeId);
+        TickBatchDTO.TickSummaryDTO last = batch.getTicks().get(4);
+        assertEquals(6, state.getCurrentTick());
+        assertEquals(last.getFood(), state.getResources().getFood());
+        assertEquals(last.getWater(), state.getResources().getWater());
+        assertEquals(last.getPopulation(), state.getMembers().size());
+    }
+
+    @Test
+    public void testSameSeedGivesSameSimulation() {
+        Tribe first = tribeService.createTribe("First", "Seeded tribe", 1234L);
+        Tribe second = tribeService.createTribe("Second", "Seeded tribe", 1234L);
+        assertEquals(1234L, first.getRandomSeed());
+        
+        // One tribe ticked one request at a time, the other in a single batch
+        TribeStateDTO stepped = null;
+        for (int i = 0; i < 30; i++) {
+            stepped = tribeService.processTick(first.getId());
+        }
+        TribeStateDTO batched = tribeService.processTicks(second.getId(), 30, false).getFinalState();
+        
+        assertEquals(stepped.getResources().getFood(), batched.getResources().getFood());
+        assertEquals(stepped.getResources().getWater(), batched.getResources().getWater());
+        assertEquals(stepped.getBondLevel(), batched.getBondLevel());
+        assertEquals(stepped.getMembers().size(), batched.getMembers().size());
+        for (int i = 0; i < stepped.getMembers().size(); i++) {
+            assertEquals(stepped.getMembers().get(i).getName(), batched.getMembers().get(i).getName());
+            assertEquals(stepped.getMembers().get(i).getHealth(), batched.getMembers().get(i).getHealth());
+            assertEquals(stepped.getMembers().get(i).getHuntingSkill(), batched.getMembers().get(i).getHuntingSkill());
+        }
+    }
+
+    @Test
+    public void testProcessTicksSkipsExtinctTribe() {
+        Tribe tribe = tribeService.createTribe("Test Tribe", "A test tribe");
+        tribe.getMembers().clear();
+        tribe.getFamilies().forEach(family -> family.getMembers().clear());
+        tribeRepository.save(tribe);
+        
+        TickBatchDTO batch = tribeService.processTicks(tribe.getId(), 1_000_000, false);
+        
+        assertEquals(1_000_000, batch.getEndTick());
+        assertEquals(0, batch.getFinalState().getMembers().size());
+        assertEquals(0, batch.getFinalState().getProgressPoints());
+        assertEquals(0, batch.getFinalState().getResources().getFood());
+        
+        TribeStateDTO next = tribeService.processTick(tribe.getId());
+        assertEquals(1_000_001, next.getCurrentTick());
+    }
+
+    @Test
+    public void testAggregatesPersistAndTrackMemberChanges() {
+        Tribe tribe = tribeService.createTribe("Test Tribe", "A test tribe");
+        Long tribeId = tribe.getId();
+        tribeService.processTicks(tribeId, 20, true);
+        entityManager.flush();
+        entityManager.clear();
+        
+        Tribe reloaded = tribeRepository.findById(tribeId).orElseThrow();
+        assertEquals(PopulationAggregates.of(reloaded.getMembers()), reloaded.getAggregates());
+        
+        // A change made only through the entities is persisted with the tribe
+        reloaded.getMembers().get(0).setHealth(1);
+        entityManager.flush();
+        entityManager.clear();
+        
+        Tribe changed = tribeRepository.findById(tribeId).orElseThrow();
+        assertEquals(1, changed.getAggregates().getMinHealth());
+        assertEquals(PopulationAggregates.of(changed.getMembers()), changed.getAggregates());
+    }
+
+    @Test
+    public void testStatisticsMatchMembers() {
+        Tribe tribe = tribeService.createTribe("Test Tribe", "A test tribe");
+        tribeService.processTicks(tribe.getId(), 30, true);
+        
+        TribeStatisticsDTO stats = tribeService.getTribeStatistics(tribe.getId());
+        List<Person> members = tribeRepository.findById(tribe.getId()).orElseThrow().getMembers();
+        
+        assertEquals(members.size(), stats.getTotalPopulation());
+        assertEquals(members.stream().filter(p -> p.getRole() == Person.PersonRole.HUNTER).count(),
+            stats.getRoleBreakdown().getHunters());
+        assertEquals(members.stream().filter(p -> p.getAgeGroup() == Person.AgeGroup.ELDER).count(),
+            stats.getAgeGroupBreakdown().getElders());
+        assertEquals(members.stream().mapToInt(Person::getHealth).min().orElse(0),
+            stats.getHealthStats().getMinHealth());
+        assertEquals(members.stream().mapToInt(Person::getHealth).max().orElse(0),
+            stats.getHealthStats().getMaxHealth());
+        assertEquals((int) members.stream().mapToInt(Person::getHealth).average().orElse(0),
+            stats.getHealthStats().getAverageHealth());
+        assertEquals(members.stream().filter(p -> p.getHealth() >= 70).count(),
+            stats.getHealthStats().getHealthyMembers());
+    }
+
+    @Test
+    public void testTribeSummariesPageThroughFilteredTribes() {
+        int[] bondLevels = {40, 80, 60, 80, 20};
+        for (int i = 0; i < bondLevels.length; i++) {
+            Tribe tribe = tribeService.createTribe("Keyset " + i, "Summary listing tribe");
+            tribe.setBondLevel(bondLevels[i]);
+        }
+        tribeService.createTribe("Unrelated", "Filtered out by name");
+        TribeSummaryFilterDTO filter = new TribeSummaryFilterDTO();
+        filter.setName("KEYSET");
+        filter.setMinBondLevel(30);
+
+        // Bond level descending, ties by ID descending, two per page
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TribeSummaryPageDTO page = tribeService.getTribeSummaries(filter, TribeSummarySort.BOND_LEVEL, true, cursor, 2);
+            page.getTribes().forEach(summary -> {
+                assertEquals(6, summary.getPopulation());
+                names.add(summary.getTribeName());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Keyset 3", "Keyset 1", "Keyset 2", "Keyset 0"), names);
+        assertEquals(2, pages);
+    }
+
+    @Test
+    public void testTribeSummariesRejectCursorOfAnotherOrder() {
+        for (int i = 0; i < 3; i++) {
+            tribeService.createTribe("Cursor " + i, "Summary listing tribe");
+        }
+        TribeSummaryFilterDTO filter = new TribeSummaryFilterDTO();
+        filter.setName("Cursor ");
+        String cursor = tribeService.getTribeSummaries(filter, TribeSummarySort.TRIBE_NAME, false, null, 1)
+            .getNextCursor();
+        assertNotNull(cursor);
+
+        assertEquals("Cursor 1",
+            tribeService.getTribeSummaries(filter, TribeSummarySort.TRIBE_NAME, false, cursor, 1)
+                .getTribes().get(0).getTribeName());
+        assertThrows(IllegalArgumentException.class,
+            () -> tribeService.getTribeSummaries(filter, TribeSummarySort.TRIBE_NAME, true, cursor, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> tribeService.getTribeSummaries(filter, TribeSummarySort.FOOD, false, cursor, 1));
+    }
+
+    @Test
+    public void testTribeSummaryPopulationFollowsTicks() {
+        Tribe tribe = tribeService.createTribe("Shrinking", "Summary population tribe");
+        tribe.getMembers().forEach(person -> person.setHealth(0));
+        tribe.getFamilies().forEach(family -> {
+            family.getStorage().setFood(0);
+            family.getStorage().setWater(0);
+        });
+        tribeService.processTick(tribe.getId());
+
+        TribeSummaryFilterDTO filter = new TribeSummaryFilterDTO();
+        filter.setName("Shrinking");
+        TribeSummaryDTO summary = tribeService.getTribeSummaries(filter, TribeSummarySort.TRIBE_ID, false, null, 10)
+            .getTribes().get(0);
+        assertEquals(0, summary.getPopulation());
+        assertEquals(1, summary.getCurrentTick());
+    }
 }
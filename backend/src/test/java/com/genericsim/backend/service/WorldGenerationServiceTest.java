@@ -0,0 +1,179 @@
+package com.genericsim.backend.service;
+
+import com.genericsim.backend.dto.TribeStatisticsDTO;
+import com.genericsim.backend.dto.TribeSummaryDTO;
+import com.genericsim.backend.dto.WorldGenerationDTO;
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Tribe;
+import com.genericsim.backend.repository.TribeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Synthetic worlds of tribes, generated and inserted in bulk.
+ *
+ * Not transactional: worlds are saved in their own transaction, so test data is
+ * committed and removed again after each test.
+ */
+@SpringBootTest
+public class WorldGenerationServiceTest {
+
+    @Autowired
+    private WorldGenerationService worldGenerationService;
+
+    @Autowired
+    private TribeService tribeService;
+
+    @Autowired
+    private TribeRepository tribeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdTribes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        createdTribes.forEach(id -> jdbcTemplate.update("delete from persons where tribe_id = ?", id));
+        tribeRepository.deleteAllById(createdTribes);
+        createdTribes.clear();
+    }
+
+    @Test
+    public void testSizesStayInRange() {
+        Random random = new Random(1);
+        for (TribeSizeDistribution distribution : TribeSizeDistribution.values()) {
+            int[] sizes = new int[2000];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = distribution.sample(random, 10, 1000);
+                assertTrue(sizes[i] >= 10 && sizes[i] <= 1000, distribution + " drew " + sizes[i]);
+            }
+            Arrays.sort(sizes);
+            int median = sizes[sizes.length / 2];
+            switch (distribution) {
+                case UNIFORM -> assertEquals(505, median, 50);
+                // The geometric mean of the range
+                case LOG_NORMAL -> assertEquals(100, median, 20);
+                // Half of an 80/20 Pareto lies within 1.8 times its minimum
+                case PARETO -> assertTrue(median < 20, "median " + median);
+            }
+        }
+        assertEquals(7, TribeSizeDistribution.LOG_NORMAL.sample(random, 7, 7));
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameTribe() {
+        Tribe first = worldGenerationService.generateTribe(99L, 3, 50, 500, TribeSizeDistribution.UNIFORM, "Twin");
+        Tribe second = worldGenerationService.generateTribe(99L, 3, 50, 500, TribeSizeDistribution.UNIFORM, "Twin");
+        Tribe other = worldGenerationService.generateTribe(99L, 4, 50, 500, TribeSizeDistribution.UNIFORM, "Twin");
+
+        assertEquals("Twin 4", first.getName());
+        assertEquals(first.getRandomSeed(), second.getRandomSeed());
+        assertNotEquals(first.getRandomSeed(), other.getRandomSeed());
+        assertEquals(first.getMembers().size(), second.getMembers().size());
+        for (int i = 0; i < first.getMembers().size(); i++) {
+            Person a = first.getMembers().get(i);
+            Person b = second.getMembers().get(i);
+            assertEquals(a.getRole(), b.getRole());
+            assertEquals(a.getAge(), b.getAge());
+            assertEquals(a.getHealth(), b.getHealth());
+            assertEquals(a.getHuntingSkill(), b.getHuntingSkill());
+            assertEquals(a.getFamily().getName(), b.getFamily().getName());
+        }
+    }
+
+    @Test
+    public void testGeneratedPopulationIsRealistic() {
+        Tribe tribe = worldGenerationService.generateTribe(5L, 0, 3000, 3000, TribeSizeDistribution.UNIFORM, "Big");
+        List<Person> members = tribe.getMembers();
+        assertEquals(3000, members.size());
+        assertEquals(1000, tribe.getFamilies().size());
+        assertEquals(3000, tribe.getFamilies().stream().mapToInt(family -> family.getMembers().size()).sum());
+        assertEquals("Family ALL", tribe.getFamilies().get(999).getName());
+
+        TribeStatisticsDTO statistics = new TribeStatisticsDTO(tribe);
+        assertEquals(3000, statistics.getTotalPopulation());
+        double children = statistics.getRoleBreakdown().getChildren() / 3000.0;
+        double elders = statistics.getRoleBreakdown().getElders() / 3000.0;
+        assertTrue(children > 0.4 && children < 0.55, "children " + children);
+        assertTrue(elders > 0.02 && elders < 0.1, "elders " + elders);
+        assertEquals(statistics.getRoleBreakdown().getHunters(), statistics.getRoleBreakdown().getGatherers(), 100);
+
+        for (Person person : members) {
+            assertTrue(person.getAge() >= 0 && person.getAge() <= 75);
+            assertTrue(person.getHealth() >= 20 && person.getHealth() <= 100);
+            switch (person.getRole()) {
+                case CHILD -> assertTrue(person.getAge() < 16);
+                case ELDER -> assertTrue(person.getAge() >= 60);
+                case HUNTER -> assertTrue(person.getAge() >= 16 && person.getAge() < 60);
+                case GATHERER -> assertTrue(person.getAge() >= 16 && person.getAge() < 60);
+            }
+        }
+        double youngHunters = members.stream()
+            .filter(person -> person.getRole() == Person.PersonRole.HUNTER && person.getAge() < 25)
+            .mapToDouble(Person::getHuntingSkill).average().orElseThrow();
+        double oldHunters = members.stream()
+            .filter(person -> person.getRole() == Person.PersonRole.HUNTER && person.getAge() >= 45)
+            .mapToDouble(Person::getHuntingSkill).average().orElseThrow();
+        assertTrue(oldHunters > youngHunters + 0.2, youngHunters + " and " + oldHunters);
+    }
+
+    @Test
+    public void testGenerateWorldInsertsTribes() {
+        WorldGenerationDTO world = worldGenerationService.generateWorld(5, 10, 200,
+            TribeSizeDistribution.PARETO, 7L, "Load");
+        world.getTribes().forEach(tribe -> createdTribes.add(tribe.getTribeId()));
+
+        assertEquals(7L, world.getSeed());
+        assertEquals(5, world.getTribes().size());
+        assertEquals(world.getPopulation(), world.getTribes().stream().mapToInt(TribeSummaryDTO::getPopulation).sum());
+        for (TribeSummaryDTO summary : world.getTribes()) {
+            Long persons = jdbcTemplate.queryForObject("select count(*) from persons where tribe_id = ?",
+                Long.class, summary.getTribeId());
+            Long unaffiliated = jdbcTemplate.queryForObject(
+                "select count(*) from persons where tribe_id = ? and family_id is null", Long.class,
+                summary.getTribeId());
+            assertEquals(summary.getPopulation(), persons);
+            assertEquals(0, unaffiliated);
+            assertEquals(summary.getPopulation(), tribeService.getTribeStatistics(summary.getTribeId())
+                .getTotalPopulation());
+        }
+        Long families = jdbcTemplate.queryForObject(
+            "select count(*) from families where tribe_id in (" + String.join(",",
+                createdTribes.stream().map(String::valueOf).toList()) + ")", Long.class);
+        assertEquals(world.getFamilies(), families);
+
+        // Generated tribes tick like created ones
+        Long tribeId = world.getTribes().get(0).getTribeId();
+        assertEquals(1, tribeService.processTick(tribeId).getCurrentTick());
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameWorld() {
+        WorldGenerationDTO first = worldGenerationService.generateWorld(3, 10, 100,
+            TribeSizeDistribution.LOG_NORMAL, 11L, "Again");
+        WorldGenerationDTO second = worldGenerationService.generateWorld(3, 10, 100,
+            TribeSizeDistribution.LOG_NORMAL, 11L, "Again");
+        first.getTribes().forEach(tribe -> createdTribes.add(tribe.getTribeId()));
+        second.getTribes().forEach(tribe -> createdTribes.add(tribe.getTribeId()));
+
+        for (int i = 0; i < 3; i++) {
+            Tribe a = tribeRepository.findById(first.getTribes().get(i).getTribeId()).orElseThrow();
+            Tribe b = tribeRepository.findById(second.getTribes().get(i).getTribeId()).orElseThrow();
+            assertEquals(a.getRandomSeed(), b.getRandomSeed());
+            assertEquals(first.getTribes().get(i).getPopulation(), second.getTribes().get(i).getPopulation());
+        }
+        assertEquals(first.getFamilies(), second.getFamilies());
+    }
+}
@@ -0,0 +1,71 @@
+package com.genericsim.backend.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SplitMixRandomStreamFactoryTest {
+
+    private final RandomStreamFactory factory = new SplitMixRandomStreamFactory();
+
+    @Test
+    public void testSameCoordinatesGiveSameStream() {
+        assertArrayEquals(draw(factory.create(7, 100, 3)), draw(factory.create(7, 100, 3)));
+    }
+
+    @Test
+    public void testDifferentCoordinatesGiveDifferentStreams() {
+        long[] base = draw(factory.create(7, 100, 3));
+        assertFalse(Arrays.equals(base, draw(factory.create(8, 100, 3))));
+        assertFalse(Arrays.equals(base, draw(factory.create(7, 101, 3))));
+        assertFalse(Arrays.equals(base, draw(factory.create(7, 100, 4))));
+    }
+
+    @Test
+    public void testPartitionStreamsDoNotDependOnCreationOrderOrThread() throws Exception {
+        TickRandom forward = factory.forTick(11, 5);
+        long[] first = draw(forward.partition(0));
+        long[] second = draw(forward.partition(1));
+
+        TickRandom backward = factory.forTick(11, 5);
+        long[][] fromThread = new long[1][];
+        Thread thread = new Thread(() -> fromThread[0] = draw(backward.partition(1)));
+        thread.start();
+        thread.join();
+
+        assertArrayEquals(second, fromThread[0]);
+        assertArrayEquals(first, draw(backward.partition(0)));
+    }
+
+    @Test
+    public void testNamedStreamsAreIndependent() {
+        TickRandom random = factory.forTick(11, 5);
+        long[] tribe = draw(random.tribe());
+        long[] policy = draw(random.policy());
+        long[] lending = draw(random.lending());
+
+        assertFalse(Arrays.equals(tribe, policy));
+        assertFalse(Arrays.equals(policy, lending));
+        assertArrayEquals(lending, draw(factory.forTick(11, 5).lending()));
+    }
+
+    @Test
+    public void testBoundedDrawsStayInRange() {
+        Random random = factory.create(1, 1, 1);
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(100);
+            assertTrue(value >= 0 && value < 100);
+        }
+    }
+
+    private long[] draw(Random random) {
+        long[] values = new long[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+}
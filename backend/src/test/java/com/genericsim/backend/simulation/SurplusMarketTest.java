@@ -0,0 +1,112 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.model.Family;
+import com.genericsim.backend.model.Person;
+import com.genericsim.backend.model.Resources;
+import com.genericsim.backend.model.Tribe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SurplusMarketTest {
+
+    @Test
+    public void testLendersComeRichestFirstWithTiesInFamilyOrder() {
+        PopulationStore store = buildStore(200, new Random(1));
+        SurplusMarket market = SurplusMarket.open(store);
+
+        assertEquals(expectedLenders(store), walk(market));
+    }
+
+    @Test
+    public void testUpdatesKeepOrderAsStorageChanges() {
+        Random random = new Random(2);
+        PopulationStore store = buildStore(300, random);
+        SurplusMarket market = SurplusMarket.open(store);
+
+        for (int step = 0; step < 2000; step++) {
+            int family = random.nextInt(store.getFamilyCount());
+            store.setFamilyFood(family, random.nextInt(60));
+            store.setFamilyWater(family, random.nextInt(60));
+            market.update(family);
+
+            if (step % 100 == 0) {
+                assertEquals(expectedLenders(store), walk(market));
+            }
+        }
+        assertEquals(expectedLenders(store), walk(market));
+    }
+
+    @Test
+    public void testFamiliesWithoutSurplusAreNotOffered() {
+        PopulationStore store = buildStore(50, new Random(3));
+        SurplusMarket market = SurplusMarket.open(store);
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            boolean surplus = store.getFamilyFood(f) - store.getFamilyMemberCount(f) * 6 > 0;
+            assertEquals(surplus, market.contains(f));
+        }
+
+        store.setFamilyFood(0, 0);
+        market.update(0);
+        assertFalse(market.contains(0));
+        store.setFamilyFood(0, 1000);
+        market.update(0);
+        assertTrue(market.contains(0));
+        assertEquals(0, market.lenders().next());
+    }
+
+    @Test
+    public void testEmptyMarket() {
+        PopulationStore store = PopulationStore.load(new Tribe("Empty", "Empty"));
+        SurplusMarket market = SurplusMarket.open(store);
+        assertEquals(0, market.size());
+        assertEquals(-1, market.lenders().next());
+    }
+
+    private List<Integer> walk(SurplusMarket market) {
+        List<Integer> order = new ArrayList<>();
+        SurplusMarket.Cursor lenders = market.lenders();
+        for (int f = lenders.next(); f >= 0; f = lenders.next()) {
+            order.add(f);
+        }
+        return order;
+    }
+
+    /**
+     * The order the sort-based implementation produced: every family with a surplus,
+     * by total storage descending, ties in family order.
+     */
+    private List<Integer> expectedLenders(PopulationStore store) {
+        List<Integer> families = new ArrayList<>();
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            if (store.getFamilyFood(f) - store.getFamilyMemberCount(f) * 6 > 0) {
+                families.add(f);
+            }
+        }
+        families.sort(Comparator.comparingInt((Integer f) -> store.getFamilyFood(f) + store.getFamilyWater(f))
+            .reversed());
+        return families;
+    }
+
+    private PopulationStore buildStore(int familyCount, Random random) {
+        Tribe tribe = new Tribe("Market", "Market test tribe");
+        for (int f = 0; f < familyCount; f++) {
+            Family family = new Family("Family " + f);
+            // Few distinct totals, so ties are common
+            family.setStorage(new Resources(random.nextInt(8) * 5, random.nextInt(4) * 5));
+            tribe.addFamily(family);
+            int members = 1 + random.nextInt(3);
+            for (int m = 0; m < members; m++) {
+                Person person = new Person("Person " + f + "-" + m, Person.PersonRole.GATHERER, 30, 100);
+                tribe.addMember(person);
+                family.addMember(person);
+            }
+        }
+        return PopulationStore.load(tribe);
+    }
+}
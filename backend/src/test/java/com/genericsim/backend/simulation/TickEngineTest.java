@@ -0,0 +1,699 @@
+package com.genericsim.backend.simulation;
+
+import com.genericsim.backend.config.TickProperties;
+import com.genericsim.backend.metrics.DomainCounters;
+import com.genericsim.backend.metrics.TickMeters;
+import com.genericsim.backend.model.*;
+import com.genericsim.backend.policy.PolicyEffect;
+import com.genericsim.backend.policy.PolicyEngine;
+import com.genericsim.backend.policy.PolicyPhase;
+import com.genericsim.backend.policy.TickContext;
+import com.genericsim.backend.policy.effects.CentralStorageTaxEffect;
+import com.genericsim.backend.policy.effects.StorageDecayEffect;
+import com.genericsim.backend.service.FamilyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the columnar tick engine reproduces the entity-based tick loop
+ * it replaced, draw for draw, when both use the same per-tick random streams.
+ */
+public class TickEngineTest {
+
+    private static final long TRIBE_SEED = 42L;
+
+    private final RandomStreamFactory randomStreams = new SplitMixRandomStreamFactory();
+
+    @Test
+    public void testMatchesEntityLoopWithElderPriority() {
+        assertEquivalent(Policy.SharingPriority.ELDER, 60, 400);
+    }
+
+    @Test
+    public void testMatchesEntityLoopWithRandomPriority() {
+        assertEquivalent(Policy.SharingPriority.RANDOM, 60, 400);
+    }
+
+    @Test
+    public void testMatchesEntityLoopWithYoungestPriority() {
+        assertEquivalent(Policy.SharingPriority.YOUNGEST, 30, 200);
+    }
+
+    @Test
+    public void testMatchesEntityLoopWithoutCentralStorage() {
+        Tribe probe = buildTribe(Policy.SharingPriority.HUNTER, 60);
+        probe.getPolicy().setEnableCentralStorage(false);
+        TickEngine engine = newEngine();
+        PopulationStore store = PopulationStore.load(probe);
+        for (int tick = 0; tick < 400; tick++) {
+            engine.runTick(probe, store);
+        }
+        // Sanity check that this scenario exercises deaths
+        assertTrue(store.size() < 60);
+
+        assertEquivalent(Policy.SharingPriority.HUNTER, 60, 400, false);
+        assertEquivalent(Policy.SharingPriority.RANDOM, 60, 400, false);
+    }
+
+    @Test
+    public void testStoreKeptAcrossTicksMatchesReloadingEachTick() {
+        Tribe reloaded = buildTribe(Policy.SharingPriority.CHILD, 60);
+        Tribe kept = buildTribe(Policy.SharingPriority.CHILD, 60);
+
+        TickEngine reloadedEngine = newEngine();
+        TickEngine keptEngine = newEngine();
+
+        PopulationStore store = PopulationStore.load(kept);
+        for (int tick = 0; tick < 400; tick++) {
+            PopulationStore perTick = PopulationStore.load(reloaded);
+            reloadedEngine.runTick(reloaded, perTick);
+            perTick.flush(reloaded);
+
+            keptEngine.runTick(kept, store);
+        }
+        store.flush(kept);
+
+        assertSameState(reloaded, kept);
+        assertEquals(store.getAggregates(), kept.getAggregates());
+        assertEquals(PopulationAggregates.of(kept.getMembers()), kept.getAggregates());
+        assertEquals(PopulationAggregates.of(reloaded.getMembers()), reloaded.getAggregates());
+    }
+
+    @Test
+    public void testRemoveDeceasedCompactsFamilies() {
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 9);
+        tribe.getMembers().get(0).setHealth(0);
+        tribe.getMembers().get(4).setHealth(0);
+
+        PopulationStore store = PopulationStore.load(tribe);
+        assertEquals(2, store.removeDeceased());
+        assertEquals(7, store.size());
+
+        int familyMembers = 0;
+        for (int f = 0; f < store.getFamilyCount(); f++) {
+            familyMembers += store.getFamilyMemberCount(f);
+            for (int k = 0; k < store.getFamilyMemberCount(f); k++) {
+                assertTrue(store.getHealth(store.getFamilyMember(f, k)) > 0);
+            }
+        }
+        assertEquals(7, familyMembers);
+
+        store.flush(tribe);
+        assertEquals(7, tribe.getMembers().size());
+        assertEquals(7, tribe.getFamilies().stream().mapToInt(f -> f.getMembers().size()).sum());
+    }
+
+    @Test
+    public void testSameSeedReproducesAndDifferentSeedDiverges() {
+        Tribe first = buildTribe(Policy.SharingPriority.RANDOM, 60);
+        Tribe second = buildTribe(Policy.SharingPriority.RANDOM, 60);
+        Tribe other = buildTribe(Policy.SharingPriority.RANDOM, 60);
+        other.setRandomSeed(TRIBE_SEED + 1);
+
+        runTicks(first, 200);
+        runTicks(second, 200);
+        runTicks(other, 200);
+
+        assertSameState(first, second);
+        assertNotEquals(first.getResources().getFood() + "/" + first.getResources().getWater()
+                + "/" + first.getMembers().size(),
+            other.getResources().getFood() + "/" + other.getResources().getWater()
+                + "/" + other.getMembers().size());
+    }
+
+    @Test
+    public void testParallelFamiliesMatchSequential() {
+        Tribe sequential = buildTribe(Policy.SharingPriority.RANDOM, 1500);
+        Tribe parallel = buildTribe(Policy.SharingPriority.RANDOM, 1500);
+
+        TickEngine sequentialEngine = newEngine(FamilyPartitioner.SEQUENTIAL);
+        FamilyPartitioner partitioner = new FamilyPartitioner(new ForkJoinPool(4), 1);
+        TickEngine parallelEngine = newEngine(partitioner);
+        try {
+            PopulationStore sequentialStore = PopulationStore.load(sequential);
+            PopulationStore parallelStore = PopulationStore.load(parallel);
+            for (int tick = 0; tick < 60; tick++) {
+                sequentialEngine.runTick(sequential, sequentialStore);
+                parallelEngine.runTick(parallel, parallelStore);
+            }
+            assertEquals(sequentialStore.getAggregates(), parallelStore.getAggregates());
+            sequentialStore.flush(sequential);
+            parallelStore.flush(parallel);
+        } finally {
+            partitioner.shutdown();
+        }
+
+        assertSameState(sequential, parallel);
+        assertEquals(PopulationAggregates.of(parallel.getMembers()), parallel.getAggregates());
+    }
+
+    @Test
+    public void testFastForwardMatchesSteppingExtinctTribe() {
+        Tribe stepped = buildExtinctTribe();
+        Tribe skipped = buildExtinctTribe();
+        TickEngine engine = newEngine();
+
+        PopulationStore steppedStore = PopulationStore.load(stepped);
+        for (int tick = 0; tick < 1000; tick++) {
+            engine.runTick(stepped, steppedStore);
+        }
+        steppedStore.flush(stepped);
+
+        PopulationStore skippedStore = PopulationStore.load(skipped);
+        engine.advance(skipped, skippedStore, 1000);
+        skippedStore.flush(skipped);
+
+        assertSameState(stepped, skipped);
+    }
+
+    @Test
+    public void testFastForwardStopsAtDecayIntervals() {
+        Tribe tribe = buildExtinctTribe();
+        TickEngine engine = newEngine();
+        PopulationStore store = PopulationStore.load(tribe);
+
+        // Storage decays every 7 ticks, so ticks 1-6 are skipped and tick 7 is simulated
+        assertEquals(6, engine.fastForward(tribe, store, 1000));
+        assertEquals(0, engine.fastForward(tribe, store, 1000));
+        engine.runTick(tribe, store);
+        assertEquals(7, tribe.getCurrentTick());
+        assertEquals(6, engine.fastForward(tribe, store, 1000));
+
+        // Once everything has decayed, nothing can change any more
+        engine.advance(tribe, store, 2000);
+        assertEquals(0, tribe.getResources().getFood() + tribe.getResources().getWater());
+        assertEquals(1_000_000, engine.fastForward(tribe, store, 1_000_000));
+        assertEquals(1_002_013, tribe.getCurrentTick());
+        assertEquals(0, tribe.getProgressPoints());
+    }
+
+    @Test
+    public void testLivingTribesAndUnknownEffectsAreNotSkipped() {
+        Tribe living = buildTribe(Policy.SharingPriority.ELDER, 9);
+        assertEquals(0, newEngine().fastForward(living, PopulationStore.load(living), 100));
+
+        // An effect that does not report its next active tick is run on every tick
+        PolicyEngine policyEngine = newPolicyEngine();
+        policyEngine.registerEffect(new PolicyEffect() {
+            @Override
+            public PolicyPhase getPhase() {
+                return PolicyPhase.PRODUCTION;
+            }
+
+            @Override
+            public int getPriority() {
+                return 200;
+            }
+
+            @Override
+            public boolean shouldApply(TickContext context) {
+                return false;
+            }
+
+            @Override
+            public void apply(TickContext context) {
+            }
+        });
+        TickEngine engine = new TickEngine(new FamilyService(null), policyEngine, randomStreams,
+            FamilyPartitioner.SEQUENTIAL, TickMeters.NONE,
+            DomainCounters.NONE);
+        Tribe extinct = buildExtinctTribe();
+        assertEquals(0, engine.fastForward(extinct, PopulationStore.load(extinct), 100));
+    }
+
+    @Test
+    public void testTicksArePhaseAndEffectTimed() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TickMeters meters = new TickMeters(registry);
+        PolicyEngine policyEngine = new PolicyEngine(meters);
+        policyEngine.registerEffect(new CentralStorageTaxEffect());
+        policyEngine.registerEffect(new StorageDecayEffect());
+        TickEngine engine = new TickEngine(new FamilyService(null), policyEngine, randomStreams,
+            FamilyPartitioner.SEQUENTIAL, meters, DomainCounters.NONE);
+
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 6);
+        PopulationStore store = PopulationStore.load(tribe);
+        for (int tick = 0; tick < 365; tick++) {
+            engine.runTick(tribe, store);
+        }
+
+        assertEquals(365, registry.get("simulation.tick").timer().count());
+        assertEquals(365, registry.get("simulation.tick.phase").tag("phase", "gathering").timer().count());
+        assertEquals(365, registry.get("simulation.tick.phase").tag("phase", "cleanup").timer().count());
+        // Members age once a year
+        assertEquals(1, registry.get("simulation.tick.phase").tag("phase", "aging").timer().count());
+        // Storage decays every 7 ticks
+        Timer decayed = registry.get("simulation.policy.effect")
+            .tag("effect", new StorageDecayEffect().getName()).tag("applied", "true").timer();
+        Timer kept = registry.get("simulation.policy.effect")
+            .tag("effect", new StorageDecayEffect().getName()).tag("applied", "false").timer();
+        assertEquals(52, decayed.count());
+        assertEquals(365 - 52, kept.count());
+    }
+
+    @Test
+    public void testSampledTicksAreTimedWithTheirPhasesAndEffects() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TickProperties properties = new TickProperties();
+        properties.setTimerSampleInterval(32);
+        TickMeters meters = new TickMeters(registry, properties);
+        PolicyEngine policyEngine = new PolicyEngine(meters);
+        policyEngine.registerEffect(new StorageDecayEffect());
+        TickEngine engine = new TickEngine(new FamilyService(null), policyEngine, randomStreams,
+            FamilyPartitioner.SEQUENTIAL, meters, DomainCounters.NONE);
+
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 6);
+        PopulationStore store = PopulationStore.load(tribe);
+        for (int tick = 0; tick < 3200; tick++) {
+            engine.runTick(tribe, store);
+        }
+
+        // About one in 32 of 3200 ticks, 100 give or take 10
+        long timed = registry.get("simulation.tick").timer().count();
+        assertTrue(timed > 50 && timed < 150, "timed " + timed);
+        assertEquals(timed, registry.get("simulation.tick.phase").tag("phase", "gathering").timer().count());
+        long effectRuns = registry.get("simulation.policy.effect")
+            .tag("effect", new StorageDecayEffect().getName()).timers().stream().mapToLong(Timer::count).sum();
+        assertEquals(timed, effectRuns);
+        // Every tick is counted, timed or not
+        assertEquals(3200, registry.get("simulation.tick.count").counter().count());
+        assertEquals(3200, registry.get("simulation.policy.effect.count")
+            .tag("effect", new StorageDecayEffect().getName()).counters().stream().mapToDouble(Counter::count).sum());
+    }
+
+    @Test
+    public void testUntimedTicksAreCounted() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TickProperties properties = new TickProperties();
+        properties.setTimerSampleInterval(Integer.MAX_VALUE);
+        TickMeters meters = new TickMeters(registry, properties);
+        PolicyEngine policyEngine = new PolicyEngine(meters);
+        policyEngine.registerEffect(new StorageDecayEffect());
+        TickEngine engine = new TickEngine(new FamilyService(null), policyEngine, randomStreams,
+            FamilyPartitioner.SEQUENTIAL, meters, DomainCounters.NONE);
+
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 6);
+        PopulationStore store = PopulationStore.load(tribe);
+        for (int tick = 0; tick < 365; tick++) {
+            engine.runTick(tribe, store);
+        }
+
+        assertEquals(0, registry.get("simulation.tick").timer().count());
+        assertEquals(365, registry.get("simulation.tick.count").counter().count());
+        // Storage decays every 7 ticks
+        assertEquals(52, registry.get("simulation.policy.effect.count")
+            .tag("effect", new StorageDecayEffect().getName()).tag("applied", "true").counter().count());
+        assertEquals(365 - 52, registry.get("simulation.policy.effect.count")
+            .tag("effect", new StorageDecayEffect().getName()).tag("applied", "false").counter().count());
+    }
+
+    @Test
+    public void testEngineWithoutMetricsRunsTheSameTicksUntimed() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TickMeters meters = new TickMeters(registry);
+        PolicyEngine policyEngine = new PolicyEngine(meters);
+        policyEngine.registerEffect(new CentralStorageTaxEffect());
+        policyEngine.registerEffect(new StorageDecayEffect());
+        TickEngine engine = new TickEngine(new FamilyService(null), policyEngine, randomStreams,
+            FamilyPartitioner.SEQUENTIAL, meters, DomainCounters.NONE);
+
+        Tribe timed = buildTribe(Policy.SharingPriority.ELDER, 6);
+        PopulationStore timedStore = PopulationStore.load(timed);
+        Tribe untimed = buildTribe(Policy.SharingPriority.ELDER, 6);
+        PopulationStore untimedStore = PopulationStore.load(untimed);
+        TickEngine replayEngine = engine.withoutMetrics();
+        for (int tick = 0; tick < 30; tick++) {
+            engine.runTick(timed, timedStore);
+            replayEngine.runTick(untimed, untimedStore);
+        }
+
+        assertEquals(timed.getResources().getFood(), untimed.getResources().getFood());
+        assertEquals(timed.getProgressPoints(), untimed.getProgressPoints());
+        assertEquals(30, registry.get("simulation.tick").timer().count());
+        assertEquals(30, registry.get("simulation.tick.phase").tag("phase", "gathering").timer().count());
+        long effectRuns = registry.get("simulation.policy.effect")
+            .tag("effect", new StorageDecayEffect().getName()).timers().stream().mapToLong(Timer::count).sum();
+        assertEquals(30, effectRuns);
+        assertEquals(30, registry.get("simulation.tick.count").counter().count());
+        assertEquals(30, registry.get("simulation.policy.effect.count")
+            .tag("effect", new StorageDecayEffect().getName()).counters().stream().mapToDouble(Counter::count).sum());
+    }
+
+    @Test
+    public void testTicksAreRecordedAsFlightRecorderEvents() throws IOException {
+        TickEngine engine = newEngine();
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 6);
+        PopulationStore store = PopulationStore.load(tribe);
+
+        Path dump = Files.createTempFile("ticks", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.genericsim.Tick");
+            recording.enable("com.genericsim.PolicyEffect");
+            // Phases stay disabled
+            recording.start();
+            for (int tick = 0; tick < 14; tick++) {
+                engine.runTick(tribe, store);
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+        List<RecordedEvent> ticks = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.genericsim.Tick")).toList();
+        assertEquals(14, ticks.size());
+        assertEquals(14, ticks.get(13).getLong("tick"));
+        assertEquals(store.size(), ticks.get(13).getInt("population"));
+
+        // Storage decays every 7 ticks
+        long decays = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.genericsim.PolicyEffect"))
+            .filter(event -> event.getString("effect").equals(new StorageDecayEffect().getName()))
+            .filter(event -> event.getBoolean("applied"))
+            .count();
+        assertEquals(2, decays);
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("com.genericsim.Phase")));
+    }
+
+    @Test
+    public void testEngineWithoutMetricsRecordsNoFlightRecorderEvents() throws IOException {
+        TickEngine engine = newEngine();
+        TickEngine replayEngine = engine.withoutMetrics();
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 30);
+        PopulationStore store = PopulationStore.load(tribe);
+        Tribe replayed = buildTribe(Policy.SharingPriority.ELDER, 30);
+        PopulationStore replayedStore = PopulationStore.load(replayed);
+        tribe.setId(1L);
+        replayed.setId(2L);
+
+        Path dump = Files.createTempFile("replay", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.genericsim.Tick");
+            recording.enable("com.genericsim.Phase");
+            recording.enable("com.genericsim.PolicyEffect");
+            recording.enable("com.genericsim.ResourceTransfer");
+            recording.start();
+            for (int tick = 0; tick < 14; tick++) {
+                engine.runTick(tribe, store);
+                replayEngine.runTick(replayed, replayedStore);
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+            .filter(event -> event.getEventType().getName().startsWith("com.genericsim.")).toList();
+        Files.delete(dump);
+        for (String type : List.of("Tick", "Phase", "PolicyEffect", "ResourceTransfer")) {
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.genericsim." + type)),
+                "Ticks emit " + type + " events");
+        }
+        assertTrue(events.stream().allMatch(event -> event.getLong("tribeId") == 1L), "Replays emit no events");
+        assertEquals(tribe.getCurrentTick(), replayed.getCurrentTick());
+    }
+
+    private void runTicks(Tribe tribe, int ticks) {
+        TickEngine engine = newEngine();
+        PopulationStore store = PopulationStore.load(tribe);
+        for (int tick = 0; tick < ticks; tick++) {
+            engine.runTick(tribe, store);
+        }
+        store.flush(tribe);
+    }
+
+    private void assertEquivalent(Policy.SharingPriority priority, int memberCount, int ticks) {
+        assertEquivalent(priority, memberCount, ticks, true);
+    }
+
+    private void assertEquivalent(Policy.SharingPriority priority, int memberCount, int ticks, boolean centralStorage) {
+        Tribe expected = buildTribe(priority, memberCount);
+        Tribe actual = buildTribe(priority, memberCount);
+        expected.getPolicy().setEnableCentralStorage(centralStorage);
+        actual.getPolicy().setEnableCentralStorage(centralStorage);
+
+        FamilyService legacyFamilyService = new FamilyService(null);
+        PolicyEngine legacyPolicyEngine = newPolicyEngine();
+
+        TickEngine engine = newEngine();
+
+        for (int tick = 0; tick < ticks; tick++) {
+            legacyTick(expected, legacyFamilyService, legacyPolicyEngine);
+
+            PopulationStore store = PopulationStore.load(actual);
+            engine.runTick(actual, store);
+            store.flush(actual);
+
+            assertSameState(expected, actual);
+        }
+    }
+
+    private TickEngine newEngine() {
+        return newEngine(FamilyPartitioner.SEQUENTIAL);
+    }
+
+    private TickEngine newEngine(FamilyPartitioner partitioner) {
+        return new TickEngine(new FamilyService(null), newPolicyEngine(), randomStreams, partitioner,
+            TickMeters.NONE, DomainCounters.NONE);
+    }
+
+    private PolicyEngine newPolicyEngine() {
+        PolicyEngine policyEngine = new PolicyEngine();
+        policyEngine.registerEffect(new CentralStorageTaxEffect());
+        policyEngine.registerEffect(new StorageDecayEffect());
+        return policyEngine;
+    }
+
+    /**
+     * Build a tribe with a deterministic but varied population and scarce food,
+     * so that borrowing, central storage, suffering and deaths all occur.
+     */
+    private Tribe buildTribe(Policy.SharingPriority priority, int memberCount) {
+        Random setup = new Random(7);
+        Tribe tribe = new Tribe("Equivalence", "Equivalence test tribe");
+        tribe.setRandomSeed(TRIBE_SEED);
+        tribe.setResources(new Resources(0, 0));
+        tribe.setCentralStorage(new Resources(40, 40));
+
+        Policy policy = new Policy("Test", "Test", 10, 10, 0, 0);
+        policy.setSharingPriority(priority);
+        policy.setEnableCentralStorage(true);
+        policy.setCentralStorageTaxRate(20);
+        policy.setStorageDecayInterval(7);
+        policy.setStorageDecayRate(0.2);
+        tribe.setPolicy(policy);
+
+        Person.PersonRole[] roles = Person.PersonRole.values();
+        for (int i = 0; i < memberCount; i++) {
+            Person person = new Person("Person " + i, roles[setup.nextInt(roles.length)],
+                setup.nextInt(75), 10 + setup.nextInt(91));
+            person.setHuntingSkill(setup.nextDouble());
+            person.setGatheringSkill(setup.nextDouble());
+            tribe.addMember(person);
+        }
+
+        int familyCount = Math.max(1, memberCount / 3);
+        for (int f = 0; f < familyCount; f++) {
+            Family family = new Family("Family " + f);
+            family.setId((long) f + 1);
+            family.setStorage(new Resources(setup.nextInt(30), setup.nextInt(30)));
+            tribe.addFamily(family);
+        }
+        for (Person person : tribe.getMembers()) {
+            tribe.getFamilies().get(setup.nextInt(familyCount)).addMember(person);
+        }
+        return tribe;
+    }
+
+    /**
+     * Build a tribe whose members have all gone, leaving family and central storage
+     * and progress points behind.
+     */
+    private Tribe buildExtinctTribe() {
+        Tribe tribe = buildTribe(Policy.SharingPriority.ELDER, 30);
+        tribe.getMembers().clear();
+        tribe.getFamilies().forEach(family -> family.getMembers().clear());
+        tribe.setProgressPoints(20_000);
+        return tribe;
+    }
+
+    /**
+     * The tick loop as it was implemented on the entity model before the columnar engine,
+     * drawing from the same streams as the engine: one stream per family for gathering
+     * (families list members in tribe order here), one for lending, one for policies and
+     * one for aging. Families that run short during upkeep borrow only after every family
+     * has consumed. Deceased members are also dropped from their family, as happens when
+     * the tribe is reloaded for the next tick.
+     */
+    private void legacyTick(Tribe tribe, FamilyService familyService, PolicyEngine policyEngine) {
+        tribe.setCurrentTick(tribe.getCurrentTick() + 1);
+        TickRandom tickRandom = randomStreams.forTick(tribe.getRandomSeed(), tribe.getCurrentTick());
+        TickContext context = new TickContext(tribe, familyService, tickRandom.policy());
+        Map<Family, Random> gatheringRandom = new IdentityHashMap<>();
+        Random lendingRandom = tickRandom.lending();
+
+        int elderCount = (int) countByAgeGroup(tribe, Person.AgeGroup.ELDER);
+        double elderGatheringBonus = 1.0 + (elderCount * 0.02);
+        context.setElderCount(elderCount);
+        context.setElderGatheringBonus(elderGatheringBonus);
+
+        for (Family family : tribe.getFamilies()) {
+            context.snapshotFamilyStorage(family);
+        }
+
+        for (Person person : tribe.getMembers()) {
+            if (person.getHealth() <= 30) continue;
+
+            Random random = gatheringRandom.computeIfAbsent(person.getFamily(),
+                family -> tickRandom.partition(tribe.getFamilies().indexOf(family)));
+            int foodGathered = 0;
+            int waterGathered = 0;
+
+            if (person.getRole() == Person.PersonRole.HUNTER) {
+                int baseFood = 10 + random.nextInt(10);
+                double skillMultiplier = 1.0 + person.getHuntingSkill();
+                int incentive = tribe.getPolicy().getHuntingIncentive();
+                foodGathered = (int) (baseFood * skillMultiplier * elderGatheringBonus) + incentive;
+                if (foodGathered > 15) {
+                    person.setHuntingSkill(Math.min(1.0, person.getHuntingSkill() + 0.01));
+                }
+            } else if (person.getRole() == Person.PersonRole.GATHERER) {
+                int baseFood = 5 + random.nextInt(5);
+                int baseWater = 8 + random.nextInt(8);
+                double skillMultiplier = 1.0 + person.getGatheringSkill();
+                int incentive = tribe.getPolicy().getGatheringIncentive();
+                foodGathered = (int) (baseFood * skillMultiplier * elderGatheringBonus) + incentive;
+                waterGathered = (int) (baseWater * skillMultiplier * elderGatheringBonus) + incentive;
+                if (foodGathered > 7 || waterGathered > 10) {
+                    person.setGatheringSkill(Math.min(1.0, person.getGatheringSkill() + 0.01));
+                }
+            }
+
+            if (person.getFamily() != null) {
+                Resources familyStorage = person.getFamily().getStorage();
+                familyStorage.setFood(familyStorage.getFood() + foodGathered);
+                familyStorage.setWater(familyStorage.getWater() + waterGathered);
+            }
+        }
+
+        policyEngine.executePhase(PolicyPhase.PRODUCTION, context);
+
+        List<Family> shortOfResources = new ArrayList<>();
+        for (Family family : tribe.getFamilies()) {
+            boolean hasSufficient = familyService.consumeFamilyResources(family);
+            if (!hasSufficient) {
+                shortOfResources.add(family);
+            } else {
+                for (Person person : family.getMembers()) {
+                    if (person.getHealth() < 100) {
+                        person.setHealth(Math.min(100, person.getHealth() + 5));
+                    }
+                }
+            }
+        }
+        for (Family family : shortOfResources) {
+            int foodNeeded = family.getMembers().size() * 3;
+            int waterNeeded = family.getMembers().size() * 4;
+            boolean borrowed = familyService.borrowResources(family, tribe, foodNeeded, waterNeeded, lendingRandom);
+            if (!borrowed && tribe.getPolicy().isEnableCentralStorage()) {
+                borrowed = familyService.accessCentralStorage(family, tribe, foodNeeded, waterNeeded);
+            }
+            if (!borrowed) {
+                Person toSuffer = familyService.selectMemberToSuffer(family, tribe.getPolicy(), lendingRandom);
+                if (toSuffer != null) {
+                    toSuffer.setHealth(Math.max(0, toSuffer.getHealth() - 15));
+                }
+            }
+        }
+
+        policyEngine.executePhase(PolicyPhase.RESOURCE_DECAY, context);
+
+        if (tribe.getCurrentTick() % 365 == 0) {
+            for (Person person : tribe.getMembers()) {
+                person.setAge(person.getAge() + 1);
+                if (person.getAge() >= 60 && person.getRole() != Person.PersonRole.ELDER) {
+                    person.setRole(Person.PersonRole.ELDER);
+                } else if (person.getAge() >= 16 && person.getAge() < 60 && person.getRole() == Person.PersonRole.CHILD) {
+                    person.setRole(tickRandom.tribe().nextBoolean() ? Person.PersonRole.HUNTER : Person.PersonRole.GATHERER);
+                    if (person.getRole() == Person.PersonRole.HUNTER) {
+                        person.setHuntingSkill(0.5);
+                    } else {
+                        person.setGatheringSkill(0.5);
+                    }
+                }
+            }
+        }
+
+        int youngAdults = (int) countByAgeGroup(tribe, Person.AgeGroup.YOUNG_ADULT);
+        int adults = (int) countByAgeGroup(tribe, Person.AgeGroup.ADULT);
+        int elders = (int) countByAgeGroup(tribe, Person.AgeGroup.ELDER);
+        int progressGenerated = (youngAdults * 2) + (adults * 1);
+        int netDecay = Math.max(0, 30 - elders * 10);
+        tribe.setProgressPoints(Math.max(0, tribe.getProgressPoints() + progressGenerated - netDecay));
+
+        tribe.getMembers().removeIf(person -> person.getHealth() <= 0);
+        for (Family family : tribe.getFamilies()) {
+            family.getMembers().removeIf(person -> person.getHealth() <= 0);
+        }
+
+        tribe.getResources().setFood(tribe.getFamilies().stream().mapToInt(f -> f.getStorage().getFood()).sum());
+        tribe.getResources().setWater(tribe.getFamilies().stream().mapToInt(f -> f.getStorage().getWater()).sum());
+    }
+
+    private long countByAgeGroup(Tribe tribe, Person.AgeGroup ageGroup) {
+        return tribe.getMembers().stream()
+            .filter(person -> person.getAgeGroup() == ageGroup)
+            .count();
+    }
+
+    private void assertSameState(Tribe expected, Tribe actual) {
+        long tick = expected.getCurrentTick();
+        assertEquals(tick, actual.getCurrentTick());
+        assertEquals(expected.getBondLevel(), actual.getBondLevel(), "bond level at tick " + tick);
+        assertEquals(expected.getProgressPoints(), actual.getProgressPoints(), "progress at tick " + tick);
+        assertEquals(expected.getResources().getFood(), actual.getResources().getFood(), "food at tick " + tick);
+        assertEquals(expected.getResources().getWater(), actual.getResources().getWater(), "water at tick " + tick);
+        assertEquals(expected.getCentralStorage().getFood(), actual.getCentralStorage().getFood());
+        assertEquals(expected.getCentralStorage().getWater(), actual.getCentralStorage().getWater());
+
+        List<Person> expectedMembers = expected.getMembers();
+        List<Person> actualMembers = actual.getMembers();
+        assertEquals(expectedMembers.size(), actualMembers.size(), "population at tick " + tick);
+        for (int i = 0; i < expectedMembers.size(); i++) {
+            Person e = expectedMembers.get(i);
+            Person a = actualMembers.get(i);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getRole(), a.getRole(), e.getName() + " role at tick " + tick);
+            assertEquals(e.getAge(), a.getAge(), e.getName() + " age at tick " + tick);
+            assertEquals(e.getHealth(), a.getHealth(), e.getName() + " health at tick " + tick);
+            assertEquals(e.getHuntingSkill(), a.getHuntingSkill(), 0.0);
+            assertEquals(e.getGatheringSkill(), a.getGatheringSkill(), 0.0);
+        }
+
+        for (int f = 0; f < expected.getFamilies().size(); f++) {
+            Family e = expected.getFamilies().get(f);
+            Family a = actual.getFamilies().get(f);
+            assertEquals(e.getStorage().getFood(), a.getStorage().getFood(), e.getName() + " food at tick " + tick);
+            assertEquals(e.getStorage().getWater(), a.getStorage().getWater(), e.getName() + " water at tick " + tick);
+            assertEquals(e.getMembers().size(), a.getMembers().size());
+        }
+    }
+}
@@ -1,7 +1,10 @@
 import React, { useState, useEffect, useCallback } from 'react';
-import { getTribeState, getTribes, updateTribePolicy } from '../services/api';
+import { getTribeState, getTribeSummaries, subscribeToTribeEvents, updateTribePolicy } from '../services/api';
 import './TribePolicyManagement.css';
 
+// Largest page the tribe listing serves
+const TRIBE_PICKER_LIMIT = 500;
+
 const TribePolicyManagement = () => {
   const [tribes, setTribes] = useState([]);
   const [selectedTribeId, setSelectedTribeId] = useState(null);
@@ -15,7 +18,7 @@ const TribePolicyManagement = () => {
   useEffect(() => {
     const loadTribes = async () => {
       try {
-        const tribesData = await getTribes();
+        const { tribes: tribesData } = await getTribeSummaries({ limit: TRIBE_PICKER_LIMIT });
         setTribes(tribesData);
         // Auto-select first tribe if available
         if (tribesData.length > 0) {
@@ -61,6 +64,33 @@ const TribePolicyManagement = () => {
     }
   }, [selectedTribeId, loadTribeState]);
 
+  // Show policy changes made elsewhere without discarding edits in the form
+  useEffect(() => {
+    if (!selectedTribeId) {
+      return undefined;
+    }
+    const unsubscribe = subscribeToTribeEvents(selectedTribeId, {
+      onDelta: (delta) => {
+        if (delta.policy) {
+          setCurrentPolicy(delta.policy);
+        }
+      },
+      onResync: async () => {
+        try {
+          const state = await getTribeState(selectedTribeId);
+          setCurrentPolicy(state.policy);
+        } catch (err) {
+          setError('Failed to load tribe policy');
+        }
+      },
+    });
+    return () => {
+      if (unsubscribe) {
+        unsubscribe();
+      }
+    };
+  }, [selectedTribeId]);
+
   const handleTribeChange = (e) => {
     setSelectedTribeId(Number(e.target.value));
   };
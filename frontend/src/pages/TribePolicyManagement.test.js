@@ -32,7 +32,7 @@ describe('TribePolicyManagement', () => {
   };
 
   beforeEach(() => {
-    api.getTribes.mockResolvedValue(mockTribes);
+    api.getTribeSummaries.mockResolvedValue({ tribes: mockTribes, nextCursor: null });
     api.getTribeState.mockResolvedValue(mockTribeState);
   });
 
@@ -70,7 +70,7 @@ describe('TribePolicyManagement', () => {
   });
 
   test('displays error message when tribes fail to load', async () => {
-    api.getTribes.mockRejectedValue(new Error('Failed to load'));
+    api.getTribeSummaries.mockRejectedValue(new Error('Failed to load'));
     
     render(<TribePolicyManagement />);
     
@@ -80,7 +80,7 @@ describe('TribePolicyManagement', () => {
   });
 
   test('displays no tribes message when no tribes exist', async () => {
-    api.getTribes.mockResolvedValue([]);
+    api.getTribeSummaries.mockResolvedValue({ tribes: [], nextCursor: null });
     
     render(<TribePolicyManagement />);
     
@@ -1,7 +1,10 @@
 import React, { useState, useEffect } from 'react';
-import { getTribeStatistics, getTribes } from '../services/api';
+import { getTribeStatistics, getTribeSummaries, subscribeToTribeEvents } from '../services/api';
 import './TribeStatistics.css';
 
+// Largest page the tribe listing serves
+const TRIBE_PICKER_LIMIT = 500;
+
 const TribeStatistics = () => {
   const [tribes, setTribes] = useState([]);
   const [selectedTribeId, setSelectedTribeId] = useState(null);
@@ -13,7 +16,7 @@ const TribeStatistics = () => {
   useEffect(() => {
     const loadTribes = async () => {
       try {
-        const tribesData = await getTribes();
+        const { tribes: tribesData } = await getTribeSummaries({ limit: TRIBE_PICKER_LIMIT });
         setTribes(tribesData);
         // Auto-select first tribe if available
         if (tribesData.length > 0 && !selectedTribeId) {
@@ -33,6 +36,34 @@ const TribeStatistics = () => {
     }
   }, [selectedTribeId]);
 
+  // Keep statistics up to date with the changes pushed after every tick
+  useEffect(() => {
+    if (!selectedTribeId) {
+      return undefined;
+    }
+    const unsubscribe = subscribeToTribeEvents(selectedTribeId, {
+      onDelta: (delta) => {
+        setStatistics(previous => (
+          previous && previous.tribeId === delta.tribeId && previous.currentTick > delta.tick
+            ? previous
+            : delta.statistics
+        ));
+      },
+      onResync: async () => {
+        try {
+          setStatistics(await getTribeStatistics(selectedTribeId));
+        } catch (err) {
+          setError('Failed to load tribe statistics');
+        }
+      },
+    });
+    return () => {
+      if (unsubscribe) {
+        unsubscribe();
+      }
+    };
+  }, [selectedTribeId]);
+
   const loadStatistics = async (tribeId) => {
     setLoading(true);
     setError(null);
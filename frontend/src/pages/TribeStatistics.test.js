@@ -1,5 +1,5 @@
 import React from 'react';
-import { render, screen, waitFor } from '@testing-library/react';
+import { act, render, screen, waitFor } from '@testing-library/react';
 import '@testing-library/jest-dom';
 import TribeStatistics from './TribeStatistics';
 import * as api from '../services/api';
@@ -15,7 +15,7 @@ describe('TribeStatistics', () => {
 
   test('displays loading state initially', () => {
     // Mock API calls
-    api.getTribes.mockResolvedValue([]);
+    api.getTribeSummaries.mockResolvedValue({ tribes: [], nextCursor: null });
     api.getTribeStatistics.mockResolvedValue(null);
 
     render(<TribeStatistics />);
@@ -24,7 +24,7 @@ describe('TribeStatistics', () => {
 
   test('displays error when backend is not available', async () => {
     // Mock API to fail
-    api.getTribes.mockRejectedValue(new Error('Connection failed'));
+    api.getTribeSummaries.mockRejectedValue(new Error('Connection failed'));
 
     render(<TribeStatistics />);
 
@@ -69,7 +69,7 @@ describe('TribeStatistics', () => {
       }
     };
 
-    api.getTribes.mockResolvedValue(mockTribes);
+    api.getTribeSummaries.mockResolvedValue({ tribes: mockTribes, nextCursor: null });
     api.getTribeStatistics.mockResolvedValue(mockStatistics);
 
     render(<TribeStatistics />);
@@ -108,7 +108,7 @@ describe('TribeStatistics', () => {
       policySummary: { foodTaxRate: 10, waterTaxRate: 10, huntingIncentive: 5, gatheringIncentive: 5 }
     };
 
-    api.getTribes.mockResolvedValue(mockTribes);
+    api.getTribeSummaries.mockResolvedValue({ tribes: mockTribes, nextCursor: null });
     api.getTribeStatistics.mockResolvedValue(mockStatistics);
 
     render(<TribeStatistics />);
@@ -119,8 +119,49 @@ describe('TribeStatistics', () => {
     });
   });
 
+  test('updates statistics from pushed tick deltas', async () => {
+    const mockTribes = [
+      { tribeId: 1, tribeName: 'Live Tribe', currentTick: 0 }
+    ];
+    const statisticsAt = (tick, population) => ({
+      tribeId: 1,
+      tribeName: 'Live Tribe',
+      currentTick: tick,
+      totalPopulation: population,
+      roleBreakdown: { hunters: 2, gatherers: 2, children: 1, elders: 1 },
+      healthStats: { averageHealth: 90, minHealth: 70, maxHealth: 100, healthyMembers: 6 },
+      resourceStats: { food: 100, water: 100, resourceStatus: 'ABUNDANT' },
+      policySummary: { foodTaxRate: 10, waterTaxRate: 10, huntingIncentive: 5, gatheringIncentive: 5 }
+    });
+
+    let handlers;
+    const unsubscribe = jest.fn();
+    api.getTribeSummaries.mockResolvedValue({ tribes: mockTribes, nextCursor: null });
+    api.getTribeStatistics.mockResolvedValue(statisticsAt(0, 6));
+    api.subscribeToTribeEvents.mockImplementation((tribeId, eventHandlers) => {
+      handlers = eventHandlers;
+      return unsubscribe;
+    });
+
+    const { unmount } = render(<TribeStatistics />);
+
+    await waitFor(() => {
+      expect(screen.getByText('Population Overview')).toBeInTheDocument();
+    });
+    expect(api.subscribeToTribeEvents).toHaveBeenCalledWith(1, expect.any(Object));
+
+    act(() => {
+      handlers.onDelta({ tribeId: 1, fromTick: 0, tick: 1, statistics: statisticsAt(1, 5) });
+    });
+    expect(screen.getByText('Total Population').nextSibling).toHaveTextContent('5');
+    expect(screen.getByText('Current Day').nextSibling).toHaveTextContent('1');
+
+    unmount();
+    expect(unsubscribe).toHaveBeenCalled();
+  });
+
   test('displays no tribes message when no tribes exist', async () => {
-    api.getTribes.mockResolvedValue([]);
+    api.getTribeSummaries.mockResolvedValue({ tribes: [], nextCursor: null });
 
     render(<TribeStatistics />);
 
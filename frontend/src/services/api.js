@@ -69,6 +69,37 @@ export const getTribes = async () => {
   }
 };
 
+/**
+ * Fetch one page of the tribe listing (id, name, day, population, food, water, bond level)
+ * without loading members or families
+ * @param {Object} [options] - Listing options
+ * @param {string} [options.sort] - Property to sort by, e.g. 'tribeName' or 'population' (default 'tribeId')
+ * @param {string} [options.direction] - 'asc' or 'desc' (default 'asc')
+ * @param {string} [options.after] - nextCursor of the previous page
+ * @param {number} [options.limit] - Maximum number of tribes on the page (1 to 500, default 50)
+ * @param {Object} [options.filter] - Filters such as { name: 'north', minPopulation: 10 }
+ * @returns {Promise<Object>} Page with `tribes` and `nextCursor` (null on the last page)
+ */
+export const getTribeSummaries = async ({ sort, direction, after, limit, filter = {} } = {}) => {
+  try {
+    const params = new URLSearchParams();
+    Object.entries({ sort, direction, after, limit, ...filter }).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params.append(key, value);
+      }
+    });
+    const query = params.toString();
+    const response = await fetch(`${API_BASE_URL}/tribes/summaries${query ? `?${query}` : ''}`);
+    if (!response.ok) {
+      throw new Error('Failed to fetch tribe summaries');
+    }
+    return await response.json();
+  } catch (error) {
+    console.error('Error fetching tribe summaries:', error);
+    throw error;
+  }
+};
+
 /**
  * Fetch statistics for a specific tribe
  * @param {number} tribeId - The ID of the tribe
@@ -129,3 +160,37 @@ export const updateTribePolicy = async (tribeId, policyUpdate) => {
     throw error;
   }
 };
+
+/**
+ * Subscribe to the changes of a tribe, pushed by the backend after every tick or policy update
+ * @param {number} tribeId - The ID of the tribe
+ * @param {Object} handlers - Event handlers
+ * @param {Function} handlers.onDelta - Called with each delta: changed persons and families,
+ *   deaths, the new statistics, and the new policy if it changed
+ * @param {Function} handlers.onResync - Called when deltas were missed (the client fell behind
+ *   or reconnected); the full tribe state should be reloaded
+ * @returns {Function} Function that closes the subscription
+ */
+export const subscribeToTribeEvents = (tribeId, { onDelta, onResync }) => {
+  const source = new EventSource(`${API_BASE_URL}/tribes/${tribeId}/events`);
+  let reconnecting = false;
+
+  source.addEventListener('delta', (event) => {
+    onDelta(JSON.parse(event.data));
+  });
+  source.addEventListener('resync', () => {
+    onResync();
+  });
+  source.onerror = () => {
+    // EventSource reconnects by itself; deltas sent in between are lost
+    reconnecting = true;
+  };
+  source.onopen = () => {
+    if (reconnecting) {
+      reconnecting = false;
+      onResync();
+    }
+  };
+
+  return () => source.close();
+};